@@ -3,6 +3,7 @@ package graduation.project.USER.Service;
 
 import graduation.project.model.course.CourseEntity;
 import graduation.project.repository.courseRepo.Course_Repo;
+import graduation.project.USER.events.AcademicRecordChangedEvent;
 import graduation.project.USER.models.records.CompletedCourseGradeDTO;
 import graduation.project.USER.models.records.CompletedCourseGradeRequest;
 import graduation.project.USER.models.records.LoginRequest;
@@ -15,6 +16,7 @@ import graduation.project.USER.repo.UserCompletedCourseRepo;
 import graduation.project.USER.repo.UserRepo;
 import graduation.project.AuthBasics.service.JWTservice;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -38,6 +40,7 @@ public class RegService {
     private final UserCompletedCourseRepo completedCourseRepo; // NEW
     private final AuthenticationManager authenticationManager;
     private final JWTservice jwtService;
+    private final ApplicationEventPublisher eventPublisher; // academic record changes (schedule caches)
 
     /* ================= Self-register / login / self-info ================= */
 
@@ -77,6 +80,7 @@ public class RegService {
             user = userRepo.save(user);
         }
 
+        eventPublisher.publishEvent(new AcademicRecordChangedEvent(user.getEmail()));
         return user;
     }
 
@@ -165,6 +169,7 @@ public class RegService {
         }
 
         userRepo.save(u);
+        eventPublisher.publishEvent(new AcademicRecordChangedEvent(u.getEmail()));
 
         var completedIds = u.getCompletions().stream()
                 .map(c -> c.getCourse().getId())
@@ -216,6 +221,7 @@ public class RegService {
         ucc.setGradePoints(points);
 
         completedCourseRepo.save(ucc);
+        eventPublisher.publishEvent(new AcademicRecordChangedEvent(user.getEmail()));
 
         return new CompletedCourseGradeDTO(
                 course.getId(),
@@ -300,6 +306,7 @@ public class RegService {
         }
 
         userRepo.save(u);
+        eventPublisher.publishEvent(new AcademicRecordChangedEvent(u.getEmail()));
 
         Set<Long> completedIds = (u.getCompletions() == null) ? Set.of()
                 : u.getCompletions().stream().map(cc -> cc.getCourse().getId()).collect(Collectors.toSet());
@@ -317,5 +324,6 @@ public class RegService {
 
         userRepo.deleteByUserId(u.getId());
         userRepo.delete(u);
+        eventPublisher.publishEvent(new AcademicRecordChangedEvent(u.getEmail()));
     }
 }
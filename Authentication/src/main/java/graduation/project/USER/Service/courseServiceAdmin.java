@@ -3,7 +3,9 @@ package graduation.project.USER.Service;
 import graduation.project.model.Items.Prerequisites;
 import graduation.project.model.course.CourseEntity;
 import graduation.project.model.professor.ProfessorEntity;
+import graduation.project.USER.events.CourseChangedEvent;
 import graduation.project.USER.repo.adminCourseRepo;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
@@ -17,9 +19,11 @@ import static org.springframework.http.HttpStatus.NOT_FOUND;
 public class courseServiceAdmin {
 
     private final adminCourseRepo repo;
+    private final ApplicationEventPublisher eventPublisher; // course changes (schedule snapshots and caches)
 
-    public courseServiceAdmin(adminCourseRepo repo) {
+    public courseServiceAdmin(adminCourseRepo repo, ApplicationEventPublisher eventPublisher) {
         this.repo = repo;
+        this.eventPublisher = eventPublisher;
     }
 
     /* =============== Read =============== */
@@ -58,6 +62,7 @@ public class courseServiceAdmin {
                 .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Course not found: " + id));
         mapScalarFields(dto, e);
         var saved = repo.save(e);
+        eventPublisher.publishEvent(new CourseChangedEvent(id));
         return toDto(saved);
     }
 
@@ -69,6 +74,7 @@ public class courseServiceAdmin {
             throw new ResponseStatusException(NOT_FOUND, "Course not found: " + id);
         }
         repo.deleteById(id);
+        eventPublisher.publishEvent(new CourseChangedEvent(id));
     }
 
     /* ============== Helpers ============== */
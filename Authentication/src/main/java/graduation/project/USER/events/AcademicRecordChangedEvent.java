@@ -0,0 +1,8 @@
+package graduation.project.USER.events;
+
+/**
+ * Published by {@code RegService} whenever a user's profile hours, completions or grades were written
+ * (or the user was created/deleted). Consumers holding per-user academic snapshots drop them after commit.
+ */
+public record AcademicRecordChangedEvent(String email) {
+}
@@ -0,0 +1,9 @@
+package graduation.project.USER.events;
+
+/**
+ * Published by {@code courseServiceAdmin} after a course was edited or deleted. Consumers holding snapshots of
+ * course data (code, credit hours, category, difficulty, tags, recommended year/semester) drop or rebuild them
+ * after commit.
+ */
+public record CourseChangedEvent(Long courseId) {
+}
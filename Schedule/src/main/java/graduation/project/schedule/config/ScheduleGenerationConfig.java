@@ -0,0 +1,68 @@
+package graduation.project.schedule.config;
+
+import graduation.project.schedule.service.InMemoryScheduleJobStore;
+import graduation.project.schedule.service.ScheduleJobStore;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+@EnableConfigurationProperties(ScheduleGenerationProperties.class)
+public class ScheduleGenerationConfig {
+
+    /**
+     * Dedicated pool for CPU-bound search work (kept off the common pool used by parallel streams elsewhere).
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool scheduleSearchPool(ScheduleGenerationProperties properties) {
+        int parallelism = properties.beam().parallelism();
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Bounded pool for admin cohort batches (one task per student); never shared with request threads.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService scheduleBatchExecutor(ScheduleGenerationProperties properties) {
+        AtomicInteger seq = new AtomicInteger();
+        return Executors.newFixedThreadPool(properties.batch().effectiveParallelism(), r -> {
+            Thread t = new Thread(r, "schedule-batch-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Pool of asynchronous generation jobs: fixed workers + a bounded queue; a full queue rejects (no caller-runs,
+     * so a burst never lands back on servlet threads).
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService scheduleJobExecutor(ScheduleGenerationProperties properties) {
+        ScheduleGenerationProperties.Jobs cfg = properties.jobs();
+        AtomicInteger seq = new AtomicInteger();
+        return new ThreadPoolExecutor(cfg.parallelism(), cfg.parallelism(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(cfg.queueCapacity()), r -> {
+            Thread t = new Thread(r, "schedule-job-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Default job store (in memory, this instance only). A replacement is declared as a @Primary ScheduleJobStore bean:
+     * this is a scanned @Configuration, not an auto-configuration, so a missing-bean condition here would depend on
+     * bean registration order.
+     */
+    @Bean
+    public ScheduleJobStore scheduleJobStore(ScheduleGenerationProperties properties) {
+        return new InMemoryScheduleJobStore(properties.jobs().retention(), properties.jobs().maxRetained());
+    }
+}
@@ -0,0 +1,171 @@
+package graduation.project.schedule.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Tuning knobs of the schedule generator (prefix {@code schedule.generation}).
+ * Defaults reproduce the original hard-coded behaviour.
+ */
+@ConfigurationProperties(prefix = "schedule.generation")
+public record ScheduleGenerationProperties(
+        @DefaultValue Beam beam,
+        @DefaultValue Optimal optimal,
+        @DefaultValue TopK topK,
+        @DefaultValue ResultCache resultCache,
+        @DefaultValue Batch batch,
+        @DefaultValue Plan plan,
+        @DefaultValue Deadline deadline,
+        @DefaultValue Jobs jobs
+) {
+
+    /**
+     * Beam-search fallback.
+     * - width / offeringsPerCourse: states kept per level / sections tried per course
+     * - parallel: expand each level on the shared search pool (same output as sequential)
+     * - parallelism: pool size (0 = available processors)
+     * - parallelThreshold: levels with fewer states than this stay on the request thread
+     */
+    public record Beam(
+            @DefaultValue("12") int width,
+            @DefaultValue("2") int offeringsPerCourse,
+            @DefaultValue("false") boolean parallel,
+            @DefaultValue("0") int parallelism,
+            @DefaultValue("8") int parallelThreshold
+    ) {
+        public Beam {
+            if (width < 1) throw new IllegalArgumentException("schedule.generation.beam.width must be >= 1");
+            if (offeringsPerCourse < 1) throw new IllegalArgumentException("schedule.generation.beam.offerings-per-course must be >= 1");
+        }
+    }
+
+    /**
+     * OPTIMAL mode (branch-and-bound). Whichever budget runs out first stops the search;
+     * the best schedule found so far is returned.
+     */
+    public record Optimal(
+            @DefaultValue("1500") long timeBudgetMs,
+            @DefaultValue("2000000") long maxNodes
+    ) {
+    }
+
+    /**
+     * Top-K mode (request topK > 1): ranked distinct schedules from one widened beam pass.
+     * - maxResults: upper bound for the requested topK
+     * - minDifferentSections: every pair of results differs in at least this many sections
+     * - beamWidthPerResult: the pass keeps max(beam.width, topK * beamWidthPerResult) states per level
+     */
+    public record TopK(
+            @DefaultValue("5") int maxResults,
+            @DefaultValue("2") int minDifferentSections,
+            @DefaultValue("8") int beamWidthPerResult
+    ) {
+        public TopK {
+            if (maxResults < 1) throw new IllegalArgumentException("schedule.generation.top-k.max-results must be >= 1");
+            if (minDifferentSections < 1) throw new IllegalArgumentException("schedule.generation.top-k.min-different-sections must be >= 1");
+            if (beamWidthPerResult < 1) throw new IllegalArgumentException("schedule.generation.top-k.beam-width-per-result must be >= 1");
+        }
+    }
+
+    /**
+     * Result cache of the user endpoint (LRU bounded by maxEntries, entries expire after ttl).
+     * - coalesce: concurrent identical requests share one in-flight generation (also while the cache is disabled)
+     * - coalesceWait: how long a duplicate waits for it before generating on its own
+     */
+    public record ResultCache(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("5000") int maxEntries,
+            @DefaultValue("10m") Duration ttl,
+            @DefaultValue("true") boolean coalesce,
+            @DefaultValue("15s") Duration coalesceWait
+    ) {
+        public ResultCache {
+            if (maxEntries < 1) throw new IllegalArgumentException("schedule.generation.result-cache.max-entries must be >= 1");
+            if (ttl == null || ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("schedule.generation.result-cache.ttl must be positive");
+            if (coalesceWait == null || coalesceWait.isNegative() || coalesceWait.isZero()) throw new IllegalArgumentException("schedule.generation.result-cache.coalesce-wait must be positive");
+        }
+    }
+
+    /**
+     * Admin cohort batch generation.
+     * - parallelism: batch pool size (0 = available processors)
+     * - pageSize: students read per keyset page
+     * - maxInFlight: generated-but-unwritten results at most (0 = 2 * parallelism); bounds memory per batch
+     */
+    public record Batch(
+            @DefaultValue("0") int parallelism,
+            @DefaultValue("200") int pageSize,
+            @DefaultValue("0") int maxInFlight
+    ) {
+        public Batch {
+            if (pageSize < 1) throw new IllegalArgumentException("schedule.generation.batch.page-size must be >= 1");
+        }
+
+        public int effectiveParallelism() {
+            return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        }
+
+        public int effectiveMaxInFlight() {
+            return maxInFlight > 0 ? maxInFlight : 2 * effectiveParallelism();
+        }
+    }
+
+    /**
+     * Multi-semester graduation planner.
+     * - defaultTerms / maxTerms: horizon when the request gives none / upper bound for the requested one
+     * - timeBudgetMs / maxNodes: search budget; whichever runs out first returns the best plan found so far
+     */
+    public record Plan(
+            @DefaultValue("12") int defaultTerms,
+            @DefaultValue("24") int maxTerms,
+            @DefaultValue("1000") long timeBudgetMs,
+            @DefaultValue("200000") long maxNodes
+    ) {
+        public Plan {
+            if (maxTerms < 1) throw new IllegalArgumentException("schedule.generation.plan.max-terms must be >= 1");
+            if (defaultTerms < 1 || defaultTerms > maxTerms) throw new IllegalArgumentException("schedule.generation.plan.default-terms must be in 1..max-terms");
+        }
+    }
+
+    /**
+     * Anytime generation: latency budget of one request.
+     * - defaultMs: used when the request gives no deadlineMs (0 = no deadline). On by default: the greedy schedule is
+     *   always there to fall back on, so an unbounded search only costs latency. OPTIMAL requests without a deadline
+     *   get max(defaultMs, optimal.timeBudgetMs) instead, still capped by maxMs
+     * - maxMs: upper bound for the requested one
+     * Past the deadline the searches after the greedy phases return their best schedule so far (truncated=true).
+     */
+    public record Deadline(
+            @DefaultValue("400") long defaultMs,
+            @DefaultValue("10000") long maxMs
+    ) {
+        public Deadline {
+            if (maxMs < 1) throw new IllegalArgumentException("schedule.generation.deadline.max-ms must be >= 1");
+            if (defaultMs < 0 || defaultMs > maxMs) throw new IllegalArgumentException("schedule.generation.deadline.default-ms must be in 0..max-ms");
+        }
+    }
+
+    /**
+     * Asynchronous generation jobs (/api/schedule/jobs).
+     * - parallelism / queueCapacity: job workers / jobs waiting for one; a full queue rejects new jobs (429)
+     * - retention / maxRetained: finished jobs stay readable this long, at most this many (in-memory store)
+     * - sseTimeout: lifetime of one Server-Sent Events subscription
+     */
+    public record Jobs(
+            @DefaultValue("2") int parallelism,
+            @DefaultValue("32") int queueCapacity,
+            @DefaultValue("15m") Duration retention,
+            @DefaultValue("10000") int maxRetained,
+            @DefaultValue("2m") Duration sseTimeout
+    ) {
+        public Jobs {
+            if (parallelism < 1) throw new IllegalArgumentException("schedule.generation.jobs.parallelism must be >= 1");
+            if (queueCapacity < 1) throw new IllegalArgumentException("schedule.generation.jobs.queue-capacity must be >= 1");
+            if (retention == null || retention.isNegative() || retention.isZero()) throw new IllegalArgumentException("schedule.generation.jobs.retention must be positive");
+            if (maxRetained < 1) throw new IllegalArgumentException("schedule.generation.jobs.max-retained must be >= 1");
+            if (sseTimeout == null || sseTimeout.isNegative() || sseTimeout.isZero()) throw new IllegalArgumentException("schedule.generation.jobs.sse-timeout must be positive");
+        }
+    }
+}
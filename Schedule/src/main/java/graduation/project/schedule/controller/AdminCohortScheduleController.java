@@ -0,0 +1,44 @@
+package graduation.project.schedule.controller;
+
+import graduation.project.schedule.dto.CohortAllocationResponse;
+import graduation.project.schedule.dto.CohortGenerateRequest;
+import graduation.project.schedule.service.CohortScheduleBatchService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/schedule/admin/cohort")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminCohortScheduleController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final CohortScheduleBatchService batchService;
+
+    /**
+     * Generates a schedule for every student of the cohort and streams one JSON object per line
+     * as each student finishes (completion order, not id order).
+     * Written on the request thread, so long batches are not cut by the async request timeout.
+     */
+    @PostMapping(value = "/generate", produces = NDJSON)
+    public void generate(@Valid @RequestBody CohortGenerateRequest req, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        batchService.streamCohort(req, response.getOutputStream());
+    }
+
+    /**
+     * Generates every student's schedule like /generate, then hands out sections by seat capacity
+     * (first choice while seats last, else the next alternative) and reports the sections that fill first.
+     */
+    @PostMapping("/allocate")
+    public CohortAllocationResponse allocate(@Valid @RequestBody CohortGenerateRequest req) throws IOException {
+        return batchService.allocateCohort(req);
+    }
+}
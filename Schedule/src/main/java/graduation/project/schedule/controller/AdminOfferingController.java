@@ -2,13 +2,18 @@ package graduation.project.schedule.controller;
 
 import graduation.project.schedule.domain.enums.Semester;
 import graduation.project.schedule.dto.AdminOfferingUpsertRequest;
+import graduation.project.schedule.dto.OfferingImportResponse;
 import graduation.project.schedule.dto.OfferingResponse;
 import graduation.project.schedule.service.OfferingAdminService;
+import graduation.project.schedule.service.OfferingImportService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -18,6 +23,7 @@ import java.util.List;
 public class AdminOfferingController {
 
     private final OfferingAdminService offeringAdminService;
+    private final OfferingImportService offeringImportService;
 
     @PostMapping
     public OfferingResponse create(@Valid @RequestBody AdminOfferingUpsertRequest req) {
@@ -38,4 +44,15 @@ public class AdminOfferingController {
     public List<OfferingResponse> list(@RequestParam Semester semester) {
         return offeringAdminService.listBySemester(semester);
     }
+
+    /**
+     * Bulk create/update of offerings from a CSV (with header) or NDJSON body, streamed from the request.
+     * Lines without a semester use the {@code semester} parameter. Bad lines are skipped and reported by line number.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public OfferingImportResponse importOfferings(@RequestParam(required = false) Semester semester,
+                                                  HttpServletRequest request) throws IOException {
+        return offeringImportService.importOfferings(request.getInputStream(),
+                MediaType.parseMediaType(request.getContentType()), semester);
+    }
 }
@@ -0,0 +1,26 @@
+package graduation.project.schedule.controller;
+
+import graduation.project.schedule.dto.ScheduleResultCacheStats;
+import graduation.project.schedule.service.ScheduleResultCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/schedule/admin/result-cache")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminScheduleCacheController {
+
+    private final ScheduleResultCache resultCache;
+
+    @GetMapping("/stats")
+    public ScheduleResultCacheStats stats() {
+        return resultCache.stats();
+    }
+
+    @DeleteMapping
+    public void clear() {
+        resultCache.clear();
+    }
+}
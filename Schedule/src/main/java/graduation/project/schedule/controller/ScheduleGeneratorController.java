@@ -2,7 +2,10 @@ package graduation.project.schedule.controller;
 
 import graduation.project.schedule.dto.GenerateScheduleRequest;
 import graduation.project.schedule.dto.GeneratedScheduleResponse;
+import graduation.project.schedule.dto.GraduationPlanRequest;
+import graduation.project.schedule.dto.GraduationPlanResponse;
 import graduation.project.schedule.dto.UserGeneratedScheduleResponse;
+import graduation.project.schedule.service.GraduationPlanService;
 import graduation.project.schedule.service.ScheduleGeneratorService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +19,7 @@ import org.springframework.web.bind.annotation.*;
 public class ScheduleGeneratorController {
 
     private final ScheduleGeneratorService generatorService;
+    private final GraduationPlanService graduationPlanService;
 
     /**
      * USER endpoint (public):
@@ -37,4 +41,12 @@ public class ScheduleGeneratorController {
     public GeneratedScheduleResponse generateDebug(@Valid @RequestBody GenerateScheduleRequest req) {
         return generatorService.generate(req);
     }
+
+    /**
+     * USER endpoint: term-by-term course plan from the current transcript to graduation (no sections).
+     */
+    @PostMapping("/plan")
+    public GraduationPlanResponse plan(@Valid @RequestBody GraduationPlanRequest req) {
+        return graduationPlanService.planCurrentUser(req);
+    }
 }
@@ -0,0 +1,69 @@
+package graduation.project.schedule.controller;
+
+import graduation.project.schedule.dto.GenerateScheduleRequest;
+import graduation.project.schedule.dto.GraduationPlanRequest;
+import graduation.project.schedule.dto.ScheduleJobResponse;
+import graduation.project.schedule.service.ScheduleJobService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Asynchronous variants of the generator endpoints, for runs that should not hold a servlet thread
+ * (explain, wide beams, OPTIMAL mode, graduation plans).
+ * Submitting answers 202 with the job id right away (429 when the job queue is full);
+ * the result is read by polling GET /{jobId} or from the Server-Sent Events stream GET /{jobId}/events.
+ */
+@RestController
+@RequestMapping("/api/schedule/jobs")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+public class ScheduleJobController {
+
+    private final ScheduleJobService jobService;
+
+    /**
+     * Job of /api/schedule/generate (slim response).
+     */
+    @PostMapping("/generate")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ScheduleJobResponse generate(@Valid @RequestBody GenerateScheduleRequest req) {
+        return jobService.submitGenerate(req);
+    }
+
+    /**
+     * Job of /api/schedule/generate/debug (admin only, full payload, respects req.explain()).
+     */
+    @PostMapping("/generate/debug")
+    @PreAuthorize("hasRole('ADMIN')")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ScheduleJobResponse generateDebug(@Valid @RequestBody GenerateScheduleRequest req) {
+        return jobService.submitGenerateDebug(req);
+    }
+
+    /**
+     * Job of /api/schedule/plan.
+     */
+    @PostMapping("/plan")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ScheduleJobResponse plan(@Valid @RequestBody GraduationPlanRequest req) {
+        return jobService.submitPlan(req);
+    }
+
+    @GetMapping("/{jobId}")
+    public ScheduleJobResponse get(@PathVariable String jobId) {
+        return jobService.get(jobId);
+    }
+
+    /**
+     * "job" events carrying the job state: the current one, then every change; closed once the job finished.
+     */
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@PathVariable String jobId) {
+        return jobService.subscribe(jobId);
+    }
+}
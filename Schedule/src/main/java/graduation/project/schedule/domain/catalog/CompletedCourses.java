@@ -0,0 +1,25 @@
+package graduation.project.schedule.domain.catalog;
+
+import graduation.project.model.course.CourseEntity;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * A student's completed courses compiled against one {@link PrerequisiteGraph}.
+ * Built once per request; {@link #satisfies(CourseEntity)} is a subset test on the bitset.
+ */
+public record CompletedCourses(PrerequisiteGraph graph, Set<String> codes, BitSet bits) {
+
+    public boolean satisfies(CourseEntity course) {
+        return graph.satisfied(course, this);
+    }
+
+    /**
+     * These courses plus {@code courses} (e.g. planned for an earlier term).
+     */
+    public CompletedCourses plus(Collection<CourseEntity> courses) {
+        return graph.plus(this, courses);
+    }
+}
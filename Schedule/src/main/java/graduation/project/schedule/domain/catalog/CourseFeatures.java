@@ -0,0 +1,183 @@
+package graduation.project.schedule.domain.catalog;
+
+import graduation.project.model.course.CourseEntity;
+import graduation.project.schedule.domain.enums.DifficultyBucket;
+
+import java.util.*;
+
+/**
+ * Compiled per-course features of a catalog snapshot, so the generator's loops never re-parse course strings.
+ * - Tags are parsed once (CSV, quote-safe, lowercase) and interned to dense int ids; a course's tags are a bitset
+ * - Difficulty becomes a {@link DifficultyBucket}, the category an elective flag
+ * - Credit hours and recommended year/semester are kept as primitives
+ * A request's preferred tags compile to a bitset with {@link #tagIds}, so tag matching is a single intersects().
+ * Lives and dies with its snapshot: a course edit rebuilds the catalogs, and with them these features.
+ */
+public final class CourseFeatures {
+
+    private final Map<String, Integer> idsByTag;
+    private final Map<Long, Course> byCourseId;
+
+    private CourseFeatures(Map<String, Integer> idsByTag, Map<Long, Course> byCourseId) {
+        this.idsByTag = idsByTag;
+        this.byCourseId = byCourseId;
+    }
+
+    /**
+     * Courses are expected in a stable order (the catalog passes them by ascending id) so tag ids are deterministic.
+     */
+    public static CourseFeatures compile(Collection<CourseEntity> courses) {
+        Map<String, Integer> ids = new HashMap<>();
+        for (CourseEntity c : courses) {
+            if (c == null) continue;
+            for (String tag : parseTags(c.getTags())) ids.putIfAbsent(tag, ids.size());
+        }
+
+        Map<Long, Course> byId = new HashMap<>();
+        for (CourseEntity c : courses) {
+            if (c == null || c.getId() == null) continue;
+            byId.put(c.getId(), Course.of(c, ids));
+        }
+        return new CourseFeatures(Map.copyOf(ids), Map.copyOf(byId));
+    }
+
+    /**
+     * Features of a course; one outside the snapshot is compiled on the fly (its unknown tags get no id).
+     */
+    public Course of(CourseEntity c) {
+        Course f = c.getId() == null ? null : byCourseId.get(c.getId());
+        return f != null ? f : Course.of(c, idsByTag);
+    }
+
+    /**
+     * Ids of the (already normalized) tags this snapshot knows; unknown tags can never match a course.
+     */
+    public BitSet tagIds(Collection<String> normalizedTags) {
+        BitSet bits = new BitSet();
+        for (String tag : normalizedTags) {
+            Integer id = idsByTag.get(tag);
+            if (id != null) bits.set(id);
+        }
+        return bits;
+    }
+
+    /**
+     * Category rule: "major elective" etc. (values seen: "major compulsory", "major elective", "college requirement").
+     */
+    public static boolean isElective(CourseEntity c) {
+        String cat = (c == null ? null : c.getCategory());
+        if (cat == null) return false;
+        return cat.trim().toLowerCase().contains("elective");
+    }
+
+    /**
+     * Distinct normalized tags of a CSV tag string (empty if none).
+     */
+    public static Set<String> parseTags(String csv) {
+        if (csv == null || csv.isBlank()) return Set.of();
+        Set<String> tags = new LinkedHashSet<>();
+        for (String t : csv.split(",")) {
+            String n = normalizeTag(t);
+            if (n != null) tags.add(n);
+        }
+        return tags;
+    }
+
+    /**
+     * Lowercase, trimmed, wrapping quotes removed; null if nothing is left.
+     */
+    public static String normalizeTag(String t) {
+        if (t == null) return null;
+        String s = t.trim().toLowerCase();
+        if (s.isEmpty()) return null;
+
+        s = stripWrappingQuotes(s).trim();
+        if (s.isEmpty()) return null;
+
+        while (s.startsWith("\"") || s.startsWith("'")) s = s.substring(1).trim();
+        while (s.endsWith("\"") || s.endsWith("'")) s = s.substring(0, s.length() - 1).trim();
+
+        return s.isEmpty() ? null : s;
+    }
+
+    private static String stripWrappingQuotes(String s) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+
+            if (s.length() >= 2) {
+                char first = s.charAt(0);
+                char last = s.charAt(s.length() - 1);
+                if ((first == '"' && last == '"') || (first == '\'' && last == '\'')) {
+                    s = s.substring(1, s.length() - 1).trim();
+                    changed = true;
+                }
+            }
+        }
+        return s;
+    }
+
+    /**
+     * One course's compiled features (immutable; the tag bitset is never exposed).
+     */
+    public static final class Course {
+        private final BitSet tags;
+        private final DifficultyBucket difficulty;
+        private final boolean elective;
+        private final int creditHours;
+        private final int recommendedYear;
+        private final int recommendedSemester;
+
+        private Course(BitSet tags, DifficultyBucket difficulty, boolean elective,
+                       int creditHours, int recommendedYear, int recommendedSemester) {
+            this.tags = tags;
+            this.difficulty = difficulty;
+            this.elective = elective;
+            this.creditHours = creditHours;
+            this.recommendedYear = recommendedYear;
+            this.recommendedSemester = recommendedSemester;
+        }
+
+        private static Course of(CourseEntity c, Map<String, Integer> idsByTag) {
+            BitSet tags = new BitSet();
+            for (String tag : parseTags(c.getTags())) {
+                Integer id = idsByTag.get(tag);
+                if (id != null) tags.set(id);
+            }
+            return new Course(tags, DifficultyBucket.of(c.getDifficulty()), isElective(c),
+                    c.getCreditHours(), c.getRecommendedYear(), c.getRecommendedSemester());
+        }
+
+        public boolean hasAnyTag(BitSet tagIds) {
+            return tags.intersects(tagIds);
+        }
+
+        public int tagHits(BitSet tagIds) {
+            int hits = 0;
+            for (int i = tagIds.nextSetBit(0); i >= 0; i = tagIds.nextSetBit(i + 1)) {
+                if (tags.get(i)) hits++;
+            }
+            return hits;
+        }
+
+        public DifficultyBucket difficulty() {
+            return difficulty;
+        }
+
+        public boolean elective() {
+            return elective;
+        }
+
+        public int creditHours() {
+            return creditHours;
+        }
+
+        public int recommendedYear() {
+            return recommendedYear;
+        }
+
+        public int recommendedSemester() {
+            return recommendedSemester;
+        }
+    }
+}
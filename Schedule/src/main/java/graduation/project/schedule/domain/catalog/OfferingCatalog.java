@@ -0,0 +1,262 @@
+package graduation.project.schedule.domain.catalog;
+
+import graduation.project.model.course.CourseEntity;
+import graduation.project.schedule.domain.enums.Semester;
+import graduation.project.schedule.entity.PreferredScheduleTemplateEntity;
+import graduation.project.schedule.entity.PreferredTemplateItemEntity;
+import graduation.project.schedule.entity.TermCourseOfferingEntity;
+import graduation.project.schedule.util.TimeRanges;
+import graduation.project.schedule.util.WeeklyMask;
+
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Immutable, versioned snapshot of one semester's offerings + preferred templates.
+ * - Offerings are grouped by course id (ascending) and every group is sorted deterministically
+ * - Courses are attached (prerequisites initialized while building, so no lazy loading afterwards)
+ * - Every offering gets a dense index (grouped order) and a precomputed weekly occupancy mask
+ * - Prerequisites are compiled once into a {@link PrerequisiteGraph}, course tags/difficulty/category into
+ *   {@link CourseFeatures}
+ * - Pairwise conflicts are precomputed: one BitSet row per offering index marking every section it clashes with
+ * - Shared by all generation requests; replaced as a whole when admins edit offerings/templates
+ */
+public final class OfferingCatalog {
+
+    private final Semester semester;
+    private final long version;
+
+    private final Map<Long, List<TermCourseOfferingEntity>> offeringsByCourseId;
+    private final Map<Long, CourseEntity> coursesById;
+    private final Map<Integer, List<Long>> templateCourseIdsByYear;
+    private final PrerequisiteGraph prerequisites;
+    private final CourseFeatures features;
+
+    private final List<TermCourseOfferingEntity> offerings;
+    private final Map<Long, Integer> indexByOfferingId;
+    private final WeeklyMask[] masks;
+    private final BitSet[] conflicts;
+
+    private OfferingCatalog(Semester semester,
+                            long version,
+                            Map<Long, List<TermCourseOfferingEntity>> offeringsByCourseId,
+                            Map<Long, CourseEntity> coursesById,
+                            Map<Integer, List<Long>> templateCourseIdsByYear,
+                            PrerequisiteGraph prerequisites,
+                            CourseFeatures features,
+                            List<TermCourseOfferingEntity> offerings) {
+        this.semester = semester;
+        this.version = version;
+        this.offeringsByCourseId = offeringsByCourseId;
+        this.coursesById = coursesById;
+        this.templateCourseIdsByYear = templateCourseIdsByYear;
+        this.prerequisites = prerequisites;
+        this.features = features;
+        this.offerings = offerings;
+
+        this.indexByOfferingId = new HashMap<>();
+        this.masks = new WeeklyMask[offerings.size()];
+        for (int i = 0; i < offerings.size(); i++) {
+            TermCourseOfferingEntity o = offerings.get(i);
+            indexByOfferingId.put(o.getId(), i);
+            masks[i] = WeeklyMask.of(o);
+        }
+
+        this.conflicts = new BitSet[offerings.size()];
+        for (int i = 0; i < conflicts.length; i++) conflicts[i] = new BitSet(conflicts.length);
+        for (int i = 0; i < conflicts.length; i++) {
+            conflicts[i].set(i); // a section always overlaps itself (same as the LocalTime check)
+            for (int j = i + 1; j < conflicts.length; j++) {
+                if (clash(i, j)) {
+                    conflicts[i].set(j);
+                    conflicts[j].set(i);
+                }
+            }
+        }
+    }
+
+    // Mask AND decides on its own for slot-aligned sections; rounded ones are confirmed on LocalTime
+    private boolean clash(int i, int j) {
+        if (!masks[i].intersects(masks[j])) return false;
+        if (masks[i].isExact() && masks[j].isExact()) return true;
+
+        TermCourseOfferingEntity a = offerings.get(i);
+        TermCourseOfferingEntity b = offerings.get(j);
+        return TimeRanges.overlaps(a.getStartTime(), a.getEndTime(), b.getStartTime(), b.getEndTime());
+    }
+
+    public static OfferingCatalog build(Semester semester,
+                                        long version,
+                                        List<TermCourseOfferingEntity> offerings,
+                                        List<PreferredScheduleTemplateEntity> templates) {
+        // Group by course id (ascending) so every iteration over the catalog is deterministic
+        TreeMap<Long, List<TermCourseOfferingEntity>> grouped = new TreeMap<>();
+        for (TermCourseOfferingEntity o : offerings) {
+            if (o == null || o.getCourse() == null || o.getCourse().getId() == null) continue;
+            grouped.computeIfAbsent(o.getCourse().getId(), k -> new ArrayList<>()).add(o);
+        }
+
+        Map<Long, List<TermCourseOfferingEntity>> byCourse = new LinkedHashMap<>();
+        Map<Long, CourseEntity> courses = new LinkedHashMap<>();
+        List<TermCourseOfferingEntity> indexed = new ArrayList<>();
+        for (var e : grouped.entrySet()) {
+            List<TermCourseOfferingEntity> list = e.getValue();
+            list.sort(OfferingCatalog::compareOfferings);
+            byCourse.put(e.getKey(), List.copyOf(list));
+            courses.put(e.getKey(), list.getFirst().getCourse());
+            indexed.addAll(list);
+        }
+
+        Map<Integer, List<Long>> templateIds = new HashMap<>();
+        if (templates != null) {
+            for (PreferredScheduleTemplateEntity t : templates) {
+                if (t == null || t.getYearLevel() == null) continue;
+                List<Long> ids = t.getItems().stream()
+                        .sorted(Comparator.comparing(PreferredTemplateItemEntity::getPosition,
+                                Comparator.nullsLast(Integer::compareTo)))
+                        .map(it -> it.getCourse().getId())
+                        .toList();
+                templateIds.put(t.getYearLevel(), ids);
+            }
+        }
+
+        return new OfferingCatalog(
+                semester,
+                version,
+                Collections.unmodifiableMap(byCourse),
+                Collections.unmodifiableMap(courses),
+                Map.copyOf(templateIds),
+                PrerequisiteGraph.compile(courses.values()),
+                CourseFeatures.compile(courses.values()),
+                List.copyOf(indexed)
+        );
+    }
+
+    public Semester semester() {
+        return semester;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public PrerequisiteGraph prerequisites() {
+        return prerequisites;
+    }
+
+    public CourseFeatures features() {
+        return features;
+    }
+
+    public int offeringCount() {
+        return offerings.size();
+    }
+
+    public TermCourseOfferingEntity offering(int index) {
+        return offerings.get(index);
+    }
+
+    /**
+     * Dense index of an offering inside this snapshot, or -1 if it isn't part of it.
+     */
+    public int indexOf(TermCourseOfferingEntity o) {
+        if (o == null || o.getId() == null) return -1;
+        Integer idx = indexByOfferingId.get(o.getId());
+        return idx == null ? -1 : idx;
+    }
+
+    /**
+     * Dense index of an offering id, or -1 if the id is not part of this snapshot.
+     */
+    public int indexOfOfferingId(Long offeringId) {
+        if (offeringId == null) return -1;
+        Integer idx = indexByOfferingId.get(offeringId);
+        return idx == null ? -1 : idx;
+    }
+
+    /**
+     * Precomputed weekly occupancy of an offering (computed on the fly for foreign offerings).
+     */
+    public WeeklyMask mask(TermCourseOfferingEntity o) {
+        int idx = indexOf(o);
+        return idx >= 0 ? masks[idx] : WeeklyMask.of(o);
+    }
+
+    /**
+     * ORs the conflict row of an offering index into {@code target} (the row itself is never exposed).
+     */
+    public void orConflicts(BitSet target, int index) {
+        target.or(conflicts[index]);
+    }
+
+    public boolean conflicts(int a, int b) {
+        return conflicts[a].get(b);
+    }
+
+    /**
+     * Course ids that have at least one offering, ascending.
+     */
+    public Set<Long> courseIds() {
+        return offeringsByCourseId.keySet();
+    }
+
+    public Map<Long, List<TermCourseOfferingEntity>> offeringsByCourseId() {
+        return offeringsByCourseId;
+    }
+
+    /**
+     * Deterministically sorted sections of a course (empty if not offered).
+     */
+    public List<TermCourseOfferingEntity> optionsFor(Long courseId) {
+        if (courseId == null) return List.of();
+        return offeringsByCourseId.getOrDefault(courseId, List.of());
+    }
+
+    /**
+     * Dense index of a course's section by its code (unique per semester and course), or -1.
+     */
+    public int indexOfSection(Long courseId, String sectionCode) {
+        for (TermCourseOfferingEntity o : optionsFor(courseId)) {
+            if (o.getSectionCode().equals(sectionCode)) return indexOf(o);
+        }
+        return -1;
+    }
+
+    public CourseEntity course(Long courseId) {
+        return courseId == null ? null : coursesById.get(courseId);
+    }
+
+    /**
+     * Preferred template course ids (by position) for a year level; empty if no template exists.
+     */
+    public Optional<List<Long>> templateCourseIds(Integer yearLevel) {
+        return Optional.ofNullable(yearLevel == null ? null : templateCourseIdsByYear.get(yearLevel));
+    }
+
+    /**
+     * Course ids listed in any year level's template of this semester, ascending.
+     */
+    public SortedSet<Long> templateCourseIds() {
+        SortedSet<Long> ids = new TreeSet<>();
+        templateCourseIdsByYear.values().forEach(ids::addAll);
+        return ids;
+    }
+
+    // Sort by startTime, then endTime, then sectionCode, then id
+    public static int compareOfferings(TermCourseOfferingEntity a, TermCourseOfferingEntity b) {
+        if (a == b) return 0;
+        if (a == null) return 1;
+        if (b == null) return -1;
+
+        int cmp = Comparator.nullsLast(LocalTime::compareTo).compare(a.getStartTime(), b.getStartTime());
+        if (cmp != 0) return cmp;
+
+        cmp = Comparator.nullsLast(LocalTime::compareTo).compare(a.getEndTime(), b.getEndTime());
+        if (cmp != 0) return cmp;
+
+        cmp = Comparator.nullsLast(String::compareTo).compare(a.getSectionCode(), b.getSectionCode());
+        if (cmp != 0) return cmp;
+
+        return Comparator.nullsLast(Long::compareTo).compare(a.getId(), b.getId());
+    }
+}
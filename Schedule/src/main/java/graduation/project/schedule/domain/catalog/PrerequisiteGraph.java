@@ -0,0 +1,147 @@
+package graduation.project.schedule.domain.catalog;
+
+import graduation.project.model.Items.Prerequisites;
+import graduation.project.model.course.CourseEntity;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Compiled prerequisite graph of a catalog snapshot.
+ * - Course codes are normalized once and interned to dense int ids
+ * - Each course's prerequisites become an "all of" bitset plus optional OR-groups
+ * - A prerequisite code listing alternatives ("1904101 / 1904102" or "1904101|1904102") is an OR-group
+ * - Satisfaction is a subset test against the student's {@link CompletedCourses}
+ */
+public final class PrerequisiteGraph {
+
+    private static final Pattern ALTERNATIVES = Pattern.compile("[/|]");
+
+    private final Map<String, Integer> idsByCode;
+    private final Map<Long, Requirement> requirementsByCourseId;
+
+    private PrerequisiteGraph(Map<String, Integer> idsByCode, Map<Long, Requirement> requirementsByCourseId) {
+        this.idsByCode = idsByCode;
+        this.requirementsByCourseId = requirementsByCourseId;
+    }
+
+    /**
+     * Courses are expected in a stable order (the catalog passes them by ascending id) so ids are deterministic.
+     */
+    public static PrerequisiteGraph compile(Collection<CourseEntity> courses) {
+        Map<String, Integer> ids = new HashMap<>();
+        Map<Long, Requirement> requirements = new HashMap<>();
+
+        for (CourseEntity c : courses) {
+            if (c == null || c.getId() == null) continue;
+
+            String own = normalizeCode(c.getCourseCode());
+            if (own != null) ids.putIfAbsent(own, ids.size());
+
+            BitSet allOf = new BitSet();
+            List<BitSet> anyOf = new ArrayList<>();
+            for (List<String> group : groupsOf(c)) {
+                BitSet bits = new BitSet();
+                for (String code : group) {
+                    bits.set(ids.computeIfAbsent(code, k -> ids.size()));
+                }
+                if (group.size() == 1) allOf.or(bits);
+                else anyOf.add(bits);
+            }
+            requirements.put(c.getId(), new Requirement(allOf, List.copyOf(anyOf)));
+        }
+
+        return new PrerequisiteGraph(Map.copyOf(ids), Map.copyOf(requirements));
+    }
+
+    /**
+     * Compiles a student's completed course codes (raw, as stored) against this graph.
+     */
+    public CompletedCourses completed(Collection<String> rawCodes) {
+        Set<String> codes = new HashSet<>();
+        BitSet bits = new BitSet(idsByCode.size());
+        if (rawCodes != null) {
+            for (String raw : rawCodes) {
+                String code = normalizeCode(raw);
+                if (code == null) continue;
+                codes.add(code);
+                Integer id = idsByCode.get(code);
+                if (id != null) bits.set(id);
+            }
+        }
+        return new CompletedCourses(this, Set.copyOf(codes), bits);
+    }
+
+    /**
+     * {@code completed} plus the codes of {@code courses} (a new instance; {@code completed} is left as is).
+     */
+    public CompletedCourses plus(CompletedCourses completed, Collection<CourseEntity> courses) {
+        Set<String> codes = new HashSet<>(completed.codes());
+        BitSet bits = (BitSet) completed.bits().clone();
+        for (CourseEntity c : courses) {
+            String code = normalizeCode(c.getCourseCode());
+            if (code == null) continue;
+            codes.add(code);
+            Integer id = idsByCode.get(code);
+            if (id != null) bits.set(id);
+        }
+        return new CompletedCourses(this, Set.copyOf(codes), bits);
+    }
+
+    boolean satisfied(CourseEntity course, CompletedCourses completed) {
+        Requirement r = course.getId() == null ? null : requirementsByCourseId.get(course.getId());
+        if (r == null) {
+            // Course outside the snapshot: evaluate the same groups on normalized strings
+            for (List<String> group : groupsOf(course)) {
+                if (group.stream().noneMatch(completed.codes()::contains)) return false;
+            }
+            return true;
+        }
+
+        BitSet done = completed.bits();
+        for (int i = r.allOf().nextSetBit(0); i >= 0; i = r.allOf().nextSetBit(i + 1)) {
+            if (!done.get(i)) return false;
+        }
+        for (BitSet group : r.anyOf()) {
+            if (!group.intersects(done)) return false;
+        }
+        return true;
+    }
+
+    // Trim, drop spaces, uppercase ("cis 101 " -> "CIS101")
+    public static String normalizeCode(String code) {
+        if (code == null) return null;
+        String s = code.trim();
+        if (s.isEmpty()) return null;
+
+        s = s.replace(" ", "");
+        s = s.toUpperCase();
+
+        return s.isEmpty() ? null : s;
+    }
+
+    /**
+     * Normalized prerequisite groups of a course: one per prerequisite entry (blank ones ignored), several codes =
+     * alternatives.
+     */
+    public static List<List<String>> groupsOf(CourseEntity course) {
+        List<Prerequisites> prereqs = course.getPrerequisites();
+        if (prereqs == null || prereqs.isEmpty()) return List.of();
+
+        List<List<String>> groups = new ArrayList<>();
+        for (Prerequisites p : prereqs) {
+            if (p == null || p.getCode() == null) continue;
+
+            List<String> alternatives = new ArrayList<>();
+            for (String part : ALTERNATIVES.split(p.getCode())) {
+                String code = normalizeCode(part);
+                if (code != null && !alternatives.contains(code)) alternatives.add(code);
+            }
+            if (!alternatives.isEmpty()) groups.add(alternatives);
+        }
+        return groups;
+    }
+
+    private record Requirement(BitSet allOf, List<BitSet> anyOf) {
+    }
+}
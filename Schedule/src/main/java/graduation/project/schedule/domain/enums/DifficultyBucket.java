@@ -0,0 +1,17 @@
+package graduation.project.schedule.domain.enums;
+
+/**
+ * Course difficulty as counted by the difficulty quotas: "easy" / "hard" anywhere in the text, MEDIUM otherwise.
+ */
+public enum DifficultyBucket {
+    EASY,
+    MEDIUM,
+    HARD;
+
+    public static DifficultyBucket of(String courseDifficulty) {
+        String d = (courseDifficulty == null ? "" : courseDifficulty.trim().toLowerCase());
+        if (d.contains("easy")) return EASY;
+        if (d.contains("hard")) return HARD;
+        return MEDIUM;
+    }
+}
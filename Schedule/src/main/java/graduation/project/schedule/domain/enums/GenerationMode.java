@@ -0,0 +1,10 @@
+package graduation.project.schedule.domain.enums;
+
+/**
+ * GREEDY: phased greedy selection, beam search only when the semester minimum is missed (default).
+ * OPTIMAL: additionally runs a time-budgeted branch-and-bound search for the best-scoring schedule.
+ */
+public enum GenerationMode {
+    GREEDY,
+    OPTIMAL
+}
@@ -0,0 +1,11 @@
+package graduation.project.schedule.domain.enums;
+
+/**
+ * GENERATE: slim user schedule (same as /generate). GENERATE_DEBUG: full debug payload (admin only).
+ * PLAN: multi-semester graduation plan (same as /plan).
+ */
+public enum ScheduleJobKind {
+    GENERATE,
+    GENERATE_DEBUG,
+    PLAN
+}
@@ -0,0 +1,15 @@
+package graduation.project.schedule.domain.enums;
+
+/**
+ * QUEUED -> RUNNING -> SUCCEEDED | FAILED.
+ */
+public enum ScheduleJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED;
+
+    public boolean finished() {
+        return this == SUCCEEDED || this == FAILED;
+    }
+}
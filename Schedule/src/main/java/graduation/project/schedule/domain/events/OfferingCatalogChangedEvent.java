@@ -0,0 +1,15 @@
+package graduation.project.schedule.domain.events;
+
+import graduation.project.schedule.domain.enums.Semester;
+
+import java.util.Set;
+
+/**
+ * Published by admin services after offerings/templates of these semesters were written.
+ * The catalog snapshot of each semester is rebuilt once the writing transaction commits.
+ */
+public record OfferingCatalogChangedEvent(Set<Semester> semesters) {
+    public OfferingCatalogChangedEvent {
+        semesters = (semesters == null) ? Set.of() : Set.copyOf(semesters);
+    }
+}
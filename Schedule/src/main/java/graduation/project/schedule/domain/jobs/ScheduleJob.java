@@ -0,0 +1,44 @@
+package graduation.project.schedule.domain.jobs;
+
+import graduation.project.schedule.domain.enums.ScheduleJobKind;
+import graduation.project.schedule.domain.enums.ScheduleJobStatus;
+
+import java.time.Instant;
+
+/**
+ * Immutable state of one asynchronous generation job; every transition is a new value saved to the job store.
+ * {@code result} is the response the synchronous endpoint of the same kind returns (set once SUCCEEDED);
+ * {@code error} the failure message (set once FAILED).
+ */
+public record ScheduleJob(
+        String id,
+        ScheduleJobKind kind,
+        String owner,
+        ScheduleJobStatus status,
+        Instant submittedAt,
+        Instant startedAt,
+        Instant finishedAt,
+        Object result,
+        String error
+) {
+
+    public static ScheduleJob queued(String id, ScheduleJobKind kind, String owner, Instant now) {
+        return new ScheduleJob(id, kind, owner, ScheduleJobStatus.QUEUED, now, null, null, null, null);
+    }
+
+    public ScheduleJob running(Instant now) {
+        return new ScheduleJob(id, kind, owner, ScheduleJobStatus.RUNNING, submittedAt, now, null, null, null);
+    }
+
+    public ScheduleJob succeeded(Object result, Instant now) {
+        return new ScheduleJob(id, kind, owner, ScheduleJobStatus.SUCCEEDED, submittedAt, startedAt, now, result, null);
+    }
+
+    public ScheduleJob failed(String error, Instant now) {
+        return new ScheduleJob(id, kind, owner, ScheduleJobStatus.FAILED, submittedAt, startedAt, now, null, error);
+    }
+
+    public boolean finished() {
+        return status.finished();
+    }
+}
@@ -0,0 +1,23 @@
+package graduation.project.schedule.domain.student;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of everything schedule generation reads about a student.
+ * Loaded with one projection query and cached per user; {@code version} changes on every reload.
+ */
+public record AcademicRecord(
+        Long userId,
+        long version,
+        int completedHours,
+        Set<Long> completedCourseIds,
+        List<String> completedCourseCodes,
+        long completedElectiveCount,
+        long completedElectiveHours
+) {
+    public AcademicRecord {
+        completedCourseIds = Set.copyOf(completedCourseIds);
+        completedCourseCodes = List.copyOf(completedCourseCodes);
+    }
+}
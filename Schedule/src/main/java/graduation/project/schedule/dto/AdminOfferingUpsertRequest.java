@@ -2,6 +2,7 @@ package graduation.project.schedule.dto;
 
 import graduation.project.schedule.domain.enums.MeetingPattern;
 import graduation.project.schedule.domain.enums.Semester;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
@@ -13,5 +14,10 @@ public record AdminOfferingUpsertRequest(
         @NotBlank String sectionCode,
         @NotNull MeetingPattern pattern,
         @NotNull LocalTime startTime,
-        @NotNull LocalTime endTime
+        @NotNull LocalTime endTime,
+
+        /**
+         * Seats in the section; null = unlimited.
+         */
+        @Min(1) Integer capacity
 ) {}
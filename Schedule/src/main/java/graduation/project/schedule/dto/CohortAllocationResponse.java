@@ -0,0 +1,21 @@
+package graduation.project.schedule.dto;
+
+import java.util.List;
+
+/**
+ * Admin cohort seat allocation: every student's schedule generated, then sections handed out by capacity.
+ * - seatsRequested: selected courses over all students; firstChoice / movedToAlternative / unassigned split them
+ * - sections: every requested section, the ones that filled first at the top
+ * - students: one line per student (errors included)
+ */
+public record CohortAllocationResponse(
+        int studentCount,
+        int failedStudents,
+        int seatsRequested,
+        int firstChoice,
+        int movedToAlternative,
+        int unassigned,
+        long allocationMillis,
+        List<SectionFillDto> sections,
+        List<StudentAllocationDto> students
+) {}
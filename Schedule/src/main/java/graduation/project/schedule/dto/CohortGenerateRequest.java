@@ -0,0 +1,23 @@
+package graduation.project.schedule.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Admin batch: generate a schedule for every student of a cohort with the same preferences.
+ */
+public record CohortGenerateRequest(
+        @NotNull @Min(1) @Max(4) Integer studyYear,
+
+        /**
+         * Optional major filter (case-insensitive). Null = every major.
+         */
+        String major,
+
+        /**
+         * Shared preferences; explain is ignored (each line carries the slim user response).
+         */
+        @NotNull @Valid GenerateScheduleRequest preferences
+) {}
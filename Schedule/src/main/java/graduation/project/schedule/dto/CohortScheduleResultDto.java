@@ -0,0 +1,11 @@
+package graduation.project.schedule.dto;
+
+/**
+ * One NDJSON line of a cohort batch: either a schedule or the error that prevented it.
+ */
+public record CohortScheduleResultDto(
+        Long userId,
+        String email,
+        UserGeneratedScheduleResponse schedule,
+        String error
+) {}
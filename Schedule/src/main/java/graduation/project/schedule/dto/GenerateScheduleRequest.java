@@ -3,6 +3,7 @@ package graduation.project.schedule.dto;
 
 import graduation.project.schedule.domain.enums.CompactnessPreference;
 import graduation.project.schedule.domain.enums.DifficultyTarget;
+import graduation.project.schedule.domain.enums.GenerationMode;
 import graduation.project.schedule.domain.enums.ScheduleDay;
 import graduation.project.schedule.domain.enums.Semester;
 import jakarta.validation.Valid;
@@ -66,12 +67,43 @@ public record GenerateScheduleRequest(
          * NEW: Explain mode.
          * If true, the response will include structured skip reasons + alternative reasons + (optional) score breakdown.
          */
-        Boolean explain
+        Boolean explain,
+
+        /**
+         * GREEDY (default) or OPTIMAL (branch-and-bound within a server-side time budget).
+         */
+        GenerationMode generationMode,
+
+        /**
+         * Number of ranked, mutually distinct schedules to return in {@code options} (null/1 = just the main schedule).
+         * Clamped to the server-side maximum.
+         */
+        @Min(1) @Max(10) Integer topK,
+
+        /**
+         * Lock and re-solve: offering ids (sections) to keep exactly as they are.
+         * The generator starts from these and only fills the remaining slots.
+         */
+        @Size(max = 6) List<Long> lockedOfferingIds,
+
+        /**
+         * Number of alternative sections to return per selected course (null/1 = just the best one).
+         */
+        @Min(1) @Max(5) Integer alternativesPerCourse,
+
+        /**
+         * Anytime mode: latency budget in milliseconds (null = server default, for OPTIMAL at least its time budget; clamped to the server maximum).
+         * When it runs out, the best schedule found so far is returned with truncated=true.
+         */
+        @Min(1) Integer deadlineMs
 ) {
     public GenerateScheduleRequest {
         if (pinMustTakesFirst == null) pinMustTakesFirst = Boolean.TRUE;
         if (returnAlternatives == null) returnAlternatives = Boolean.TRUE;
         if (avoidLongGaps == null) avoidLongGaps = Boolean.TRUE;
         if (explain == null) explain = Boolean.FALSE;
+        if (generationMode == null) generationMode = GenerationMode.GREEDY;
+        if (topK == null) topK = 1;
+        if (alternativesPerCourse == null) alternativesPerCourse = 1;
     }
 }
@@ -29,5 +29,11 @@ public record GeneratedScheduleResponse(
         // NEW: Explain mode outputs (nullable unless explain=true)
         List<SkipReasonDto> skipReasons,
         List<AlternativeReasonDto> alternativeReasons,
-        List<SelectedScoreDto> selectedScoreBreakdown
+        List<SelectedScoreDto> selectedScoreBreakdown,
+
+        // Top-K mode: ranked distinct schedules, the main schedule first (null unless topK > 1)
+        List<ScheduleOptionDto> options,
+
+        // Anytime mode: the request deadline cut a search short (the schedule is the best one found in time)
+        boolean truncated
 ) {}
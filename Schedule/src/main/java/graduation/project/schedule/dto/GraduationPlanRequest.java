@@ -0,0 +1,32 @@
+package graduation.project.schedule.dto;
+
+import graduation.project.schedule.domain.enums.Semester;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Multi-semester plan from the student's current transcript to graduation.
+ * Planning is per course (which courses in which term); sections of the first term are chosen by /generate.
+ */
+public record GraduationPlanRequest(
+        @NotNull Semester startSemester,
+        @NotNull @Min(1) @Max(4) Integer startYearLevel,
+
+        /**
+         * Courses per FALL/SPRING term and per SUMMER term the plan TRIES to take.
+         * Clamped to the same per-semester ranges as /generate (defaults 5 and 1).
+         */
+        @Min(1) @Max(6) Integer coursesPerSemester,
+        @Min(1) @Max(3) Integer coursesPerSummer,
+
+        /**
+         * false = plan FALL/SPRING only (default true).
+         */
+        Boolean includeSummers,
+
+        /**
+         * Planning horizon in terms (null = server default, clamped to the server maximum).
+         */
+        @Min(1) @Max(24) Integer maxTerms
+) {}
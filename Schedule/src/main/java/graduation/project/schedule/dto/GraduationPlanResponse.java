@@ -0,0 +1,22 @@
+package graduation.project.schedule.dto;
+
+import graduation.project.schedule.domain.enums.Semester;
+
+import java.util.List;
+
+/**
+ * - complete: every required course (and the reachable electives) is planned
+ * - provenMinimal: the search finished inside its budget, so no plan with fewer terms exists (and none with as many
+ *   terms and fewer terms below the semester minimum)
+ */
+public record GraduationPlanResponse(
+        Semester startSemester,
+        Integer startYearLevel,
+        List<PlannedTermDto> terms,
+        int totalCreditHours,
+        int plannedElectives,
+        boolean complete,
+        boolean provenMinimal,
+        List<UnplannedCourseDto> unplanned,
+        List<String> warnings
+) {}
@@ -0,0 +1,9 @@
+package graduation.project.schedule.dto;
+
+/**
+ * One rejected line of an offering import (line = 1-based line number in the uploaded file).
+ */
+public record OfferingImportErrorDto(
+        long line,
+        String error
+) {}
@@ -0,0 +1,17 @@
+package graduation.project.schedule.dto;
+
+import java.util.List;
+
+/**
+ * Result of a bulk offering import.
+ * - rows: offering lines read (header and blank lines excluded); inserted + updated + failed = rows
+ * - errors: failed lines sorted by line number, at most 1000 of them (errorsTruncated when more lines failed)
+ */
+public record OfferingImportResponse(
+        long rows,
+        long inserted,
+        long updated,
+        long failed,
+        List<OfferingImportErrorDto> errors,
+        boolean errorsTruncated
+) {}
@@ -17,5 +17,6 @@ public record OfferingResponse(
         MeetingPattern pattern,
         List<ScheduleDay> days,
         LocalTime startTime,
-        LocalTime endTime
+        LocalTime endTime,
+        Integer capacity
 ) {}
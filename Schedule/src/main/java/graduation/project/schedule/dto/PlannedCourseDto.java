@@ -0,0 +1,9 @@
+package graduation.project.schedule.dto;
+
+public record PlannedCourseDto(
+        Long courseId,
+        String courseCode,
+        String courseName,
+        int creditHours,
+        boolean elective
+) {}
@@ -0,0 +1,18 @@
+package graduation.project.schedule.dto;
+
+import graduation.project.schedule.domain.enums.Semester;
+
+import java.util.List;
+
+/**
+ * One term of a graduation plan. {@code fromTemplates} = the semester has no offerings yet, so availability was
+ * taken from its saved templates.
+ */
+public record PlannedTermDto(
+        Semester semester,
+        Integer yearLevel,
+        boolean fromTemplates,
+        List<PlannedCourseDto> courses,
+        int creditHours,
+        boolean metMinimum
+) {}
@@ -0,0 +1,21 @@
+package graduation.project.schedule.dto;
+
+import graduation.project.schedule.domain.enums.ScheduleJobKind;
+import graduation.project.schedule.domain.enums.ScheduleJobStatus;
+
+import java.time.Instant;
+
+/**
+ * State of an asynchronous generation job (poll / Server-Sent Events payload).
+ * result: the response of the matching synchronous endpoint, once SUCCEEDED; error: the failure message, once FAILED.
+ */
+public record ScheduleJobResponse(
+        String jobId,
+        ScheduleJobKind kind,
+        ScheduleJobStatus status,
+        Instant submittedAt,
+        Instant startedAt,
+        Instant finishedAt,
+        Object result,
+        String error
+) {}
@@ -0,0 +1,16 @@
+package graduation.project.schedule.dto;
+
+import java.util.List;
+
+/**
+ * One of the ranked schedules returned in top-K mode (rank 1 = the main schedule of the response).
+ */
+public record ScheduleOptionDto(
+        int rank,
+        double score,
+        List<SelectedCourseOptionDto> selected,
+        List<DayScheduleDto> weeklyGrid,
+        int achievedCourses,
+        int achievedElectives,
+        boolean metMinimum
+) {}
@@ -0,0 +1,22 @@
+package graduation.project.schedule.dto;
+
+/**
+ * Counters of the schedule result cache (since startup).
+ * bypasses = requests that were not cacheable or arrived while the cache was disabled;
+ * evictions = LRU/TTL removals; invalidations = entries dropped by record/catalog changes or a manual clear;
+ * coalesced = requests answered by an identical in-flight generation instead of running their own (generations saved);
+ * coalesceTimeouts = duplicates that gave up waiting for it and generated on their own.
+ */
+public record ScheduleResultCacheStats(
+        boolean enabled,
+        int size,
+        int maxEntries,
+        long hits,
+        long misses,
+        long bypasses,
+        long evictions,
+        long invalidations,
+        long coalesced,
+        long coalesceTimeouts,
+        double hitRate
+) {}
@@ -0,0 +1,17 @@
+package graduation.project.schedule.dto;
+
+/**
+ * Seat usage of one section after a cohort allocation.
+ * capacity null = unlimited; firstChoiceDemand = students whose generated schedule picked it;
+ * fillOrder = position among the sections that ran out of seats (0 = filled first), null if it never filled.
+ */
+public record SectionFillDto(
+        Long offeringId,
+        Long courseId,
+        String courseCode,
+        String sectionCode,
+        Integer capacity,
+        int firstChoiceDemand,
+        int assigned,
+        Integer fillOrder
+) {}
@@ -1,6 +1,14 @@
 package graduation.project.schedule.dto;
 
+import java.util.List;
+
+/**
+ * A selected course: its primary section and alternatives.
+ * - alternative: the best alternative section, or the primary itself (isAlternativeSameAsPrimary) if there is none
+ * - alternatives: up to alternativesPerCourse alternative sections, best first (empty if there is none)
+ */
 public record SelectedCourseOptionDto(
         ScheduleCourseSlotDto primary,
-        ScheduleCourseSlotDto alternative
+        ScheduleCourseSlotDto alternative,
+        List<ScheduleCourseSlotDto> alternatives
 ) {}
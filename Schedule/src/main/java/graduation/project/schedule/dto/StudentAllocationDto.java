@@ -0,0 +1,16 @@
+package graduation.project.schedule.dto;
+
+import java.util.List;
+
+/**
+ * One student's allocated sections (offering ids), the courses moved off their first-choice section and the
+ * courses left without a seat; error is set (and the lists empty) when no schedule could be generated.
+ */
+public record StudentAllocationDto(
+        Long userId,
+        String email,
+        List<Long> offeringIds,
+        List<Long> movedCourseIds,
+        List<Long> unassignedCourseIds,
+        String error
+) {}
@@ -0,0 +1,11 @@
+package graduation.project.schedule.dto;
+
+/**
+ * A required (non-elective) course the plan could not place, with the reason.
+ */
+public record UnplannedCourseDto(
+        Long courseId,
+        String courseCode,
+        String courseName,
+        String reason
+) {}
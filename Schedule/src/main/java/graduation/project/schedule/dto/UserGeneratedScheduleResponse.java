@@ -24,5 +24,11 @@ public record UserGeneratedScheduleResponse(
         // elective-count summary
         Integer targetElectives,
         Integer achievedElectives,
-        boolean metElectiveTarget
+        boolean metElectiveTarget,
+
+        // Top-K mode (null unless topK > 1)
+        List<ScheduleOptionDto> options,
+
+        // Anytime mode: the request deadline cut a search short (the schedule is the best one found in time)
+        boolean truncated
 ) {}
@@ -2,6 +2,7 @@
 package graduation.project.schedule.dto.explenations;
 
 public enum ExplainPhase {
+    LOCKED,
     MUST_TAKE,
     TEMPLATE,
 
@@ -10,6 +11,7 @@ public enum ExplainPhase {
 
     POOL,
     BEAM,
+    OPTIMAL,
 
     // used by analyzeElectiveFailures()
     ELECTIVE_ANALYSIS
@@ -58,4 +58,11 @@ public class TermCourseOfferingEntity {
 
     @Column(name = "end_time", nullable = false)
     private LocalTime endTime;
+
+    /**
+     * Seats in this section; null = unlimited. Only the cohort allocation reads it
+     * (single-student generation does not know how many others picked a section).
+     */
+    @Column(name = "capacity")
+    private Integer capacity;
 }
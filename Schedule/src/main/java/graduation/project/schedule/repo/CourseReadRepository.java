@@ -4,7 +4,9 @@ package graduation.project.schedule.repo;
 import graduation.project.model.course.CourseEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +14,22 @@ public interface CourseReadRepository extends JpaRepository<CourseEntity, Long>
 
     Optional<CourseEntity> findByCourseCode(String courseCode);
 
+    interface CourseCodeId {
+        String getCourseCode();
+        Long getId();
+    }
+
+    /**
+     * Ids of many course codes in one query (bulk offering import). Matches codes the way
+     * PrerequisiteGraph.normalizeCode does, so {@code codes} must be normalized; unknown codes are simply absent.
+     */
+    @Query("""
+            select c.courseCode as courseCode, c.id as id
+            from CourseEntity c
+            where upper(replace(c.courseCode, ' ', '')) in :codes
+           """)
+    List<CourseCodeId> findIdsByNormalizedCodeIn(@Param("codes") Collection<String> codes);
+
     /**
      * Returns the raw tags CSV strings for ELECTIVE courses only.
      * Used to build the dropdown list in the UI from DB data.
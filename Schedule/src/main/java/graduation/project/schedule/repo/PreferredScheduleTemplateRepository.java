@@ -3,9 +3,15 @@ package graduation.project.schedule.repo;
 import graduation.project.schedule.domain.enums.Semester;
 import graduation.project.schedule.entity.PreferredScheduleTemplateEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface PreferredScheduleTemplateRepository extends JpaRepository<PreferredScheduleTemplateEntity, Long> {
     Optional<PreferredScheduleTemplateEntity> findBySemesterAndYearLevel(Semester semester, Integer yearLevel);
+
+    @Query("select distinct t from PreferredScheduleTemplateEntity t left join fetch t.items i left join fetch i.course where t.semester = :semester")
+    List<PreferredScheduleTemplateEntity> findBySemesterWithItems(@Param("semester") Semester semester);
 }
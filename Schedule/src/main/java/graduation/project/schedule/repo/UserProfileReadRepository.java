@@ -1,10 +1,59 @@
 package graduation.project.schedule.repo;
 
 import graduation.project.USER.models.user.UserProfile;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserProfileReadRepository extends JpaRepository<UserProfile, Long> {
     Optional<UserProfile> findByEmail(String email);
+
+    // One row per completed course (a single row with null course columns if there are none)
+    @Query("""
+        select u.id as userId,
+               u.completedHours as completedHours,
+               c.id as courseId,
+               c.courseCode as courseCode,
+               c.category as category,
+               c.creditHours as creditHours
+        from UserProfile u
+        left join u.completions uc
+        left join uc.course c
+        where u.email = :email
+    """)
+    List<AcademicRecordRow> findAcademicRecordRowsByEmail(@Param("email") String email);
+
+    // Keyset page of a cohort (students only, ascending id); major is matched case-insensitively, null = any
+    @Query("""
+        select u.id as userId,
+               u.email as email
+        from UserProfile u
+        where u.studyYear = :studyYear
+          and u.role = 'USER'
+          and (:major is null or upper(u.major) = upper(:major))
+          and u.id > :afterId
+        order by u.id
+    """)
+    List<CohortMemberRow> findCohortPage(@Param("studyYear") Integer studyYear,
+                                         @Param("major") String major,
+                                         @Param("afterId") Long afterId,
+                                         Pageable page);
+
+    interface CohortMemberRow {
+        Long getUserId();
+        String getEmail();
+    }
+
+    interface AcademicRecordRow {
+        Long getUserId();
+        Integer getCompletedHours();
+        Long getCourseId();
+        String getCourseCode();
+        String getCategory();
+        Integer getCreditHours();
+    }
 }
@@ -0,0 +1,97 @@
+package graduation.project.schedule.service;
+
+import graduation.project.USER.events.AcademicRecordChangedEvent;
+import graduation.project.USER.events.CourseChangedEvent;
+import graduation.project.schedule.domain.student.AcademicRecord;
+import graduation.project.schedule.repo.UserProfileReadRepository;
+import graduation.project.schedule.repo.UserProfileReadRepository.AcademicRecordRow;
+import graduation.project.schedule.util.CurrentUserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user {@link AcademicRecord} cache (keyed by the authenticated email).
+ * - A miss costs one projection query (replaces the profile + 4 completion queries + email lookup)
+ * - Entries are dropped after RegService commits a change to that user, and all of them after a course edit or
+ *   delete (a record holds the category and credit hours of its completed courses)
+ */
+@Service
+@RequiredArgsConstructor
+public class AcademicRecordService {
+
+    private final CurrentUserService currentUserService;
+    private final UserProfileReadRepository userProfileReadRepository;
+
+    private final ConcurrentMap<String, AcademicRecord> records = new ConcurrentHashMap<>();
+    private final AtomicLong versionSeq = new AtomicLong();
+
+    public AcademicRecord currentUser() {
+        return forEmail(currentUserService.currentUserEmailOrThrow());
+    }
+
+    public AcademicRecord forEmail(String email) {
+        AcademicRecord cached = records.get(email);
+        if (cached != null) return cached;
+        // computeIfAbsent: a concurrent invalidation of the same key waits for the load, then removes it
+        return records.computeIfAbsent(email, this::load);
+    }
+
+    /**
+     * Cached record if present, otherwise a fresh load that is NOT cached (batch jobs must not fill the per-user cache).
+     */
+    public AcademicRecord peekOrLoad(String email) {
+        AcademicRecord cached = records.get(email);
+        return cached != null ? cached : load(email);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAcademicRecordChanged(AcademicRecordChangedEvent event) {
+        if (event.email() != null) records.remove(event.email());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        records.clear();
+    }
+
+    private AcademicRecord load(String email) {
+        List<AcademicRecordRow> rows = userProfileReadRepository.findAcademicRecordRowsByEmail(email);
+        if (rows.isEmpty()) {
+            throw new IllegalStateException("Authenticated user not found in DB: " + email);
+        }
+
+        AcademicRecordRow first = rows.getFirst();
+        Set<Long> ids = new HashSet<>();
+        List<String> codes = new ArrayList<>();
+        long electiveCount = 0;
+        long electiveHours = 0;
+
+        for (AcademicRecordRow r : rows) {
+            if (r.getCourseId() == null) continue;
+            ids.add(r.getCourseId());
+            if (r.getCourseCode() != null) codes.add(r.getCourseCode());
+
+            // Same rule as the former count/sum queries: category contains 'elective' (case-insensitive)
+            if (r.getCategory() != null && r.getCategory().toLowerCase(Locale.ROOT).contains("elective")) {
+                electiveCount++;
+                electiveHours += (r.getCreditHours() == null) ? 0 : r.getCreditHours();
+            }
+        }
+
+        return new AcademicRecord(
+                first.getUserId(),
+                versionSeq.incrementAndGet(),
+                Objects.requireNonNullElse(first.getCompletedHours(), 0),
+                ids,
+                codes,
+                electiveCount,
+                electiveHours
+        );
+    }
+}
@@ -0,0 +1,235 @@
+package graduation.project.schedule.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graduation.project.schedule.config.ScheduleGenerationProperties;
+import graduation.project.schedule.domain.catalog.OfferingCatalog;
+import graduation.project.schedule.dto.CohortAllocationResponse;
+import graduation.project.schedule.dto.CohortGenerateRequest;
+import graduation.project.schedule.dto.CohortScheduleResultDto;
+import graduation.project.schedule.dto.GenerateScheduleRequest;
+import graduation.project.schedule.dto.ScheduleCourseSlotDto;
+import graduation.project.schedule.dto.SectionFillDto;
+import graduation.project.schedule.dto.SelectedCourseOptionDto;
+import graduation.project.schedule.dto.StudentAllocationDto;
+import graduation.project.schedule.entity.TermCourseOfferingEntity;
+import graduation.project.schedule.repo.UserProfileReadRepository;
+import graduation.project.schedule.repo.UserProfileReadRepository.CohortMemberRow;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Admin cohort batch generation, streamed as NDJSON (one {@link CohortScheduleResultDto} per line).
+ * - The semester's catalog snapshot is resolved once and shared by every student
+ * - Students are read in keyset pages; each one is generated on the bounded batch pool
+ * - At most maxInFlight results exist at a time, written in completion order as they finish,
+ *   so memory stays constant regardless of cohort size
+ * - A student that fails gets an error line; the batch continues
+ * The same generation feeds the cohort seat allocation ({@link #allocateCohort}), which returns one report instead.
+ */
+@Service
+@RequiredArgsConstructor
+public class CohortScheduleBatchService {
+
+    private final UserProfileReadRepository userProfileReadRepository;
+    private final AcademicRecordService academicRecordService;
+    private final OfferingCatalogService catalogService;
+    private final ScheduleGeneratorService generatorService;
+    private final ScheduleGenerationProperties properties;
+    private final ExecutorService scheduleBatchExecutor;
+    private final ObjectMapper objectMapper;
+
+    public void streamCohort(CohortGenerateRequest req, OutputStream out) throws IOException {
+        OfferingCatalog catalog = catalogService.snapshot(req.preferences().nextSemester());
+        generateCohort(req, catalog, line -> writeLine(out, line));
+    }
+
+    /**
+     * Generates every student's schedule, then hands out sections by seat capacity (see {@link CohortSectionAllocator}):
+     * a student keeps their generated section while it has seats, else moves to its alternatives (the preferences'
+     * alternativesPerCourse decides how much room there is to rebalance). Generation runs on the batch pool; seats are
+     * then handed out sequentially in userId order, so the same cohort and schedules give the same allocation.
+     */
+    public CohortAllocationResponse allocateCohort(CohortGenerateRequest req) throws IOException {
+        OfferingCatalog catalog = catalogService.snapshot(req.preferences().nextSemester());
+        List<AllocationInput> inputs = new ArrayList<>();
+        generateCohort(req, catalog, line -> inputs.add(AllocationInput.of(line, catalog)));
+        inputs.sort(Comparator.comparing(AllocationInput::userId)); // completion order is arbitrary; claims go in userId order
+
+        List<CohortSectionAllocator.Student> students = inputs.stream()
+                .filter(in -> in.student() != null)
+                .map(AllocationInput::student)
+                .toList();
+        long start = System.nanoTime();
+        CohortSectionAllocator.Result result = CohortSectionAllocator.allocate(catalog, students);
+        long allocationMillis = (System.nanoTime() - start) / 1_000_000;
+
+        int failed = 0, requested = 0, firstChoice = 0, moved = 0, unassigned = 0;
+        List<StudentAllocationDto> lines = new ArrayList<>(inputs.size());
+        int s = 0;
+        for (AllocationInput in : inputs) {
+            if (in.student() == null) {
+                failed++;
+                lines.add(new StudentAllocationDto(in.userId(), in.email(), List.of(), List.of(), List.of(), in.error()));
+                continue;
+            }
+            int[] primaries = in.student().primaries();
+            int[] assigned = result.assigned()[s++];
+            List<Long> offeringIds = new ArrayList<>();
+            List<Long> movedCourses = new ArrayList<>();
+            List<Long> unassignedCourses = new ArrayList<>();
+            for (int c = 0; c < primaries.length; c++) {
+                requested++;
+                Long courseId = catalog.offering(primaries[c]).getCourse().getId();
+                if (assigned[c] < 0) {
+                    unassigned++;
+                    unassignedCourses.add(courseId);
+                    continue;
+                }
+                offeringIds.add(catalog.offering(assigned[c]).getId());
+                if (assigned[c] == primaries[c]) {
+                    firstChoice++;
+                } else {
+                    moved++;
+                    movedCourses.add(courseId);
+                }
+            }
+            lines.add(new StudentAllocationDto(in.userId(), in.email(), offeringIds, movedCourses, unassignedCourses, null));
+        }
+
+        return new CohortAllocationResponse(inputs.size(), failed, requested, firstChoice, moved, unassigned,
+                allocationMillis, sectionFills(catalog, result), lines);
+    }
+
+    // Requested sections; filled ones first (in fill order), then by demand over capacity
+    private static List<SectionFillDto> sectionFills(OfferingCatalog catalog, CohortSectionAllocator.Result result) {
+        List<SectionFillDto> sections = new ArrayList<>();
+        for (int i = 0; i < catalog.offeringCount(); i++) {
+            if (result.firstChoiceDemand()[i] == 0 && result.assignedCount()[i] == 0) continue;
+            TermCourseOfferingEntity o = catalog.offering(i);
+            int order = result.fillOrder()[i];
+            sections.add(new SectionFillDto(o.getId(), o.getCourse().getId(), o.getCourse().getCourseCode(),
+                    o.getSectionCode(), o.getCapacity(), result.firstChoiceDemand()[i], result.assignedCount()[i],
+                    order < 0 ? null : order));
+        }
+        sections.sort(Comparator
+                .comparing(SectionFillDto::fillOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(Comparator.comparingDouble(CohortScheduleBatchService::pressure).reversed())
+                .thenComparing(SectionFillDto::offeringId));
+        return sections;
+    }
+
+    private static double pressure(SectionFillDto section) {
+        return section.capacity() == null ? 0 : (double) section.firstChoiceDemand() / section.capacity();
+    }
+
+    private void generateCohort(CohortGenerateRequest req, OfferingCatalog catalog, ResultSink sink) throws IOException {
+        ScheduleGenerationProperties.Batch cfg = properties.batch();
+        GenerateScheduleRequest prefs = req.preferences();
+        String major = (req.major() == null || req.major().isBlank()) ? null : req.major().trim();
+
+        CompletionService<CohortScheduleResultDto> done = new ExecutorCompletionService<>(scheduleBatchExecutor);
+        int window = cfg.effectiveMaxInFlight();
+        int inFlight = 0;
+
+        long afterId = 0;
+        while (true) {
+            List<CohortMemberRow> page = userProfileReadRepository.findCohortPage(
+                    req.studyYear(), major, afterId, PageRequest.of(0, cfg.pageSize()));
+
+            for (CohortMemberRow member : page) {
+                if (inFlight == window) {
+                    sink.accept(next(done));
+                    inFlight--;
+                }
+                done.submit(() -> generateOne(member, prefs, catalog));
+                inFlight++;
+            }
+
+            if (page.size() < cfg.pageSize()) break;
+            afterId = page.getLast().getUserId();
+        }
+
+        while (inFlight > 0) {
+            sink.accept(next(done));
+            inFlight--;
+        }
+    }
+
+    private CohortScheduleResultDto generateOne(CohortMemberRow member, GenerateScheduleRequest prefs, OfferingCatalog catalog) {
+        try {
+            return new CohortScheduleResultDto(
+                    member.getUserId(),
+                    member.getEmail(),
+                    generatorService.generateForRecord(prefs, academicRecordService.peekOrLoad(member.getEmail()), catalog),
+                    null
+            );
+        } catch (RuntimeException ex) {
+            return new CohortScheduleResultDto(member.getUserId(), member.getEmail(), null, ex.getMessage());
+        }
+    }
+
+    private static CohortScheduleResultDto next(CompletionService<CohortScheduleResultDto> done) throws IOException {
+        try {
+            return done.take().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Cohort batch interrupted");
+        } catch (ExecutionException e) {
+            // generateOne catches everything it can; anything else is a bug worth surfacing
+            throw new IllegalStateException("Cohort batch task failed", e.getCause());
+        }
+    }
+
+    private void writeLine(OutputStream out, CohortScheduleResultDto line) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(line));
+        out.write('\n');
+        out.flush();
+    }
+
+    private interface ResultSink {
+        void accept(CohortScheduleResultDto line) throws IOException;
+    }
+
+    /**
+     * A generated student reduced to catalog indexes (student null when generation failed).
+     */
+    private record AllocationInput(Long userId, String email, CohortSectionAllocator.Student student, String error) {
+
+        static AllocationInput of(CohortScheduleResultDto line, OfferingCatalog catalog) {
+            if (line.schedule() == null) return new AllocationInput(line.userId(), line.email(), null, line.error());
+
+            List<SelectedCourseOptionDto> selected = line.schedule().selected();
+            int[] primaries = new int[selected.size()];
+            int[][] alternatives = new int[selected.size()][];
+            int n = 0;
+            for (SelectedCourseOptionDto course : selected) {
+                int primary = index(catalog, course.primary());
+                if (primary < 0) continue;
+                primaries[n] = primary;
+                alternatives[n++] = course.alternatives() == null ? new int[0] : course.alternatives().stream()
+                        .mapToInt(alt -> index(catalog, alt))
+                        .filter(i -> i >= 0)
+                        .toArray();
+            }
+            return new AllocationInput(line.userId(), line.email(),
+                    new CohortSectionAllocator.Student(Arrays.copyOf(primaries, n), Arrays.copyOf(alternatives, n)), null);
+        }
+
+        private static int index(OfferingCatalog catalog, ScheduleCourseSlotDto slot) {
+            return catalog.indexOfSection(slot.courseId(), slot.sectionCode());
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package graduation.project.schedule.service;
+
+import graduation.project.schedule.domain.catalog.OfferingCatalog;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Seats of a whole cohort, from every student's generated schedule (primary section + ranked alternatives per course).
+ * - One seat counter per section (dense catalog index); a section without capacity never runs out
+ * - Phase 1: courses without alternatives claim their only section first, so flexible students cannot take the seat
+ *   an inflexible one depends on
+ * - Phase 2: the other courses try their primary, then their alternatives best first, skipping sections that clash
+ *   with what the student already holds
+ * - A section's fill order is recorded when its last seat goes (0 = filled first)
+ * Both phases run in list order on the calling thread, so the same cohort always gets the same allocation (the
+ * expensive part, generating the schedules, is parallel before this). A claim is an array decrement.
+ */
+final class CohortSectionAllocator {
+
+    /**
+     * One student's courses: primaries[c] and alternatives[c] (best first) are catalog indexes.
+     */
+    record Student(int[] primaries, int[][] alternatives) {}
+
+    /**
+     * assigned[s][c]: section of course c of student s, or -1 (no seat left in any option).
+     * Per section: students whose first choice it was, seats handed out, fill order (-1 = never filled).
+     */
+    record Result(int[][] assigned, int[] firstChoiceDemand, int[] assignedCount, int[] fillOrder) {}
+
+    private final OfferingCatalog catalog;
+    private final List<Student> students;
+    private final int[] remaining;
+    private final int[] fillOrder;
+    private int filled;
+    private final int[][] assigned;
+
+    private CohortSectionAllocator(OfferingCatalog catalog, List<Student> students) {
+        this.catalog = catalog;
+        this.students = students;
+
+        int n = catalog.offeringCount();
+        this.remaining = new int[n];
+        this.fillOrder = new int[n];
+        for (int i = 0; i < n; i++) {
+            Integer capacity = catalog.offering(i).getCapacity();
+            remaining[i] = capacity == null ? Integer.MAX_VALUE : Math.max(0, capacity);
+        }
+        Arrays.fill(fillOrder, -1);
+
+        this.assigned = new int[students.size()][];
+        for (int s = 0; s < assigned.length; s++) {
+            assigned[s] = new int[students.get(s).primaries().length];
+            Arrays.fill(assigned[s], -1);
+        }
+    }
+
+    /**
+     * Allocates in list order: earlier students win the last seats, so callers sort the list first.
+     */
+    static Result allocate(OfferingCatalog catalog, List<Student> students) {
+        CohortSectionAllocator allocator = new CohortSectionAllocator(catalog, students);
+        allocator.forEachStudent(allocator::claimInflexible);
+        allocator.forEachStudent(allocator::claimFlexible);
+        return allocator.result();
+    }
+
+    private void forEachStudent(IntConsumer phase) {
+        for (int s = 0; s < students.size(); s++) phase.accept(s);
+    }
+
+    private void claimInflexible(int s) {
+        Student student = students.get(s);
+        for (int c = 0; c < student.primaries().length; c++) {
+            if (student.alternatives()[c].length > 0) continue;
+            int primary = student.primaries()[c];
+            if (claim(primary)) assigned[s][c] = primary;
+        }
+    }
+
+    private void claimFlexible(int s) {
+        Student student = students.get(s);
+        for (int c = 0; c < student.primaries().length; c++) {
+            int[] alternatives = student.alternatives()[c];
+            if (alternatives.length == 0) continue;
+
+            if (claim(student.primaries()[c])) {
+                assigned[s][c] = student.primaries()[c];
+                continue;
+            }
+            for (int alt : alternatives) {
+                if (!clashes(s, c, alt) && claim(alt)) {
+                    assigned[s][c] = alt;
+                    break;
+                }
+            }
+        }
+    }
+
+    // Primaries never clash with each other; an alternative only avoided the other primaries
+    private boolean clashes(int s, int course, int section) {
+        for (int c = 0; c < assigned[s].length; c++) {
+            int other = c == course ? -1 : assigned[s][c];
+            if (other >= 0 && catalog.conflicts(other, section)) return true;
+        }
+        return false;
+    }
+
+    private boolean claim(int section) {
+        int left = remaining[section];
+        if (left <= 0) return false;
+        if (left == Integer.MAX_VALUE) return true; // unlimited
+        remaining[section] = left - 1;
+        if (left == 1) fillOrder[section] = filled++;
+        return true;
+    }
+
+    private Result result() {
+        int n = catalog.offeringCount();
+        int[] demand = new int[n];
+        int[] count = new int[n];
+        for (int s = 0; s < assigned.length; s++) {
+            for (int primary : students.get(s).primaries()) demand[primary]++;
+            for (int section : assigned[s]) {
+                if (section >= 0) count[section]++;
+            }
+        }
+        return new Result(assigned, demand, count, fillOrder);
+    }
+}
@@ -0,0 +1,228 @@
+package graduation.project.schedule.service;
+
+import graduation.project.model.course.CourseEntity;
+import graduation.project.schedule.domain.catalog.OfferingCatalog;
+import graduation.project.schedule.dto.explenations.AlternativeReasonCode;
+import graduation.project.schedule.dto.explenations.AlternativeReasonDto;
+import graduation.project.schedule.dto.explenations.ExplainPhase;
+import graduation.project.schedule.dto.explenations.ScoreBreakdownDto;
+import graduation.project.schedule.dto.explenations.SelectedScoreDto;
+import graduation.project.schedule.dto.explenations.SkipReasonCode;
+import graduation.project.schedule.dto.explenations.SkipReasonDto;
+import graduation.project.schedule.entity.TermCourseOfferingEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Explain-mode record of one generation, kept as primitives while the search runs:
+ * - Skips: packed phase/reason/note ordinals, course id and two int arguments (at most maxSkips)
+ * - Alternative failures: course id and reason ordinal
+ * - Score breakdowns: dense catalog offering index, phase ordinal and the score components
+ * The explain DTOs (and their strings) are built once, when the response is assembled; the lists hold no reference
+ * back to the trace or the catalog snapshot (stored job results must not pin old snapshots).
+ */
+final class DecisionTrace {
+
+    /**
+     * Fixed detail texts of skip reasons. Notes that are not "named" leave course code/name empty
+     * (the course may not be part of this semester's catalog).
+     */
+    enum Note {
+        MUST_TAKE_COMPLETED(false, "Must-take is already completed."),
+        MUST_TAKE_NO_SECTION(false, "No offered section can fit constraints / conflicts for this must-take."),
+        NOT_OFFERED(false, "Course has no offerings in this semester."),
+        ELECTIVE_TARGET_REACHED(true, "Elective target already reached inside this schedule."),
+        TAG_MISMATCH(true, "Elective tags are enforced and this course doesn't match the selected tags."),
+        LIFETIME_ELECTIVE_CAP(true, "Adding this elective would exceed lifetime elective limits."),
+        TRAINING_HOURS(true, null),
+        PREREQUISITES(true, "Prerequisites not satisfied based on completed course codes."),
+        NO_OFFERINGS(true, "No offerings to evaluate."),
+        ALL_SECTIONS_PREREQUISITES(true, "All sections failed prerequisites."),
+        ALL_SECTIONS_UNAVAILABLE(true, "All sections violate hard constraints (unavailable blocks/time limits)."),
+        ALL_SECTIONS_CONFLICT(true, "All sections conflict with already selected schedule."),
+        NO_FEASIBLE_SECTION(true, "No section can satisfy all constraints simultaneously."),
+        ELECTIVE_LIFETIME_CAP(true, "Elective lifetime limit prevents selecting this elective."),
+        ELECTIVE_TAG_MISMATCH(true, "Elective tags are enforced and this course doesn't match selected tags."),
+        ELECTIVE_PREREQUISITES(true, "Prerequisites not satisfied for this elective."),
+        ELECTIVE_ALL_CONFLICT(true, "All elective sections conflict with the selected schedule."),
+        ELECTIVE_ALL_UNAVAILABLE(true, "All elective sections violate hard constraints (unavailable blocks/time limits)."),
+        ELECTIVE_LOW_SCORE(true, "Feasible elective exists but was outranked by other courses under scoring.");
+
+        private final boolean named;
+        private final String text;
+
+        Note(boolean named, String text) {
+            this.named = named;
+            this.text = text;
+        }
+
+        String render(int a, int b) {
+            if (this == TRAINING_HOURS) return "Training hours requirement not met. Requires " + a + " hours; current=" + b + ".";
+            return text;
+        }
+    }
+
+    // Rejection counters of one section scan: [checked, prerequisites, hard constraints, conflicts]
+    static final int CHECKED = 0, PREREQ = 1, HARD = 2, CONFLICT = 3;
+
+    // Score components per breakdown row (ScoreBreakdownDto order, total last)
+    static final int SCORE_COMPONENTS = 13;
+
+    private static final ExplainPhase[] PHASES = ExplainPhase.values();
+    private static final SkipReasonCode[] SKIP_CODES = SkipReasonCode.values();
+    private static final AlternativeReasonCode[] ALT_CODES = AlternativeReasonCode.values();
+    private static final Note[] NOTES = Note.values();
+
+    private final OfferingCatalog catalog;
+    private final int maxSkips;
+
+    private int skipCount;
+    private int[] skipMeta = new int[16];          // phase | reason << 8 | note << 16
+    private long[] skipCourse = new long[16];
+    private int[] skipArgs = new int[32];          // two per skip
+
+    private int altCount;
+    private long[] altCourse = new long[8];
+    private int[] altReason = new int[8];
+
+    private int scoreRows;
+    private int[] scoreOffering = new int[8];
+    private int[] scorePhase = new int[8];
+    private double[] scores = new double[8 * SCORE_COMPONENTS];
+
+    private final int[] rejected = new int[4];
+
+    DecisionTrace(OfferingCatalog catalog, int maxSkips) {
+        this.catalog = catalog;
+        this.maxSkips = Math.max(0, maxSkips);
+    }
+
+    void skip(ExplainPhase phase, SkipReasonCode reason, Long courseId, Note note) {
+        skip(phase, reason, courseId, note, 0, 0);
+    }
+
+    void skip(ExplainPhase phase, SkipReasonCode reason, Long courseId, Note note, int a, int b) {
+        if (skipCount >= maxSkips) return;
+        if (skipCount == skipMeta.length) {
+            int n = skipCount * 2;
+            skipMeta = Arrays.copyOf(skipMeta, n);
+            skipCourse = Arrays.copyOf(skipCourse, n);
+            skipArgs = Arrays.copyOf(skipArgs, 2 * n);
+        }
+        skipMeta[skipCount] = phase.ordinal() | reason.ordinal() << 8 | note.ordinal() << 16;
+        skipCourse[skipCount] = courseId;
+        skipArgs[2 * skipCount] = a;
+        skipArgs[2 * skipCount + 1] = b;
+        skipCount++;
+    }
+
+    void alternativeFailure(Long courseId, AlternativeReasonCode reason) {
+        if (altCount == altCourse.length) {
+            altCourse = Arrays.copyOf(altCourse, altCount * 2);
+            altReason = Arrays.copyOf(altReason, altCount * 2);
+        }
+        altCourse[altCount] = courseId;
+        altReason[altCount] = reason.ordinal();
+        altCount++;
+    }
+
+    /**
+     * Appends a breakdown row and returns the offset of its SCORE_COMPONENTS slots in {@link #scores()}.
+     */
+    int scoreRow(int offeringIndex, ExplainPhase phase) {
+        if (scoreRows == scoreOffering.length) {
+            int n = scoreRows * 2;
+            scoreOffering = Arrays.copyOf(scoreOffering, n);
+            scorePhase = Arrays.copyOf(scorePhase, n);
+            scores = Arrays.copyOf(scores, n * SCORE_COMPONENTS);
+        }
+        scoreOffering[scoreRows] = offeringIndex;
+        scorePhase[scoreRows] = phase == null ? -1 : phase.ordinal();
+        return SCORE_COMPONENTS * scoreRows++;
+    }
+
+    double[] scores() {
+        return scores;
+    }
+
+    /**
+     * Zeroed scratch counters for one section scan (indexed by CHECKED/PREREQ/HARD/CONFLICT).
+     */
+    int[] rejectCounters() {
+        Arrays.fill(rejected, 0);
+        return rejected;
+    }
+
+    List<SkipReasonDto> skipReasons() {
+        return render(skipCount, this::renderSkip);
+    }
+
+    List<AlternativeReasonDto> alternativeReasons() {
+        return render(altCount, this::renderAlternative);
+    }
+
+    List<SelectedScoreDto> scoreBreakdowns() {
+        return render(scoreRows, this::renderScore);
+    }
+
+    private SkipReasonDto renderSkip(int i) {
+        int meta = skipMeta[i];
+        Note note = NOTES[meta >>> 16];
+        long courseId = skipCourse[i];
+        CourseEntity c = note.named ? course(courseId) : null;
+        return new SkipReasonDto(
+                PHASES[meta & 0xFF],
+                SKIP_CODES[(meta >>> 8) & 0xFF],
+                courseId,
+                c == null ? null : c.getCourseCode(),
+                c == null ? null : c.getCourseName(),
+                note.render(skipArgs[2 * i], skipArgs[2 * i + 1])
+        );
+    }
+
+    private AlternativeReasonDto renderAlternative(int i) {
+        long courseId = altCourse[i];
+        CourseEntity c = course(courseId);
+        AlternativeReasonCode code = ALT_CODES[altReason[i]];
+        String detail = switch (code) {
+            case NOT_REQUESTED -> "returnAlternatives=false";
+            case NO_OTHER_SECTIONS -> "No other sections for this course in this semester.";
+            case PREREQUISITE_FAIL_ALL -> "All other sections failed prerequisite checks.";
+            case UNAVAILABLE_CONFLICT_ALL -> "All other sections conflict with unavailable blocks or hard time constraints.";
+            case TIME_CONFLICT_ALL -> "All other sections conflict with the current selected schedule.";
+            case NO_FEASIBLE_ALTERNATIVE -> "No alternative section can fit constraints + conflicts.";
+        };
+        return new AlternativeReasonDto(courseId, c == null ? null : c.getCourseCode(), c == null ? null : c.getCourseName(), code, detail);
+    }
+
+    private SelectedScoreDto renderScore(int i) {
+        TermCourseOfferingEntity o = catalog.offering(scoreOffering[i]);
+        CourseEntity c = o.getCourse();
+        double[] s = scores;
+        int k = SCORE_COMPONENTS * i;
+        return new SelectedScoreDto(
+                c.getId(),
+                c.getCourseCode(),
+                c.getCourseName(),
+                o.getSectionCode(),
+                scorePhase[i] < 0 ? null : PHASES[scorePhase[i]],
+                new ScoreBreakdownDto(s[k], s[k + 1], s[k + 2], s[k + 3], s[k + 4], s[k + 5], s[k + 6],
+                        s[k + 7], s[k + 8], s[k + 9], s[k + 10], s[k + 11], s[k + 12])
+        );
+    }
+
+    private CourseEntity course(long courseId) {
+        List<TermCourseOfferingEntity> options = catalog.optionsFor(courseId);
+        return options == null || options.isEmpty() ? null : options.getFirst().getCourse();
+    }
+
+    // DTOs of the first `size` trace entries
+    private static <T> List<T> render(int size, IntFunction<T> render) {
+        List<T> out = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) out.add(render.apply(i));
+        return out;
+    }
+}
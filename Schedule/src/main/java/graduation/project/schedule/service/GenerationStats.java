@@ -0,0 +1,53 @@
+package graduation.project.schedule.service;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Where one generation spent its time and effort; recorded by {@link ScheduleGenerationMetrics} when it ends.
+ * - Phase timings and search-state counts are only touched on the request thread
+ * - Candidates scored and conflict checks are also counted by beam expansions on the search pool (LongAdder)
+ */
+final class GenerationStats {
+
+    /**
+     * BEAM = beam-search fallback, TOPK = the widened ranked pass, OPTIMAL = branch-and-bound (incl. its beam seed).
+     */
+    enum Phase { MUST_TAKE, TEMPLATE, BACKLOG, POOL, BEAM, TOPK, OPTIMAL, ALTERNATIVES, GRID, EXPLAIN }
+
+    private final long startNanos = System.nanoTime();
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private final boolean[] phaseRan = new boolean[Phase.values().length];
+
+    final LongAdder candidatesScored = new LongAdder();
+    final LongAdder conflictChecks = new LongAdder();
+
+    long statesExpanded;
+    long statesPruned;
+    boolean searchRan;
+    boolean searchWon;
+
+    /**
+     * Start of a timed section: pass the value to {@link #phase} when it ends.
+     */
+    long mark() {
+        return System.nanoTime();
+    }
+
+    // Phases can run more than once (backlog/pool after the template or without one): times add up
+    void phase(Phase phase, long markNanos) {
+        phaseNanos[phase.ordinal()] += System.nanoTime() - markNanos;
+        phaseRan[phase.ordinal()] = true;
+    }
+
+    boolean ran(Phase phase) {
+        return phaseRan[phase.ordinal()];
+    }
+
+    long phaseNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+}
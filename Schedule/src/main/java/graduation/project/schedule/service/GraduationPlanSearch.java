@@ -0,0 +1,329 @@
+package graduation.project.schedule.service;
+
+import graduation.project.model.course.CourseEntity;
+import graduation.project.schedule.domain.catalog.CompletedCourses;
+import graduation.project.schedule.domain.catalog.PrerequisiteGraph;
+import graduation.project.schedule.domain.enums.Semester;
+
+import java.util.*;
+
+/**
+ * Course-level search over a sequence of terms (no sections: future timetables are not known yet).
+ * - A state is the set of planned courses (dense bitset) at a term index; completed codes, hours and electives follow
+ *   from it, so every (term, bitset) state is expanded at most once
+ * - A term takes as many eligible courses as its load allows (completing more never blocks anything later), so the
+ *   branching is over WHICH courses: combinations in priority order, the first leaf is the greedy plan
+ * - Depth-first branch-and-bound on the number of terms; lower bound = longest remaining chain of required
+ *   prerequisites or remaining required courses / largest load, whichever is larger
+ * - A term can only fall below its minimum load when too few courses are eligible then; among plans with the same
+ *   number of terms, the one with the fewest such underloaded terms wins
+ * - Completed hours grow by the credit hours of planned courses (training-hour gates open during the plan)
+ * - Stops at the time/node budget with the best plan found so far
+ */
+final class GraduationPlanSearch {
+
+    /**
+     * A course that still has to (required) or may (elective) be planned, with the semesters it is available in.
+     */
+    record Course(CourseEntity entity, boolean elective, int requiredTrainingHours, Set<Semester> offeredIn) {}
+
+    record Term(Semester semester, int yearLevel, int minLoad, int maxLoad, Set<Long> templateCourseIds) {}
+
+    /**
+     * Course indexes per term of the best plan (trailing empty terms dropped).
+     * underloadedTerms = terms of the plan below their minimum load; exhausted = the whole tree was searched inside
+     * the budget.
+     */
+    record Result(List<int[]> terms, boolean complete, int underloadedTerms, boolean exhausted, long nodes) {}
+
+    private static final int[] NONE = new int[0];
+
+    private final List<Course> courses;
+    private final List<Term> terms;
+    private final CompletedCourses completed;
+    private final int completedHours;
+    private final int electiveTarget;       // electives the plan should contain
+    private final int electiveHoursLeft;    // lifetime elective hours cap minus completed
+
+    private final int[] depth;              // longest chain of required courses starting at a course (>= 1)
+    private final BitSet required = new BitSet();
+    private final int maxLoad;
+    private final int cycle;                // distinct semesters in the sequence
+
+    private final long deadline;
+    private final long maxNodes;
+    private long nodes;
+    private boolean stopped;
+
+    private final Map<Visit, Integer> visited = new HashMap<>(); // fewest underloaded terms seen per state
+    private final int[][] path;
+
+    private int[][] best;
+    private boolean bestComplete;
+    private int bestTerms = Integer.MAX_VALUE;
+    private int bestUnderloaded = Integer.MAX_VALUE;
+    private int bestGoal = -1;
+
+    GraduationPlanSearch(List<Course> courses,
+                         List<Term> terms,
+                         CompletedCourses completed,
+                         int completedHours,
+                         int electiveTarget,
+                         int electiveHoursLeft,
+                         long timeBudgetMs,
+                         long maxNodes) {
+        this.courses = List.copyOf(courses);
+        this.terms = List.copyOf(terms);
+        this.completed = completed;
+        this.completedHours = completedHours;
+        this.electiveTarget = Math.max(0, electiveTarget);
+        this.electiveHoursLeft = Math.max(0, electiveHoursLeft);
+        this.deadline = System.nanoTime() + Math.max(0, timeBudgetMs) * 1_000_000L;
+        this.maxNodes = maxNodes;
+
+        for (int i = 0; i < this.courses.size(); i++) {
+            if (!this.courses.get(i).elective()) required.set(i);
+        }
+        this.depth = chainDepths();
+        this.maxLoad = this.terms.stream().mapToInt(Term::maxLoad).max().orElse(1);
+        this.cycle = (int) this.terms.stream().map(Term::semester).distinct().count();
+        this.path = new int[this.terms.size()][];
+    }
+
+    Result run() {
+        dfs(0, new BitSet(courses.size()), completed, completedHours, 0, 0, 0, 0);
+
+        List<int[]> plan = new ArrayList<>();
+        if (best != null) {
+            int last = best.length;
+            while (last > 0 && best[last - 1].length == 0) last--;
+            plan.addAll(Arrays.asList(best).subList(0, last));
+        }
+        return new Result(List.copyOf(plan), bestComplete, underloaded(plan.toArray(int[][]::new), plan.size()),
+                !stopped, nodes);
+    }
+
+    private void dfs(int t, BitSet planned, CompletedCourses done, int hours, int electives, int electiveHours,
+                     int emptyRun, int underloaded) {
+        if (stopped) return;
+        if (++nodes > maxNodes || ((nodes & 255) == 0 && System.nanoTime() > deadline)) {
+            stopped = true;
+            return;
+        }
+
+        if (isComplete(planned, electives, electiveHours)) {
+            leaf(t, planned, electives, underloaded, true);
+            return;
+        }
+        // Horizon reached, or a full cycle of semesters without anything eligible (nothing can change any more)
+        if (t == terms.size() || emptyRun >= cycle) {
+            leaf(t, planned, electives, underloaded, false);
+            return;
+        }
+        if (bestComplete) {
+            // Underloads only accumulate: an equally short plan must already have fewer of them
+            int bound = t + lowerBound(planned);
+            if (bound > bestTerms || (bound == bestTerms && underloaded >= bestUnderloaded)) return;
+        }
+        Integer seen = visited.putIfAbsent(new Visit(t, (BitSet) planned.clone()), underloaded);
+        if (seen != null) {
+            if (seen <= underloaded) return;
+            visited.put(new Visit(t, (BitSet) planned.clone()), underloaded);
+        }
+
+        Term term = terms.get(t);
+        int[] eligible = eligible(term, planned, done, hours, electives, electiveHours);
+        int load = load(eligible, term.maxLoad(), electives, electiveHours);
+        // The load is everything that fits, so fewer than minLoad means too few eligible courses this term
+        int nextUnderloaded = underloaded + (load < term.minLoad() ? 1 : 0);
+
+        if (load == 0) {
+            path[t] = NONE;
+            dfs(t + 1, planned, done, hours, electives, electiveHours, emptyRun + 1, nextUnderloaded);
+            return;
+        }
+
+        int[] pick = new int[load];
+        for (int i = 0; i < load; i++) pick[i] = i;
+        List<CourseEntity> taken = new ArrayList<>(load);
+        do {
+            int addElectives = 0;
+            int addElectiveHours = 0;
+            int addHours = 0;
+            taken.clear();
+            int[] chosen = new int[load];
+            for (int i = 0; i < load; i++) {
+                Course c = courses.get(eligible[pick[i]]);
+                chosen[i] = eligible[pick[i]];
+                taken.add(c.entity());
+                addHours += c.entity().getCreditHours();
+                if (c.elective()) {
+                    addElectives++;
+                    addElectiveHours += c.entity().getCreditHours();
+                }
+            }
+            if (electives + addElectives > electiveTarget || electiveHours + addElectiveHours > electiveHoursLeft) continue;
+
+            for (int i : chosen) planned.set(i);
+            path[t] = chosen;
+            dfs(t + 1, planned, done.plus(taken), hours + addHours, electives + addElectives,
+                    electiveHours + addElectiveHours, 0, nextUnderloaded);
+            for (int i : chosen) planned.clear(i);
+        } while (!stopped && nextCombination(pick, eligible.length));
+    }
+
+    private boolean isComplete(BitSet planned, int electives, int electiveHours) {
+        for (int i = required.nextSetBit(0); i >= 0; i = required.nextSetBit(i + 1)) {
+            if (!planned.get(i)) return false;
+        }
+        if (electives >= electiveTarget) return true;
+
+        // Fewer electives than targeted is complete once no unplanned elective fits the lifetime hours cap
+        for (int i = 0; i < courses.size(); i++) {
+            Course c = courses.get(i);
+            if (c.elective() && !planned.get(i) && electiveHours + c.entity().getCreditHours() <= electiveHoursLeft) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void leaf(int t, BitSet planned, int electives, int underloaded, boolean complete) {
+        if (complete) {
+            if (!bestComplete || t < bestTerms || (t == bestTerms && underloaded < bestUnderloaded)) {
+                bestComplete = true;
+                bestTerms = t;
+                bestUnderloaded = underloaded;
+                best = Arrays.copyOf(path, t);
+            }
+            return;
+        }
+        if (bestComplete) return;
+
+        // Partial plans: most required courses (+ targeted electives) first, then fewest terms, then fewest underloads
+        BitSet req = (BitSet) planned.clone();
+        req.and(required);
+        int goal = req.cardinality() + Math.min(electives, electiveTarget);
+        int used = t;
+        while (used > 0 && path[used - 1].length == 0) used--;
+        int light = underloaded(path, used);
+        if (goal > bestGoal || (goal == bestGoal && (used < bestTerms || (used == bestTerms && light < bestUnderloaded)))) {
+            bestGoal = goal;
+            bestTerms = used;
+            bestUnderloaded = light;
+            best = Arrays.copyOf(path, used);
+        }
+    }
+
+    private int underloaded(int[][] plan, int length) {
+        int n = 0;
+        for (int t = 0; t < length; t++) {
+            if (plan[t].length < terms.get(t).minLoad()) n++;
+        }
+        return n;
+    }
+
+    private int lowerBound(BitSet planned) {
+        int chain = 0;
+        int left = 0;
+        for (int i = required.nextSetBit(0); i >= 0; i = required.nextSetBit(i + 1)) {
+            if (planned.get(i)) continue;
+            left++;
+            chain = Math.max(chain, depth[i]);
+        }
+        return Math.max(1, Math.max(chain, (left + maxLoad - 1) / maxLoad));
+    }
+
+    private int[] eligible(Term term, BitSet planned, CompletedCourses done, int hours, int electives, int electiveHours) {
+        List<Integer> out = new ArrayList<>();
+        for (int i = 0; i < courses.size(); i++) {
+            if (planned.get(i)) continue;
+            Course c = courses.get(i);
+            if (!c.offeredIn().contains(term.semester())) continue;
+            if (hours < c.requiredTrainingHours()) continue;
+            if (c.elective() && (electives >= electiveTarget
+                    || electiveHours + c.entity().getCreditHours() > electiveHoursLeft)) continue;
+            if (!done.satisfies(c.entity())) continue;
+            out.add(i);
+        }
+        out.sort(priority(term));
+        return out.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // Longest required chain first, then required, this term's template, recommended year/semester, id
+    private Comparator<Integer> priority(Term term) {
+        return Comparator.<Integer>comparingInt(i -> -depth[i])
+                .thenComparing(i -> courses.get(i).elective())
+                .thenComparing(i -> !term.templateCourseIds().contains(courses.get(i).entity().getId()))
+                .thenComparingInt(i -> courses.get(i).entity().getRecommendedYear())
+                .thenComparingInt(i -> courses.get(i).entity().getRecommendedSemester())
+                .thenComparing(i -> courses.get(i).entity().getId());
+    }
+
+    // Required eligible courses + as many electives as still fit (smallest first), capped by the term load
+    private int load(int[] eligible, int termMax, int electives, int electiveHours) {
+        int req = 0;
+        List<Integer> electiveHoursAsc = new ArrayList<>();
+        for (int i : eligible) {
+            Course c = courses.get(i);
+            if (c.elective()) electiveHoursAsc.add(c.entity().getCreditHours());
+            else req++;
+        }
+        electiveHoursAsc.sort(null);
+
+        int fit = 0;
+        int h = electiveHours;
+        for (int eh : electiveHoursAsc) {
+            if (electives + fit >= electiveTarget || h + eh > electiveHoursLeft) break;
+            fit++;
+            h += eh;
+        }
+        return Math.min(termMax, req + fit);
+    }
+
+    // Only single-code (AND) prerequisites between required courses: an OR-group can be met another way
+    private int[] chainDepths() {
+        Map<String, Integer> indexByCode = new HashMap<>();
+        for (int i = 0; i < courses.size(); i++) {
+            String code = PrerequisiteGraph.normalizeCode(courses.get(i).entity().getCourseCode());
+            if (code != null) indexByCode.putIfAbsent(code, i);
+        }
+
+        List<List<Integer>> dependents = new ArrayList<>();
+        for (int i = 0; i < courses.size(); i++) dependents.add(new ArrayList<>());
+        for (int j = required.nextSetBit(0); j >= 0; j = required.nextSetBit(j + 1)) {
+            for (List<String> group : PrerequisiteGraph.groupsOf(courses.get(j).entity())) {
+                Integer i = group.size() == 1 ? indexByCode.get(group.getFirst()) : null;
+                if (i != null && i != j) dependents.get(i).add(j);
+            }
+        }
+
+        int[] d = new int[courses.size()];
+        for (int i = 0; i < d.length; i++) depthOf(i, dependents, d, new BitSet());
+        return d;
+    }
+
+    private static int depthOf(int i, List<List<Integer>> dependents, int[] d, BitSet onStack) {
+        if (d[i] > 0) return d[i];
+        if (onStack.get(i)) return 1; // prerequisite cycle: such courses are never eligible anyway
+        onStack.set(i);
+        int deepest = 0;
+        for (int j : dependents.get(i)) deepest = Math.max(deepest, depthOf(j, dependents, d, onStack));
+        onStack.clear(i);
+        d[i] = 1 + deepest;
+        return d[i];
+    }
+
+    // Next k-combination of 0..n-1 in lexicographic order; false after the last one
+    private static boolean nextCombination(int[] c, int n) {
+        int k = c.length;
+        int i = k - 1;
+        while (i >= 0 && c[i] == n - k + i) i--;
+        if (i < 0) return false;
+        c[i]++;
+        for (int j = i + 1; j < k; j++) c[j] = c[j - 1] + 1;
+        return true;
+    }
+
+    private record Visit(int term, BitSet planned) {}
+}
@@ -0,0 +1,266 @@
+package graduation.project.schedule.service;
+
+import graduation.project.model.course.CourseEntity;
+import graduation.project.schedule.config.ScheduleGenerationProperties;
+import graduation.project.schedule.domain.catalog.CompletedCourses;
+import graduation.project.schedule.domain.catalog.OfferingCatalog;
+import graduation.project.schedule.domain.catalog.PrerequisiteGraph;
+import graduation.project.schedule.domain.enums.Semester;
+import graduation.project.schedule.domain.student.AcademicRecord;
+import graduation.project.schedule.dto.*;
+import graduation.project.schedule.repo.CourseReadRepository;
+import graduation.project.schedule.service.ScheduleGeneratorService.CourseCountRules;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Multi-semester graduation plan: every course the student has not completed, placed into a sequence of terms
+ * (FALL -> SPRING -> SUMMER -> next year's FALL ...) under the generator's rules:
+ * - prerequisites (courses planned in earlier terms count as completed)
+ * - training-hour gates (completed hours grow by the credit hours of planned courses)
+ * - lifetime elective caps, and the per-semester course ranges of /generate
+ * A semester's availability comes from its offerings; a semester without offerings yet uses its saved templates.
+ */
+@Service
+@RequiredArgsConstructor
+public class GraduationPlanService {
+
+    private final AcademicRecordService academicRecordService;
+    private final OfferingCatalogService catalogService;
+    private final CourseReadRepository courseReadRepository;
+    private final ScheduleGenerationProperties properties;
+
+    @Transactional(readOnly = true)
+    public GraduationPlanResponse planCurrentUser(GraduationPlanRequest req) {
+        return plan(req, academicRecordService.currentUser());
+    }
+
+    /**
+     * Plan of a user resolved by the caller (async jobs run without the request's security context).
+     */
+    @Transactional(readOnly = true)
+    public GraduationPlanResponse planFor(String email, GraduationPlanRequest req) {
+        return plan(req, academicRecordService.forEmail(email));
+    }
+
+    GraduationPlanResponse plan(GraduationPlanRequest req, AcademicRecord record) {
+        ScheduleGenerationProperties.Plan budget = properties.plan();
+        List<String> warnings = new ArrayList<>();
+
+        int regularLoad = ScheduleGeneratorService.resolveTargetCount(
+                req.coursesPerSemester(), ScheduleGeneratorService.courseCountRules(Semester.FALL), warnings);
+        int summerLoad = ScheduleGeneratorService.resolveTargetCount(
+                req.coursesPerSummer(), ScheduleGeneratorService.courseCountRules(Semester.SUMMER), warnings);
+        boolean includeSummers = !Boolean.FALSE.equals(req.includeSummers());
+
+        int horizon = req.maxTerms() == null ? budget.defaultTerms() : req.maxTerms();
+        if (horizon > budget.maxTerms()) {
+            warnings.add("Requested " + horizon + " terms exceeds the maximum. Adjusted to " + budget.maxTerms() + ".");
+            horizon = budget.maxTerms();
+        }
+
+        // Availability per semester: offerings, or the saved templates while a semester has none
+        Map<Semester, OfferingCatalog> catalogs = new EnumMap<>(Semester.class);
+        Map<Semester, Set<Long>> available = new EnumMap<>(Semester.class);
+        Set<Semester> fromTemplates = EnumSet.noneOf(Semester.class);
+
+        List<GraduationPlanSearch.Term> terms = new ArrayList<>();
+        Semester semester = req.startSemester();
+        int yearLevel = req.startYearLevel();
+        while (terms.size() < horizon) {
+            if (semester != Semester.SUMMER || includeSummers) {
+                OfferingCatalog catalog = catalogs.computeIfAbsent(semester, catalogService::snapshot);
+                if (!available.containsKey(semester)) {
+                    if (catalog.offeringCount() > 0) {
+                        available.put(semester, catalog.courseIds());
+                    } else {
+                        available.put(semester, catalog.templateCourseIds());
+                        fromTemplates.add(semester);
+                        warnings.add(semester + " has no offerings yet; availability is taken from its saved templates.");
+                    }
+                }
+
+                CourseCountRules rules = ScheduleGeneratorService.courseCountRules(semester);
+                terms.add(new GraduationPlanSearch.Term(
+                        semester,
+                        yearLevel,
+                        rules.minRequired(),
+                        semester == Semester.SUMMER ? summerLoad : regularLoad,
+                        Set.copyOf(catalog.templateCourseIds(yearLevel).orElse(List.of()))
+                ));
+            }
+            if (semester == Semester.SUMMER) yearLevel++;
+            semester = next(semester);
+        }
+
+        // Course universe (ascending id so the prerequisite graph and the plan are deterministic)
+        List<CourseEntity> all = courseReadRepository.findAll().stream()
+                .filter(c -> c.getId() != null)
+                .sorted(Comparator.comparing(CourseEntity::getId))
+                .toList();
+        CompletedCourses completed = PrerequisiteGraph.compile(all).completed(record.completedCourseCodes());
+
+        List<UnplannedCourseDto> unplanned = new ArrayList<>();
+        List<CourseEntity> remaining = new ArrayList<>();
+        for (CourseEntity c : all) {
+            if (record.completedCourseIds().contains(c.getId())) continue;
+            if (offeredIn(c, available).isEmpty()) {
+                if (!ScheduleGeneratorService.isElective(c)) {
+                    unplanned.add(unplanned(c, "Not offered (or listed in a template) in any planned semester."));
+                }
+                continue;
+            }
+            remaining.add(c);
+        }
+
+        List<CourseEntity> reachable = reachable(remaining, completed, record.completedHours());
+        for (CourseEntity c : remaining) {
+            if (!reachable.contains(c) && !ScheduleGeneratorService.isElective(c)) {
+                unplanned.add(unplanned(c, "Prerequisites or training hours can never be met by planned courses."));
+            }
+        }
+
+        int electiveCountLeft = (int) Math.max(0,
+                ScheduleGeneratorService.MAX_ELECTIVE_COURSES_LIFETIME - record.completedElectiveCount());
+        int electiveHoursLeft = (int) Math.max(0,
+                ScheduleGeneratorService.MAX_ELECTIVE_CREDIT_HOURS_LIFETIME - record.completedElectiveHours());
+
+        List<GraduationPlanSearch.Course> courses = new ArrayList<>();
+        for (CourseEntity c : reachable) {
+            courses.add(new GraduationPlanSearch.Course(
+                    c,
+                    ScheduleGeneratorService.isElective(c),
+                    ScheduleGeneratorService.requiredTrainingHours(c),
+                    offeredIn(c, available)
+            ));
+        }
+
+        GraduationPlanSearch.Result result = new GraduationPlanSearch(
+                courses,
+                terms,
+                completed,
+                record.completedHours(),
+                electiveTarget(courses, electiveCountLeft, electiveHoursLeft),
+                electiveHoursLeft,
+                budget.timeBudgetMs(),
+                budget.maxNodes()
+        ).run();
+
+        if (!result.exhausted()) {
+            warnings.add("Planning budget reached; the plan is the best one found so far.");
+        }
+        if (result.underloadedTerms() > 0) {
+            warnings.add(result.underloadedTerms() + " term(s) have fewer courses than the semester minimum: "
+                    + "not enough courses are eligible then (see metMinimum).");
+        }
+
+        List<PlannedTermDto> plannedTerms = new ArrayList<>();
+        BitSet planned = new BitSet();
+        int totalHours = 0;
+        int plannedElectives = 0;
+        for (int t = 0; t < result.terms().size(); t++) {
+            GraduationPlanSearch.Term term = terms.get(t);
+            List<PlannedCourseDto> dtos = new ArrayList<>();
+            int hours = 0;
+            for (int i : result.terms().get(t)) {
+                planned.set(i);
+                GraduationPlanSearch.Course c = courses.get(i);
+                CourseEntity e = c.entity();
+                dtos.add(new PlannedCourseDto(e.getId(), e.getCourseCode(), e.getCourseName(), e.getCreditHours(), c.elective()));
+                hours += e.getCreditHours();
+                if (c.elective()) plannedElectives++;
+            }
+            totalHours += hours;
+            plannedTerms.add(new PlannedTermDto(
+                    term.semester(),
+                    term.yearLevel(),
+                    fromTemplates.contains(term.semester()),
+                    dtos,
+                    hours,
+                    dtos.size() >= term.minLoad()
+            ));
+        }
+
+        for (int i = 0; i < courses.size(); i++) {
+            GraduationPlanSearch.Course c = courses.get(i);
+            if (!c.elective() && !planned.get(i)) {
+                unplanned.add(unplanned(c.entity(), "Does not fit within the planned " + terms.size() + " terms."));
+            }
+        }
+        unplanned.sort(Comparator.comparing(UnplannedCourseDto::courseId));
+
+        return new GraduationPlanResponse(
+                req.startSemester(),
+                req.startYearLevel(),
+                plannedTerms,
+                totalHours,
+                plannedElectives,
+                result.complete() && unplanned.isEmpty(),
+                result.complete() && result.exhausted(),
+                unplanned,
+                warnings
+        );
+    }
+
+    private static Semester next(Semester s) {
+        return switch (s) {
+            case FALL -> Semester.SPRING;
+            case SPRING -> Semester.SUMMER;
+            case SUMMER -> Semester.FALL;
+        };
+    }
+
+    private static Set<Semester> offeredIn(CourseEntity c, Map<Semester, Set<Long>> available) {
+        Set<Semester> out = EnumSet.noneOf(Semester.class);
+        available.forEach((s, ids) -> {
+            if (ids.contains(c.getId())) out.add(s);
+        });
+        return out;
+    }
+
+    /**
+     * Courses whose prerequisites and training hours can be met by completed + other reachable courses
+     * (fixpoint, ignoring term order), in the order of {@code remaining}.
+     */
+    private static List<CourseEntity> reachable(List<CourseEntity> remaining, CompletedCourses completed, int completedHours) {
+        Set<CourseEntity> reached = new LinkedHashSet<>();
+        int hours = completedHours;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            CompletedCourses done = completed.plus(reached);
+            for (CourseEntity c : remaining) {
+                if (reached.contains(c)) continue;
+                if (hours < ScheduleGeneratorService.requiredTrainingHours(c) || !done.satisfies(c)) continue;
+                reached.add(c);
+                hours += c.getCreditHours();
+                changed = true;
+            }
+        }
+        return remaining.stream().filter(reached::contains).toList();
+    }
+
+    // Electives still allowed by the lifetime caps (smallest credit hours first)
+    private static int electiveTarget(List<GraduationPlanSearch.Course> courses, int countLeft, int hoursLeft) {
+        int[] hours = courses.stream()
+                .filter(GraduationPlanSearch.Course::elective)
+                .mapToInt(c -> c.entity().getCreditHours())
+                .sorted()
+                .toArray();
+        int n = 0;
+        int used = 0;
+        for (int h : hours) {
+            if (n >= countLeft || used + h > hoursLeft) break;
+            n++;
+            used += h;
+        }
+        return n;
+    }
+
+    private static UnplannedCourseDto unplanned(CourseEntity c, String reason) {
+        return new UnplannedCourseDto(c.getId(), c.getCourseCode(), c.getCourseName(), reason);
+    }
+}
@@ -0,0 +1,94 @@
+package graduation.project.schedule.service;
+
+import graduation.project.schedule.domain.jobs.ScheduleJob;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+
+/**
+ * Default {@link ScheduleJobStore}: jobs in submission order in one map.
+ * - Finished jobs are readable for {@code retention} after they finish, then dropped
+ * - Above {@code maxRetained} jobs the oldest finished ones are dropped first (queued/running jobs always stay;
+ *   the bounded job queue already limits how many of those exist)
+ * Expired jobs are swept at most once per second, or right away when over capacity.
+ */
+public final class InMemoryScheduleJobStore implements ScheduleJobStore {
+
+    private static final Duration SWEEP_INTERVAL = Duration.ofSeconds(1);
+
+    private final Duration retention;
+    private final int maxRetained;
+    private final Clock clock;
+
+    private final LinkedHashMap<String, ScheduleJob> jobs = new LinkedHashMap<>();
+    private Instant nextSweep = Instant.MIN;
+
+    public InMemoryScheduleJobStore(Duration retention, int maxRetained) {
+        this(retention, maxRetained, Clock.systemUTC());
+    }
+
+    InMemoryScheduleJobStore(Duration retention, int maxRetained, Clock clock) {
+        this.retention = retention;
+        this.maxRetained = maxRetained;
+        this.clock = clock;
+    }
+
+    @Override
+    public void save(ScheduleJob job) {
+        Instant now = clock.instant();
+        synchronized (jobs) {
+            jobs.put(job.id(), job);
+            if (jobs.size() > maxRetained || !now.isBefore(nextSweep)) {
+                sweep(now);
+                nextSweep = now.plus(SWEEP_INTERVAL);
+            }
+        }
+    }
+
+    @Override
+    public Optional<ScheduleJob> find(String id) {
+        Instant now = clock.instant();
+        synchronized (jobs) {
+            ScheduleJob job = jobs.get(id);
+            if (job != null && expired(job, now)) {
+                jobs.remove(id);
+                return Optional.empty();
+            }
+            return Optional.ofNullable(job);
+        }
+    }
+
+    @Override
+    public void remove(String id) {
+        synchronized (jobs) {
+            jobs.remove(id);
+        }
+    }
+
+    int size() {
+        synchronized (jobs) {
+            return jobs.size();
+        }
+    }
+
+    private void sweep(Instant now) {
+        int excess = jobs.size() - maxRetained;
+        Iterator<ScheduleJob> it = jobs.values().iterator();
+        while (it.hasNext()) {
+            ScheduleJob job = it.next();
+            if (!job.finished()) continue;
+            if (excess > 0 || expired(job, now)) {
+                it.remove();
+                excess--;
+            }
+        }
+    }
+
+    private boolean expired(ScheduleJob job, Instant now) {
+        return job.finished() && !job.finishedAt().plus(retention).isAfter(now);
+    }
+}
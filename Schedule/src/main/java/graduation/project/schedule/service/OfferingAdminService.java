@@ -1,6 +1,8 @@
 package graduation.project.schedule.service;
 
 import graduation.project.model.course.CourseEntity;
+import graduation.project.schedule.domain.enums.Semester;
+import graduation.project.schedule.domain.events.OfferingCatalogChangedEvent;
 import graduation.project.schedule.dto.AdminOfferingUpsertRequest;
 import graduation.project.schedule.dto.OfferingResponse;
 import graduation.project.schedule.entity.TermCourseOfferingEntity;
@@ -9,10 +11,13 @@ import graduation.project.schedule.repo.TermCourseOfferingRepository;
 import graduation.project.schedule.util.OfferingSlots;
 import graduation.project.schedule.util.TimeRanges;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +25,7 @@ public class OfferingAdminService {
 
     private final TermCourseOfferingRepository offeringRepository;
     private final CourseReadRepository courseReadRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public OfferingResponse create(AdminOfferingUpsertRequest req) {
@@ -34,9 +40,11 @@ public class OfferingAdminService {
                 .pattern(req.pattern())
                 .startTime(req.startTime())
                 .endTime(req.endTime())
+                .capacity(req.capacity())
                 .build();
 
         TermCourseOfferingEntity saved = offeringRepository.save(entity);
+        eventPublisher.publishEvent(new OfferingCatalogChangedEvent(Set.of(saved.getSemester())));
         return toResponse(saved);
     }
 
@@ -49,19 +57,25 @@ public class OfferingAdminService {
         CourseEntity course = courseReadRepository.findById(req.courseId())
                 .orElseThrow(() -> new IllegalArgumentException("Course not found: " + req.courseId()));
 
+        Semester previousSemester = entity.getSemester();
         entity.setSemester(req.semester());
         entity.setCourse(course);
         entity.setSectionCode(req.sectionCode().trim());
         entity.setPattern(req.pattern());
         entity.setStartTime(req.startTime());
         entity.setEndTime(req.endTime());
+        entity.setCapacity(req.capacity());
 
+        eventPublisher.publishEvent(new OfferingCatalogChangedEvent(EnumSet.of(previousSemester, req.semester())));
         return toResponse(entity);
     }
 
     @Transactional
     public void delete(Long id) {
-        offeringRepository.deleteById(id);
+        offeringRepository.findById(id).ifPresent(o -> {
+            offeringRepository.delete(o);
+            eventPublisher.publishEvent(new OfferingCatalogChangedEvent(Set.of(o.getSemester())));
+        });
     }
 
     @Transactional(readOnly = true)
@@ -83,7 +97,8 @@ public class OfferingAdminService {
                 o.getPattern(),
                 OfferingSlots.days(o),
                 o.getStartTime(),
-                o.getEndTime()
+                o.getEndTime(),
+                o.getCapacity()
         );
     }
 }
@@ -0,0 +1,112 @@
+package graduation.project.schedule.service;
+
+import graduation.project.USER.events.CourseChangedEvent;
+import graduation.project.model.course.CourseEntity;
+import graduation.project.schedule.domain.catalog.OfferingCatalog;
+import graduation.project.schedule.domain.enums.Semester;
+import graduation.project.schedule.domain.events.OfferingCatalogChangedEvent;
+import graduation.project.schedule.entity.PreferredScheduleTemplateEntity;
+import graduation.project.schedule.entity.TermCourseOfferingEntity;
+import graduation.project.schedule.repo.PreferredScheduleTemplateRepository;
+import graduation.project.schedule.repo.TermCourseOfferingRepository;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds one immutable {@link OfferingCatalog} per semester, shared by all generation requests.
+ * - Loaded lazily on first use
+ * - Rebuilt (and swapped atomically) after admin writes commit: offering/template writes rebuild their semesters,
+ *   a course edit or delete rebuilds every loaded semester (the snapshot holds the course's data and features)
+ * - Loads and rebuilds run outside the map, serialized by a per-semester lock: readers never wait on the queries or
+ *   the conflict-matrix build (they keep the old snapshot until the swap), only a first load of the same semester does
+ */
+@Service
+@RequiredArgsConstructor
+public class OfferingCatalogService {
+
+    private final TermCourseOfferingRepository offeringRepository;
+    private final PreferredScheduleTemplateRepository templateRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ConcurrentMap<Semester, OfferingCatalog> catalogs = new ConcurrentHashMap<>();
+    private final Map<Semester, Object> locks = semesterLocks();
+    private final AtomicLong versionSeq = new AtomicLong();
+
+    public OfferingCatalog snapshot(Semester semester) {
+        OfferingCatalog current = catalogs.get(semester);
+        if (current != null) return current;
+        synchronized (locks.get(semester)) {
+            current = catalogs.get(semester);
+            if (current == null) {
+                current = load(semester);
+                catalogs.put(semester, current);
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Rebuild after the admin transaction commits (or immediately if there was no transaction).
+     * Rebuilds of a semester run one at a time, each loading after the previous swap, so the last one wins.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(OfferingCatalogChangedEvent event) {
+        for (Semester s : event.semesters()) {
+            synchronized (locks.get(s)) {
+                catalogs.put(s, load(s));
+            }
+        }
+    }
+
+    /**
+     * Checked under the lock: a first load still running when the course changed is rebuilt once it is in.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        for (Semester s : Semester.values()) {
+            synchronized (locks.get(s)) {
+                if (catalogs.containsKey(s)) catalogs.put(s, load(s));
+            }
+        }
+    }
+
+    private static Map<Semester, Object> semesterLocks() {
+        Map<Semester, Object> locks = new EnumMap<>(Semester.class);
+        for (Semester s : Semester.values()) locks.put(s, new Object());
+        return locks;
+    }
+
+    private OfferingCatalog load(Semester semester) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        return tx.execute(status -> {
+            List<TermCourseOfferingEntity> offerings = offeringRepository.findBySemesterWithCourse(semester);
+            List<PreferredScheduleTemplateEntity> templates = templateRepository.findBySemesterWithItems(semester);
+
+            // Snapshot outlives the session: initialize everything generation reads
+            Set<CourseEntity> seen = new HashSet<>();
+            for (TermCourseOfferingEntity o : offerings) {
+                CourseEntity c = o.getCourse();
+                if (c != null && seen.add(c)) Hibernate.initialize(c.getPrerequisites());
+            }
+
+            return OfferingCatalog.build(semester, versionSeq.incrementAndGet(), offerings, templates);
+        });
+    }
+}
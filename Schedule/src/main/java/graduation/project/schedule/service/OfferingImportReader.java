@@ -0,0 +1,230 @@
+package graduation.project.schedule.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graduation.project.schedule.domain.enums.MeetingPattern;
+import graduation.project.schedule.domain.enums.Semester;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Reads offering import rows one line at a time (never the whole input).
+ * - CSV: a header line names the columns (any order, case-insensitive; "course_code" = "courseCode"), values may be
+ *   double-quoted; one offering per line
+ * - NDJSON: one JSON object per line with the same field names
+ * Fields: semester (optional when the import names one), courseCode, sectionCode, pattern, startTime, endTime,
+ * capacity (optional, empty = unlimited). Blank lines are skipped.
+ * A malformed line throws IllegalArgumentException from {@link #next()}; the next call continues after it.
+ */
+final class OfferingImportReader implements Closeable {
+
+    enum Format { CSV, NDJSON }
+
+    /**
+     * One parsed line; line = 1-based line number in the input.
+     */
+    record Row(
+            long line,
+            Semester semester,
+            String courseCode,
+            String sectionCode,
+            MeetingPattern pattern,
+            LocalTime startTime,
+            LocalTime endTime,
+            Integer capacity
+    ) {}
+
+    private static final String BOM = "\uFEFF";
+    private static final List<String> REQUIRED = List.of("courseCode", "sectionCode", "pattern", "startTime", "endTime");
+
+    private final BufferedReader in;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private final Semester defaultSemester;
+
+    private Map<String, Integer> csvColumns; // field -> column, read from the header
+    private long lineNumber;
+
+    OfferingImportReader(Reader in, Format format, ObjectMapper objectMapper, Semester defaultSemester) {
+        this.in = in instanceof BufferedReader b ? b : new BufferedReader(in);
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.defaultSemester = defaultSemester;
+    }
+
+    /**
+     * Line number of the line last read (0 before the first).
+     */
+    long lineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * False until a CSV header has been read; a header error is an error of the whole input.
+     */
+    boolean started() {
+        return format == Format.NDJSON || csvColumns != null;
+    }
+
+    /**
+     * Next row, or null at the end of the input.
+     */
+    Row next() throws IOException {
+        while (true) {
+            String line = in.readLine();
+            if (line == null) return null;
+            lineNumber++;
+            if (lineNumber == 1 && line.startsWith(BOM)) line = line.substring(1); // Excel's "CSV UTF-8"
+            if (line.isBlank()) continue;
+
+            if (format == Format.NDJSON) return row(ndjsonFields(line));
+            if (csvColumns == null) {
+                csvColumns = csvHeader(line);
+                continue;
+            }
+            List<String> values = csvValues(line);
+            return row(field -> {
+                Integer column = csvColumns.get(field);
+                return column == null || column >= values.size() ? null : values.get(column);
+            });
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private Row row(Function<String, String> fields) {
+        String semester = blankToNull(fields.apply("semester"));
+        if (semester == null && defaultSemester == null) throw new IllegalArgumentException("semester is required");
+
+        String sectionCode = require(fields, "sectionCode");
+        if (sectionCode.length() > 32) throw new IllegalArgumentException("sectionCode is longer than 32 characters");
+
+        String capacity = blankToNull(fields.apply("capacity"));
+        return new Row(
+                lineNumber,
+                semester == null ? defaultSemester : parseEnum(Semester.class, "semester", semester),
+                require(fields, "courseCode"),
+                sectionCode,
+                parseEnum(MeetingPattern.class, "pattern", require(fields, "pattern")),
+                parseTime("startTime", require(fields, "startTime")),
+                parseTime("endTime", require(fields, "endTime")),
+                capacity == null ? null : parseCapacity(capacity)
+        );
+    }
+
+    private Function<String, String> ndjsonFields(String line) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Malformed JSON: " + ex.getOriginalMessage());
+        }
+        if (!node.isObject()) throw new IllegalArgumentException("Expected a JSON object");
+        return field -> {
+            JsonNode value = node.get(field);
+            return value == null || value.isNull() ? null : value.asText();
+        };
+    }
+
+    private static Map<String, Integer> csvHeader(String line) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = csvValues(line);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(canonicalField(names.get(i)), i);
+        }
+        for (String field : REQUIRED) {
+            if (!columns.containsKey(field)) throw new IllegalArgumentException("CSV header is missing column " + field);
+        }
+        return columns;
+    }
+
+    // "course_code", "CourseCode", " courseCode " -> "courseCode"
+    private static String canonicalField(String name) {
+        String key = name.replace("_", "").trim().toLowerCase(Locale.ROOT);
+        for (String field : List.of("semester", "courseCode", "sectionCode", "pattern", "startTime", "endTime", "capacity")) {
+            if (field.toLowerCase(Locale.ROOT).equals(key)) return field;
+        }
+        return key;
+    }
+
+    // RFC 4180 fields within one line: "a ""quoted"" value",plain
+    static List<String> csvValues(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch != '"') {
+                    value.append(ch);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(ch);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("Unterminated quoted value");
+        values.add(value.toString());
+        return values;
+    }
+
+    private static String require(Function<String, String> fields, String field) {
+        String value = blankToNull(fields.apply(field));
+        if (value == null) throw new IllegalArgumentException(field + " is required");
+        return value;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String field, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown " + field + ": " + value);
+        }
+    }
+
+    private static LocalTime parseTime(String field, String value) {
+        try {
+            return LocalTime.parse(value);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid " + field + " (expected HH:mm): " + value);
+        }
+    }
+
+    private static Integer parseCapacity(String value) {
+        try {
+            int capacity = Integer.parseInt(value);
+            if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1");
+            return capacity;
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid capacity: " + value);
+        }
+    }
+}
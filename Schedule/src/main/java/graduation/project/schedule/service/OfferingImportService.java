@@ -0,0 +1,256 @@
+package graduation.project.schedule.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graduation.project.schedule.domain.catalog.PrerequisiteGraph;
+import graduation.project.schedule.domain.enums.Semester;
+import graduation.project.schedule.domain.events.OfferingCatalogChangedEvent;
+import graduation.project.schedule.dto.OfferingImportErrorDto;
+import graduation.project.schedule.dto.OfferingImportResponse;
+import graduation.project.schedule.repo.CourseReadRepository;
+import graduation.project.schedule.util.TimeRanges;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk import of term offerings (admin), CSV or NDJSON, see {@link OfferingImportReader} for the format.
+ * - The input is read line by line and written in chunks of {@link #CHUNK_SIZE} rows, so memory does not grow
+ *   with the file
+ * - Per chunk: course codes resolved in one query (and remembered for later chunks), existing offerings found in
+ *   one query, then one JDBC batch of updates and one of inserts in a transaction
+ * - Upsert key = the (semester, course, section) unique constraint: an existing section is updated, a new one
+ *   inserted. Within the file, a later line for the same key wins
+ * - A bad line is reported and skipped; if a chunk fails in the database (e.g. a concurrent insert of the same
+ *   section), that chunk is rolled back and its lines reported, earlier chunks stay written
+ * The touched semesters' catalog snapshots are invalidated once, at the end.
+ */
+@Service
+@RequiredArgsConstructor
+public class OfferingImportService {
+
+    static final int CHUNK_SIZE = 500;
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final String FIND_EXISTING = """
+            select id, semester, course_id, section_code
+            from schedule_term_course_offering
+            where semester in (:semesters) and course_id in (:courseIds)
+            """;
+    private static final String UPDATE = """
+            update schedule_term_course_offering
+            set pattern = :pattern, start_time = :startTime, end_time = :endTime, capacity = :capacity
+            where id = :id
+            """;
+    private static final String INSERT = """
+            insert into schedule_term_course_offering
+                (semester, course_id, section_code, pattern, start_time, end_time, capacity)
+            values (:semester, :courseId, :sectionCode, :pattern, :startTime, :endTime, :capacity)
+            """;
+
+    private final CourseReadRepository courseReadRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    private record Key(Semester semester, long courseId, String sectionCode) {}
+
+    /**
+     * @param contentType text/csv or application/x-ndjson (charset defaults to UTF-8)
+     * @param defaultSemester semester of lines that do not name one (null = every line must)
+     */
+    public OfferingImportResponse importOfferings(InputStream body, MediaType contentType, Semester defaultSemester)
+            throws IOException {
+        OfferingImportReader.Format format = formatOf(contentType);
+        Charset charset = contentType.getCharset() == null ? StandardCharsets.UTF_8 : contentType.getCharset();
+
+        Tally tally = new Tally();
+        Set<Semester> touched = EnumSet.noneOf(Semester.class);
+        CourseCodes courseCodes = new CourseCodes();
+
+        try (OfferingImportReader reader = new OfferingImportReader(
+                new InputStreamReader(body, charset), format, objectMapper, defaultSemester)) {
+            List<OfferingImportReader.Row> chunk = new ArrayList<>(CHUNK_SIZE);
+            while (true) {
+                OfferingImportReader.Row row;
+                try {
+                    row = reader.next();
+                } catch (IllegalArgumentException ex) {
+                    if (!reader.started()) throw ex; // bad CSV header: nothing can be read
+                    tally.rows++;
+                    tally.fail(reader.lineNumber(), ex.getMessage());
+                    continue;
+                }
+                if (row == null) break;
+
+                tally.rows++;
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    writeChunk(chunk, courseCodes, tally, touched);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) writeChunk(chunk, courseCodes, tally, touched);
+        } finally {
+            // Chunks already committed stay, even if the upload broke off
+            if (!touched.isEmpty()) eventPublisher.publishEvent(new OfferingCatalogChangedEvent(Set.copyOf(touched)));
+        }
+
+        tally.errors.sort(Comparator.comparingLong(OfferingImportErrorDto::line));
+        return new OfferingImportResponse(tally.rows, tally.inserted, tally.updated, tally.failed,
+                tally.errors, tally.failed > tally.errors.size());
+    }
+
+    private void writeChunk(List<OfferingImportReader.Row> chunk, CourseCodes courseCodes, Tally tally,
+                            Set<Semester> touched) {
+        courseCodes.resolve(chunk);
+
+        Map<Key, OfferingImportReader.Row> byKey = new LinkedHashMap<>();
+        for (OfferingImportReader.Row row : chunk) {
+            try {
+                TimeRanges.requireValid(row.startTime(), row.endTime(), "Offering time");
+            } catch (IllegalArgumentException ex) {
+                tally.fail(row.line(), ex.getMessage());
+                continue;
+            }
+            Long courseId = courseCodes.idOf(row.courseCode());
+            if (courseId == null) {
+                tally.fail(row.line(), "Course not found: " + row.courseCode());
+                continue;
+            }
+            OfferingImportReader.Row previous = byKey.put(new Key(row.semester(), courseId, row.sectionCode()), row);
+            if (previous != null) {
+                tally.fail(previous.line(), "Superseded by line " + row.line() + " (same semester, course and section)");
+            }
+        }
+        if (byKey.isEmpty()) return;
+
+        Map<Key, Long> existing = findExisting(byKey.keySet());
+        List<SqlParameterSource> updates = new ArrayList<>();
+        List<SqlParameterSource> inserts = new ArrayList<>();
+        byKey.forEach((key, row) -> {
+            Long id = existing.get(key);
+            if (id != null) {
+                updates.add(params(key, row).addValue("id", id));
+            } else {
+                inserts.add(params(key, row));
+            }
+        });
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!updates.isEmpty()) jdbcTemplate.batchUpdate(UPDATE, updates.toArray(SqlParameterSource[]::new));
+                if (!inserts.isEmpty()) jdbcTemplate.batchUpdate(INSERT, inserts.toArray(SqlParameterSource[]::new));
+            });
+        } catch (DataAccessException ex) {
+            String message = "Not written, the chunk was rolled back: " + NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+            byKey.values().forEach(row -> tally.fail(row.line(), message));
+            return;
+        }
+
+        tally.updated += updates.size();
+        tally.inserted += inserts.size();
+        byKey.keySet().forEach(key -> touched.add(key.semester()));
+    }
+
+    private Map<Key, Long> findExisting(Set<Key> keys) {
+        Set<String> semesters = new HashSet<>();
+        Set<Long> courseIds = new HashSet<>();
+        for (Key key : keys) {
+            semesters.add(key.semester().name());
+            courseIds.add(key.courseId());
+        }
+
+        // Other sections of the same courses come back too; only the imported keys are kept
+        Map<Key, Long> existing = new HashMap<>();
+        jdbcTemplate.query(FIND_EXISTING,
+                new MapSqlParameterSource("semesters", semesters).addValue("courseIds", courseIds),
+                rs -> {
+                    Key key = new Key(Semester.valueOf(rs.getString("semester")), rs.getLong("course_id"),
+                            rs.getString("section_code"));
+                    if (keys.contains(key)) existing.put(key, rs.getLong("id"));
+                });
+        return existing;
+    }
+
+    private static MapSqlParameterSource params(Key key, OfferingImportReader.Row row) {
+        return new MapSqlParameterSource()
+                .addValue("semester", key.semester().name())
+                .addValue("courseId", key.courseId())
+                .addValue("sectionCode", key.sectionCode())
+                .addValue("pattern", row.pattern().name())
+                .addValue("startTime", Time.valueOf(row.startTime()))
+                .addValue("endTime", Time.valueOf(row.endTime()))
+                .addValue("capacity", row.capacity(), Types.INTEGER);
+    }
+
+    private static OfferingImportReader.Format formatOf(MediaType contentType) {
+        if (MediaType.valueOf("text/csv").isCompatibleWith(contentType)) return OfferingImportReader.Format.CSV;
+        if (NDJSON.isCompatibleWith(contentType)) return OfferingImportReader.Format.NDJSON;
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+    }
+
+    /**
+     * Normalized course code -> id for the whole import; each code is queried once.
+     * Codes match like everywhere else in the module ("cis 101" = "CIS101").
+     */
+    private final class CourseCodes {
+        private final Map<String, Long> ids = new HashMap<>();
+        private final Set<String> unknown = new HashSet<>();
+
+        void resolve(List<OfferingImportReader.Row> chunk) {
+            Set<String> missing = new HashSet<>();
+            for (OfferingImportReader.Row row : chunk) {
+                String code = PrerequisiteGraph.normalizeCode(row.courseCode());
+                if (!ids.containsKey(code) && !unknown.contains(code)) missing.add(code);
+            }
+            if (missing.isEmpty()) return;
+
+            for (CourseReadRepository.CourseCodeId c : courseReadRepository.findIdsByNormalizedCodeIn(missing)) {
+                ids.put(PrerequisiteGraph.normalizeCode(c.getCourseCode()), c.getId());
+            }
+            missing.removeAll(ids.keySet());
+            unknown.addAll(missing);
+        }
+
+        Long idOf(String courseCode) {
+            return ids.get(PrerequisiteGraph.normalizeCode(courseCode));
+        }
+    }
+
+    private static final class Tally {
+        long rows, inserted, updated, failed;
+        final List<OfferingImportErrorDto> errors = new ArrayList<>();
+
+        void fail(long line, String error) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new OfferingImportErrorDto(line, error));
+        }
+    }
+}
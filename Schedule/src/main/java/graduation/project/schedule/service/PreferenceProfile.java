@@ -0,0 +1,310 @@
+package graduation.project.schedule.service;
+
+import graduation.project.model.course.CourseEntity;
+import graduation.project.schedule.domain.catalog.CourseFeatures;
+import graduation.project.schedule.domain.catalog.OfferingCatalog;
+import graduation.project.schedule.domain.enums.ScheduleDay;
+import graduation.project.schedule.dto.GenerateScheduleRequest;
+import graduation.project.schedule.dto.TimeWindowDto;
+import graduation.project.schedule.dto.UnavailableBlockDto;
+import graduation.project.schedule.entity.TermCourseOfferingEntity;
+import graduation.project.schedule.util.PartialSchedule;
+import graduation.project.schedule.util.TimeRanges;
+import graduation.project.schedule.util.WeeklyMask;
+
+import java.util.*;
+
+/**
+ * A generation request compiled once against the catalog snapshot it runs on:
+ * - Unavailable blocks and preferred time windows are validated up front; the blocks are OR-ed into one weekly mask
+ * - Per offering (dense catalog index): hard-constraint feasibility, the schedule-independent section terms
+ *   (preferred/avoid days, time windows, earliest start / latest end) and course terms (recommended year/semester,
+ *   difficulty, tags)
+ * - Preferred tags: compiled to the catalog's tag ids, so tag matching and tag hits are bitset operations
+ * The search loops only add the state-dependent terms (compactness, gaps, difficulty quotas, elective bias), in the
+ * same order as before so scores stay bit-identical. Immutable after construction (shared by beam pool threads),
+ * apart from the thread-safe effort counters of the request's {@link GenerationStats}.
+ */
+final class PreferenceProfile {
+
+    private final GenerateScheduleRequest request;
+    private final OfferingCatalog catalog;
+    private final GenerationStats stats;
+
+    private final List<UnavailableBlockDto> blocks;
+    private final WeeklyMask unavailable;
+    private final List<TimeWindowDto> windows;
+
+    private final boolean anyPreferredTag;
+    private final BitSet preferredTagIds;
+
+    private final BitSet infeasible;
+    private final BitSet invalidTime;       // offering start/end invalid: reported when the offering is checked
+    private final double[] sectionScore;
+    private final double[] yearBonus;
+    private final double[] semesterBonus;
+    private final double[] difficulty;
+    private final double[] tags;
+
+    PreferenceProfile(GenerateScheduleRequest request, OfferingCatalog catalog, GenerationStats stats) {
+        this.request = request;
+        this.catalog = catalog;
+        this.stats = stats;
+
+        List<UnavailableBlockDto> b = new ArrayList<>();
+        WeeklyMask mask = WeeklyMask.EMPTY;
+        if (request.unavailableBlocks() != null) {
+            for (UnavailableBlockDto block : request.unavailableBlocks()) {
+                if (block == null) continue;
+                TimeRanges.requireValid(block.from(), block.to(), "Unavailable block");
+                b.add(block);
+                mask = mask.or(WeeklyMask.of(List.of(block.day()), block.from(), block.to()));
+            }
+        }
+        this.blocks = List.copyOf(b);
+        this.unavailable = mask;
+
+        List<TimeWindowDto> w = new ArrayList<>();
+        if (request.preferredTimeWindows() != null) {
+            for (TimeWindowDto window : request.preferredTimeWindows()) {
+                if (window == null) continue;
+                TimeRanges.requireValid(window.from(), window.to(), "Preferred time window");
+                w.add(window);
+            }
+        }
+        this.windows = List.copyOf(w);
+
+        Set<String> preferred = new HashSet<>();
+        if (request.preferredTags() != null) {
+            for (String tag : request.preferredTags()) {
+                String norm = CourseFeatures.normalizeTag(tag);
+                if (norm != null) preferred.add(norm);
+            }
+        }
+        this.anyPreferredTag = !preferred.isEmpty();
+        this.preferredTagIds = catalog.features().tagIds(preferred);
+
+        int n = catalog.offeringCount();
+        this.infeasible = new BitSet(n);
+        this.invalidTime = new BitSet(n);
+        this.sectionScore = new double[n];
+        this.yearBonus = new double[n];
+        this.semesterBonus = new double[n];
+        this.difficulty = new double[n];
+        this.tags = new double[n];
+
+        Map<Long, double[]> courseTerms = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            TermCourseOfferingEntity o = catalog.offering(i);
+            if (!validTime(o)) {
+                invalidTime.set(i);
+                continue;
+            }
+            if (blocked(o, catalog.mask(o))) infeasible.set(i);
+            sectionScore[i] = computeSectionScore(o);
+
+            CourseEntity c = o.getCourse();
+            double[] t = courseTerms.computeIfAbsent(c.getId(), k -> courseTerms(features(c)));
+            yearBonus[i] = t[0];
+            semesterBonus[i] = t[1];
+            difficulty[i] = t[2];
+            tags[i] = t[3];
+        }
+    }
+
+    GenerateScheduleRequest request() {
+        return request;
+    }
+
+    OfferingCatalog catalog() {
+        return catalog;
+    }
+
+    GenerationStats stats() {
+        return stats;
+    }
+
+    CourseFeatures.Course features(CourseEntity c) {
+        return catalog.features().of(c);
+    }
+
+    /**
+     * Strict elective-by-tags rule: true without preferred tags, else whether the course has any of them.
+     */
+    boolean matchesPreferredTag(CourseFeatures.Course course) {
+        return !anyPreferredTag || course.hasAnyTag(preferredTagIds);
+    }
+
+    /**
+     * Tag term of a course: 6 per preferred tag it has.
+     */
+    double tagScore(CourseFeatures.Course course) {
+        return course.tagHits(preferredTagIds) * 6;
+    }
+
+    /**
+     * Difficulty term of a course for the requested difficulty target.
+     */
+    double difficultyScore(CourseFeatures.Course course) {
+        return ScheduleGeneratorService.difficultyScoreStatic(request.difficultyTarget(), course.difficulty());
+    }
+
+    /**
+     * Hard constraints (unavailable blocks); throws for an offering with an invalid time range.
+     */
+    boolean feasible(TermCourseOfferingEntity o) {
+        int i = catalog.indexOf(o);
+        if (i < 0 || invalidTime.get(i)) {
+            TimeRanges.requireValid(o.getStartTime(), o.getEndTime(), "Offering time");
+            return !blocked(o, catalog.mask(o));
+        }
+        return !infeasible.get(i);
+    }
+
+    /**
+     * Section-level score of adding {@code o} to {@code schedule} (the schedule is only read).
+     * Compactness and long gaps are deltas answered by the incremental {@link PartialSchedule}.
+     */
+    double sectionScore(TermCourseOfferingEntity o, PartialSchedule schedule) {
+        stats.candidatesScored.increment();
+        return sectionScore(catalog.indexOf(o), o, schedule);
+    }
+
+    /**
+     * Step score of adding {@code o}: section score, then the course terms with the caller's difficulty quota
+     * adjustment and elective bias.
+     */
+    double stepScore(TermCourseOfferingEntity o, PartialSchedule schedule, double quotaAdjustment, double electiveBias) {
+        stats.candidatesScored.increment();
+        return stepScore(catalog.indexOf(o), o, schedule, quotaAdjustment, electiveBias);
+    }
+
+    /**
+     * The step score of {@code o} split into its parts, in ScoreBreakdownDto order with the total last, written to
+     * out[at .. at + 13). The parts come from the same compiled terms as {@link #stepScore} and the total is its sum,
+     * so an explanation shows the number the search used. Not counted as a scored candidate.
+     */
+    void breakdown(TermCourseOfferingEntity o, PartialSchedule schedule, double quotaAdjustment, double electiveBias,
+                   double[] out, int at) {
+        int i = catalog.indexOf(o);
+        double[] section = sectionTerms(o);
+        double[] course = (i < 0 || invalidTime.get(i))
+                ? courseTerms(features(o.getCourse()))
+                : new double[]{yearBonus[i], semesterBonus[i], difficulty[i], tags[i]};
+
+        System.arraycopy(section, 0, out, at, 4);
+        out[at + 4] = ScheduleGeneratorService.compactnessScore(request.compactnessPreference(), schedule, o);
+        out[at + 5] = Boolean.TRUE.equals(request.avoidLongGaps()) ? 0 - schedule.gapPenaltyIfAdded(o) : 0;
+        out[at + 6] = course[0];
+        out[at + 7] = course[1];
+        out[at + 8] = course[2];
+        out[at + 9] = quotaAdjustment;
+        out[at + 10] = course[3];
+        out[at + 11] = electiveBias;
+        out[at + 12] = stepScore(i, o, schedule, quotaAdjustment, electiveBias);
+    }
+
+    private double stepScore(int i, TermCourseOfferingEntity o, PartialSchedule schedule,
+                             double quotaAdjustment, double electiveBias) {
+        double score = sectionScore(i, o, schedule);
+        if (i < 0 || invalidTime.get(i)) {
+            double[] t = courseTerms(features(o.getCourse()));
+            score += t[0];
+            score += t[1];
+            score += t[2];
+            score += quotaAdjustment;
+            score += t[3];
+            score += electiveBias;
+            return score;
+        }
+
+        score += yearBonus[i];
+        score += semesterBonus[i];
+        score += difficulty[i];
+        score += quotaAdjustment;
+        score += tags[i];
+        score += electiveBias;
+        return score;
+    }
+
+    private double sectionScore(int i, TermCourseOfferingEntity o, PartialSchedule schedule) {
+        double score = (i < 0 || invalidTime.get(i)) ? computeSectionScore(o) : sectionScore[i];
+
+        score += ScheduleGeneratorService.compactnessScore(request.compactnessPreference(), schedule, o);
+
+        if (Boolean.TRUE.equals(request.avoidLongGaps())) {
+            score -= schedule.gapPenaltyIfAdded(o);
+        }
+        return score;
+    }
+
+    private double computeSectionScore(TermCourseOfferingEntity o) {
+        double[] t = sectionTerms(o);
+        return t[0] + t[1] + t[2] + t[3];
+    }
+
+    // Schedule-independent section terms: preferred days, avoided days, time windows, earliest start / latest end
+    private double[] sectionTerms(TermCourseOfferingEntity o) {
+        double[] t = new double[4];
+
+        List<ScheduleDay> preferredDays = request.preferredDays();
+        if (preferredDays != null && !preferredDays.isEmpty()) {
+            long hits = o.getPattern().days().stream().filter(preferredDays::contains).count();
+            t[0] += hits * 8;
+        }
+        List<ScheduleDay> avoidDays = request.avoidDays();
+        if (avoidDays != null && !avoidDays.isEmpty()) {
+            long hits = o.getPattern().days().stream().filter(avoidDays::contains).count();
+            t[1] -= hits * 12;
+        }
+
+        if (request.preferredTimeWindows() != null && !request.preferredTimeWindows().isEmpty()) {
+            boolean withinAny = false;
+            for (TimeWindowDto w : windows) {
+                if (TimeRanges.within(o.getStartTime(), o.getEndTime(), w.from(), w.to())) {
+                    withinAny = true;
+                    break;
+                }
+            }
+            t[2] += withinAny ? 10 : -5;
+        }
+
+        if (request.earliestStartTime() != null && o.getStartTime().isBefore(request.earliestStartTime())) {
+            t[3] -= 20;
+        }
+        if (request.latestEndTime() != null && o.getEndTime().isAfter(request.latestEndTime())) {
+            t[3] -= 20;
+        }
+        return t;
+    }
+
+    // Recommended year bonus, recommended semester bonus, difficulty, tags
+    private double[] courseTerms(CourseFeatures.Course f) {
+        int expectedRecSemester = ScheduleGeneratorService.mapSemesterToRecommendedSemesterStatic(request.nextSemester());
+        return new double[]{
+                f.recommendedYear() == request.nextYearLevel() ? 30 : 0,
+                f.recommendedSemester() == expectedRecSemester ? 15 : 0,
+                difficultyScore(f),
+                tagScore(f)
+        };
+    }
+
+    // The union mask rules out most offerings with one AND; otherwise the blocks are checked one by one
+    private boolean blocked(TermCourseOfferingEntity o, WeeklyMask mask) {
+        if (blocks.isEmpty() || !mask.intersects(unavailable)) return false;
+
+        for (UnavailableBlockDto b : blocks) {
+            if (!mask.intersects(b.day(), b.from(), b.to())) continue;
+
+            boolean exact = mask.isExact() && WeeklyMask.aligned(b.from()) && WeeklyMask.aligned(b.to());
+            if (exact || TimeRanges.overlaps(o.getStartTime(), o.getEndTime(), b.from(), b.to())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean validTime(TermCourseOfferingEntity o) {
+        return o.getStartTime() != null && o.getEndTime() != null && o.getStartTime().isBefore(o.getEndTime());
+    }
+}
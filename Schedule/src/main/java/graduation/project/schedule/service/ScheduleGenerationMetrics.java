@@ -0,0 +1,85 @@
+package graduation.project.schedule.service;
+
+import graduation.project.schedule.domain.enums.Semester;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters of the schedule generator, tagged by semester (served by /actuator/metrics):
+ * - schedule.generation: whole generation; schedule.generation.phase: per phase (tag phase; the searches are
+ *   beam = beam fallback, topk = ranked top-K pass, optimal = branch-and-bound)
+ * - schedule.generation.candidates.scored / conflict.checks: sections scored / conflict checks, all phases
+ * - schedule.generation.search.states.expanded / pruned: beam and branch-and-bound states
+ *   (pruned = cut by the beam width or by the branch-and-bound bound)
+ * - schedule.generation.search.runs / wins: searches run / searches whose schedule replaced the greedy one
+ * Meters are registered once per semester; a request only adds to them.
+ */
+@Component
+public class ScheduleGenerationMetrics {
+
+    private final Map<Semester, Meters> meters = new EnumMap<>(Semester.class);
+
+    public ScheduleGenerationMetrics(MeterRegistry registry) {
+        for (Semester semester : Semester.values()) meters.put(semester, new Meters(registry, semester));
+    }
+
+    void record(Semester semester, GenerationStats stats) {
+        Meters m = meters.get(semester);
+        if (m == null) return;
+
+        m.total.record(stats.elapsedNanos(), TimeUnit.NANOSECONDS);
+        for (GenerationStats.Phase phase : GenerationStats.Phase.values()) {
+            if (stats.ran(phase)) m.phases.get(phase).record(stats.phaseNanos(phase), TimeUnit.NANOSECONDS);
+        }
+
+        m.candidatesScored.increment(stats.candidatesScored.sum());
+        m.conflictChecks.increment(stats.conflictChecks.sum());
+        m.statesExpanded.increment(stats.statesExpanded);
+        m.statesPruned.increment(stats.statesPruned);
+        if (stats.searchRan) m.searchRuns.increment();
+        if (stats.searchWon) m.searchWins.increment();
+    }
+
+    private static final class Meters {
+        final Timer total;
+        final Map<GenerationStats.Phase, Timer> phases = new EnumMap<>(GenerationStats.Phase.class);
+        final Counter candidatesScored;
+        final Counter conflictChecks;
+        final Counter statesExpanded;
+        final Counter statesPruned;
+        final Counter searchRuns;
+        final Counter searchWins;
+
+        Meters(MeterRegistry registry, Semester semester) {
+            String tag = semester.name();
+            total = Timer.builder("schedule.generation")
+                    .description("Schedule generation time")
+                    .tag("semester", tag)
+                    .register(registry);
+            for (GenerationStats.Phase phase : GenerationStats.Phase.values()) {
+                phases.put(phase, Timer.builder("schedule.generation.phase")
+                        .description("Schedule generation time per phase")
+                        .tag("semester", tag)
+                        .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                        .register(registry));
+            }
+            candidatesScored = counter(registry, "schedule.generation.candidates.scored", "Sections scored", tag);
+            conflictChecks = counter(registry, "schedule.generation.conflict.checks", "Section conflict checks", tag);
+            statesExpanded = counter(registry, "schedule.generation.search.states.expanded", "Search states expanded", tag);
+            statesPruned = counter(registry, "schedule.generation.search.states.pruned", "Search states pruned", tag);
+            searchRuns = counter(registry, "schedule.generation.search.runs", "Beam/optimal searches run", tag);
+            searchWins = counter(registry, "schedule.generation.search.wins", "Searches that beat the greedy schedule", tag);
+        }
+
+        private static Counter counter(MeterRegistry registry, String name, String description, String semester) {
+            return Counter.builder(name).description(description).tag("semester", semester).register(registry);
+        }
+    }
+}
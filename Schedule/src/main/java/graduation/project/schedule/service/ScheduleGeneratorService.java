@@ -1,46 +1,48 @@
 // File: Schedule/src/main/java/graduation/project/schedule/service/ScheduleGeneratorService.java
 package graduation.project.schedule.service;
 
-import graduation.project.USER.models.user.UserProfile;
-import graduation.project.USER.repo.UserRepo;
-import graduation.project.model.Items.Prerequisites;
 import graduation.project.model.course.CourseEntity;
+import graduation.project.schedule.config.ScheduleGenerationProperties;
+import graduation.project.schedule.domain.catalog.CompletedCourses;
+import graduation.project.schedule.domain.catalog.CourseFeatures;
+import graduation.project.schedule.domain.catalog.OfferingCatalog;
 import graduation.project.schedule.domain.enums.CompactnessPreference;
+import graduation.project.schedule.domain.enums.DifficultyBucket;
 import graduation.project.schedule.domain.enums.DifficultyTarget;
+import graduation.project.schedule.domain.enums.GenerationMode;
 import graduation.project.schedule.domain.enums.ScheduleDay;
 import graduation.project.schedule.domain.enums.Semester;
+import graduation.project.schedule.domain.student.AcademicRecord;
 import graduation.project.schedule.dto.*;
 import graduation.project.schedule.dto.explenations.*;
-import graduation.project.schedule.entity.PreferredScheduleTemplateEntity;
 import graduation.project.schedule.entity.TermCourseOfferingEntity;
-import graduation.project.schedule.repo.PreferredScheduleTemplateRepository;
-import graduation.project.schedule.repo.TermCourseOfferingRepository;
-import graduation.project.schedule.repo.UserCompletedCourseRepository;
+import graduation.project.schedule.service.DecisionTrace.Note;
 import graduation.project.schedule.util.CurrentUserService;
 import graduation.project.schedule.util.OfferingSlots;
+import graduation.project.schedule.util.PartialSchedule;
 import graduation.project.schedule.util.TimeRanges;
+import graduation.project.schedule.util.WeeklyMask;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalTime;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ScheduleGeneratorService {
 
-    private static final int MAX_ELECTIVE_COURSES_LIFETIME = 3;
-    private static final int MAX_ELECTIVE_CREDIT_HOURS_LIFETIME = 9;
-
-    // Beam-search fallback knobs (only used if greedy can't meet semester minimum)
-    private static final int BEAM_WIDTH = 12;
-    private static final int TOP_OFFERINGS_PER_COURSE = 2;
+    static final int MAX_ELECTIVE_COURSES_LIFETIME = 3;
+    static final int MAX_ELECTIVE_CREDIT_HOURS_LIFETIME = 9;
 
     // Explain mode caps (avoid huge payloads)
     private static final int MAX_SKIP_REASONS = 220;
 
+    // Upper bound of alternativesPerCourse (same as the request validation)
+    private static final int MAX_ALTERNATIVES_PER_COURSE = 5;
+
     // Deterministic tie-break epsilon
     private static final double SCORE_EPS = 1e-9;
 
@@ -51,30 +53,71 @@ public class ScheduleGeneratorService {
     private static final long COURSE_ER3_ID = 33L;              // requires 90 hours
     private static final long COURSE_INTERNSHIP_CERT_ID = 34L;  // requires 90 hours
 
-    private final CurrentUserService currentUserService;
-    private final UserCompletedCourseRepository completedCourseRepository;
-    private final TermCourseOfferingRepository offeringRepository;
-    private final PreferredScheduleTemplateRepository templateRepository;
+    private final AcademicRecordService academicRecordService;
+    private final OfferingCatalogService catalogService;
 
-    // ✅ Added: read completedHours from UserProfile
-    private final UserRepo userProfileRepository;
+    // Beam-search fallback knobs (only used if greedy can't meet semester minimum)
+    private final ScheduleGenerationProperties properties;
+    private final ForkJoinPool scheduleSearchPool;
+
+    private final CurrentUserService currentUserService;
+    private final ScheduleResultCache resultCache;
+    private final ScheduleGenerationMetrics metrics;
 
     /**
      * DEBUG/TEST: respects req.explain() and returns FULL payload.
      */
     @Transactional(readOnly = true)
     public GeneratedScheduleResponse generate(GenerateScheduleRequest req) {
+        return generate(currentUserService.currentUserEmailOrThrow(), req);
+    }
+
+    /**
+     * Same as {@link #generate(GenerateScheduleRequest)} for a user resolved by the caller (async jobs run off the
+     * request thread, without its security context).
+     */
+    @Transactional(readOnly = true)
+    public GeneratedScheduleResponse generate(String email, GenerateScheduleRequest req) {
         boolean explain = Boolean.TRUE.equals(req.explain());
-        return generateInternal(req, explain);
+        return generateInternal(req, explain, academicRecordService.forEmail(email), catalogService.snapshot(req.nextSemester()),
+                resolveDeadline(req));
     }
 
     /**
      * USER: always forces explain=false and returns SLIM payload.
+     * Identical requests (reloads/retries) against the same record + catalog versions are served from the result cache.
      */
     @Transactional(readOnly = true)
     public UserGeneratedScheduleResponse generateUser(GenerateScheduleRequest req) {
-        GeneratedScheduleResponse full = generateInternal(req, false);
+        return generateUser(currentUserService.currentUserEmailOrThrow(), req);
+    }
+
+    /**
+     * Same as {@link #generateUser(GenerateScheduleRequest)} for a user resolved by the caller (async jobs).
+     */
+    @Transactional(readOnly = true)
+    public UserGeneratedScheduleResponse generateUser(String email, GenerateScheduleRequest req) {
+        AcademicRecord record = academicRecordService.forEmail(email);
+        OfferingCatalog catalog = catalogService.snapshot(req.nextSemester());
+
+        // Started before the cache: time spent waiting on an identical in-flight generation counts against it
+        SearchDeadline deadline = resolveDeadline(req);
+
+        return resultCache.getOrCompute(
+                ScheduleResultCache.key(email, record, catalog, req),
+                deadline,
+                () -> toUserResponse(generateInternal(req, false, record, catalog, deadline))
+        );
+    }
+
+    /**
+     * Batch path (admin cohort generation): slim response for a record/catalog resolved by the caller.
+     */
+    UserGeneratedScheduleResponse generateForRecord(GenerateScheduleRequest req, AcademicRecord record, OfferingCatalog catalog) {
+        return toUserResponse(generateInternal(req, false, record, catalog, resolveDeadline(req)));
+    }
 
+    private static UserGeneratedScheduleResponse toUserResponse(GeneratedScheduleResponse full) {
         return new UserGeneratedScheduleResponse(
                 full.semester(),
                 full.yearLevel(),
@@ -88,55 +131,57 @@ public class ScheduleGeneratorService {
                 full.metMinimum(),
                 full.targetElectives(),
                 full.achievedElectives(),
-                full.metElectiveTarget()
+                full.metElectiveTarget(),
+                full.options(),
+                full.truncated()
         );
     }
 
     /**
      * Single source of truth: all logic lives here.
+     * The caller resolves the academic record and catalog snapshot (the result cache keys on their versions).
      */
-    private GeneratedScheduleResponse generateInternal(GenerateScheduleRequest req, boolean explain) {
-        Long userId = currentUserService.currentUserIdOrThrow();
+    private GeneratedScheduleResponse generateInternal(GenerateScheduleRequest req,
+                                                       boolean explain,
+                                                       AcademicRecord record,
+                                                       OfferingCatalog catalog,
+                                                       SearchDeadline deadline) {
+        // Per-phase timings and search effort, recorded to the generator metrics at the end
+        GenerationStats stats = new GenerationStats();
+
+        // Separate "base warnings" (rule clamps etc.) from "selection warnings" (skips/conflicts)
+        List<String> warnings = new ArrayList<>();
 
-        ExplainCtx explainCtx = explain ? new ExplainCtx(MAX_SKIP_REASONS) : null;
+        // Anytime mode: the caller started the request's latency budget
+        if (req.deadlineMs() != null && req.deadlineMs() > properties.deadline().maxMs()) {
+            warnings.add("Requested deadlineMs=" + req.deadlineMs() + " exceeds the maximum. Adjusted to "
+                    + properties.deadline().maxMs() + ".");
+        }
+
+        DecisionTrace trace = explain ? new DecisionTrace(catalog, MAX_SKIP_REASONS) : null;
+
+        // Request compiled against the snapshot: inputs validated once, per-offering feasibility and static scores
+        PreferenceProfile profile = new PreferenceProfile(req, catalog, stats);
 
         // ✅ Read user's completedHours (used as training-hours gate in this rule)
-        int completedHours = userProfileRepository.findById(userId)
-                .map(UserProfile::getCompletedHours)
-                .filter(Objects::nonNull)
-                .orElse(0);
+        int completedHours = record.completedHours();
 
         // Completed courses (server-side only)
-        Set<Long> completedCourseIds = new HashSet<>(completedCourseRepository.findCompletedCourseIdsByUserId(userId));
+        Set<Long> completedCourseIds = record.completedCourseIds();
 
-        // IMPORTANT FIX: normalize completed codes once (robust prereq matching)
-        Set<String> completedCourseCodes = completedCourseRepository.findCompletedCourseCodesByUserId(userId).stream()
-                .filter(Objects::nonNull)
-                .map(ScheduleGeneratorService::normalizeCourseCode)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+        List<String> completedCodesRaw = record.completedCourseCodes();
 
         // Lifetime elective cap (completed so far)
-        long completedElectiveCount = completedCourseRepository.countCompletedElectiveCoursesByUserId(userId);
-        long completedElectiveHours = completedCourseRepository.sumCompletedElectiveCreditHoursByUserId(userId);
+        long completedElectiveCount = record.completedElectiveCount();
+        long completedElectiveHours = record.completedElectiveHours();
 
         // Track what we add in THIS generated schedule (so we don't exceed lifetime cap)
         long selectedElectiveCount = 0;
         long selectedElectiveHours = 0;
 
-        // Offerings for semester
-        List<TermCourseOfferingEntity> allOfferings = offeringRepository.findBySemesterWithCourse(req.nextSemester());
-        Map<Long, List<TermCourseOfferingEntity>> offeringsByCourseId = allOfferings.stream()
-                .collect(Collectors.groupingBy(o -> o.getCourse().getId()));
-
-        // Make offering lists deterministic (DB order is not guaranteed)
-        for (List<TermCourseOfferingEntity> list : offeringsByCourseId.values()) {
-            if (list == null || list.size() <= 1) continue;
-            list.sort(ScheduleGeneratorService::compareOfferingsDeterministic);
-        }
+        // IMPORTANT FIX: normalize completed codes once (robust prereq matching), compiled against the snapshot's prerequisite graph
+        CompletedCourses completedCourses = catalog.prerequisites().completed(completedCodesRaw);
 
-        // Separate "base warnings" (rule clamps etc.) from "selection warnings" (skips/conflicts)
-        List<String> warnings = new ArrayList<>();
         List<String> selectionWarnings = new ArrayList<>();
 
         // Resolve course-count rules (min/max/default) by semester, then clamp target into allowed range
@@ -150,6 +195,9 @@ public class ScheduleGeneratorService {
 
         Integer electiveTarget = resolveElectiveTarget(req.desiredElectiveCount(), targetCount, lifetimeElectiveCapReached, warnings);
 
+        // Top-K mode: how many ranked distinct schedules to return
+        int topK = resolveTopK(req.topK(), warnings);
+
         // Normalize user preferred tags once (quote-safe)
         Set<String> preferredTagsNorm = normalizePreferredTags(req.preferredTags());
 
@@ -163,220 +211,216 @@ public class ScheduleGeneratorService {
         }
 
         // Preferred template (optional)
-        Optional<PreferredScheduleTemplateEntity> templateOpt = templateRepository
-                .findBySemesterAndYearLevel(req.nextSemester(), req.nextYearLevel());
+        Optional<List<Long>> templateOpt = catalog.templateCourseIds(req.nextYearLevel());
 
-        List<Long> templateCourseIds = templateOpt
-                .map(t -> t.getItems().stream().map(it -> it.getCourse().getId()).toList())
-                .orElse(List.of());
+        List<Long> templateCourseIds = templateOpt.orElse(List.of());
 
         boolean templateUsed = false;
-        List<SelectedOffering> selected = new ArrayList<>();
+        IncrementalSelection selected = new IncrementalSelection(catalog);
 
         // Track selection phase for explain/score breakdown
         Map<Long, ExplainPhase> selectedPhase = explain ? new HashMap<>() : null;
 
+        // 0) Locked sections (lock and re-solve): kept as they are, every later phase only fills the remaining slots
+        List<SelectedOffering> locked = resolveLockedOfferings(
+                req,
+                catalog,
+                completedCourseIds,
+                completedCourses,
+                targetCount,
+                completedElectiveCount,
+                completedElectiveHours,
+                completedHours,
+                warnings // not selectionWarnings: a beam rebuild replaces those, ignored locks must still be reported
+        );
+        selected.addAll(locked);
+        if (selectedPhase != null) {
+            for (SelectedOffering so : locked) selectedPhase.put(so.course().getId(), ExplainPhase.LOCKED);
+        }
+        long[] lockedElectives = recalcSelectedElectives(catalog, selected);
+        selectedElectiveCount = lockedElectives[0];
+        selectedElectiveHours = lockedElectives[1];
+
         // 1) Add must-takes first (if enabled)
+        long phaseStart = stats.mark();
         if (Boolean.TRUE.equals(req.pinMustTakesFirst())) {
             for (Long courseId : mustTake) {
+                if (selected.size() >= targetCount) break;
+                if (containsCourse(selected, courseId)) continue; // locked section of this course
+
                 if (completedCourseIds.contains(courseId)) {
                     selectionWarnings.add("Must-take already completed (skipped): courseId=" + courseId);
-                    if (explainCtx != null) {
-                        explainCtx.addSkip(new SkipReasonDto(
-                                ExplainPhase.MUST_TAKE, SkipReasonCode.ALREADY_COMPLETED,
-                                courseId, null, null,
-                                "Must-take is already completed."
-                        ));
+                    if (trace != null) {
+                        trace.skip(ExplainPhase.MUST_TAKE, SkipReasonCode.ALREADY_COMPLETED, courseId, Note.MUST_TAKE_COMPLETED);
                     }
                     continue;
                 }
 
                 TermCourseOfferingEntity chosen = chooseBestOfferingForCourse(
-                        req,
+                        profile,
                         courseId,
-                        offeringsByCourseId,
-                        completedCourseCodes,
+                        catalog,
+                        completedCourses,
                         selected,
                         selectionWarnings,
-                        explainCtx,
+                        trace,
                         ExplainPhase.MUST_TAKE,
                         completedHours
                 );
 
                 if (chosen != null) {
                     CourseEntity c = chosen.getCourse();
+                    CourseFeatures.Course f = profile.features(c);
 
                     // per-schedule elective cap/target (strict: do not exceed)
-                    if (electiveTarget != null && electiveTarget >= 0 && isElective(c) && selectedElectiveCount >= electiveTarget) {
+                    if (electiveTarget != null && electiveTarget >= 0 && f.elective() && selectedElectiveCount >= electiveTarget) {
                         selectionWarnings.add("Elective target reached for this schedule (skipped must-take elective): "
                                 + c.getCourseName() + " (" + c.getCourseCode() + "). Increase desiredElectiveCount if you want it.");
 
-                        if (explainCtx != null) {
-                            explainCtx.addSkip(new SkipReasonDto(
-                                    ExplainPhase.MUST_TAKE, SkipReasonCode.ELECTIVE_TARGET_REACHED,
-                                    c.getId(), c.getCourseCode(), c.getCourseName(),
-                                    "Elective target already reached inside this schedule."
-                            ));
+                        if (trace != null) {
+                            trace.skip(ExplainPhase.MUST_TAKE, SkipReasonCode.ELECTIVE_TARGET_REACHED, c.getId(), Note.ELECTIVE_TARGET_REACHED);
                         }
                         continue;
                     }
 
                     // STRICT elective-by-tags while we still need electives
-                    if (enforceElectiveTags && isElective(c) && selectedElectiveCount < electiveTarget
-                            && !matchesAnyPreferredTag(c.getTags(), preferredTagsNorm)) {
+                    if (enforceElectiveTags && f.elective() && selectedElectiveCount < electiveTarget
+                            && !profile.matchesPreferredTag(f)) {
                         selectionWarnings.add("Skipped elective (does not match selected tags): "
                                 + c.getCourseName() + " (" + c.getCourseCode() + ")");
 
-                        if (explainCtx != null) {
-                            explainCtx.addSkip(new SkipReasonDto(
-                                    ExplainPhase.MUST_TAKE, SkipReasonCode.TAG_MISMATCH,
-                                    c.getId(), c.getCourseCode(), c.getCourseName(),
-                                    "Elective tags are enforced and this course doesn't match the selected tags."
-                            ));
+                        if (trace != null) {
+                            trace.skip(ExplainPhase.MUST_TAKE, SkipReasonCode.TAG_MISMATCH, c.getId(), Note.TAG_MISMATCH);
                         }
                         continue;
                     }
 
                     // lifetime elective cap (strict)
-                    if (!canAddCourseByElectiveLimit(c, completedElectiveCount, completedElectiveHours, selectedElectiveCount, selectedElectiveHours)) {
+                    if (!canAddCourseByElectiveLimit(f, completedElectiveCount, completedElectiveHours, selectedElectiveCount, selectedElectiveHours)) {
                         selectionWarnings.add("Elective lifetime limit reached (skipped): " + c.getCourseName() + " (" + c.getCourseCode() + ")");
 
-                        if (explainCtx != null) {
-                            explainCtx.addSkip(new SkipReasonDto(
-                                    ExplainPhase.MUST_TAKE, SkipReasonCode.LIFETIME_ELECTIVE_CAP,
-                                    c.getId(), c.getCourseCode(), c.getCourseName(),
-                                    "Adding this elective would exceed lifetime elective limits."
-                            ));
+                        if (trace != null) {
+                            trace.skip(ExplainPhase.MUST_TAKE, SkipReasonCode.LIFETIME_ELECTIVE_CAP, c.getId(), Note.LIFETIME_ELECTIVE_CAP);
                         }
                         continue;
                     }
 
                     // NOTE: Must-takes are allowed to override elective reservation behavior.
-                    selected.add(new SelectedOffering(chosen));
+                    selected.add(new SelectedOffering(chosen, catalog.indexOf(chosen)));
                     if (selectedPhase != null) selectedPhase.put(c.getId(), ExplainPhase.MUST_TAKE);
 
-                    if (isElective(c)) {
+                    if (f.elective()) {
                         selectedElectiveCount++;
-                        selectedElectiveHours += c.getCreditHours();
+                        selectedElectiveHours += f.creditHours();
                     }
 
                     if (selected.size() >= targetCount) break;
                 } else {
                     selectionWarnings.add("Must-take could not be scheduled due to constraints/conflicts: courseId=" + courseId);
-                    if (explainCtx != null) {
-                        explainCtx.addSkip(new SkipReasonDto(
-                                ExplainPhase.MUST_TAKE, SkipReasonCode.NO_FEASIBLE_SECTION,
-                                courseId, null, null,
-                                "No offered section can fit constraints / conflicts for this must-take."
-                        ));
+                    if (trace != null) {
+                        trace.skip(ExplainPhase.MUST_TAKE, SkipReasonCode.NO_FEASIBLE_SECTION, courseId, Note.MUST_TAKE_NO_SECTION);
                     }
                 }
             }
         }
 
+        stats.phase(GenerationStats.Phase.MUST_TAKE, phaseStart);
+
         // 2) Try template (only if it has any not-completed)
         boolean templateHasAnyNotCompleted = templateCourseIds.stream().anyMatch(id -> !completedCourseIds.contains(id));
 
         if (templateOpt.isPresent() && templateHasAnyNotCompleted) {
+            phaseStart = stats.mark();
             for (Long courseId : templateCourseIds) {
                 if (selected.size() >= targetCount) break;
                 if (completedCourseIds.contains(courseId)) continue;
                 if (containsCourse(selected, courseId)) continue;
 
                 TermCourseOfferingEntity chosen = chooseBestOfferingForCourse(
-                        req,
+                        profile,
                         courseId,
-                        offeringsByCourseId,
-                        completedCourseCodes,
+                        catalog,
+                        completedCourses,
                         selected,
                         selectionWarnings,
-                        explainCtx,
+                        trace,
                         ExplainPhase.TEMPLATE,
                         completedHours
                 );
 
                 if (chosen != null) {
                     CourseEntity c = chosen.getCourse();
+                    CourseFeatures.Course f = profile.features(c);
 
                     // ✅ Elective slot reservation: don't add a non-elective if it would make electiveTarget impossible.
-                    if (wouldBlockElectiveTarget(targetCount, electiveTarget, selected.size(), selectedElectiveCount, c)) {
+                    if (wouldBlockElectiveTarget(targetCount, electiveTarget, selected.size(), selectedElectiveCount, f)) {
                         selectionWarnings.add("Reserved elective slots to meet desiredElectiveCount (skipped template non-elective): "
                                 + c.getCourseName() + " (" + c.getCourseCode() + ")");
                         continue;
                     }
 
                     // per-schedule elective cap/target
-                    if (electiveTarget != null && electiveTarget >= 0 && isElective(c) && selectedElectiveCount >= electiveTarget) {
+                    if (electiveTarget != null && electiveTarget >= 0 && f.elective() && selectedElectiveCount >= electiveTarget) {
                         selectionWarnings.add("Elective target reached for this schedule (skipped template elective): "
                                 + c.getCourseName() + " (" + c.getCourseCode() + ")");
 
-                        if (explainCtx != null) {
-                            explainCtx.addSkip(new SkipReasonDto(
-                                    ExplainPhase.TEMPLATE, SkipReasonCode.ELECTIVE_TARGET_REACHED,
-                                    c.getId(), c.getCourseCode(), c.getCourseName(),
-                                    "Elective target already reached inside this schedule."
-                            ));
+                        if (trace != null) {
+                            trace.skip(ExplainPhase.TEMPLATE, SkipReasonCode.ELECTIVE_TARGET_REACHED, c.getId(), Note.ELECTIVE_TARGET_REACHED);
                         }
                         continue;
                     }
 
                     // STRICT elective-by-tags while we still need electives
-                    if (enforceElectiveTags && isElective(c) && selectedElectiveCount < electiveTarget
-                            && !matchesAnyPreferredTag(c.getTags(), preferredTagsNorm)) {
+                    if (enforceElectiveTags && f.elective() && selectedElectiveCount < electiveTarget
+                            && !profile.matchesPreferredTag(f)) {
                         selectionWarnings.add("Skipped elective (does not match selected tags): "
                                 + c.getCourseName() + " (" + c.getCourseCode() + ")");
 
-                        if (explainCtx != null) {
-                            explainCtx.addSkip(new SkipReasonDto(
-                                    ExplainPhase.TEMPLATE, SkipReasonCode.TAG_MISMATCH,
-                                    c.getId(), c.getCourseCode(), c.getCourseName(),
-                                    "Elective tags are enforced and this course doesn't match the selected tags."
-                            ));
+                        if (trace != null) {
+                            trace.skip(ExplainPhase.TEMPLATE, SkipReasonCode.TAG_MISMATCH, c.getId(), Note.TAG_MISMATCH);
                         }
                         continue;
                     }
 
-                    if (!canAddCourseByElectiveLimit(c, completedElectiveCount, completedElectiveHours, selectedElectiveCount, selectedElectiveHours)) {
+                    if (!canAddCourseByElectiveLimit(f, completedElectiveCount, completedElectiveHours, selectedElectiveCount, selectedElectiveHours)) {
                         selectionWarnings.add("Elective lifetime limit reached (skipped): " + c.getCourseName() + " (" + c.getCourseCode() + ")");
 
-                        if (explainCtx != null) {
-                            explainCtx.addSkip(new SkipReasonDto(
-                                    ExplainPhase.TEMPLATE, SkipReasonCode.LIFETIME_ELECTIVE_CAP,
-                                    c.getId(), c.getCourseCode(), c.getCourseName(),
-                                    "Adding this elective would exceed lifetime elective limits."
-                            ));
+                        if (trace != null) {
+                            trace.skip(ExplainPhase.TEMPLATE, SkipReasonCode.LIFETIME_ELECTIVE_CAP, c.getId(), Note.LIFETIME_ELECTIVE_CAP);
                         }
                         continue;
                     }
 
-                    selected.add(new SelectedOffering(chosen));
+                    selected.add(new SelectedOffering(chosen, catalog.indexOf(chosen)));
                     if (selectedPhase != null) selectedPhase.put(c.getId(), ExplainPhase.TEMPLATE);
 
                     templateUsed = true;
 
-                    if (isElective(c)) {
+                    if (f.elective()) {
                         selectedElectiveCount++;
-                        selectedElectiveHours += c.getCreditHours();
+                        selectedElectiveHours += f.creditHours();
                     }
                 } else {
                     // Template course couldn't be scheduled (already explained inside chooseBestOfferingForCourse)
                 }
             }
+            stats.phase(GenerationStats.Phase.TEMPLATE, phaseStart);
 
             // ✅ Backlog AFTER template, BEFORE pool
             if (selected.size() < targetCount) {
+                phaseStart = stats.mark();
                 int backlogAdded = fillFromBacklog(
-                        req,
+                        profile,
                         targetCount,
                         electiveTarget,
                         preferredTagsNorm,
                         enforceElectiveTags,
-                        offeringsByCourseId,
+                        catalog,
                         completedCourseIds,
-                        completedCourseCodes,
+                        completedCourses,
                         selected,
                         selectionWarnings,
-                        explainCtx,
+                        trace,
                         selectedPhase,
                         completedElectiveCount,
                         completedElectiveHours,
@@ -385,25 +429,27 @@ public class ScheduleGeneratorService {
                         completedHours
                 );
 
-                long[] recalc = recalcSelectedElectives(selected);
+                long[] recalc = recalcSelectedElectives(catalog, selected);
                 selectedElectiveCount = recalc[0];
                 selectedElectiveHours = recalc[1];
 
-                if (backlogAdded == 0 && backlogExists(req, offeringsByCourseId, completedCourseIds, selected)) {
+                if (backlogAdded == 0 && backlogExists(req, catalog, completedCourseIds, selected)) {
                     selectionWarnings.add("Backlog exists (earlier-year courses not completed), but none could be scheduled due to prerequisites/conflicts/constraints.");
                 }
+                stats.phase(GenerationStats.Phase.BACKLOG, phaseStart);
             }
 
             if (selected.size() < targetCount) {
+                phaseStart = stats.mark();
                 List<Long> exclude = selected.stream().map(s -> s.course().getId()).toList();
                 fillFromPool(
-                        req,
+                        profile,
                         targetCount,
                         electiveTarget,
                         preferredTagsNorm,
-                        offeringsByCourseId,
+                        catalog,
                         completedCourseIds,
-                        completedCourseCodes,
+                        completedCourses,
                         exclude,
                         selected,
                         selectionWarnings,
@@ -413,6 +459,7 @@ public class ScheduleGeneratorService {
                         selectedElectiveHours,
                         completedHours
                 );
+                stats.phase(GenerationStats.Phase.POOL, phaseStart);
 
                 if (selectedPhase != null) {
                     for (SelectedOffering so : selected) {
@@ -420,7 +467,7 @@ public class ScheduleGeneratorService {
                     }
                 }
 
-                long[] recalc = recalcSelectedElectives(selected);
+                long[] recalc = recalcSelectedElectives(catalog, selected);
                 selectedElectiveCount = recalc[0];
                 selectedElectiveHours = recalc[1];
             }
@@ -428,18 +475,19 @@ public class ScheduleGeneratorService {
 
             // ✅ Backlog AFTER (no template), BEFORE pool
             if (selected.size() < targetCount) {
+                phaseStart = stats.mark();
                 int backlogAdded = fillFromBacklog(
-                        req,
+                        profile,
                         targetCount,
                         electiveTarget,
                         preferredTagsNorm,
                         enforceElectiveTags,
-                        offeringsByCourseId,
+                        catalog,
                         completedCourseIds,
-                        completedCourseCodes,
+                        completedCourses,
                         selected,
                         selectionWarnings,
-                        explainCtx,
+                        trace,
                         selectedPhase,
                         completedElectiveCount,
                         completedElectiveHours,
@@ -448,23 +496,25 @@ public class ScheduleGeneratorService {
                         completedHours
                 );
 
-                long[] recalc = recalcSelectedElectives(selected);
+                long[] recalc = recalcSelectedElectives(catalog, selected);
                 selectedElectiveCount = recalc[0];
                 selectedElectiveHours = recalc[1];
 
-                if (backlogAdded == 0 && backlogExists(req, offeringsByCourseId, completedCourseIds, selected)) {
+                if (backlogAdded == 0 && backlogExists(req, catalog, completedCourseIds, selected)) {
                     selectionWarnings.add("Backlog exists (earlier-year courses not completed), but none could be scheduled due to prerequisites/conflicts/constraints.");
                 }
+                stats.phase(GenerationStats.Phase.BACKLOG, phaseStart);
             }
 
+            phaseStart = stats.mark();
             fillFromPool(
-                    req,
+                    profile,
                     targetCount,
                     electiveTarget,
                     preferredTagsNorm,
-                    offeringsByCourseId,
+                    catalog,
                     completedCourseIds,
-                    completedCourseCodes,
+                    completedCourses,
                     selected.stream().map(s -> s.course().getId()).toList(),
                     selected,
                     selectionWarnings,
@@ -474,6 +524,7 @@ public class ScheduleGeneratorService {
                     selectedElectiveHours,
                     completedHours
             );
+            stats.phase(GenerationStats.Phase.POOL, phaseStart);
 
             if (selectedPhase != null) {
                 for (SelectedOffering so : selected) {
@@ -481,34 +532,99 @@ public class ScheduleGeneratorService {
                 }
             }
 
-            long[] recalc = recalcSelectedElectives(selected);
+            long[] recalc = recalcSelectedElectives(catalog, selected);
             selectedElectiveCount = recalc[0];
             selectedElectiveHours = recalc[1];
         }
 
+        // ----------------------------
+        // Top-K mode: one widened beam pass ranks every candidate schedule (also reused as the fallback below)
+        // ----------------------------
+        phaseStart = stats.mark();
+        List<BeamState> ranked = topK > 1
+                ? beamSearchRanked(
+                        profile,
+                        rules,
+                        targetCount,
+                        electiveTarget,
+                        preferredTagsNorm,
+                        catalog,
+                        completedCourseIds,
+                        completedCourses,
+                        mustTake,
+                        templateCourseIds,
+                        locked,
+                        completedElectiveCount,
+                        completedElectiveHours,
+                        completedHours,
+                        Math.max(properties.beam().width(), topK * properties.topK().beamWidthPerResult()),
+                        deadline
+                )
+                : null;
+        if (ranked != null) stats.phase(GenerationStats.Phase.TOPK, phaseStart);
+
         // ----------------------------
         // Beam-search fallback (ONLY if greedy couldn't meet semester minimum)
+        // OPTIMAL mode: always search, with branch-and-bound seeded by the beam
+        // Top-K mode: the ranked pass already ran, so its best state always competes with greedy
         // ----------------------------
-        if (selected.size() < rules.minRequired) {
+        boolean optimalMode = req.generationMode() == GenerationMode.OPTIMAL;
+        if (selected.size() < rules.minRequired || optimalMode || ranked != null) {
+            stats.searchRan = true;
 
             // compute greedy score ONCE (beam comparison might need it)
-            final double greedyTotalScore = computePlanScore(req, selected, targetCount, electiveTarget);
-
-            BeamResult br = beamSearchRebuild(
-                    req,
-                    rules,
-                    targetCount,
-                    electiveTarget,
-                    preferredTagsNorm,
-                    offeringsByCourseId,
-                    completedCourseIds,
-                    completedCourseCodes,
-                    mustTake,
-                    templateCourseIds,
-                    completedElectiveCount,
-                    completedElectiveHours,
-                    completedHours
-            );
+            final double greedyTotalScore = computePlanScore(profile, selected, targetCount, electiveTarget);
+
+            BeamResult br;
+            phaseStart = stats.mark();
+            if (optimalMode) {
+                OptimalResult opt = optimalSearchRebuild(
+                        profile,
+                        rules,
+                        targetCount,
+                        electiveTarget,
+                        preferredTagsNorm,
+                        catalog,
+                        completedCourseIds,
+                        completedCourses,
+                        mustTake,
+                        templateCourseIds,
+                        locked,
+                        completedElectiveCount,
+                        completedElectiveHours,
+                        completedHours,
+                        deadline
+                );
+                br = (opt == null) ? null : opt.result();
+                if (opt != null && !opt.provenOptimal() && !deadline.truncated()) {
+                    warnings.add("Optimal search stopped at its time budget; returning the best schedule found so far.");
+                }
+                stats.phase(GenerationStats.Phase.OPTIMAL, phaseStart);
+            } else if (ranked != null) {
+                br = ranked.isEmpty()
+                        ? null
+                        : toSearchResult(req, ranked.getFirst(), targetCount, completedCourseIds, mustTake, templateCourseIds);
+                stats.phase(GenerationStats.Phase.TOPK, phaseStart);
+            } else {
+                br = beamSearchRebuild(
+                        profile,
+                        rules,
+                        targetCount,
+                        electiveTarget,
+                        preferredTagsNorm,
+                        catalog,
+                        completedCourseIds,
+                        completedCourses,
+                        mustTake,
+                        templateCourseIds,
+                        locked,
+                        completedElectiveCount,
+                        completedElectiveHours,
+                        completedHours,
+                        deadline
+                );
+                stats.phase(GenerationStats.Phase.BEAM, phaseStart);
+            }
 
             if (br != null && br.selected != null) {
                 int gs = selected.size();
@@ -519,58 +635,57 @@ public class ScheduleGeneratorService {
                                 (bs == gs && br.totalScore > greedyTotalScore + SCORE_EPS);
 
                 if (takeBeam) {
-                    selected = br.selected;
+                    stats.searchWon = true;
+                    selected = new IncrementalSelection(catalog, br.selected);
                     selectionWarnings = br.selectionWarnings; // replace selection warnings with beam warnings
                     templateUsed = br.templateUsed;
 
                     if (selectedPhase != null) {
                         selectedPhase.clear();
                         for (SelectedOffering so : selected) {
-                            selectedPhase.put(so.course().getId(), ExplainPhase.BEAM);
+                            ExplainPhase phase = optimalMode ? ExplainPhase.OPTIMAL : ExplainPhase.BEAM;
+                            selectedPhase.put(so.course().getId(), locked.contains(so) ? ExplainPhase.LOCKED : phase);
                         }
                     }
 
-                    long[] recalc = recalcSelectedElectives(selected);
+                    long[] recalc = recalcSelectedElectives(catalog, selected);
                     selectedElectiveCount = recalc[0];
                     selectedElectiveHours = recalc[1];
 
-                    warnings.add("Beam-search fallback was used to improve feasibility/quality (greedy could not meet minimum course load).");
+                    if (optimalMode) {
+                        warnings.add("Optimal (branch-and-bound) search found a better schedule than the greedy phases.");
+                    } else if (gs < rules.minRequired) {
+                        warnings.add("Beam-search fallback was used to improve feasibility/quality (greedy could not meet minimum course load).");
+                    } else {
+                        warnings.add("Top-K beam search found a better schedule than the greedy phases.");
+                    }
                 }
             }
         }
 
+        if (deadline.truncated()) {
+            warnings.add("Generation deadline reached; returning the best schedule found so far.");
+        }
+
         // If we rebuilt via beam, recompute templateUsed safely (in case)
         if (templateOpt.isPresent() && !templateCourseIds.isEmpty()) {
             boolean anyTemplateCourseSelected = selected.stream().anyMatch(s -> templateCourseIds.contains(s.course().getId()));
             templateUsed = templateUsed || anyTemplateCourseSelected;
         }
 
-        // Alternatives (always 1 per selected course)
-        List<SelectedCourseOptionDto> selectedDtos = new ArrayList<>();
-        List<AlternativeReasonDto> alternativeReasons = explain ? new ArrayList<>() : null;
-
-        for (SelectedOffering so : selected) {
-            TermCourseOfferingEntity primary = so.offering();
-            TermCourseOfferingEntity alt = findAlternativeOffering(req, primary, offeringsByCourseId, completedCourseCodes, selected);
-
-            ScheduleCourseSlotDto primaryDto = toCourseSlotDto(primary, false);
-            ScheduleCourseSlotDto altDto;
-
-            if (alt == null) {
-                altDto = toCourseSlotDto(primary, true);
-
-                if (alternativeReasons != null) {
-                    alternativeReasons.add(explainAlternativeFailure(req, primary, offeringsByCourseId, completedCourseCodes, selected));
-                }
-            } else {
-                altDto = toCourseSlotDto(alt, false);
-            }
-
-            selectedDtos.add(new SelectedCourseOptionDto(primaryDto, altDto));
-        }
+        // Alternatives (up to alternativesPerCourse per selected course, one pass)
+        phaseStart = stats.mark();
+        int alternativesPerCourse = resolveAlternativesPerCourse(req.alternativesPerCourse());
+        List<SelectedCourseOptionDto> selectedDtos = toOptionDtos(
+                selected,
+                findAlternatives(profile, catalog, completedCourses, selected, alternativesPerCourse, trace)
+        );
+        stats.phase(GenerationStats.Phase.ALTERNATIVES, phaseStart);
 
         // Weekly grid
+        phaseStart = stats.mark();
         List<DayScheduleDto> grid = buildWeeklyGrid(selected);
+        stats.phase(GenerationStats.Phase.GRID, phaseStart);
 
         int achieved = selected.size();
         boolean metMinimum = achieved >= rules.minRequired;
@@ -595,28 +710,35 @@ public class ScheduleGeneratorService {
         }
 
         // Explain: elective analysis (why electives could be missing)
-        if (explain && electiveTarget != null && electiveTarget > 0 && achievedElectives < electiveTarget && explainCtx != null) {
+        phaseStart = stats.mark();
+        if (explain && electiveTarget != null && electiveTarget > 0 && achievedElectives < electiveTarget && trace != null) {
             analyzeElectiveFailures(
-                    req,
+                    profile,
                     electiveTarget,
                     preferredTagsNorm,
-                    offeringsByCourseId,
+                    catalog,
                     completedCourseIds,
-                    completedCourseCodes,
+                    completedCourses,
                     selected,
                     completedElectiveCount,
                     completedElectiveHours,
-                    explainCtx
+                    trace
             );
         }
 
+        if (trace != null) {
+            traceScoreBreakdowns(profile, selected, selectedPhase, trace);
+            stats.phase(GenerationStats.Phase.EXPLAIN, phaseStart);
+        }
+
         warnings.addAll(selectionWarnings);
 
-        List<SelectedScoreDto> scoreBreakdowns = explain
-                ? buildSelectedScoreBreakdown(req, selected, selectedPhase)
-                : null;
+        List<ScheduleOptionDto> options = ranked == null
+                ? null
+                : buildScheduleOptions(profile, catalog, completedCourses, rules, targetCount, electiveTarget,
+                        selected, selectedDtos, grid, ranked, topK);
 
-        return new GeneratedScheduleResponse(
+        GeneratedScheduleResponse response = new GeneratedScheduleResponse(
                 req.nextSemester(),
                 req.nextYearLevel(),
                 templateUsed,
@@ -630,10 +752,15 @@ public class ScheduleGeneratorService {
                 electiveTarget,
                 achievedElectives,
                 metElectiveTarget,
-                explainCtx == null ? null : explainCtx.skipReasons,
-                alternativeReasons,
-                scoreBreakdowns
+                trace == null ? null : trace.skipReasons(),
+                trace == null ? null : trace.alternativeReasons(),
+                trace == null ? null : trace.scoreBreakdowns(),
+                options,
+                deadline.truncated()
         );
+
+        metrics.record(req.nextSemester(), stats);
+        return response;
     }
 
     /**
@@ -641,45 +768,36 @@ public class ScheduleGeneratorService {
      * This uses the SAME step-score components beam uses, accumulated in the CURRENT selection order.
      */
     private double computePlanScore(
-            GenerateScheduleRequest req,
+            PreferenceProfile profile,
             List<SelectedOffering> selected,
             int desiredCount,
             Integer electiveTarget
     ) {
         if (selected == null || selected.isEmpty()) return 0.0;
 
-        EnumMap<DifficultyBucket, Integer> quotas = difficultyQuotas(req.difficultyTarget(), desiredCount);
-        EnumMap<DifficultyBucket, Integer> counts = countDifficultyBuckets(List.of());
+        EnumMap<DifficultyBucket, Integer> quotas = difficultyQuotas(profile.request().difficultyTarget(), desiredCount);
+        EnumMap<DifficultyBucket, Integer> counts = countDifficultyBuckets(profile, List.of());
 
         long electiveCount = 0;
         double total = 0.0;
 
-        List<SelectedOffering> ctx = new ArrayList<>();
+        PartialSchedule schedule = new PartialSchedule();
 
         for (SelectedOffering so : selected) {
             TermCourseOfferingEntity chosen = so.offering();
-            CourseEntity c = chosen.getCourse();
+            CourseFeatures.Course f = profile.features(chosen.getCourse());
 
-            double step = scoreOffering(req, chosen, ctx);
-
-            if (c.getRecommendedYear() == req.nextYearLevel()) step += 30;
-            int expectedRecSemester = mapSemesterToRecommendedSemester(req.nextSemester());
-            if (c.getRecommendedSemester() == expectedRecSemester) step += 15;
-
-            step += difficultyScore(req.difficultyTarget(), c.getDifficulty());
-
-            DifficultyBucket bucket = bucketOf(c.getDifficulty());
-            step += difficultyQuotaAdjustment(quotas, counts, bucket);
-
-            step += tagScore(req.preferredTags(), c.getTags());
-            step += electiveTargetScore(electiveTarget, electiveCount, c);
+            DifficultyBucket bucket = f.difficulty();
+            double step = profile.stepScore(chosen, schedule,
+                    difficultyQuotaAdjustment(quotas, counts, bucket),
+                    electiveTargetScore(electiveTarget, electiveCount, f.elective()));
 
             total += step;
 
-            ctx.add(so);
+            schedule.add(chosen);
             counts.put(bucket, counts.getOrDefault(bucket, 0) + 1);
 
-            if (isElective(c)) electiveCount++;
+            if (f.elective()) electiveCount++;
         }
 
         return total;
@@ -687,17 +805,17 @@ public class ScheduleGeneratorService {
 
     // ✅ NEW: backlog phase (earlier-year missing courses), runs AFTER template and BEFORE pool
     private int fillFromBacklog(
-            GenerateScheduleRequest req,
+            PreferenceProfile profile,
             int desiredCount,
             Integer electiveTarget,
             Set<String> preferredTagsNorm,
             boolean enforceElectiveTags,
-            Map<Long, List<TermCourseOfferingEntity>> offeringsByCourseId,
+            OfferingCatalog catalog,
             Set<Long> completedCourseIds,
-            Set<String> completedCourseCodes,
-            List<SelectedOffering> selected,
+            CompletedCourses completedCourses,
+            IncrementalSelection selected,
             List<String> warnings,
-            ExplainCtx explainCtx,
+            DecisionTrace trace,
             Map<Long, ExplainPhase> selectedPhase,
             long completedElectiveCount,
             long completedElectiveHours,
@@ -710,44 +828,26 @@ public class ScheduleGeneratorService {
 
         if (selected.size() >= desiredCount) return 0;
 
-        Map<Long, CourseEntity> courseRefById = new HashMap<>();
-        for (var e : offeringsByCourseId.entrySet()) {
-            Long courseId = e.getKey();
-            List<TermCourseOfferingEntity> opts = e.getValue();
-            if (courseId == null || opts == null || opts.isEmpty()) continue;
-            courseRefById.put(courseId, opts.getFirst().getCourse());
-        }
-
-        List<Long> backlog = courseRefById.entrySet().stream()
-                .filter(en -> en.getKey() != null)
-                .filter(en -> !completedCourseIds.contains(en.getKey()))
-                .filter(en -> !containsCourse(selected, en.getKey()))
-                .filter(en -> {
-                    CourseEntity c = en.getValue();
+        List<Long> backlog = catalog.courseIds().stream()
+                .filter(id -> !completedCourseIds.contains(id))
+                .filter(id -> !containsCourse(selected, id))
+                .filter(id -> {
+                    CourseEntity c = catalog.course(id);
                     if (c == null) return false;
 
                     // ✅ Training-hours gate (skip in backlog ordering if not eligible)
                     if (!trainingHoursEligible(c, completedHours)) return false;
 
-                    Integer ry = c.getRecommendedYear();
-                    if (ry == null) return false;
-                    return ry < req.nextYearLevel();
+                    return catalog.features().of(c).recommendedYear() < profile.request().nextYearLevel();
                 })
-                .map(Map.Entry::getKey)
                 .sorted((a, b) -> {
-                    CourseEntity ca = courseRefById.get(a);
-                    CourseEntity cb = courseRefById.get(b);
+                    CourseFeatures.Course fa = catalog.features().of(catalog.course(a));
+                    CourseFeatures.Course fb = catalog.features().of(catalog.course(b));
 
-                    Integer rya = (ca == null ? null : ca.getRecommendedYear());
-                    Integer ryb = (cb == null ? null : cb.getRecommendedYear());
-
-                    int cmp = Comparator.nullsLast(Integer::compareTo).compare(rya, ryb);
+                    int cmp = Integer.compare(fa.recommendedYear(), fb.recommendedYear());
                     if (cmp != 0) return cmp;
 
-                    Integer rsa = (ca == null ? null : ca.getRecommendedSemester());
-                    Integer rsb = (cb == null ? null : cb.getRecommendedSemester());
-
-                    cmp = Comparator.nullsLast(Integer::compareTo).compare(rsa, rsb);
+                    cmp = Integer.compare(fa.recommendedSemester(), fb.recommendedSemester());
                     if (cmp != 0) return cmp;
 
                     return Long.compare(a, b);
@@ -765,13 +865,13 @@ public class ScheduleGeneratorService {
             if (containsCourse(selected, courseId)) continue;
 
             TermCourseOfferingEntity chosen = chooseBestOfferingForCourse(
-                    req,
+                    profile,
                     courseId,
-                    offeringsByCourseId,
-                    completedCourseCodes,
+                    catalog,
+                    completedCourses,
                     selected,
                     warnings,
-                    explainCtx,
+                    trace,
                     ExplainPhase.BACKLOG,
                     completedHours
             );
@@ -779,57 +879,46 @@ public class ScheduleGeneratorService {
             if (chosen == null) continue;
 
             CourseEntity c = chosen.getCourse();
+            CourseFeatures.Course f = profile.features(c);
 
             // ✅ Elective slot reservation
-            if (wouldBlockElectiveTarget(desiredCount, electiveTarget, selected.size(), selectedElectiveCount, c)) {
+            if (wouldBlockElectiveTarget(desiredCount, electiveTarget, selected.size(), selectedElectiveCount, f)) {
                 warnings.add("Reserved elective slots to meet desiredElectiveCount (skipped backlog non-elective): "
                         + c.getCourseName() + " (" + c.getCourseCode() + ")");
                 continue;
             }
 
             // per-schedule elective cap/target
-            if (electiveTarget != null && electiveTarget >= 0 && isElective(c) && selectedElectiveCount >= electiveTarget) {
-                if (explainCtx != null) {
-                    explainCtx.addSkip(new SkipReasonDto(
-                            ExplainPhase.BACKLOG, SkipReasonCode.ELECTIVE_TARGET_REACHED,
-                            c.getId(), c.getCourseCode(), c.getCourseName(),
-                            "Elective target already reached inside this schedule."
-                    ));
+            if (electiveTarget != null && electiveTarget >= 0 && f.elective() && selectedElectiveCount >= electiveTarget) {
+                if (trace != null) {
+                    trace.skip(ExplainPhase.BACKLOG, SkipReasonCode.ELECTIVE_TARGET_REACHED, c.getId(), Note.ELECTIVE_TARGET_REACHED);
                 }
                 continue;
             }
 
             // STRICT elective-by-tags while we still need electives
-            if (enforceElectiveTags && electiveTarget != null && isElective(c) && selectedElectiveCount < electiveTarget
-                    && !matchesAnyPreferredTag(c.getTags(), preferredTagsNorm)) {
-                if (explainCtx != null) {
-                    explainCtx.addSkip(new SkipReasonDto(
-                            ExplainPhase.BACKLOG, SkipReasonCode.TAG_MISMATCH,
-                            c.getId(), c.getCourseCode(), c.getCourseName(),
-                            "Elective tags are enforced and this course doesn't match the selected tags."
-                    ));
+            if (enforceElectiveTags && electiveTarget != null && f.elective() && selectedElectiveCount < electiveTarget
+                    && !profile.matchesPreferredTag(f)) {
+                if (trace != null) {
+                    trace.skip(ExplainPhase.BACKLOG, SkipReasonCode.TAG_MISMATCH, c.getId(), Note.TAG_MISMATCH);
                 }
                 continue;
             }
 
             // lifetime elective cap (strict)
-            if (!canAddCourseByElectiveLimit(c, completedElectiveCount, completedElectiveHours, selectedElectiveCount, selectedElectiveHours)) {
-                if (explainCtx != null) {
-                    explainCtx.addSkip(new SkipReasonDto(
-                            ExplainPhase.BACKLOG, SkipReasonCode.LIFETIME_ELECTIVE_CAP,
-                            c.getId(), c.getCourseCode(), c.getCourseName(),
-                            "Adding this elective would exceed lifetime elective limits."
-                    ));
+            if (!canAddCourseByElectiveLimit(f, completedElectiveCount, completedElectiveHours, selectedElectiveCount, selectedElectiveHours)) {
+                if (trace != null) {
+                    trace.skip(ExplainPhase.BACKLOG, SkipReasonCode.LIFETIME_ELECTIVE_CAP, c.getId(), Note.LIFETIME_ELECTIVE_CAP);
                 }
                 continue;
             }
 
-            selected.add(new SelectedOffering(chosen));
+            selected.add(new SelectedOffering(chosen, catalog.indexOf(chosen)));
             if (selectedPhase != null) selectedPhase.put(c.getId(), ExplainPhase.BACKLOG);
 
-            if (isElective(c)) {
+            if (f.elective()) {
                 selectedElectiveCount++;
-                selectedElectiveHours += c.getCreditHours();
+                selectedElectiveHours += f.creditHours();
             }
 
             added++;
@@ -840,11 +929,11 @@ public class ScheduleGeneratorService {
 
     private boolean backlogExists(
             GenerateScheduleRequest req,
-            Map<Long, List<TermCourseOfferingEntity>> offeringsByCourseId,
+            OfferingCatalog catalog,
             Set<Long> completedCourseIds,
             List<SelectedOffering> selected
     ) {
-        for (var e : offeringsByCourseId.entrySet()) {
+        for (var e : catalog.offeringsByCourseId().entrySet()) {
             Long courseId = e.getKey();
             List<TermCourseOfferingEntity> opts = e.getValue();
             if (courseId == null || opts == null || opts.isEmpty()) continue;
@@ -854,10 +943,7 @@ public class ScheduleGeneratorService {
             CourseEntity c = opts.getFirst().getCourse();
             if (c == null) continue;
 
-            Integer ry = c.getRecommendedYear();
-            if (ry == null) continue;
-
-            if (ry < req.nextYearLevel()) return true;
+            if (catalog.features().of(c).recommendedYear() < req.nextYearLevel()) return true;
         }
         return false;
     }
@@ -866,128 +952,51 @@ public class ScheduleGeneratorService {
     // Explain helpers
     // ----------------------------
 
-    private static final class ExplainCtx {
-        final int max;
-        final List<SkipReasonDto> skipReasons = new ArrayList<>();
-
-        ExplainCtx(int max) { this.max = Math.max(0, max); }
-
-        void addSkip(SkipReasonDto dto) {
-            if (dto == null) return;
-            if (skipReasons.size() >= max) return;
-            skipReasons.add(dto);
-        }
+    private static void countRejection(int[] rejected, int reason) {
+        if (rejected != null) rejected[reason]++;
     }
 
-    private AlternativeReasonDto explainAlternativeFailure(
+    /**
+     * Why a selected course got no alternative, from the rejection counters of its findAlternatives scan.
+     */
+    private static AlternativeReasonCode alternativeFailureReason(
             GenerateScheduleRequest req,
+            OfferingCatalog catalog,
             TermCourseOfferingEntity primary,
-            Map<Long, List<TermCourseOfferingEntity>> offeringsByCourseId,
-            Set<String> completedCourseCodes,
-            List<SelectedOffering> selected
+            int[] rejected
     ) {
-        CourseEntity c = primary.getCourse();
-
-        if (!Boolean.TRUE.equals(req.returnAlternatives())) {
-            return new AlternativeReasonDto(
-                    c.getId(), c.getCourseCode(), c.getCourseName(),
-                    AlternativeReasonCode.NOT_REQUESTED,
-                    "returnAlternatives=false"
-            );
-        }
+        if (!Boolean.TRUE.equals(req.returnAlternatives())) return AlternativeReasonCode.NOT_REQUESTED;
 
-        List<TermCourseOfferingEntity> options = offeringsByCourseId.get(c.getId());
-        if (options == null || options.size() <= 1) {
-            return new AlternativeReasonDto(
-                    c.getId(), c.getCourseCode(), c.getCourseName(),
-                    AlternativeReasonCode.NO_OTHER_SECTIONS,
-                    "No other sections for this course in this semester."
-            );
-        }
-
-        int prereqFail = 0, hardFail = 0, conflictFail = 0;
-        int checked = 0;
-
-        for (TermCourseOfferingEntity o : options) {
-            if (o.getId().equals(primary.getId())) continue;
-            checked++;
-
-            if (!prerequisitesSatisfied(o.getCourse(), completedCourseCodes)) {
-                prereqFail++;
-                continue;
-            }
-            if (!respectsHardConstraints(req, o)) {
-                hardFail++;
-                continue;
-            }
-
-            List<SelectedOffering> withoutPrimary = selected.stream()
-                    .filter(s -> !s.offering().getId().equals(primary.getId()))
-                    .toList();
-
-            if (conflictsWithSelected(o, withoutPrimary)) {
-                conflictFail++;
-                continue;
-            }
-        }
-
-        if (checked == 0) {
-            return new AlternativeReasonDto(
-                    c.getId(), c.getCourseCode(), c.getCourseName(),
-                    AlternativeReasonCode.NO_OTHER_SECTIONS,
-                    "No other sections for this course in this semester."
-            );
-        }
-
-        if (prereqFail == checked) {
-            return new AlternativeReasonDto(
-                    c.getId(), c.getCourseCode(), c.getCourseName(),
-                    AlternativeReasonCode.PREREQUISITE_FAIL_ALL,
-                    "All other sections failed prerequisite checks."
-            );
-        }
-
-        if (hardFail == checked) {
-            return new AlternativeReasonDto(
-                    c.getId(), c.getCourseCode(), c.getCourseName(),
-                    AlternativeReasonCode.UNAVAILABLE_CONFLICT_ALL,
-                    "All other sections conflict with unavailable blocks or hard time constraints."
-            );
-        }
+        List<TermCourseOfferingEntity> options = catalog.optionsFor(primary.getCourse().getId());
+        if (options == null || options.size() <= 1) return AlternativeReasonCode.NO_OTHER_SECTIONS;
 
-        if (conflictFail == checked) {
-            return new AlternativeReasonDto(
-                    c.getId(), c.getCourseCode(), c.getCourseName(),
-                    AlternativeReasonCode.TIME_CONFLICT_ALL,
-                    "All other sections conflict with the current selected schedule."
-            );
-        }
-
-        return new AlternativeReasonDto(
-                c.getId(), c.getCourseCode(), c.getCourseName(),
-                AlternativeReasonCode.NO_FEASIBLE_ALTERNATIVE,
-                "No alternative section can fit constraints + conflicts."
-        );
+        int checked = rejected[DecisionTrace.CHECKED];
+        if (checked == 0) return AlternativeReasonCode.NO_OTHER_SECTIONS;
+        if (rejected[DecisionTrace.PREREQ] == checked) return AlternativeReasonCode.PREREQUISITE_FAIL_ALL;
+        if (rejected[DecisionTrace.HARD] == checked) return AlternativeReasonCode.UNAVAILABLE_CONFLICT_ALL;
+        if (rejected[DecisionTrace.CONFLICT] == checked) return AlternativeReasonCode.TIME_CONFLICT_ALL;
+        return AlternativeReasonCode.NO_FEASIBLE_ALTERNATIVE;
     }
 
     private void analyzeElectiveFailures(
-            GenerateScheduleRequest req,
+            PreferenceProfile profile,
             int electiveTarget,
             Set<String> preferredTagsNorm,
-            Map<Long, List<TermCourseOfferingEntity>> offeringsByCourseId,
+            OfferingCatalog catalog,
             Set<Long> completedCourseIds,
-            Set<String> completedCourseCodes,
-            List<SelectedOffering> selected,
+            CompletedCourses completedCourses,
+            IncrementalSelection selected,
             long completedElectiveCount,
             long completedElectiveHours,
-            ExplainCtx explainCtx
+            DecisionTrace trace
     ) {
         Set<Long> selectedIds = selected.stream().map(s -> s.course().getId()).collect(Collectors.toSet());
 
         boolean enforceElectiveTags = electiveTarget > 0 && preferredTagsNorm != null && !preferredTagsNorm.isEmpty();
+        BitSet blocked = selected.blocked();
 
         int added = 0;
-        for (var entry : offeringsByCourseId.entrySet()) {
+        for (var entry : catalog.offeringsByCourseId().entrySet()) {
             if (added >= 20) break;
 
             Long courseId = entry.getKey();
@@ -999,220 +1008,83 @@ public class ScheduleGeneratorService {
             if (options == null || options.isEmpty()) continue;
 
             CourseEntity c = options.getFirst().getCourse();
-            if (!isElective(c)) continue;
-
-            if (!canAddCourseByElectiveLimit(c, completedElectiveCount, completedElectiveHours, 0, 0)) {
-                explainCtx.addSkip(new SkipReasonDto(
-                        ExplainPhase.ELECTIVE_ANALYSIS, SkipReasonCode.LIFETIME_ELECTIVE_CAP,
-                        c.getId(), c.getCourseCode(), c.getCourseName(),
-                        "Elective lifetime limit prevents selecting this elective."
-                ));
+            CourseFeatures.Course f = profile.features(c);
+            if (!f.elective()) continue;
+
+            if (!canAddCourseByElectiveLimit(f, completedElectiveCount, completedElectiveHours, 0, 0)) {
+                trace.skip(ExplainPhase.ELECTIVE_ANALYSIS, SkipReasonCode.LIFETIME_ELECTIVE_CAP, c.getId(), Note.ELECTIVE_LIFETIME_CAP);
                 added++;
                 continue;
             }
 
-            if (enforceElectiveTags && !matchesAnyPreferredTag(c.getTags(), preferredTagsNorm)) {
-                explainCtx.addSkip(new SkipReasonDto(
-                        ExplainPhase.ELECTIVE_ANALYSIS, SkipReasonCode.TAG_MISMATCH,
-                        c.getId(), c.getCourseCode(), c.getCourseName(),
-                        "Elective tags are enforced and this course doesn't match selected tags."
-                ));
+            if (enforceElectiveTags && !profile.matchesPreferredTag(f)) {
+                trace.skip(ExplainPhase.ELECTIVE_ANALYSIS, SkipReasonCode.TAG_MISMATCH, c.getId(), Note.ELECTIVE_TAG_MISMATCH);
                 added++;
                 continue;
             }
 
-            if (!prerequisitesSatisfied(c, completedCourseCodes)) {
-                explainCtx.addSkip(new SkipReasonDto(
-                        ExplainPhase.ELECTIVE_ANALYSIS, SkipReasonCode.PREREQUISITE_FAIL,
-                        c.getId(), c.getCourseCode(), c.getCourseName(),
-                        "Prerequisites not satisfied for this elective."
-                ));
+            if (!prerequisitesSatisfied(c, completedCourses)) {
+                trace.skip(ExplainPhase.ELECTIVE_ANALYSIS, SkipReasonCode.PREREQUISITE_FAIL, c.getId(), Note.ELECTIVE_PREREQUISITES);
                 added++;
                 continue;
             }
 
+            // One pass: a feasible section, else whether any section at least passes the hard constraints
             boolean anyFeasible = false;
+            boolean anyHardOk = false;
             for (TermCourseOfferingEntity o : options) {
-                if (!respectsHardConstraints(req, o)) continue;
-                if (conflictsWithSelected(o, selected)) continue;
+                if (!profile.feasible(o)) continue;
+                anyHardOk = true;
+                if (conflictsWithSelected(profile, catalog, o, blocked, selected)) continue;
                 anyFeasible = true;
                 break;
             }
 
             if (!anyFeasible) {
-                boolean anyHardOk = false;
-                for (TermCourseOfferingEntity o : options) {
-                    if (respectsHardConstraints(req, o)) { anyHardOk = true; break; }
-                }
-
-                explainCtx.addSkip(new SkipReasonDto(
-                        ExplainPhase.ELECTIVE_ANALYSIS,
+                trace.skip(ExplainPhase.ELECTIVE_ANALYSIS,
                         anyHardOk ? SkipReasonCode.TIME_CONFLICT : SkipReasonCode.UNAVAILABLE_CONFLICT,
-                        c.getId(), c.getCourseCode(), c.getCourseName(),
-                        anyHardOk
-                                ? "All elective sections conflict with the selected schedule."
-                                : "All elective sections violate hard constraints (unavailable blocks/time limits)."
-                ));
+                        c.getId(),
+                        anyHardOk ? Note.ELECTIVE_ALL_CONFLICT : Note.ELECTIVE_ALL_UNAVAILABLE);
                 added++;
                 continue;
             }
 
-            explainCtx.addSkip(new SkipReasonDto(
-                    ExplainPhase.ELECTIVE_ANALYSIS, SkipReasonCode.LOW_SCORE,
-                    c.getId(), c.getCourseCode(), c.getCourseName(),
-                    "Feasible elective exists but was outranked by other courses under scoring."
-            ));
+            trace.skip(ExplainPhase.ELECTIVE_ANALYSIS, SkipReasonCode.LOW_SCORE, c.getId(), Note.ELECTIVE_LOW_SCORE);
             added++;
         }
     }
 
-    private List<SelectedScoreDto> buildSelectedScoreBreakdown(
-            GenerateScheduleRequest req,
-            List<SelectedOffering> selected,
-            Map<Long, ExplainPhase> selectedPhase
+    private void traceScoreBreakdowns(
+            PreferenceProfile profile,
+            IncrementalSelection selected,
+            Map<Long, ExplainPhase> selectedPhase,
+            DecisionTrace trace
     ) {
-        if (selected == null || selected.isEmpty()) return List.of();
+        if (selected == null || selected.isEmpty()) return;
+
+        GenerateScheduleRequest req = profile.request();
 
         int desiredCountForQuota = Math.max(1, Math.min(6, selected.size()));
         EnumMap<DifficultyBucket, Integer> quotas = difficultyQuotas(req.difficultyTarget(), desiredCountForQuota);
+        EnumMap<DifficultyBucket, Integer> counts = countDifficultyBuckets(profile, selected);
+        PartialSchedule schedule = selected.schedule().copy();
 
-        List<SelectedScoreDto> out = new ArrayList<>();
         for (SelectedOffering so : selected) {
             TermCourseOfferingEntity offering = so.offering();
             CourseEntity c = offering.getCourse();
 
-            List<SelectedOffering> without = selected.stream()
-                    .filter(x -> !x.offering().getId().equals(offering.getId()))
-                    .toList();
+            // Scored as if added last: the quota counts and the schedule are those of the other selected sections
+            DifficultyBucket bucket = profile.features(c).difficulty();
+            EnumMap<DifficultyBucket, Integer> countsWithout = new EnumMap<>(counts);
+            countsWithout.merge(bucket, -1, Integer::sum);
+            double quotaAdjustment = difficultyQuotaAdjustment(quotas, countsWithout, bucket);
 
-            ScoreBreakdownDto b = computeScoreBreakdown(req, offering, without, quotas);
             ExplainPhase phase = (selectedPhase == null ? null : selectedPhase.getOrDefault(c.getId(), ExplainPhase.POOL));
-
-            out.add(new SelectedScoreDto(
-                    c.getId(),
-                    c.getCourseCode(),
-                    c.getCourseName(),
-                    offering.getSectionCode(),
-                    phase,
-                    b
-            ));
-        }
-
-        return out;
-    }
-
-    private ScoreBreakdownDto computeScoreBreakdown(
-            GenerateScheduleRequest req,
-            TermCourseOfferingEntity o,
-            List<SelectedOffering> contextWithoutThis,
-            EnumMap<DifficultyBucket, Integer> quotas
-    ) {
-        double preferredDaysScore = 0;
-        double avoidDaysScore = 0;
-        double timeWindowScore = 0;
-        double earliestLatestPenalty = 0;
-        double compactnessPenalty = 0;
-        double gapPenalty = 0;
-
-        if (req.preferredDays() != null && !req.preferredDays().isEmpty()) {
-            long hits = o.getPattern().days().stream().filter(req.preferredDays()::contains).count();
-            preferredDaysScore += hits * 8;
-        }
-        if (req.avoidDays() != null && !req.avoidDays().isEmpty()) {
-            long hits = o.getPattern().days().stream().filter(req.avoidDays()::contains).count();
-            avoidDaysScore -= hits * 12;
-        }
-
-        if (req.preferredTimeWindows() != null && !req.preferredTimeWindows().isEmpty()) {
-            boolean withinAny = false;
-            for (TimeWindowDto w : req.preferredTimeWindows()) {
-                if (w == null) continue;
-                TimeRanges.requireValid(w.from(), w.to(), "Preferred time window");
-                if (TimeRanges.within(o.getStartTime(), o.getEndTime(), w.from(), w.to())) {
-                    withinAny = true;
-                    break;
-                }
-            }
-            timeWindowScore += withinAny ? 10 : -5;
-        }
-
-        if (req.earliestStartTime() != null && o.getStartTime().isBefore(req.earliestStartTime())) {
-            earliestLatestPenalty -= 20;
-        }
-        if (req.latestEndTime() != null && o.getEndTime().isAfter(req.latestEndTime())) {
-            earliestLatestPenalty -= 20;
-        }
-
-        CompactnessPreference cp = req.compactnessPreference();
-        if (cp != null && cp != CompactnessPreference.DONT_CARE) {
-            Set<ScheduleDay> days = new HashSet<>();
-            for (SelectedOffering s : contextWithoutThis) {
-                days.addAll(s.offering().getPattern().days());
-            }
-            Set<ScheduleDay> after = new HashSet<>(days);
-            after.addAll(o.getPattern().days());
-
-            int beforeCount = days.size();
-            int afterCount = after.size();
-
-            if (cp == CompactnessPreference.COMPACT) {
-                if (afterCount > beforeCount) compactnessPenalty -= (afterCount - beforeCount) * 10;
-            } else if (cp == CompactnessPreference.BALANCED) {
-                if (afterCount > beforeCount) compactnessPenalty -= (afterCount - beforeCount) * 4;
-            }
+            int row = trace.scoreRow(so.index(), phase);
+            schedule.remove(offering);
+            profile.breakdown(offering, schedule, quotaAdjustment, 0, trace.scores(), row);
+            schedule.add(offering);
         }
-
-        if (Boolean.TRUE.equals(req.avoidLongGaps())) {
-            gapPenalty -= estimateGapPenaltyIfAdded(o, contextWithoutThis);
-        }
-
-        CourseEntity c = o.getCourse();
-
-        double recommendedYearBonus = 0;
-        double recommendedSemesterBonus = 0;
-        if (c.getRecommendedYear() == req.nextYearLevel()) recommendedYearBonus += 30;
-
-        int expectedRecSemester = mapSemesterToRecommendedSemester(req.nextSemester());
-        if (c.getRecommendedSemester() == expectedRecSemester) recommendedSemesterBonus += 15;
-
-        double difficultyScore = difficultyScore(req.difficultyTarget(), c.getDifficulty());
-
-        EnumMap<DifficultyBucket, Integer> currentCounts = countDifficultyBuckets(contextWithoutThis);
-        DifficultyBucket bucket = bucketOf(c.getDifficulty());
-        double difficultyQuotaAdjustment = difficultyQuotaAdjustment(quotas, currentCounts, bucket);
-
-        double tagScore = tagScore(req.preferredTags(), c.getTags());
-
-        double electiveBias = 0;
-
-        double total = preferredDaysScore
-                + avoidDaysScore
-                + timeWindowScore
-                + earliestLatestPenalty
-                + compactnessPenalty
-                + gapPenalty
-                + recommendedYearBonus
-                + recommendedSemesterBonus
-                + difficultyScore
-                + difficultyQuotaAdjustment
-                + tagScore
-                + electiveBias;
-
-        return new ScoreBreakdownDto(
-                preferredDaysScore,
-                avoidDaysScore,
-                timeWindowScore,
-                earliestLatestPenalty,
-                compactnessPenalty,
-                gapPenalty,
-                recommendedYearBonus,
-                recommendedSemesterBonus,
-                difficultyScore,
-                difficultyQuotaAdjustment,
-                tagScore,
-                electiveBias,
-                total
-        );
     }
 
     // ----------------------------
@@ -1220,22 +1092,117 @@ public class ScheduleGeneratorService {
     // ----------------------------
 
     private BeamResult beamSearchRebuild(
-            GenerateScheduleRequest req,
+            PreferenceProfile profile,
             CourseCountRules rules,
             int desiredCount,
             Integer electiveTarget,
             Set<String> preferredTagsNorm,
-            Map<Long, List<TermCourseOfferingEntity>> offeringsByCourseId,
+            OfferingCatalog catalog,
             Set<Long> completedCourseIds,
-            Set<String> completedCourseCodes,
+            CompletedCourses completedCourses,
             LinkedHashSet<Long> mustTake,
             List<Long> templateCourseIds,
+            List<SelectedOffering> locked,
             long completedElectiveCount,
             long completedElectiveHours,
-            int completedHours
+            int completedHours,
+            SearchDeadline deadline
+    ) {
+        BeamCtx ctx = beamCtx(profile, desiredCount, electiveTarget, preferredTagsNorm, catalog, completedCourses,
+                completedElectiveCount, completedElectiveHours, completedHours, locked, deadline);
+        List<BeamCourse> courses = searchCourses(ctx, completedCourseIds, mustTake, templateCourseIds);
+
+        BeamState bestState = beamSearchBest(ctx, courses, rules.minRequired);
+        if (bestState == null) return null;
+
+        return toSearchResult(profile.request(), bestState, desiredCount, completedCourseIds, mustTake, templateCourseIds);
+    }
+
+    private BeamCtx beamCtx(
+            PreferenceProfile profile,
+            int desiredCount,
+            Integer electiveTarget,
+            Set<String> preferredTagsNorm,
+            OfferingCatalog catalog,
+            CompletedCourses completedCourses,
+            long completedElectiveCount,
+            long completedElectiveHours,
+            int completedHours,
+            List<SelectedOffering> locked,
+            SearchDeadline deadline
     ) {
         boolean enforceElectiveTags = electiveTarget != null && electiveTarget > 0 && preferredTagsNorm != null && !preferredTagsNorm.isEmpty();
 
+        // Constant for the whole search
+        GenerateScheduleRequest req = profile.request();
+        return new BeamCtx(
+                req,
+                profile,
+                catalog,
+                completedCourses,
+                desiredCount,
+                electiveTarget,
+                enforceElectiveTags,
+                preferredTagsNorm,
+                completedElectiveCount,
+                completedElectiveHours,
+                completedHours,
+                difficultyQuotas(req.difficultyTarget(), desiredCount),
+                mapSemesterToRecommendedSemester(req.nextSemester()),
+                List.copyOf(locked),
+                deadline
+        );
+    }
+
+    // Search root: empty, or the locked sections in lock order, scored the way computePlanScore scores a plan
+    private BeamState rootState(BeamCtx ctx) {
+        BeamState root = new BeamState(0, Selection.EMPTY, 0.0, 0, 0, 0, 0, 0);
+        if (ctx.locked().isEmpty()) return root;
+
+        for (SelectedOffering so : ctx.locked()) {
+            CourseFeatures.Course f = ctx.profile().features(so.course());
+            boolean elective = f.elective();
+            root = root.extend(ctx.catalog(), 0, so, 0.0,
+                    root.selectedElectiveCount + (elective ? 1 : 0),
+                    root.selectedElectiveHours + (elective ? f.creditHours() : 0),
+                    f.difficulty());
+        }
+        double lockedScore = computePlanScore(ctx.profile(), ctx.locked(), ctx.desiredCount(), ctx.electiveTarget());
+        return new BeamState(0, root.selection, lockedScore, root.selectedElectiveCount, root.selectedElectiveHours,
+                root.easyCount, root.mediumCount, root.hardCount);
+    }
+
+    // Search order (must-take, template, backlog, rest by id) with the state-independent facts of each course
+    private List<BeamCourse> searchCourses(
+            BeamCtx ctx,
+            Set<Long> completedCourseIds,
+            LinkedHashSet<Long> mustTake,
+            List<Long> templateCourseIds
+    ) {
+        boolean electiveCapAlreadyReached =
+                ctx.completedElectiveCount() >= MAX_ELECTIVE_COURSES_LIFETIME ||
+                        ctx.completedElectiveHours() >= MAX_ELECTIVE_CREDIT_HOURS_LIFETIME;
+
+        List<Long> courseIdsOrdered = searchCourseOrder(ctx.req(), ctx.catalog(), completedCourseIds, mustTake, templateCourseIds, ctx.completedHours());
+
+        Set<Long> lockedCourseIds = ctx.locked().stream().map(so -> so.course().getId()).collect(Collectors.toSet());
+
+        List<BeamCourse> courses = new ArrayList<>(courseIdsOrdered.size());
+        for (Long courseId : courseIdsOrdered) {
+            if (lockedCourseIds.contains(courseId)) continue;
+            courses.add(beamCourse(ctx, courseId, mustTake, electiveCapAlreadyReached));
+        }
+        return courses;
+    }
+
+    private List<Long> searchCourseOrder(
+            GenerateScheduleRequest req,
+            OfferingCatalog catalog,
+            Set<Long> completedCourseIds,
+            LinkedHashSet<Long> mustTake,
+            List<Long> templateCourseIds,
+            int completedHours
+    ) {
         LinkedHashSet<Long> ordered = new LinkedHashSet<>();
 
         if (Boolean.TRUE.equals(req.pinMustTakesFirst()) && mustTake != null && !mustTake.isEmpty()) {
@@ -1255,7 +1222,7 @@ public class ScheduleGeneratorService {
         }
 
         // backlog inserted after template
-        for (var e : offeringsByCourseId.entrySet()) {
+        for (var e : catalog.offeringsByCourseId().entrySet()) {
             Long id = e.getKey();
             List<TermCourseOfferingEntity> opts = e.getValue();
             if (id == null || opts == null || opts.isEmpty()) continue;
@@ -1268,227 +1235,555 @@ public class ScheduleGeneratorService {
             // ✅ Training-hours gate in beam ordering
             if (!trainingHoursEligible(c, completedHours)) continue;
 
-            Integer ry = c.getRecommendedYear();
-            if (ry == null) continue;
-
-            if (ry < req.nextYearLevel()) {
+            if (catalog.features().of(c).recommendedYear() < req.nextYearLevel()) {
                 ordered.add(id);
             }
         }
 
-        boolean electiveCapAlreadyReached =
-                completedElectiveCount >= MAX_ELECTIVE_COURSES_LIFETIME ||
-                        completedElectiveHours >= MAX_ELECTIVE_CREDIT_HOURS_LIFETIME;
-
-        List<Long> rest = offeringsByCourseId.keySet().stream()
+        List<Long> rest = catalog.courseIds().stream()
                 .filter(id -> !completedCourseIds.contains(id))
                 .filter(id -> !ordered.contains(id))
                 .sorted()
                 .toList();
 
         ordered.addAll(rest);
-        List<Long> courseIdsOrdered = new ArrayList<>(ordered);
-
-        BeamState start = new BeamState(
-                0,
-                new ArrayList<>(),
-                new HashSet<>(),
-                0.0,
-                0,
-                0,
-                countDifficultyBuckets(List.of())
-        );
+        return new ArrayList<>(ordered);
+    }
 
-        List<BeamState> beam = new ArrayList<>();
-        beam.add(start);
+    /**
+     * Top-K mode: the same beam as the fallback, with a caller-chosen width, returning the whole
+     * final level ranked (best first) instead of only its best state.
+     */
+    private List<BeamState> beamSearchRanked(
+            PreferenceProfile profile,
+            CourseCountRules rules,
+            int desiredCount,
+            Integer electiveTarget,
+            Set<String> preferredTagsNorm,
+            OfferingCatalog catalog,
+            Set<Long> completedCourseIds,
+            CompletedCourses completedCourses,
+            LinkedHashSet<Long> mustTake,
+            List<Long> templateCourseIds,
+            List<SelectedOffering> locked,
+            long completedElectiveCount,
+            long completedElectiveHours,
+            int completedHours,
+            int beamWidth,
+            SearchDeadline deadline
+    ) {
+        BeamCtx ctx = beamCtx(profile, desiredCount, electiveTarget, preferredTagsNorm, catalog, completedCourses,
+                completedElectiveCount, completedElectiveHours, completedHours, locked, deadline);
+        List<BeamCourse> courses = searchCourses(ctx, completedCourseIds, mustTake, templateCourseIds);
 
-        for (int idx = 0; idx < courseIdsOrdered.size(); idx++) {
-            if (beam.isEmpty()) break;
+        return beamSearchFinal(ctx, courses, rules.minRequired, beamWidth);
+    }
 
-            List<BeamState> next = new ArrayList<>();
-            Long courseId = courseIdsOrdered.get(idx);
+    private BeamState beamSearchBest(BeamCtx ctx, List<BeamCourse> courses, int minRequired) {
+        List<BeamState> ranked = beamSearchFinal(ctx, courses, minRequired, properties.beam().width());
+        return ranked.isEmpty() ? null : ranked.getFirst();
+    }
 
-            for (BeamState st : beam) {
-                if (st.selected.size() >= desiredCount) {
-                    next.add(st.withIndex(idx + 1));
-                    continue;
-                }
+    // Final beam level, best first: meets the minimum, then more courses, then higher score
+    private List<BeamState> beamSearchFinal(BeamCtx ctx, List<BeamCourse> courses, int minRequired, int beamWidth) {
+        int desiredCount = ctx.desiredCount();
 
-                boolean isMust = Boolean.TRUE.equals(req.pinMustTakesFirst()) && mustTake != null && mustTake.contains(courseId);
+        List<BeamState> beam = new ArrayList<>();
+        beam.add(rootState(ctx));
 
-                List<TermCourseOfferingEntity> options = offeringsByCourseId.get(courseId);
-                options = (options == null ? List.of() : options);
+        for (int idx = 0; idx < courses.size(); idx++) {
+            if (beam.isEmpty()) break;
 
-                CourseEntity courseRef = options.isEmpty() ? null : options.getFirst().getCourse();
+            // Anytime mode: the current level is the incumbent
+            if (ctx.deadline().reached()) break;
 
-                // ✅ Training-hours gate in beam expansion
-                boolean hoursOk = (courseRef == null) || trainingHoursEligible(courseRef, completedHours);
-                if (!hoursOk) {
-                    if (!isMust) next.add(st.withIndex(idx + 1));
-                    else next.add(st.withIndex(idx + 1));
-                    continue;
-                }
+            List<BeamState> next = expandBeamLevel(ctx, courses.get(idx), beam, idx + 1);
+            ctx.profile().stats().statesExpanded += beam.size();
 
-                boolean prereqOk = courseRef == null || prerequisitesSatisfied(courseRef, completedCourseCodes);
-                boolean electiveBlockedByLifetime = electiveCapAlreadyReached && courseRef != null && isElective(courseRef);
+            // Stable sort over the same concatenation order as a sequential run: ties keep their order
+            next.sort(BEAM_ORDER);
 
-                if (!isMust) {
-                    next.add(st.withIndex(idx + 1));
-                }
+            if (next.size() > beamWidth) {
+                ctx.profile().stats().statesPruned += next.size() - beamWidth;
+                next = next.subList(0, beamWidth);
+            }
 
-                if (options.isEmpty() || !prereqOk || electiveBlockedByLifetime) {
-                    if (isMust) {
-                        next.add(st.withIndex(idx + 1));
-                    }
-                    continue;
-                }
+            beam = next;
 
-                if (courseRef != null) {
-                    if (electiveTarget != null && electiveTarget >= 0 && isElective(courseRef) && st.selectedElectiveCount >= electiveTarget) {
-                        if (isMust) {
-                            next.add(st.withIndex(idx + 1));
-                        }
-                        continue;
-                    }
+            if (!beam.isEmpty() && beam.getFirst().selection.size >= desiredCount) break;
+        }
 
-                    if (enforceElectiveTags && electiveTarget != null && isElective(courseRef) && st.selectedElectiveCount < electiveTarget) {
-                        if (!matchesAnyPreferredTag(courseRef.getTags(), preferredTagsNorm)) {
-                            if (isMust) {
-                                next.add(st.withIndex(idx + 1));
-                            }
-                            continue;
-                        }
-                    }
+        if (beam.isEmpty()) return List.of();
 
-                    if (!canAddCourseByElectiveLimit(courseRef,
-                            completedElectiveCount, completedElectiveHours,
-                            st.selectedElectiveCount, st.selectedElectiveHours)) {
-                        if (isMust) {
-                            next.add(st.withIndex(idx + 1));
-                        }
-                        continue;
-                    }
+        List<BeamState> sortedFinal = new ArrayList<>(beam);
+        sortedFinal.sort((a, b) -> {
+            boolean aMin = a.selection.size >= minRequired;
+            boolean bMin = b.selection.size >= minRequired;
+            if (aMin != bMin) return Boolean.compare(bMin, aMin);
+            if (a.selection.size != b.selection.size) return Integer.compare(b.selection.size, a.selection.size);
+            return Double.compare(b.totalScore, a.totalScore);
+        });
+
+        return sortedFinal;
+    }
+
+    private BeamResult toSearchResult(
+            GenerateScheduleRequest req,
+            BeamState bestState,
+            int desiredCount,
+            Set<Long> completedCourseIds,
+            LinkedHashSet<Long> mustTake,
+            List<Long> templateCourseIds
+    ) {
+        List<SelectedOffering> bestSelected = new ArrayList<>(bestState.selection.asList());
+
+        List<String> beamWarnings = new ArrayList<>();
+
+        if (Boolean.TRUE.equals(req.pinMustTakesFirst()) && mustTake != null && !mustTake.isEmpty()) {
+            Set<Long> finalIds = bestSelected.stream().map(s -> s.course().getId()).collect(Collectors.toSet());
+            for (Long id : mustTake) {
+                if (id == null) continue;
+                if (completedCourseIds.contains(id)) continue;
+                if (!finalIds.contains(id)) {
+                    beamWarnings.add("Must-take could not be scheduled due to constraints/conflicts: courseId=" + id);
                 }
+            }
+        }
 
-                List<TermCourseOfferingEntity> top = topOfferingsForState(req, options, completedCourseCodes, st.selected, TOP_OFFERINGS_PER_COURSE, completedHours);
-                if (top.isEmpty()) {
-                    if (isMust) {
-                        next.add(st.withIndex(idx + 1));
-                    }
-                    continue;
+        if (bestSelected.size() < desiredCount) {
+            beamWarnings.add("Could not reach desiredCourseCount due to constraints/availability/elective caps. Selected=" + bestSelected.size() + ", Target=" + desiredCount);
+        }
+
+        boolean templateUsed = false;
+        if (templateCourseIds != null && !templateCourseIds.isEmpty()) {
+            Set<Long> finalIds = bestSelected.stream().map(s -> s.course().getId()).collect(Collectors.toSet());
+            for (Long id : templateCourseIds) {
+                if (finalIds.contains(id)) {
+                    templateUsed = true;
+                    break;
                 }
+            }
+        }
 
-                for (TermCourseOfferingEntity chosen : top) {
-                    CourseEntity c = chosen.getCourse();
+        return new BeamResult(bestSelected, beamWarnings, templateUsed, bestState.totalScore);
+    }
 
-                    double stepScore = scoreOffering(req, chosen, st.selected);
+    /**
+     * Top-K mode: the main schedule is rank 1; the ranked beam states follow in order, each kept only
+     * if it differs from every schedule already kept in at least minDifferentSections sections.
+     */
+    private List<ScheduleOptionDto> buildScheduleOptions(
+            PreferenceProfile profile,
+            OfferingCatalog catalog,
+            CompletedCourses completedCourses,
+            CourseCountRules rules,
+            int desiredCount,
+            Integer electiveTarget,
+            List<SelectedOffering> mainSelected,
+            List<SelectedCourseOptionDto> mainDtos,
+            List<DayScheduleDto> mainGrid,
+            List<BeamState> ranked,
+            int k
+    ) {
+        int minDifferent = properties.topK().minDifferentSections();
+
+        List<List<SelectedOffering>> kept = new ArrayList<>();
+        kept.add(mainSelected);
+
+        List<ScheduleOptionDto> options = new ArrayList<>();
+        options.add(new ScheduleOptionDto(
+                1,
+                computePlanScore(profile, mainSelected, desiredCount, electiveTarget),
+                mainDtos,
+                mainGrid,
+                mainSelected.size(),
+                (int) recalcSelectedElectives(catalog, mainSelected)[0],
+                mainSelected.size() >= rules.minRequired
+        ));
+
+        for (BeamState st : ranked) {
+            if (options.size() >= k) break;
+
+            List<SelectedOffering> candidate = st.selection.asList();
+            if (candidate.isEmpty()) continue;
+            if (kept.stream().anyMatch(s -> sectionDistance(s, candidate) < minDifferent)) continue;
+
+            kept.add(candidate);
+
+            List<SelectedCourseOptionDto> dtos = toOptionDtos(
+                    candidate,
+                    findAlternatives(profile, catalog, completedCourses, candidate, resolveAlternativesPerCourse(profile.request().alternativesPerCourse()), null)
+            );
 
-                    if (c.getRecommendedYear() == req.nextYearLevel()) stepScore += 30;
-                    int expectedRecSemester = mapSemesterToRecommendedSemester(req.nextSemester());
-                    if (c.getRecommendedSemester() == expectedRecSemester) stepScore += 15;
+            options.add(new ScheduleOptionDto(
+                    options.size() + 1,
+                    st.totalScore,
+                    dtos,
+                    buildWeeklyGrid(candidate),
+                    candidate.size(),
+                    (int) recalcSelectedElectives(catalog, candidate)[0],
+                    candidate.size() >= rules.minRequired
+            ));
+        }
 
-                    stepScore += difficultyScore(req.difficultyTarget(), c.getDifficulty());
+        return options;
+    }
 
-                    DifficultyBucket bucket = bucketOf(c.getDifficulty());
-                    EnumMap<DifficultyBucket, Integer> quotas = difficultyQuotas(req.difficultyTarget(), desiredCount);
-                    stepScore += difficultyQuotaAdjustment(quotas, st.difficultyCounts, bucket);
+    // Sections one schedule has and the other lacks (larger side): a single section swap counts as 1
+    private static int sectionDistance(List<SelectedOffering> a, List<SelectedOffering> b) {
+        Set<Long> idsA = a.stream().map(s -> s.offering().getId()).collect(Collectors.toSet());
+        Set<Long> idsB = b.stream().map(s -> s.offering().getId()).collect(Collectors.toSet());
 
-                    stepScore += tagScore(req.preferredTags(), c.getTags());
-                    stepScore += electiveTargetScore(electiveTarget, st.selectedElectiveCount, c);
+        int onlyA = 0;
+        for (Long id : idsA) if (!idsB.contains(id)) onlyA++;
+        int onlyB = 0;
+        for (Long id : idsB) if (!idsA.contains(id)) onlyB++;
 
-                    List<SelectedOffering> sel2 = new ArrayList<>(st.selected);
-                    sel2.add(new SelectedOffering(chosen));
+        return Math.max(onlyA, onlyB);
+    }
 
-                    HashSet<Long> ids2 = new HashSet<>(st.selectedCourseIds);
-                    ids2.add(c.getId());
+    // ----------------------------
+    // OPTIMAL mode: branch-and-bound over the beam's search space
+    // ----------------------------
 
-                    long ec2 = st.selectedElectiveCount;
-                    long eh2 = st.selectedElectiveHours;
-                    if (isElective(c)) {
-                        ec2++;
-                        eh2 += c.getCreditHours();
-                    }
+    /**
+     * Exact search over the same course order, rules and step scores as the beam, but with every
+     * feasible section and no width limit. Objective: more courses first, then higher total score.
+     * - The beam result seeds the incumbent, so OPTIMAL is never worse than the fallback
+     * - Bounds: remaining slots are filled with the best per-course upper bounds of the suffix
+     * - Conflicts prune through the catalog's conflict matrix (topOfferingsForState)
+     * - Stops at the time/node budget and returns the incumbent
+     */
+    private OptimalResult optimalSearchRebuild(
+            PreferenceProfile profile,
+            CourseCountRules rules,
+            int desiredCount,
+            Integer electiveTarget,
+            Set<String> preferredTagsNorm,
+            OfferingCatalog catalog,
+            Set<Long> completedCourseIds,
+            CompletedCourses completedCourses,
+            LinkedHashSet<Long> mustTake,
+            List<Long> templateCourseIds,
+            List<SelectedOffering> locked,
+            long completedElectiveCount,
+            long completedElectiveHours,
+            int completedHours,
+            SearchDeadline deadline
+    ) {
+        BeamCtx ctx = beamCtx(profile, desiredCount, electiveTarget, preferredTagsNorm, catalog, completedCourses,
+                completedElectiveCount, completedElectiveHours, completedHours, locked, deadline);
+        List<BeamCourse> courses = searchCourses(ctx, completedCourseIds, mustTake, templateCourseIds);
+
+        ScheduleGenerationProperties.Optimal cfg = properties.optimal();
+        BranchAndBound bb = new BranchAndBound(ctx, courses, cfg.maxNodes(),
+                System.nanoTime() + cfg.timeBudgetMs() * 1_000_000L);
+        bb.offer(beamSearchBest(ctx, courses, rules.minRequired));
+        bb.search(rootState(ctx));
+        profile.stats().statesExpanded += bb.nodes;
+
+        if (bb.best == null) return null;
+        return new OptimalResult(
+                toSearchResult(profile.request(), bb.best, desiredCount, completedCourseIds, mustTake, templateCourseIds),
+                bb.exhausted,
+                bb.nodes
+        );
+    }
 
-                    EnumMap<DifficultyBucket, Integer> dc2 = new EnumMap<>(st.difficultyCounts);
-                    dc2.put(bucket, dc2.getOrDefault(bucket, 0) + 1);
-
-                    next.add(new BeamState(
-                            idx + 1,
-                            sel2,
-                            ids2,
-                            st.totalScore + stepScore,
-                            ec2,
-                            eh2,
-                            dc2
-                    ));
-                }
+    private final class BranchAndBound {
+        private final BeamCtx ctx;
+        private final List<BeamCourse> courses;
+        private final long maxNodes;
+        private final long deadlineNanos;
+
+        // feasibleSuffix[i]: courses in [i, n) that could still be taken by some state
+        private final int[] feasibleSuffix;
+        // suffixTop[i]: best per-course step-score upper bounds in [i, n), descending (at most desiredCount)
+        private final double[][] suffixTop;
+
+        BeamState best;
+        long nodes;
+        boolean exhausted = true;
+
+        BranchAndBound(BeamCtx ctx, List<BeamCourse> courses, long maxNodes, long deadlineNanos) {
+            this.ctx = ctx;
+            this.courses = courses;
+            this.maxNodes = maxNodes;
+            this.deadlineNanos = deadlineNanos;
+
+            int n = courses.size();
+            int k = Math.max(0, ctx.desiredCount());
+            this.feasibleSuffix = new int[n + 1];
+            this.suffixTop = new double[n + 1][];
+            suffixTop[n] = new double[0];
+
+            for (int i = n - 1; i >= 0; i--) {
+                double ub = courseUpperBound(courses.get(i));
+                boolean feasible = !Double.isNaN(ub);
+                feasibleSuffix[i] = feasibleSuffix[i + 1] + (feasible ? 1 : 0);
+                suffixTop[i] = feasible ? insertTop(suffixTop[i + 1], ub, k) : suffixTop[i + 1];
             }
+        }
 
-            next.sort((a, b) -> {
-                int sa = a.selected.size();
-                int sb = b.selected.size();
-                if (sa != sb) return Integer.compare(sb, sa);
-                return Double.compare(b.totalScore, a.totalScore);
-            });
+        void offer(BeamState st) {
+            if (st == null) return;
+            if (best == null
+                    || st.selection.size > best.selection.size
+                    || (st.selection.size == best.selection.size && st.totalScore > best.totalScore + SCORE_EPS)) {
+                best = st;
+            }
+        }
+
+        void search(BeamState st) {
+            int idx = st.idx;
+            if (st.selection.size >= ctx.desiredCount() || idx >= courses.size()) {
+                offer(st);
+                return;
+            }
+            if (!exhausted) return;
+            if (pruned(st)) {
+                ctx.profile().stats().statesPruned++;
+                return;
+            }
 
-            if (next.size() > BEAM_WIDTH) {
-                next = next.subList(0, BEAM_WIDTH);
+            if (++nodes > maxNodes || ((nodes & 255) == 0 && (System.nanoTime() > deadlineNanos || ctx.deadline().reached()))) {
+                exhausted = false;
+                return;
             }
 
-            beam = next;
+            List<BeamState> children = new ArrayList<>();
+            expandBeamState(ctx, courses.get(idx), st, idx + 1, children, Integer.MAX_VALUE);
 
-            if (!beam.isEmpty() && beam.getFirst().selected.size() >= desiredCount) break;
+            // Takes (best step first) before the skip branch: a good incumbent early tightens the bound
+            children.sort(BEAM_ORDER);
+            for (BeamState child : children) {
+                search(child);
+                if (!exhausted) return;
+            }
         }
 
-        if (beam.isEmpty()) return null;
+        private boolean pruned(BeamState st) {
+            if (best == null) return false;
 
-        List<BeamState> sortedFinal = new ArrayList<>(beam);
-        sortedFinal.sort((a, b) -> {
-            boolean aMin = a.selected.size() >= rules.minRequired;
-            boolean bMin = b.selected.size() >= rules.minRequired;
-            if (aMin != bMin) return Boolean.compare(bMin, aMin);
-            if (a.selected.size() != b.selected.size()) return Integer.compare(b.selected.size(), a.selected.size());
-            return Double.compare(b.totalScore, a.totalScore);
-        });
+            int size = st.selection.size;
+            int reachable = size + Math.min(ctx.desiredCount() - size, feasibleSuffix[st.idx]);
+            int bestSize = best.selection.size;
 
-        BeamState best = sortedFinal.getFirst();
+            if (reachable < bestSize) return true;
+            if (reachable > bestSize) return false;
 
-        List<String> beamWarnings = new ArrayList<>();
+            double[] top = suffixTop[st.idx];
+            double bound = st.totalScore;
+            for (int i = 0; i < bestSize - size; i++) bound += top[i];
+            return bound <= best.totalScore + SCORE_EPS;
+        }
 
-        if (Boolean.TRUE.equals(req.pinMustTakesFirst()) && mustTake != null && !mustTake.isEmpty()) {
-            Set<Long> finalIds = best.selected.stream().map(s -> s.course().getId()).collect(Collectors.toSet());
-            for (Long id : mustTake) {
-                if (id == null) continue;
-                if (completedCourseIds.contains(id)) continue;
-                if (!finalIds.contains(id)) {
-                    beamWarnings.add("Must-take could not be scheduled due to constraints/conflicts: courseId=" + id);
+        /**
+         * Upper bound of the step score any state can get from this course (NaN if it can never be taken).
+         * Context-dependent terms are replaced by their best case: no new compactness day, no gap penalty,
+         * the +18 quota bonus and the best elective-target bias.
+         */
+        private double courseUpperBound(BeamCourse course) {
+            if (!course.hoursOk() || course.unavailable()) return Double.NaN;
+
+            GenerateScheduleRequest req = ctx.req();
+            CourseFeatures.Course f = course.features();
+
+            double courseTerms = 0;
+            if (f.recommendedYear() == req.nextYearLevel()) courseTerms += 30;
+            if (f.recommendedSemester() == ctx.expectedRecSemester()) courseTerms += 15;
+            courseTerms += ctx.profile().difficultyScore(f);
+            courseTerms += 18;
+            courseTerms += ctx.profile().tagScore(f);
+            if (ctx.electiveTarget() != null) courseTerms += f.elective() ? 24 : 4;
+
+            double bestSection = Double.NaN;
+            PartialSchedule empty = new PartialSchedule();
+            for (TermCourseOfferingEntity o : course.options()) {
+                if (!trainingHoursEligible(o.getCourse(), ctx.completedHours())) continue;
+                if (!prerequisitesSatisfied(o.getCourse(), ctx.completedCourses())) continue;
+                if (!ctx.profile().feasible(o)) continue;
+
+                double s = ctx.profile().sectionScore(o, empty) + compactnessSlack(req, o);
+                if (Double.isNaN(bestSection) || s > bestSection) bestSection = s;
+            }
+            return Double.isNaN(bestSection) ? Double.NaN : bestSection + courseTerms;
+        }
+
+        // scoreOffering against an empty schedule charges every meeting day as new; a real context may charge none
+        private double compactnessSlack(GenerateScheduleRequest req, TermCourseOfferingEntity o) {
+            CompactnessPreference cp = req.compactnessPreference();
+            int days = o.getPattern().days().size();
+            if (cp == CompactnessPreference.COMPACT) return days * 10;
+            if (cp == CompactnessPreference.BALANCED) return days * 4;
+            return 0;
+        }
+
+        private static double[] insertTop(double[] top, double v, int k) {
+            int len = Math.min(k, top.length + 1);
+            double[] out = new double[len];
+            int i = 0, j = 0;
+            boolean placed = false;
+            while (i < len) {
+                if (!placed && (j >= top.length || v > top[j])) {
+                    out[i++] = v;
+                    placed = true;
+                } else {
+                    out[i++] = top[j++];
                 }
             }
+            return out;
         }
+    }
+
+    /**
+     * Expands every state of one beam level.
+     * Parallel mode fans states out over the search pool; the per-state results are concatenated
+     * in beam order, so the merged list is exactly what the sequential loop produces.
+     */
+    private List<BeamState> expandBeamLevel(BeamCtx ctx, BeamCourse course, List<BeamState> beam, int nextIdx) {
+        ScheduleGenerationProperties.Beam cfg = properties.beam();
 
-        if (best.selected.size() < desiredCount) {
-            beamWarnings.add("Could not reach desiredCourseCount due to constraints/availability/elective caps. Selected=" + best.selected.size() + ", Target=" + desiredCount);
+        if (!cfg.parallel() || beam.size() < cfg.parallelThreshold()) {
+            List<BeamState> next = new ArrayList<>();
+            for (BeamState st : beam) {
+                expandBeamState(ctx, course, st, nextIdx, next, cfg.offeringsPerCourse());
+            }
+            return next;
         }
 
-        boolean templateUsed = false;
-        if (templateCourseIds != null && !templateCourseIds.isEmpty()) {
-            Set<Long> finalIds = best.selected.stream().map(s -> s.course().getId()).collect(Collectors.toSet());
-            for (Long id : templateCourseIds) {
-                if (finalIds.contains(id)) {
-                    templateUsed = true;
-                    break;
+        List<List<BeamState>> parts = scheduleSearchPool.submit(() -> beam.parallelStream()
+                .map(st -> {
+                    List<BeamState> out = new ArrayList<>();
+                    expandBeamState(ctx, course, st, nextIdx, out, cfg.offeringsPerCourse());
+                    return out;
+                })
+                .toList()
+        ).join();
+
+        List<BeamState> next = new ArrayList<>();
+        for (List<BeamState> part : parts) next.addAll(part);
+        return next;
+    }
+
+    // Everything about the level's course that does not depend on the state being expanded
+    private BeamCourse beamCourse(BeamCtx ctx, Long courseId, LinkedHashSet<Long> mustTake, boolean electiveCapAlreadyReached) {
+        boolean isMust = Boolean.TRUE.equals(ctx.req().pinMustTakesFirst()) && mustTake != null && mustTake.contains(courseId);
+
+        List<TermCourseOfferingEntity> options = ctx.catalog().optionsFor(courseId);
+        options = (options == null ? List.of() : options);
+
+        CourseEntity courseRef = options.isEmpty() ? null : options.getFirst().getCourse();
+        CourseFeatures.Course features = courseRef == null ? null : ctx.profile().features(courseRef);
+
+        // ✅ Training-hours gate in beam expansion
+        boolean hoursOk = (courseRef == null) || trainingHoursEligible(courseRef, ctx.completedHours());
+
+        boolean prereqOk = courseRef == null || prerequisitesSatisfied(courseRef, ctx.completedCourses());
+        boolean electiveBlockedByLifetime = electiveCapAlreadyReached && courseRef != null && features.elective();
+
+        return new BeamCourse(isMust, options, courseRef, features, hoursOk, options.isEmpty() || !prereqOk || electiveBlockedByLifetime);
+    }
+
+    // Appends the successors of one state in the same order the original single loop did
+    private void expandBeamState(BeamCtx ctx, BeamCourse course, BeamState st, int nextIdx, List<BeamState> next, int offeringsPerCourse) {
+        GenerateScheduleRequest req = ctx.req();
+        Integer electiveTarget = ctx.electiveTarget();
+        boolean isMust = course.isMust();
+
+        if (st.selection.size >= ctx.desiredCount()) {
+            next.add(st.withIndex(nextIdx));
+            return;
+        }
+
+        if (!course.hoursOk()) {
+            next.add(st.withIndex(nextIdx));
+            return;
+        }
+
+        if (!isMust) {
+            next.add(st.withIndex(nextIdx));
+        }
+
+        if (course.unavailable()) {
+            if (isMust) {
+                next.add(st.withIndex(nextIdx));
+            }
+            return;
+        }
+
+        CourseFeatures.Course features = course.features();
+        if (features != null) {
+            if (electiveTarget != null && electiveTarget >= 0 && features.elective() && st.selectedElectiveCount >= electiveTarget) {
+                if (isMust) {
+                    next.add(st.withIndex(nextIdx));
+                }
+                return;
+            }
+
+            if (ctx.enforceElectiveTags() && electiveTarget != null && features.elective() && st.selectedElectiveCount < electiveTarget) {
+                if (!ctx.profile().matchesPreferredTag(features)) {
+                    if (isMust) {
+                        next.add(st.withIndex(nextIdx));
+                    }
+                    return;
                 }
             }
+
+            if (!canAddCourseByElectiveLimit(features,
+                    ctx.completedElectiveCount(), ctx.completedElectiveHours(),
+                    st.selectedElectiveCount, st.selectedElectiveHours)) {
+                if (isMust) {
+                    next.add(st.withIndex(nextIdx));
+                }
+                return;
+            }
         }
 
-        return new BeamResult(best.selected, beamWarnings, templateUsed, best.totalScore);
+        PartialSchedule stSchedule = st.selection.schedule;
+        List<TermCourseOfferingEntity> top = topOfferingsForState(ctx.profile(), ctx.catalog(), course.options(), ctx.completedCourses(),
+                st.selection, st.selection.blocked, stSchedule, offeringsPerCourse, ctx.completedHours());
+        if (top.isEmpty()) {
+            if (isMust) {
+                next.add(st.withIndex(nextIdx));
+            }
+            return;
+        }
+
+        // Every option is a section of the same course, so the course's features hold for all of them
+        DifficultyBucket bucket = features.difficulty();
+        for (TermCourseOfferingEntity chosen : top) {
+            double stepScore = ctx.profile().stepScore(chosen, stSchedule,
+                    difficultyQuotaAdjustment(ctx.quotas(), st.difficultyCount(bucket), bucket),
+                    electiveTargetScore(electiveTarget, st.selectedElectiveCount, features.elective()));
+
+            long ec2 = st.selectedElectiveCount;
+            long eh2 = st.selectedElectiveHours;
+            if (features.elective()) {
+                ec2++;
+                eh2 += features.creditHours();
+            }
+
+            next.add(st.extend(
+                    ctx.catalog(),
+                    nextIdx,
+                    new SelectedOffering(chosen, ctx.catalog().indexOf(chosen)),
+                    stepScore,
+                    ec2,
+                    eh2,
+                    bucket
+            ));
+        }
     }
 
     private List<TermCourseOfferingEntity> topOfferingsForState(
-            GenerateScheduleRequest req,
+            PreferenceProfile profile,
+            OfferingCatalog catalog,
             List<TermCourseOfferingEntity> options,
-            Set<String> completedCourseCodes,
-            List<SelectedOffering> selected,
+            CompletedCourses completedCourses,
+            Iterable<SelectedOffering> selected,
+            BitSet blocked,
+            PartialSchedule schedule,
             int k,
             int completedHours
     ) {
@@ -1499,11 +1794,11 @@ public class ScheduleGeneratorService {
             // ✅ Training-hours gate (redundant but safe)
             if (!trainingHoursEligible(o.getCourse(), completedHours)) continue;
 
-            if (!prerequisitesSatisfied(o.getCourse(), completedCourseCodes)) continue;
-            if (!respectsHardConstraints(req, o)) continue;
-            if (conflictsWithSelected(o, selected)) continue;
+            if (!prerequisitesSatisfied(o.getCourse(), completedCourses)) continue;
+            if (!profile.feasible(o)) continue;
+            if (conflictsWithSelected(profile, catalog, o, blocked, selected)) continue;
 
-            double s = scoreOffering(req, o, selected);
+            double s = profile.sectionScore(o, schedule);
             scored.add(new OfferingScored(o, s));
         }
 
@@ -1522,35 +1817,167 @@ public class ScheduleGeneratorService {
     }
 
     private record BeamResult(List<SelectedOffering> selected, List<String> selectionWarnings, boolean templateUsed, double totalScore) {}
+    private record OptimalResult(BeamResult result, boolean provenOptimal, long nodes) {}
+
+    // Beam ranking: more courses first, then higher score (stable, so ties keep expansion order)
+    private static final Comparator<BeamState> BEAM_ORDER = (a, b) -> {
+        int sa = a.selection.size;
+        int sb = b.selection.size;
+        if (sa != sb) return Integer.compare(sb, sa);
+        return Double.compare(b.totalScore, a.totalScore);
+    };
     private record OfferingScored(TermCourseOfferingEntity offering, double score) {}
 
+    // Read-only inputs shared by every expansion of one beam search (safe to use from pool threads)
+    private record BeamCtx(
+            GenerateScheduleRequest req,
+            PreferenceProfile profile,
+            OfferingCatalog catalog,
+            CompletedCourses completedCourses,
+            int desiredCount,
+            Integer electiveTarget,
+            boolean enforceElectiveTags,
+            Set<String> preferredTagsNorm,
+            long completedElectiveCount,
+            long completedElectiveHours,
+            int completedHours,
+            EnumMap<DifficultyBucket, Integer> quotas,
+            int expectedRecSemester,
+            List<SelectedOffering> locked,
+            SearchDeadline deadline
+    ) {}
+
+    private record BeamCourse(
+            boolean isMust,
+            List<TermCourseOfferingEntity> options,
+            CourseEntity courseRef,
+            CourseFeatures.Course features,  // null with courseRef
+            boolean hoursOk,
+            boolean unavailable
+    ) {}
+
+    /**
+     * Persistent beam state: the selection chain is shared with every descendant and the
+     * difficulty counters are primitives, so extending a state only copies its parent's schedule and mask.
+     * (Each course is visited once in order, so the chain never needs a course-id set.)
+     */
     private static final class BeamState {
         final int idx;
-        final List<SelectedOffering> selected;
-        final HashSet<Long> selectedCourseIds;
+        final Selection selection;
         final double totalScore;
         final long selectedElectiveCount;
         final long selectedElectiveHours;
-        final EnumMap<DifficultyBucket, Integer> difficultyCounts;
+        final int easyCount;
+        final int mediumCount;
+        final int hardCount;
 
         BeamState(int idx,
-                  List<SelectedOffering> selected,
-                  HashSet<Long> selectedCourseIds,
+                  Selection selection,
                   double totalScore,
                   long selectedElectiveCount,
                   long selectedElectiveHours,
-                  EnumMap<DifficultyBucket, Integer> difficultyCounts) {
+                  int easyCount,
+                  int mediumCount,
+                  int hardCount) {
             this.idx = idx;
-            this.selected = selected;
-            this.selectedCourseIds = selectedCourseIds;
+            this.selection = selection;
             this.totalScore = totalScore;
             this.selectedElectiveCount = selectedElectiveCount;
             this.selectedElectiveHours = selectedElectiveHours;
-            this.difficultyCounts = difficultyCounts;
+            this.easyCount = easyCount;
+            this.mediumCount = mediumCount;
+            this.hardCount = hardCount;
         }
 
         BeamState withIndex(int nextIdx) {
-            return new BeamState(nextIdx, selected, selectedCourseIds, totalScore, selectedElectiveCount, selectedElectiveHours, difficultyCounts);
+            return new BeamState(nextIdx, selection, totalScore, selectedElectiveCount, selectedElectiveHours, easyCount, mediumCount, hardCount);
+        }
+
+        BeamState extend(OfferingCatalog catalog, int nextIdx, SelectedOffering so, double stepScore,
+                         long electiveCount, long electiveHours, DifficultyBucket bucket) {
+            return new BeamState(
+                    nextIdx,
+                    selection.plus(so, catalog),
+                    totalScore + stepScore,
+                    electiveCount,
+                    electiveHours,
+                    easyCount + (bucket == DifficultyBucket.EASY ? 1 : 0),
+                    mediumCount + (bucket == DifficultyBucket.MEDIUM ? 1 : 0),
+                    hardCount + (bucket == DifficultyBucket.HARD ? 1 : 0)
+            );
+        }
+
+        int difficultyCount(DifficultyBucket bucket) {
+            return switch (bucket) {
+                case EASY -> easyCount;
+                case MEDIUM -> mediumCount;
+                case HARD -> hardCount;
+            };
+        }
+    }
+
+    /**
+     * Immutable cons list of selections (newest first), materialized in insertion order on demand.
+     * Only final results ever build the list. Each node carries the schedule and the conflict mask of its
+     * selection, derived from its parent's with one copy and one add; both are only read afterwards, so an
+     * expansion never rebuilds them and nodes are safe to share across pool threads.
+     */
+    private static final class Selection implements Iterable<SelectedOffering> {
+        static final Selection EMPTY = new Selection(null, null, 0, new PartialSchedule(), new BitSet());
+
+        final SelectedOffering head;
+        final Selection prev;
+        final int size;
+        final PartialSchedule schedule;
+        final BitSet blocked;   // OR of the selected sections' conflict-matrix rows
+        private List<SelectedOffering> list;
+
+        private Selection(SelectedOffering head, Selection prev, int size, PartialSchedule schedule, BitSet blocked) {
+            this.head = head;
+            this.prev = prev;
+            this.size = size;
+            this.schedule = schedule;
+            this.blocked = blocked;
+        }
+
+        Selection plus(SelectedOffering so, OfferingCatalog catalog) {
+            PartialSchedule s = schedule.copy();
+            s.add(so.offering());
+            BitSet b = (BitSet) blocked.clone();
+            if (so.index() >= 0) catalog.orConflicts(b, so.index());
+            return new Selection(so, this, size + 1, s, b);
+        }
+
+        // Newest first, without materializing the list
+        @Override
+        public Iterator<SelectedOffering> iterator() {
+            return new Iterator<>() {
+                Selection node = Selection.this;
+
+                @Override
+                public boolean hasNext() {
+                    return node.size > 0;
+                }
+
+                @Override
+                public SelectedOffering next() {
+                    if (node.size == 0) throw new NoSuchElementException();
+                    SelectedOffering so = node.head;
+                    node = node.prev;
+                    return so;
+                }
+            };
+        }
+
+        List<SelectedOffering> asList() {
+            List<SelectedOffering> l = list;
+            if (l == null) {
+                SelectedOffering[] arr = new SelectedOffering[size];
+                for (Selection s = this; s.size > 0; s = s.prev) arr[s.size - 1] = s.head;
+                l = List.of(arr);
+                list = l;
+            }
+            return l;
         }
     }
 
@@ -1562,64 +1989,16 @@ public class ScheduleGeneratorService {
         if (preferredTags == null || preferredTags.isEmpty()) return Set.of();
         return preferredTags.stream()
                 .filter(Objects::nonNull)
-                .map(ScheduleGeneratorService::normalizeTag)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-    }
-
-    private static boolean matchesAnyPreferredTag(String courseTagsCsv, Set<String> preferredTagsNorm) {
-        if (preferredTagsNorm == null || preferredTagsNorm.isEmpty()) return true;
-        if (courseTagsCsv == null || courseTagsCsv.isBlank()) return false;
-
-        Set<String> tags = Arrays.stream(courseTagsCsv.split(","))
-                .map(ScheduleGeneratorService::normalizeTag)
+                .map(CourseFeatures::normalizeTag)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toSet());
-
-        for (String p : preferredTagsNorm) {
-            if (tags.contains(p)) return true;
-        }
-        return false;
-    }
-
-    private static String normalizeTag(String t) {
-        if (t == null) return null;
-        String s = t.trim().toLowerCase();
-        if (s.isEmpty()) return null;
-
-        s = stripWrappingQuotes(s).trim();
-        if (s.isEmpty()) return null;
-
-        while (s.startsWith("\"") || s.startsWith("'")) s = s.substring(1).trim();
-        while (s.endsWith("\"") || s.endsWith("'")) s = s.substring(0, s.length() - 1).trim();
-
-        return s.isEmpty() ? null : s;
-    }
-
-    private static String stripWrappingQuotes(String s) {
-        if (s == null) return null;
-
-        boolean changed = true;
-        while (changed) {
-            changed = false;
-
-            if (s.length() >= 2) {
-                char first = s.charAt(0);
-                char last = s.charAt(s.length() - 1);
-                if ((first == '"' && last == '"') || (first == '\'' && last == '\'')) {
-                    s = s.substring(1, s.length() - 1).trim();
-                    changed = true;
-                }
-            }
-        }
-        return s;
     }
 
     // ----------------------------
     // Training-hours eligibility (by course ID)
     // ----------------------------
 
-    private static int requiredTrainingHours(CourseEntity c) {
+    static int requiredTrainingHours(CourseEntity c) {
         if (c == null || c.getId() == null) return 0;
         long id = c.getId();
 
@@ -1634,14 +2013,14 @@ public class ScheduleGeneratorService {
         return req == 0 || completedHours >= req;
     }
 
-    private static CourseCountRules courseCountRules(Semester semester) {
+    static CourseCountRules courseCountRules(Semester semester) {
         return switch (semester) {
             case FALL, SPRING -> new CourseCountRules(2, 6, 5);
             case SUMMER -> new CourseCountRules(1, 3, 1);
         };
     }
 
-    private static int resolveTargetCount(Integer requested, CourseCountRules rules, List<String> warnings) {
+    static int resolveTargetCount(Integer requested, CourseCountRules rules, List<String> warnings) {
         int target = (requested == null ? rules.defaultTarget : requested);
 
         if (target < rules.minRequired) {
@@ -1655,6 +2034,106 @@ public class ScheduleGeneratorService {
         return target;
     }
 
+    /**
+     * Locked offering ids -> sections kept as they are (in request order). A lock is ignored with a warning if the
+     * section is not offered this semester, its course is completed / already locked / not yet allowed
+     * (prerequisites, training hours, lifetime elective cap), it clashes with an earlier lock, or the target
+     * course count is already reached. Soft preferences and unavailable blocks never drop a lock.
+     */
+    private List<SelectedOffering> resolveLockedOfferings(
+            GenerateScheduleRequest req,
+            OfferingCatalog catalog,
+            Set<Long> completedCourseIds,
+            CompletedCourses completedCourses,
+            int targetCount,
+            long completedElectiveCount,
+            long completedElectiveHours,
+            int completedHours,
+            List<String> warnings
+    ) {
+        if (req.lockedOfferingIds() == null || req.lockedOfferingIds().isEmpty()) return List.of();
+
+        List<SelectedOffering> locked = new ArrayList<>();
+        long electiveCount = 0;
+        long electiveHours = 0;
+
+        for (Long offeringId : new LinkedHashSet<>(req.lockedOfferingIds())) {
+            if (offeringId == null) continue;
+
+            int idx = catalog.indexOfOfferingId(offeringId);
+            if (idx < 0) {
+                warnings.add("Locked section is not offered in " + req.nextSemester() + " (ignored): offeringId=" + offeringId);
+                continue;
+            }
+
+            TermCourseOfferingEntity o = catalog.offering(idx);
+            CourseEntity c = o.getCourse();
+            String label = c.getCourseName() + " (" + c.getCourseCode() + ") section " + o.getSectionCode();
+
+            if (locked.size() >= targetCount) {
+                warnings.add("More locked sections than the target course count (ignored): " + label);
+                continue;
+            }
+            if (completedCourseIds.contains(c.getId())) {
+                warnings.add("Locked section belongs to a completed course (ignored): " + label);
+                continue;
+            }
+            if (containsCourse(locked, c.getId())) {
+                warnings.add("Another section of this course is already locked (ignored): " + label);
+                continue;
+            }
+            if (!prerequisitesSatisfied(c, completedCourses) || !trainingHoursEligible(c, completedHours)) {
+                warnings.add("Locked section is not allowed yet (prerequisites/training hours) (ignored): " + label);
+                continue;
+            }
+            CourseFeatures.Course f = catalog.features().of(c);
+            if (!canAddCourseByElectiveLimit(f, completedElectiveCount, completedElectiveHours, electiveCount, electiveHours)) {
+                warnings.add("Elective lifetime limit reached (locked section ignored): " + label);
+                continue;
+            }
+            if (locked.stream().anyMatch(so -> catalog.conflicts(so.index(), idx))) {
+                warnings.add("Locked section conflicts with an earlier locked section (ignored): " + label);
+                continue;
+            }
+
+            locked.add(new SelectedOffering(o, idx));
+            if (f.elective()) {
+                electiveCount++;
+                electiveHours += f.creditHours();
+            }
+        }
+
+        return locked;
+    }
+
+    private int resolveTopK(Integer requested, List<String> warnings) {
+        if (requested == null || requested <= 1) return 1;
+
+        int max = properties.topK().maxResults();
+        if (requested > max) {
+            warnings.add("Requested topK " + requested + " exceeds the maximum. Adjusted to " + max + ".");
+            return max;
+        }
+        return requested;
+    }
+
+    /**
+     * Starts the clock; a requested deadline above the maximum is clamped (generateInternal warns about it).
+     * Without a requested one, OPTIMAL gets at least its own timeBudgetMs: the interactive default would cut it short.
+     */
+    SearchDeadline resolveDeadline(GenerateScheduleRequest req) {
+        ScheduleGenerationProperties.Deadline cfg = properties.deadline();
+        long ms;
+        if (req.deadlineMs() != null) {
+            ms = req.deadlineMs();
+        } else if (cfg.defaultMs() > 0 && req.generationMode() == GenerationMode.OPTIMAL) {
+            ms = Math.max(cfg.defaultMs(), properties.optimal().timeBudgetMs());
+        } else {
+            ms = cfg.defaultMs();
+        }
+        return SearchDeadline.afterMillis(Math.min(ms, cfg.maxMs()));
+    }
+
     private static Integer resolveElectiveTarget(Integer requestedElectives,
                                                  int targetCourses,
                                                  boolean lifetimeCapReached,
@@ -1694,15 +2173,15 @@ public class ScheduleGeneratorService {
     }
 
     private void fillFromPool(
-            GenerateScheduleRequest req,
+            PreferenceProfile profile,
             int desiredCount,
             Integer electiveTarget,
             Set<String> preferredTagsNorm,
-            Map<Long, List<TermCourseOfferingEntity>> offeringsByCourseId,
+            OfferingCatalog catalog,
             Set<Long> completedCourseIds,
-            Set<String> completedCourseCodes,
+            CompletedCourses completedCourses,
             List<Long> excludeCourseIds,
-            List<SelectedOffering> selected,
+            IncrementalSelection selected,
             List<String> warnings,
             long completedElectiveCount,
             long completedElectiveHours,
@@ -1720,13 +2199,13 @@ public class ScheduleGeneratorService {
         boolean enforceElectiveTags = electiveTarget != null && electiveTarget > 0 && preferredTagsNorm != null && !preferredTagsNorm.isEmpty();
         boolean relaxedTagsOnceToMeetTarget = false;
 
-        List<TermCourseOfferingEntity> pool = offeringsByCourseId.values().stream()
+        List<TermCourseOfferingEntity> pool = catalog.offeringsByCourseId().values().stream()
                 .flatMap(List::stream)
                 .filter(o -> !completedCourseIds.contains(o.getCourse().getId()))
                 .filter(o -> !excludeCourseIds.contains(o.getCourse().getId()))
-                .filter(o -> prerequisitesSatisfied(o.getCourse(), completedCourseCodes))
+                .filter(o -> prerequisitesSatisfied(o.getCourse(), completedCourses))
                 .filter(o -> trainingHoursEligible(o.getCourse(), completedHours)) // ✅ Training-hours gate
-                .filter(o -> !electiveCapAlreadyReached || !isElective(o.getCourse()))
+                .filter(o -> !electiveCapAlreadyReached || !profile.features(o.getCourse()).elective())
                 .toList();
 
         Map<Long, List<TermCourseOfferingEntity>> candidatesByCourse = pool.stream()
@@ -1736,7 +2215,8 @@ public class ScheduleGeneratorService {
                 .sorted()
                 .toList();
 
-        EnumMap<DifficultyBucket, Integer> quotas = difficultyQuotas(req.difficultyTarget(), desiredCount);
+        EnumMap<DifficultyBucket, Integer> quotas = difficultyQuotas(profile.request().difficultyTarget(), desiredCount);
+        PartialSchedule schedule = selected.schedule();
 
         while (selected.size() < desiredCount) {
 
@@ -1751,7 +2231,7 @@ public class ScheduleGeneratorService {
             TermCourseOfferingEntity bestNonMatchingElective = null;
             double bestNonMatchingElectiveScore = Double.NEGATIVE_INFINITY;
 
-            EnumMap<DifficultyBucket, Integer> currentCounts = countDifficultyBuckets(selected);
+            EnumMap<DifficultyBucket, Integer> currentCounts = countDifficultyBuckets(profile, selected);
 
             for (Long courseId : courseOrder) {
                 if (containsCourse(selected, courseId)) continue;
@@ -1759,7 +2239,7 @@ public class ScheduleGeneratorService {
                 List<TermCourseOfferingEntity> opts = candidatesByCourse.get(courseId);
                 if (opts == null || opts.isEmpty()) continue;
 
-                TermCourseOfferingEntity chosen = chooseBestOfferingFromOptions(req, opts, completedCourseCodes, selected);
+                TermCourseOfferingEntity chosen = chooseBestOfferingFromOptions(profile, catalog, opts, completedCourses, selected, null);
                 if (chosen == null) continue;
 
                 CourseEntity c = chosen.getCourse();
@@ -1769,7 +2249,8 @@ public class ScheduleGeneratorService {
                     continue;
                 }
 
-                boolean elective = isElective(c);
+                CourseFeatures.Course f = profile.features(c);
+                boolean elective = f.elective();
 
                 // ✅ Hard requirement when needed: if we must pick elective now, skip non-electives entirely
                 if (mustPickElectiveNow && !elective) {
@@ -1790,7 +2271,7 @@ public class ScheduleGeneratorService {
                 }
 
                 // lifetime elective cap
-                if (!canAddCourseByElectiveLimit(c, completedElectiveCount, completedElectiveHours, selectedElectiveCount, selectedElectiveHours)) {
+                if (!canAddCourseByElectiveLimit(f, completedElectiveCount, completedElectiveHours, selectedElectiveCount, selectedElectiveHours)) {
                     continue;
                 }
 
@@ -1798,10 +2279,10 @@ public class ScheduleGeneratorService {
                 // - normally: block non-matching electives
                 // - but if we MUST pick an elective now, keep a backup non-matching elective so we can still meet electiveTarget
                 if (enforceElectiveTags && electiveTarget != null && elective && selectedElectiveCount < electiveTarget) {
-                    boolean matches = matchesAnyPreferredTag(c.getTags(), preferredTagsNorm);
+                    boolean matches = profile.matchesPreferredTag(f);
                     if (!matches) {
                         if (mustPickElectiveNow) {
-                            double score = computeFullCandidateScore(req, chosen, selected, quotas, currentCounts, electiveTarget, selectedElectiveCount);
+                            double score = computeFullCandidateScore(profile, chosen, schedule, quotas, currentCounts, electiveTarget, selectedElectiveCount);
                             if (score > bestNonMatchingElectiveScore
                                     || (scoresEqual(score, bestNonMatchingElectiveScore) && isBetterOfferingTie(chosen, bestNonMatchingElective))) {
                                 bestNonMatchingElectiveScore = score;
@@ -1812,7 +2293,7 @@ public class ScheduleGeneratorService {
                     }
                 }
 
-                double score = computeFullCandidateScore(req, chosen, selected, quotas, currentCounts, electiveTarget, selectedElectiveCount);
+                double score = computeFullCandidateScore(profile, chosen, schedule, quotas, currentCounts, electiveTarget, selectedElectiveCount);
 
                 if (score > bestScore || (scoresEqual(score, bestScore) && isBetterOfferingTie(chosen, best))) {
                     bestScore = score;
@@ -1835,47 +2316,35 @@ public class ScheduleGeneratorService {
                 }
             }
 
-            selected.add(new SelectedOffering(best));
-            if (isElective(best.getCourse())) {
+            selected.add(new SelectedOffering(best, catalog.indexOf(best)));
+            CourseFeatures.Course bestFeatures = profile.features(best.getCourse());
+            if (bestFeatures.elective()) {
                 selectedElectiveCount++;
-                selectedElectiveHours += best.getCourse().getCreditHours();
+                selectedElectiveHours += bestFeatures.creditHours();
             }
         }
     }
 
     private static double computeFullCandidateScore(
-            GenerateScheduleRequest req,
+            PreferenceProfile profile,
             TermCourseOfferingEntity chosen,
-            List<SelectedOffering> selected,
+            PartialSchedule schedule,
             EnumMap<DifficultyBucket, Integer> quotas,
             EnumMap<DifficultyBucket, Integer> currentCounts,
             Integer electiveTarget,
             long selectedElectiveCount
     ) {
-        CourseEntity c = chosen.getCourse();
-
-        double score = scoreOfferingStatic(req, chosen, selected);
-
-        if (c.getRecommendedYear() == req.nextYearLevel()) score += 30;
-        int expectedRecSemester = mapSemesterToRecommendedSemesterStatic(req.nextSemester());
-        if (c.getRecommendedSemester() == expectedRecSemester) score += 15;
-
-        score += difficultyScoreStatic(req.difficultyTarget(), c.getDifficulty());
-
-        DifficultyBucket bucket = bucketOf(c.getDifficulty());
-        score += difficultyQuotaAdjustment(quotas, currentCounts, bucket);
+        CourseFeatures.Course f = profile.features(chosen.getCourse());
+        DifficultyBucket bucket = f.difficulty();
 
-        score += tagScoreStatic(req.preferredTags(), c.getTags());
-        score += electiveTargetScore(electiveTarget, selectedElectiveCount, c);
-
-        return score;
+        return profile.stepScore(chosen, schedule,
+                difficultyQuotaAdjustment(quotas, currentCounts, bucket),
+                electiveTargetScore(electiveTarget, selectedElectiveCount, f.elective()));
     }
 
-    private static double electiveTargetScore(Integer electiveTarget, long selectedElectiveCount, CourseEntity course) {
+    private static double electiveTargetScore(Integer electiveTarget, long selectedElectiveCount, boolean elective) {
         if (electiveTarget == null) return 0;
 
-        boolean elective = isElective(course);
-
         if (selectedElectiveCount < electiveTarget) {
             return elective ? 24 : -6;
         }
@@ -1883,14 +2352,14 @@ public class ScheduleGeneratorService {
         return elective ? -30 : 4;
     }
 
-    private long[] recalcSelectedElectives(List<SelectedOffering> selected) {
+    private static long[] recalcSelectedElectives(OfferingCatalog catalog, List<SelectedOffering> selected) {
         long count = 0;
         long hours = 0;
         for (SelectedOffering s : selected) {
-            CourseEntity c = s.course();
-            if (isElective(c)) {
+            CourseFeatures.Course f = catalog.features().of(s.course());
+            if (f.elective()) {
                 count++;
-                hours += c.getCreditHours();
+                hours += f.creditHours();
             }
         }
         return new long[]{count, hours};
@@ -1900,7 +2369,7 @@ public class ScheduleGeneratorService {
         return mapSemesterToRecommendedSemesterStatic(sem);
     }
 
-    private static int mapSemesterToRecommendedSemesterStatic(Semester sem) {
+    static int mapSemesterToRecommendedSemesterStatic(Semester sem) {
         return switch (sem) {
             case FALL -> 1;
             case SPRING -> 2;
@@ -1909,25 +2378,21 @@ public class ScheduleGeneratorService {
     }
 
     private TermCourseOfferingEntity chooseBestOfferingForCourse(
-            GenerateScheduleRequest req,
+            PreferenceProfile profile,
             Long courseId,
-            Map<Long, List<TermCourseOfferingEntity>> offeringsByCourseId,
-            Set<String> completedCourseCodes,
-            List<SelectedOffering> selected,
+            OfferingCatalog catalog,
+            CompletedCourses completedCourses,
+            IncrementalSelection selected,
             List<String> warnings,
-            ExplainCtx explainCtx,
+            DecisionTrace trace,
             ExplainPhase phase,
             int completedHours
     ) {
-        List<TermCourseOfferingEntity> options = offeringsByCourseId.get(courseId);
+        List<TermCourseOfferingEntity> options = catalog.optionsFor(courseId);
         if (options == null || options.isEmpty()) {
-            warnings.add("Course is not offered in " + req.nextSemester() + ": courseId=" + courseId);
-            if (explainCtx != null) {
-                explainCtx.addSkip(new SkipReasonDto(
-                        phase, SkipReasonCode.NOT_OFFERED,
-                        courseId, null, null,
-                        "Course has no offerings in this semester."
-                ));
+            warnings.add("Course is not offered in " + profile.request().nextSemester() + ": courseId=" + courseId);
+            if (trace != null) {
+                trace.skip(phase, SkipReasonCode.NOT_OFFERED, courseId, Note.NOT_OFFERED);
             }
             return null;
         }
@@ -1940,91 +2405,76 @@ public class ScheduleGeneratorService {
             warnings.add("Training hours requirement not met (skipped): "
                     + c.getCourseName() + " (" + c.getCourseCode() + "). Required=" + reqHours + ", Current=" + completedHours);
 
-            if (explainCtx != null) {
+            if (trace != null) {
                 // Using existing code to avoid changing enums in other files
-                explainCtx.addSkip(new SkipReasonDto(
-                        phase, SkipReasonCode.PREREQUISITE_FAIL,
-                        c.getId(), c.getCourseCode(), c.getCourseName(),
-                        "Training hours requirement not met. Requires " + reqHours + " hours; current=" + completedHours + "."
-                ));
+                trace.skip(phase, SkipReasonCode.PREREQUISITE_FAIL, c.getId(), Note.TRAINING_HOURS, reqHours, completedHours);
             }
             return null;
         }
 
-        if (!prerequisitesSatisfied(c, completedCourseCodes)) {
+        if (!prerequisitesSatisfied(c, completedCourses)) {
             warnings.add("Prerequisites not satisfied (skipped): " + c.getCourseName() + " (" + c.getCourseCode() + ")");
-            if (explainCtx != null) {
-                explainCtx.addSkip(new SkipReasonDto(
-                        phase, SkipReasonCode.PREREQUISITE_FAIL,
-                        c.getId(), c.getCourseCode(), c.getCourseName(),
-                        "Prerequisites not satisfied based on completed course codes."
-                ));
+            if (trace != null) {
+                trace.skip(phase, SkipReasonCode.PREREQUISITE_FAIL, c.getId(), Note.PREREQUISITES);
             }
             return null;
         }
 
-        TermCourseOfferingEntity best = chooseBestOfferingFromOptions(req, options, completedCourseCodes, selected);
-        if (best == null && explainCtx != null) {
-            int hardFail = 0, conflictFail = 0, prereqFail = 0;
-            int checked = 0;
-            for (TermCourseOfferingEntity o : options) {
-                checked++;
-                if (!prerequisitesSatisfied(o.getCourse(), completedCourseCodes)) { prereqFail++; continue; }
-                if (!respectsHardConstraints(req, o)) { hardFail++; continue; }
-                if (conflictsWithSelected(o, selected)) { conflictFail++; continue; }
-            }
+        // The scan counts why sections were rejected, so a failure is classified without walking them again
+        int[] rejected = trace == null ? null : trace.rejectCounters();
+        TermCourseOfferingEntity best = chooseBestOfferingFromOptions(profile, catalog, options, completedCourses, selected, rejected);
+        if (best == null && trace != null) {
+            int checked = rejected[DecisionTrace.CHECKED];
 
             SkipReasonCode code;
-            String detail;
+            Note note;
 
             if (checked == 0) {
                 code = SkipReasonCode.NO_FEASIBLE_SECTION;
-                detail = "No offerings to evaluate.";
-            } else if (prereqFail == checked) {
+                note = Note.NO_OFFERINGS;
+            } else if (rejected[DecisionTrace.PREREQ] == checked) {
                 code = SkipReasonCode.PREREQUISITE_FAIL;
-                detail = "All sections failed prerequisites.";
-            } else if (hardFail == checked) {
+                note = Note.ALL_SECTIONS_PREREQUISITES;
+            } else if (rejected[DecisionTrace.HARD] == checked) {
                 code = SkipReasonCode.UNAVAILABLE_CONFLICT;
-                detail = "All sections violate hard constraints (unavailable blocks/time limits).";
-            } else if (conflictFail == checked) {
+                note = Note.ALL_SECTIONS_UNAVAILABLE;
+            } else if (rejected[DecisionTrace.CONFLICT] == checked) {
                 code = SkipReasonCode.TIME_CONFLICT;
-                detail = "All sections conflict with already selected schedule.";
+                note = Note.ALL_SECTIONS_CONFLICT;
             } else {
                 code = SkipReasonCode.NO_FEASIBLE_SECTION;
-                detail = "No section can satisfy all constraints simultaneously.";
+                note = Note.NO_FEASIBLE_SECTION;
             }
 
-            explainCtx.addSkip(new SkipReasonDto(
-                    phase, code,
-                    c.getId(), c.getCourseCode(), c.getCourseName(),
-                    detail
-            ));
+            trace.skip(phase, code, c.getId(), note);
         }
 
         return best;
     }
 
     private TermCourseOfferingEntity chooseBestOfferingFromOptions(
-            GenerateScheduleRequest req,
+            PreferenceProfile profile,
+            OfferingCatalog catalog,
             List<TermCourseOfferingEntity> options,
-            Set<String> completedCourseCodes,
-            List<SelectedOffering> selected
+            CompletedCourses completedCourses,
+            IncrementalSelection selected,
+            int[] rejected
     ) {
         if (options == null || options.isEmpty()) return null;
 
-        // options already sorted deterministically at load-time, but keep safe:
-        List<TermCourseOfferingEntity> sorted = new ArrayList<>(options);
-        sorted.sort(ScheduleGeneratorService::compareOfferingsDeterministic);
-
+        // options are sorted deterministically by the catalog snapshot (fillFromPool keeps that order)
         TermCourseOfferingEntity best = null;
         double bestScore = Double.NEGATIVE_INFINITY;
+        BitSet blocked = selected.blocked();
+        PartialSchedule schedule = selected.schedule();
 
-        for (TermCourseOfferingEntity o : sorted) {
-            if (!prerequisitesSatisfied(o.getCourse(), completedCourseCodes)) continue;
-            if (!respectsHardConstraints(req, o)) continue;
-            if (conflictsWithSelected(o, selected)) continue;
+        for (TermCourseOfferingEntity o : options) {
+            if (rejected != null) rejected[DecisionTrace.CHECKED]++;
+            if (!prerequisitesSatisfied(o.getCourse(), completedCourses)) { countRejection(rejected, DecisionTrace.PREREQ); continue; }
+            if (!profile.feasible(o)) { countRejection(rejected, DecisionTrace.HARD); continue; }
+            if (conflictsWithSelected(profile, catalog, o, blocked, selected)) { countRejection(rejected, DecisionTrace.CONFLICT); continue; }
 
-            double s = scoreOffering(req, o, selected);
+            double s = profile.sectionScore(o, schedule);
 
             if (s > bestScore || (scoresEqual(s, bestScore) && isBetterOfferingTie(o, best))) {
                 bestScore = s;
@@ -2036,57 +2486,25 @@ public class ScheduleGeneratorService {
     }
 
     // IMPORTANT FIX: Normalize prereq code matching (robust against spaces/format differences)
-    private boolean prerequisitesSatisfied(CourseEntity course, Set<String> completedCodes) {
-        List<Prerequisites> prereqs = course.getPrerequisites();
-        if (prereqs == null || prereqs.isEmpty()) return true;
-
-        for (Prerequisites p : prereqs) {
-            if (p == null) continue;
-
-            String raw = p.getCode();
-            String need = normalizeCourseCode(raw);
-            if (need == null || need.isBlank()) continue;
-
-            if (!completedCodes.contains(need)) {
-                return false;
-            }
-        }
-        return true;
+    private boolean prerequisitesSatisfied(CourseEntity course, CompletedCourses completed) {
+        return completed.satisfies(course);
     }
 
-    private static String normalizeCourseCode(String code) {
-        if (code == null) return null;
-        String s = code.trim();
-        if (s.isEmpty()) return null;
-
-        s = s.replace(" ", "");
-        s = s.toUpperCase();
-
-        return s.isEmpty() ? null : s;
-    }
-
-    private boolean respectsHardConstraints(GenerateScheduleRequest req, TermCourseOfferingEntity offering) {
-        TimeRanges.requireValid(offering.getStartTime(), offering.getEndTime(), "Offering time");
-
-        if (req.unavailableBlocks() != null && !req.unavailableBlocks().isEmpty()) {
-            for (UnavailableBlockDto b : req.unavailableBlocks()) {
-                if (b == null) continue;
-                TimeRanges.requireValid(b.from(), b.to(), "Unavailable block");
-                for (ScheduleDay d : offering.getPattern().days()) {
-                    if (d == b.day()) {
-                        if (TimeRanges.overlaps(offering.getStartTime(), offering.getEndTime(), b.from(), b.to())) {
-                            return false;
-                        }
-                    }
-                }
-            }
-        }
-
-        return true;
-    }
+    /**
+     * Candidate lookup in the precomputed conflict matrix, no time comparisons.
+     * Offerings outside the snapshot (never expected) fall back to the pairwise LocalTime check.
+     */
+    private boolean conflictsWithSelected(PreferenceProfile profile,
+                                          OfferingCatalog catalog,
+                                          TermCourseOfferingEntity candidate,
+                                          BitSet blocked,
+                                          Iterable<SelectedOffering> selected) {
+        profile.stats().conflictChecks.increment();
+        int idx = catalog.indexOf(candidate);
+        if (idx >= 0 && blocked.get(idx)) return true;
 
-    private boolean conflictsWithSelected(TermCourseOfferingEntity candidate, List<SelectedOffering> selected) {
         for (SelectedOffering so : selected) {
+            if (idx >= 0 && so.index() >= 0) continue;
             if (offeringsConflict(candidate, so.offering())) {
                 return true;
             }
@@ -2107,188 +2525,155 @@ public class ScheduleGeneratorService {
         return false;
     }
 
-    private double scoreOffering(GenerateScheduleRequest req, TermCourseOfferingEntity o, List<SelectedOffering> selected) {
-        return scoreOfferingStatic(req, o, selected);
-    }
-
-    private static double scoreOfferingStatic(GenerateScheduleRequest req, TermCourseOfferingEntity o, List<SelectedOffering> selected) {
-        double score = 0;
-
-        if (req.preferredDays() != null && !req.preferredDays().isEmpty()) {
-            long hits = o.getPattern().days().stream().filter(req.preferredDays()::contains).count();
-            score += hits * 8;
-        }
-        if (req.avoidDays() != null && !req.avoidDays().isEmpty()) {
-            long hits = o.getPattern().days().stream().filter(req.avoidDays()::contains).count();
-            score -= hits * 12;
-        }
+    // Penalty for the new meeting days a section would add: COMPACT -10/day, BALANCED -4/day
+    static double compactnessScore(CompactnessPreference cp, PartialSchedule schedule, TermCourseOfferingEntity o) {
+        if (cp == null || cp == CompactnessPreference.DONT_CARE) return 0;
 
-        if (req.preferredTimeWindows() != null && !req.preferredTimeWindows().isEmpty()) {
-            boolean withinAny = false;
-            for (TimeWindowDto w : req.preferredTimeWindows()) {
-                if (w == null) continue;
-                TimeRanges.requireValid(w.from(), w.to(), "Preferred time window");
-                if (TimeRanges.within(o.getStartTime(), o.getEndTime(), w.from(), w.to())) {
-                    withinAny = true;
-                    break;
-                }
-            }
-            score += withinAny ? 10 : -5;
-        }
-
-        if (req.earliestStartTime() != null && o.getStartTime().isBefore(req.earliestStartTime())) {
-            score -= 20;
-        }
-        if (req.latestEndTime() != null && o.getEndTime().isAfter(req.latestEndTime())) {
-            score -= 20;
-        }
-
-        CompactnessPreference cp = req.compactnessPreference();
-        if (cp != null && cp != CompactnessPreference.DONT_CARE) {
-            Set<ScheduleDay> days = new HashSet<>();
-            for (SelectedOffering s : selected) {
-                days.addAll(s.offering().getPattern().days());
-            }
-            Set<ScheduleDay> after = new HashSet<>(days);
-            after.addAll(o.getPattern().days());
-
-            int beforeCount = days.size();
-            int afterCount = after.size();
-
-            if (cp == CompactnessPreference.COMPACT) {
-                if (afterCount > beforeCount) score -= (afterCount - beforeCount) * 10;
-            } else if (cp == CompactnessPreference.BALANCED) {
-                if (afterCount > beforeCount) score -= (afterCount - beforeCount) * 4;
-            }
-        }
-
-        if (Boolean.TRUE.equals(req.avoidLongGaps())) {
-            score -= estimateGapPenaltyIfAddedStatic(o, selected);
-        }
+        int added = schedule.newDaysIfAdded(o);
+        if (cp == CompactnessPreference.COMPACT) return -added * 10;
+        if (cp == CompactnessPreference.BALANCED) return -added * 4;
+        return 0;
+    }
 
-        return score;
+    private static PartialSchedule scheduleOf(List<SelectedOffering> selected) {
+        PartialSchedule schedule = new PartialSchedule();
+        for (SelectedOffering s : selected) schedule.add(s.offering());
+        return schedule;
     }
 
-    private double estimateGapPenaltyIfAdded(TermCourseOfferingEntity candidate, List<SelectedOffering> selected) {
-        return estimateGapPenaltyIfAddedStatic(candidate, selected);
+    static double difficultyScoreStatic(DifficultyTarget target, DifficultyBucket bucket) {
+        return switch (target) {
+            case EASY -> switch (bucket) {
+                case EASY -> 12;
+                case MEDIUM -> 4;
+                case HARD -> -10;
+            };
+            case HARD -> switch (bucket) {
+                case HARD -> 12;
+                case MEDIUM -> 4;
+                case EASY -> -6;
+            };
+            case BALANCED -> switch (bucket) {
+                case MEDIUM -> 10;
+                case EASY -> 6;
+                case HARD -> 2;
+            };
+        };
     }
 
-    private static double estimateGapPenaltyIfAddedStatic(TermCourseOfferingEntity candidate, List<SelectedOffering> selected) {
-        final int LONG_GAP_MIN = 90;
-        double penalty = 0;
+    /**
+     * Alternatives engine: up to perCourse alternative sections (best first) for every selected course, in one pass.
+     * - Occupancy: a candidate is checked against the other selected sections only (its course's primary is
+     *   masked out), straight from the catalog's conflict matrix
+     * - Scoring context: the schedule without the primary (one schedule for the pass; the primary is taken out
+     *   while its course is scanned and put back after)
+     * - Ranking is the single-alternative rule: higher score first, near-ties by the deterministic section order
+     * With a trace, a course left without alternatives records why (rejection counts of its own scan).
+     */
+    private List<List<TermCourseOfferingEntity>> findAlternatives(
+            PreferenceProfile profile,
+            OfferingCatalog catalog,
+            CompletedCourses completedCourses,
+            List<SelectedOffering> selected,
+            int perCourse,
+            DecisionTrace trace
+    ) {
+        boolean requested = Boolean.TRUE.equals(profile.request().returnAlternatives());
+        List<List<TermCourseOfferingEntity>> out = new ArrayList<>(selected.size());
 
-        Map<ScheduleDay, List<TimeRange>> map = new EnumMap<>(ScheduleDay.class);
-        for (SelectedOffering s : selected) {
-            for (ScheduleDay d : s.offering().getPattern().days()) {
-                map.computeIfAbsent(d, k -> new ArrayList<>()).add(new TimeRange(s.offering().getStartTime(), s.offering().getEndTime()));
-            }
-        }
-        for (ScheduleDay d : candidate.getPattern().days()) {
-            map.computeIfAbsent(d, k -> new ArrayList<>()).add(new TimeRange(candidate.getStartTime(), candidate.getEndTime()));
-        }
+        TermCourseOfferingEntity[] top = new TermCourseOfferingEntity[perCourse];
+        double[] topScores = new double[perCourse];
+        PartialSchedule schedule = null;
 
-        for (var e : map.entrySet()) {
-            List<TimeRange> ranges = e.getValue();
-            ranges.sort(Comparator.comparing(tr -> tr.start));
-            for (int i = 0; i + 1 < ranges.size(); i++) {
-                TimeRange a = ranges.get(i);
-                TimeRange b = ranges.get(i + 1);
-                long gap = java.time.Duration.between(a.end, b.start).toMinutes();
-                if (gap > LONG_GAP_MIN) {
-                    penalty += (gap - LONG_GAP_MIN) / 15.0;
-                }
-            }
-        }
+        for (int i = 0; i < selected.size(); i++) {
+            TermCourseOfferingEntity primary = selected.get(i).offering();
+            int[] rejected = trace == null ? null : trace.rejectCounters();
+            List<TermCourseOfferingEntity> options = requested ? catalog.optionsFor(primary.getCourse().getId()) : null;
 
-        return penalty;
-    }
+            int n = 0;
+            if (options != null && options.size() > 1) {
+                // Sections of one course share its prerequisites
+                boolean prerequisitesOk = prerequisitesSatisfied(primary.getCourse(), completedCourses);
+                if (schedule == null) schedule = scheduleOf(selected);
+                schedule.remove(primary);
 
-    private double difficultyScore(DifficultyTarget target, String courseDifficulty) {
-        return difficultyScoreStatic(target, courseDifficulty);
-    }
+                for (TermCourseOfferingEntity o : options) {
+                    if (o.getId().equals(primary.getId())) continue;
+                    if (rejected != null) rejected[DecisionTrace.CHECKED]++;
+                    if (!prerequisitesOk) { countRejection(rejected, DecisionTrace.PREREQ); continue; }
+                    if (!profile.feasible(o)) { countRejection(rejected, DecisionTrace.HARD); continue; }
+                    if (conflictsWithOthers(profile, catalog, o, selected, i)) { countRejection(rejected, DecisionTrace.CONFLICT); continue; }
 
-    private static double difficultyScoreStatic(DifficultyTarget target, String courseDifficulty) {
-        String d = (courseDifficulty == null ? "" : courseDifficulty.trim().toLowerCase());
-        return switch (target) {
-            case EASY -> {
-                if (d.contains("easy")) yield 12;
-                if (d.contains("medium")) yield 4;
-                if (d.contains("hard")) yield -10;
-                yield 0;
-            }
-            case HARD -> {
-                if (d.contains("hard")) yield 12;
-                if (d.contains("medium")) yield 4;
-                if (d.contains("easy")) yield -6;
-                yield 0;
+                    n = insertRanked(top, topScores, n, o, profile.sectionScore(o, schedule));
+                }
+                schedule.add(primary);
             }
-            case BALANCED -> {
-                if (d.contains("medium")) yield 10;
-                if (d.contains("easy")) yield 6;
-                if (d.contains("hard")) yield 2;
-                yield 0;
+
+            out.add(n == 0 ? List.of() : List.of(Arrays.copyOf(top, n)));
+            if (n == 0 && trace != null) {
+                trace.alternativeFailure(primary.getCourse().getId(), alternativeFailureReason(profile.request(), catalog, primary, rejected));
             }
-        };
+        }
+        return out;
     }
 
-    private double tagScore(List<String> preferredTags, String courseTagsCsv) {
-        return tagScoreStatic(preferredTags, courseTagsCsv);
+    // Conflict with any selected section except the masked one (pairwise fallback outside the snapshot)
+    private boolean conflictsWithOthers(PreferenceProfile profile, OfferingCatalog catalog, TermCourseOfferingEntity candidate,
+                                        List<SelectedOffering> selected, int masked) {
+        profile.stats().conflictChecks.increment();
+        int idx = catalog.indexOf(candidate);
+        for (int j = 0; j < selected.size(); j++) {
+            if (j == masked) continue;
+            SelectedOffering so = selected.get(j);
+            boolean conflict = (idx >= 0 && so.index() >= 0)
+                    ? catalog.conflicts(idx, so.index())
+                    : offeringsConflict(candidate, so.offering());
+            if (conflict) return true;
+        }
+        return false;
     }
 
-    private static double tagScoreStatic(List<String> preferredTags, String courseTagsCsv) {
-        if (preferredTags == null || preferredTags.isEmpty()) return 0;
-        if (courseTagsCsv == null || courseTagsCsv.isBlank()) return 0;
-
-        Set<String> prefs = preferredTags.stream()
-                .filter(Objects::nonNull)
-                .map(ScheduleGeneratorService::normalizeTag)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
-        if (prefs.isEmpty()) return 0;
-
-        Set<String> tags = Arrays.stream(courseTagsCsv.split(","))
-                .map(ScheduleGeneratorService::normalizeTag)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
-        long hits = prefs.stream().filter(tags::contains).count();
-        return hits * 6;
+    /**
+     * Inserts o into the first n ranked slots (dropping the last one if full); returns the new count.
+     * o goes before the first entry it beats under the "better offering" rule, so slot 0 is exactly
+     * what a sequential best-so-far scan would keep.
+     */
+    private static int insertRanked(TermCourseOfferingEntity[] top, double[] scores, int n,
+                                    TermCourseOfferingEntity o, double s) {
+        int pos = 0;
+        while (pos < n && !(s > scores[pos] || (scoresEqual(s, scores[pos]) && isBetterOfferingTie(o, top[pos])))) pos++;
+        if (pos == top.length) return n;
+
+        int last = Math.min(n, top.length - 1);
+        System.arraycopy(top, pos, top, pos + 1, last - pos);
+        System.arraycopy(scores, pos, scores, pos + 1, last - pos);
+        top[pos] = o;
+        scores[pos] = s;
+        return Math.min(n + 1, top.length);
     }
 
-    private TermCourseOfferingEntity findAlternativeOffering(
-            GenerateScheduleRequest req,
-            TermCourseOfferingEntity primary,
-            Map<Long, List<TermCourseOfferingEntity>> offeringsByCourseId,
-            Set<String> completedCourseCodes,
-            List<SelectedOffering> selected
-    ) {
-        if (!Boolean.TRUE.equals(req.returnAlternatives())) return null;
+    private List<SelectedCourseOptionDto> toOptionDtos(List<SelectedOffering> selected,
+                                                       List<List<TermCourseOfferingEntity>> alternatives) {
+        List<SelectedCourseOptionDto> dtos = new ArrayList<>(selected.size());
+        for (int i = 0; i < selected.size(); i++) {
+            TermCourseOfferingEntity primary = selected.get(i).offering();
+            List<TermCourseOfferingEntity> alts = alternatives.get(i);
 
-        List<TermCourseOfferingEntity> options = offeringsByCourseId.get(primary.getCourse().getId());
-        if (options == null) return null;
-
-        TermCourseOfferingEntity best = null;
-        double bestScore = Double.NEGATIVE_INFINITY;
+            List<ScheduleCourseSlotDto> altDtos = new ArrayList<>(alts.size());
+            for (TermCourseOfferingEntity alt : alts) altDtos.add(toCourseSlotDto(alt, false));
 
-        for (TermCourseOfferingEntity o : options) {
-            if (o.getId().equals(primary.getId())) continue;
-            if (!prerequisitesSatisfied(o.getCourse(), completedCourseCodes)) continue;
-            if (!respectsHardConstraints(req, o)) continue;
-
-            List<SelectedOffering> withoutPrimary = selected.stream()
-                    .filter(s -> !s.offering().getId().equals(primary.getId()))
-                    .toList();
-            if (conflictsWithSelected(o, withoutPrimary)) continue;
-
-            double s = scoreOffering(req, o, withoutPrimary);
-            if (s > bestScore || (scoresEqual(s, bestScore) && isBetterOfferingTie(o, best))) {
-                bestScore = s;
-                best = o;
-            }
+            dtos.add(new SelectedCourseOptionDto(
+                    toCourseSlotDto(primary, false),
+                    altDtos.isEmpty() ? toCourseSlotDto(primary, true) : altDtos.getFirst(),
+                    altDtos
+            ));
         }
+        return dtos;
+    }
 
-        return best;
+    private static int resolveAlternativesPerCourse(Integer requested) {
+        if (requested == null) return 1;
+        return Math.max(1, Math.min(MAX_ALTERNATIVES_PER_COURSE, requested));
     }
 
     private ScheduleCourseSlotDto toCourseSlotDto(TermCourseOfferingEntity o, boolean sameAsPrimaryFlag) {
@@ -2325,25 +2710,21 @@ public class ScheduleGeneratorService {
         return grid;
     }
 
-    private static boolean isElective(CourseEntity c) {
-        String cat = (c == null ? null : c.getCategory());
-        if (cat == null) return false;
-        String s = cat.trim().toLowerCase();
-        // Your values: "major compulsory", "major elective", "college requirement"
-        return s.contains("elective");
+    static boolean isElective(CourseEntity c) {
+        return CourseFeatures.isElective(c);
     }
 
     private static boolean canAddCourseByElectiveLimit(
-            CourseEntity course,
+            CourseFeatures.Course course,
             long completedElectiveCount,
             long completedElectiveHours,
             long selectedElectiveCount,
             long selectedElectiveHours
     ) {
-        if (!isElective(course)) return true;
+        if (!course.elective()) return true;
 
         long newCount = completedElectiveCount + selectedElectiveCount + 1;
-        long newHours = completedElectiveHours + selectedElectiveHours + course.getCreditHours();
+        long newHours = completedElectiveHours + selectedElectiveHours + course.creditHours();
 
         return newCount <= MAX_ELECTIVE_COURSES_LIFETIME && newHours <= MAX_ELECTIVE_CREDIT_HOURS_LIFETIME;
     }
@@ -2354,11 +2735,11 @@ public class ScheduleGeneratorService {
             Integer electiveTarget,
             int currentSelectedCount,
             long currentSelectedElectives,
-            CourseEntity candidateCourse
+            CourseFeatures.Course candidateCourse
     ) {
         if (electiveTarget == null) return false;
         if (candidateCourse == null) return false;
-        if (isElective(candidateCourse)) return false;
+        if (candidateCourse.elective()) return false;
 
         int neededElectives = Math.max(0, electiveTarget - (int) currentSelectedElectives);
         if (neededElectives <= 0) return false;
@@ -2377,67 +2758,79 @@ public class ScheduleGeneratorService {
         return compareOfferingsDeterministic(a, b) < 0;
     }
 
-    // Sort by startTime, then endTime, then sectionCode, then id
+    // Sort by startTime, then endTime, then sectionCode, then id (same order the catalog snapshot uses)
     private static int compareOfferingsDeterministic(TermCourseOfferingEntity a, TermCourseOfferingEntity b) {
-        if (a == b) return 0;
-        if (a == null) return 1;
-        if (b == null) return -1;
-
-        int cmp = Comparator.nullsLast(LocalTime::compareTo).compare(a.getStartTime(), b.getStartTime());
-        if (cmp != 0) return cmp;
-
-        cmp = Comparator.nullsLast(LocalTime::compareTo).compare(a.getEndTime(), b.getEndTime());
-        if (cmp != 0) return cmp;
-
-        String sa = a.getSectionCode();
-        String sb = b.getSectionCode();
-        cmp = Comparator.nullsLast(String::compareTo).compare(sa, sb);
-        if (cmp != 0) return cmp;
-
-        Long ida = a.getId();
-        Long idb = b.getId();
-        return Comparator.nullsLast(Long::compareTo).compare(ida, idb);
+        return OfferingCatalog.compareOfferings(a, b);
     }
 
-    private record SelectedOffering(TermCourseOfferingEntity offering) {
+    private record SelectedOffering(TermCourseOfferingEntity offering, int index) {
         CourseEntity course() {
             return offering.getCourse();
         }
     }
 
-    private static final class TimeRange {
-        final LocalTime start;
-        final LocalTime end;
+    /**
+     * The greedy phases' selection: a list that keeps its schedule and conflict mask up to date on every add,
+     * so choosing the next section never rebuilds them from the list. Read as a plain list everywhere else.
+     */
+    private static final class IncrementalSelection extends AbstractList<SelectedOffering> {
+        private final OfferingCatalog catalog;
+        private final List<SelectedOffering> list = new ArrayList<>();
+        private final PartialSchedule schedule = new PartialSchedule();
+        private final BitSet blocked;   // OR of the selected sections' conflict-matrix rows
 
-        TimeRange(LocalTime start, LocalTime end) {
-            this.start = start;
-            this.end = end;
+        IncrementalSelection(OfferingCatalog catalog) {
+            this.catalog = catalog;
+            this.blocked = new BitSet(catalog.offeringCount());
+        }
+
+        IncrementalSelection(OfferingCatalog catalog, List<SelectedOffering> selected) {
+            this(catalog);
+            addAll(selected);
+        }
+
+        @Override
+        public boolean add(SelectedOffering so) {
+            list.add(so);
+            schedule.add(so.offering());
+            if (so.index() >= 0) catalog.orConflicts(blocked, so.index());
+            modCount++;
+            return true;
+        }
+
+        @Override
+        public SelectedOffering get(int i) {
+            return list.get(i);
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+
+        PartialSchedule schedule() {
+            return schedule;
+        }
+
+        BitSet blocked() {
+            return blocked;
         }
     }
 
-    private record CourseCountRules(int minRequired, int maxAllowed, int defaultTarget) {}
+    record CourseCountRules(int minRequired, int maxAllowed, int defaultTarget) {}
 
     // ----------------------------
     // Difficulty balancing helpers
     // ----------------------------
 
-    private enum DifficultyBucket {EASY, MEDIUM, HARD}
-
-    private static DifficultyBucket bucketOf(String courseDifficulty) {
-        String d = (courseDifficulty == null ? "" : courseDifficulty.trim().toLowerCase());
-        if (d.contains("easy")) return DifficultyBucket.EASY;
-        if (d.contains("hard")) return DifficultyBucket.HARD;
-        return DifficultyBucket.MEDIUM;
-    }
-
-    private static EnumMap<DifficultyBucket, Integer> countDifficultyBuckets(List<SelectedOffering> selected) {
+    private static EnumMap<DifficultyBucket, Integer> countDifficultyBuckets(PreferenceProfile profile, List<SelectedOffering> selected) {
         EnumMap<DifficultyBucket, Integer> counts = new EnumMap<>(DifficultyBucket.class);
         counts.put(DifficultyBucket.EASY, 0);
         counts.put(DifficultyBucket.MEDIUM, 0);
         counts.put(DifficultyBucket.HARD, 0);
 
         for (SelectedOffering s : selected) {
-            DifficultyBucket b = bucketOf(s.course().getDifficulty());
+            DifficultyBucket b = profile.features(s.course()).difficulty();
             counts.put(b, counts.get(b) + 1);
         }
         return counts;
@@ -2493,7 +2886,14 @@ public class ScheduleGeneratorService {
             EnumMap<DifficultyBucket, Integer> currentCounts,
             DifficultyBucket candidateBucket
     ) {
-        int have = currentCounts.getOrDefault(candidateBucket, 0);
+        return difficultyQuotaAdjustment(quotas, currentCounts.getOrDefault(candidateBucket, 0), candidateBucket);
+    }
+
+    private static double difficultyQuotaAdjustment(
+            EnumMap<DifficultyBucket, Integer> quotas,
+            int have,
+            DifficultyBucket candidateBucket
+    ) {
         int need = quotas.getOrDefault(candidateBucket, 0);
 
         if (have < need) return 18;
@@ -0,0 +1,172 @@
+package graduation.project.schedule.service;
+
+import graduation.project.schedule.config.ScheduleGenerationProperties;
+import graduation.project.schedule.domain.enums.ScheduleJobKind;
+import graduation.project.schedule.domain.jobs.ScheduleJob;
+import graduation.project.schedule.dto.GenerateScheduleRequest;
+import graduation.project.schedule.dto.GraduationPlanRequest;
+import graduation.project.schedule.dto.ScheduleJobResponse;
+import graduation.project.schedule.util.CurrentUserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous generation jobs: submit returns at once, the work runs on the bounded job pool.
+ * - The work is the synchronous endpoint's own service call (generator / planner), for the user resolved at submit
+ * - A full job queue rejects the submit (RejectedExecutionException, answered with 429); nothing is stored then
+ * - State lives in the {@link ScheduleJobStore}; a job is only visible to the user who submitted it
+ * - Server-Sent Events: every subscriber gets the current state, then each transition; the stream ends
+ *   with the finished state. Subscribers are local to this instance.
+ */
+@Service
+@RequiredArgsConstructor
+public class ScheduleJobService {
+
+    private static final String EVENT = "job";
+
+    private final ScheduleGeneratorService generatorService;
+    private final GraduationPlanService graduationPlanService;
+    private final CurrentUserService currentUserService;
+    private final ScheduleJobStore jobStore;
+    private final ExecutorService scheduleJobExecutor;
+    private final ScheduleGenerationProperties properties;
+
+    private final ConcurrentHashMap<String, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    public ScheduleJobResponse submitGenerate(GenerateScheduleRequest req) {
+        String email = currentUserService.currentUserEmailOrThrow();
+        return submit(ScheduleJobKind.GENERATE, email, () -> generatorService.generateUser(email, req));
+    }
+
+    public ScheduleJobResponse submitGenerateDebug(GenerateScheduleRequest req) {
+        String email = currentUserService.currentUserEmailOrThrow();
+        return submit(ScheduleJobKind.GENERATE_DEBUG, email, () -> generatorService.generate(email, req));
+    }
+
+    public ScheduleJobResponse submitPlan(GraduationPlanRequest req) {
+        String email = currentUserService.currentUserEmailOrThrow();
+        return submit(ScheduleJobKind.PLAN, email, () -> graduationPlanService.planFor(email, req));
+    }
+
+    public ScheduleJobResponse get(String jobId) {
+        return toResponse(ownJob(jobId));
+    }
+
+    public SseEmitter subscribe(String jobId) {
+        ScheduleJob job = ownJob(jobId);
+        SseEmitter emitter = new SseEmitter(properties.jobs().sseTimeout().toMillis());
+        if (job.finished()) {
+            sendFinal(emitter, job);
+            return emitter;
+        }
+
+        Set<SseEmitter> set = subscribers.computeIfAbsent(jobId, k -> ConcurrentHashMap.newKeySet());
+        set.add(emitter);
+        Runnable unsubscribe = () -> set.remove(emitter);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(e -> unsubscribe.run());
+
+        // The job may have finished while we subscribed: whoever removes the emitter sends the final state
+        ScheduleJob current = jobStore.find(jobId).orElse(job);
+        if (current.finished()) {
+            if (set.remove(emitter)) sendFinal(emitter, current);
+            subscribers.remove(jobId, set); // the worker may already have taken the entry it published to
+        } else {
+            send(emitter, current);
+        }
+        return emitter;
+    }
+
+    ScheduleJobResponse submit(ScheduleJobKind kind, String owner, Supplier<Object> work) {
+        ScheduleJob job = ScheduleJob.queued(UUID.randomUUID().toString(), kind, owner, Instant.now());
+        jobStore.save(job); // before the worker can save RUNNING over it
+        try {
+            scheduleJobExecutor.execute(() -> run(job, work));
+        } catch (RejectedExecutionException ex) {
+            jobStore.remove(job.id());
+            throw new RejectedExecutionException("Too many schedule jobs in progress; try again shortly");
+        }
+        return toResponse(job);
+    }
+
+    private void run(ScheduleJob queued, Supplier<Object> work) {
+        ScheduleJob running = queued.running(Instant.now());
+        publish(running);
+
+        ScheduleJob done = null;
+        try {
+            done = running.succeeded(work.get(), Instant.now());
+        } catch (RuntimeException ex) {
+            done = running.failed(ex.getMessage() == null ? "Unexpected error" : ex.getMessage(), Instant.now());
+        } catch (Throwable t) {
+            // StackOverflowError / OutOfMemoryError: record the failure, then let the error reach the pool
+            done = running.failed("Job aborted: " + t.getClass().getSimpleName(), Instant.now());
+            throw t;
+        } finally {
+            // A job never stays RUNNING, whatever ended it
+            publish(done != null ? done : running.failed("Job aborted", Instant.now()));
+        }
+    }
+
+    private void publish(ScheduleJob job) {
+        jobStore.save(job);
+
+        if (!job.finished()) {
+            Set<SseEmitter> set = subscribers.get(job.id());
+            if (set != null) set.forEach(e -> send(e, job));
+            return;
+        }
+
+        Set<SseEmitter> set = subscribers.remove(job.id());
+        if (set == null) return;
+        for (SseEmitter e : set) {
+            if (set.remove(e)) sendFinal(e, job);
+        }
+    }
+
+    private ScheduleJob ownJob(String jobId) {
+        String email = currentUserService.currentUserEmailOrThrow();
+        return jobStore.find(jobId)
+                .filter(j -> j.owner().equals(email))
+                .orElseThrow(() -> new NoSuchElementException("Schedule job not found: " + jobId));
+    }
+
+    private static boolean send(SseEmitter emitter, ScheduleJob job) {
+        try {
+            emitter.send(SseEmitter.event().name(EVENT).data(toResponse(job)));
+            return true;
+        } catch (IOException | IllegalStateException ex) {
+            emitter.completeWithError(ex); // client went away or the stream timed out
+            return false;
+        }
+    }
+
+    private static void sendFinal(SseEmitter emitter, ScheduleJob job) {
+        if (send(emitter, job)) emitter.complete();
+    }
+
+    private static ScheduleJobResponse toResponse(ScheduleJob job) {
+        return new ScheduleJobResponse(
+                job.id(),
+                job.kind(),
+                job.status(),
+                job.submittedAt(),
+                job.startedAt(),
+                job.finishedAt(),
+                job.result(),
+                job.error()
+        );
+    }
+}
@@ -0,0 +1,25 @@
+package graduation.project.schedule.service;
+
+import graduation.project.schedule.domain.jobs.ScheduleJob;
+
+import java.util.Optional;
+
+/**
+ * Where asynchronous job state lives. The default is {@link InMemoryScheduleJobStore} (one instance, lost on
+ * restart); declare another ScheduleJobStore bean as @Primary to replace it.
+ * Implementations must be thread-safe: a job is saved by the submitting request and then by its worker.
+ */
+public interface ScheduleJobStore {
+
+    /**
+     * Inserts the job or replaces the stored state of the same id.
+     */
+    void save(ScheduleJob job);
+
+    /**
+     * Current state, empty if unknown or no longer retained.
+     */
+    Optional<ScheduleJob> find(String id);
+
+    void remove(String id);
+}
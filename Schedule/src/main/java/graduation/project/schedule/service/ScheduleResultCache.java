@@ -0,0 +1,315 @@
+package graduation.project.schedule.service;
+
+import graduation.project.USER.events.AcademicRecordChangedEvent;
+import graduation.project.USER.events.CourseChangedEvent;
+import graduation.project.schedule.config.ScheduleGenerationProperties;
+import graduation.project.schedule.domain.catalog.OfferingCatalog;
+import graduation.project.schedule.domain.enums.Semester;
+import graduation.project.schedule.domain.events.OfferingCatalogChangedEvent;
+import graduation.project.schedule.domain.student.AcademicRecord;
+import graduation.project.schedule.dto.GenerateScheduleRequest;
+import graduation.project.schedule.dto.ScheduleResultCacheStats;
+import graduation.project.schedule.dto.TimeWindowDto;
+import graduation.project.schedule.dto.UnavailableBlockDto;
+import graduation.project.schedule.dto.UserGeneratedScheduleResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU + TTL cache of user schedule responses.
+ * - Generation is a pure function of (request, academic record, catalog snapshot), so the key is the
+ *   canonicalized request + the user's record version + the semester's catalog version
+ * - A changed record/catalog gets a new version (old entries can never be hit again); the matching
+ *   events also drop those entries right away instead of leaving them to LRU/TTL
+ * - A course edit or delete changes both (records and snapshots hold course data), so it drops every entry
+ * - Values are computed outside the lock. Concurrent identical misses are coalesced (single flight): the first
+ *   one generates, duplicates wait on its future and get the same response or exception. Only requests with the
+ *   same deadline budget join (a different budget means a different truncation), and a duplicate waits at most
+ *   min(coalesceWait, its remaining deadline) before generating itself with whatever budget is left
+ */
+@Service
+@RequiredArgsConstructor
+public class ScheduleResultCache {
+
+    private final ScheduleGenerationProperties properties;
+
+    // access-ordered: the eldest entry is the least recently used one
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final ConcurrentHashMap<Flight, CompletableFuture<UserGeneratedScheduleResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypasses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder coalesceTimeouts = new LongAdder();
+
+    /**
+     * Cache key, or null when the request must not be cached (see {@link #canonical}).
+     */
+    public static Key key(String email, AcademicRecord record, OfferingCatalog catalog, GenerateScheduleRequest req) {
+        GenerateScheduleRequest canonical = canonical(req);
+        if (canonical == null) return null;
+        return new Key(email, record.version(), catalog.semester(), catalog.version(), canonical);
+    }
+
+    /**
+     * @param deadline the request's deadline, already running; {@code compute} is expected to honour the same one
+     */
+    UserGeneratedScheduleResponse getOrCompute(Key key, SearchDeadline deadline,
+                                               Supplier<UserGeneratedScheduleResponse> compute) {
+        ScheduleGenerationProperties.ResultCache cfg = properties.resultCache();
+        if (key == null || !cfg.enabled()) {
+            bypasses.increment();
+            if (key == null || !cfg.coalesce()) return compute.get();
+        } else {
+            UserGeneratedScheduleResponse cached = lookup(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        if (!cfg.coalesce()) return computeAndStore(key, compute, cfg);
+
+        Flight flight = new Flight(key, deadline.budgetMs());
+        CompletableFuture<UserGeneratedScheduleResponse> mine = new CompletableFuture<>();
+        CompletableFuture<UserGeneratedScheduleResponse> leader = inFlight.putIfAbsent(flight, mine);
+        if (leader != null) return await(leader, key, deadline, compute, cfg);
+
+        try {
+            // The previous leader may have stored its value between our lookup and putIfAbsent
+            UserGeneratedScheduleResponse value = cfg.enabled() ? lookup(key) : null;
+            if (value != null) {
+                hits.increment();
+            } else {
+                value = computeAndStore(key, compute, cfg);
+            }
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(flight, mine);
+        }
+    }
+
+    private UserGeneratedScheduleResponse await(CompletableFuture<UserGeneratedScheduleResponse> leader, Key key,
+                                                SearchDeadline deadline,
+                                                Supplier<UserGeneratedScheduleResponse> compute,
+                                                ScheduleGenerationProperties.ResultCache cfg) {
+        try {
+            long wait = Math.min(cfg.coalesceWait().toNanos(), deadline.remainingNanos());
+            UserGeneratedScheduleResponse value = leader.get(wait, TimeUnit.NANOSECONDS);
+            coalesced.increment();
+            return value;
+        } catch (TimeoutException e) {
+            coalesceTimeouts.increment();
+            return computeAndStore(key, compute, cfg);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an identical schedule generation", e);
+        } catch (ExecutionException e) {
+            // Same request, same inputs: the duplicate would have failed the same way
+            coalesced.increment();
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw new IllegalStateException("Schedule generation failed", e.getCause());
+        }
+    }
+
+    private UserGeneratedScheduleResponse lookup(Key key) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry e = entries.get(key);
+            if (e == null) return null;
+            if (now - e.expiresAtNanos() < 0) return e.value();
+            entries.remove(key);
+            evictions.increment();
+            return null;
+        }
+    }
+
+    private UserGeneratedScheduleResponse computeAndStore(Key key, Supplier<UserGeneratedScheduleResponse> compute,
+                                                          ScheduleGenerationProperties.ResultCache cfg) {
+        if (!cfg.enabled()) return compute.get();
+
+        misses.increment();
+        UserGeneratedScheduleResponse value = compute.get();
+        if (value.truncated()) return value; // depends on timing: the next request may well get further
+
+        synchronized (entries) {
+            entries.put(key, new Entry(value, System.nanoTime() + cfg.ttl().toNanos()));
+            while (entries.size() > cfg.maxEntries()) {
+                Iterator<Key> it = entries.keySet().iterator();
+                it.next();
+                it.remove();
+                evictions.increment();
+            }
+        }
+        return value;
+    }
+
+    public ScheduleResultCacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        long h = hits.sum();
+        long m = misses.sum();
+        ScheduleGenerationProperties.ResultCache cfg = properties.resultCache();
+        return new ScheduleResultCacheStats(
+                cfg.enabled(),
+                size,
+                cfg.maxEntries(),
+                h,
+                m,
+                bypasses.sum(),
+                evictions.sum(),
+                invalidations.sum(),
+                coalesced.sum(),
+                coalesceTimeouts.sum(),
+                (h + m) == 0 ? 0.0 : (double) h / (h + m)
+        );
+    }
+
+    public void clear() {
+        removeIf(k -> true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAcademicRecordChanged(AcademicRecordChangedEvent event) {
+        if (event.email() != null) removeIf(k -> k.email().equals(event.email()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(OfferingCatalogChangedEvent event) {
+        Set<Semester> semesters = event.semesters();
+        if (!semesters.isEmpty()) removeIf(k -> semesters.contains(k.semester()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        clear();
+    }
+
+    private void removeIf(Predicate<Key> predicate) {
+        synchronized (entries) {
+            Iterator<Key> it = entries.keySet().iterator();
+            while (it.hasNext()) {
+                if (predicate.test(it.next())) {
+                    it.remove();
+                    invalidations.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Equal canonical requests always generate the same response:
+     * - Set-like lists (tags, days, time windows, unavailable blocks) are de-duplicated and sorted; nulls dropped
+     * - Must-takes and locked sections keep their order (it decides who gets the conflicting slot first), duplicates/nulls dropped
+     * - Empty lists become null (generation treats both the same)
+     * - Fields the user response ignores are cleared (explain, block notes)
+     * - The deadline is cleared: only untruncated responses are stored, and those do not depend on it
+     * Returns null (do not cache) if a time window/block is invalid: generation may stop at the first
+     * invalid entry it meets, so reordering could change the outcome. A null time window is treated the
+     * same way (a list of only nulls still scores as "outside every window").
+     */
+    static GenerateScheduleRequest canonical(GenerateScheduleRequest req) {
+        if (req.preferredTimeWindows() != null) {
+            for (TimeWindowDto w : req.preferredTimeWindows()) {
+                if (w == null || !validRange(w.from(), w.to())) return null;
+            }
+        }
+        if (req.unavailableBlocks() != null) {
+            for (UnavailableBlockDto b : req.unavailableBlocks()) {
+                if (b != null && (b.day() == null || !validRange(b.from(), b.to()))) return null;
+            }
+        }
+
+        List<UnavailableBlockDto> blocks = req.unavailableBlocks() == null ? null : req.unavailableBlocks().stream()
+                .filter(Objects::nonNull)
+                .map(b -> new UnavailableBlockDto(b.day(), b.from(), b.to(), null))
+                .distinct()
+                .sorted(Comparator.comparing(UnavailableBlockDto::day)
+                        .thenComparing(UnavailableBlockDto::from)
+                        .thenComparing(UnavailableBlockDto::to))
+                .toList();
+        if (blocks != null && blocks.isEmpty()) blocks = null;
+
+        List<TimeWindowDto> windows = req.preferredTimeWindows() == null ? null : req.preferredTimeWindows().stream()
+                .distinct()
+                .sorted(Comparator.comparing(TimeWindowDto::from).thenComparing(TimeWindowDto::to))
+                .toList();
+        if (windows != null && windows.isEmpty()) windows = null;
+
+        List<Long> mustTake = req.mustTakeCourseIds() == null ? null
+                : req.mustTakeCourseIds().stream().filter(Objects::nonNull).distinct().toList();
+        if (mustTake != null && mustTake.isEmpty()) mustTake = null;
+
+        List<Long> lockedIds = req.lockedOfferingIds() == null ? null
+                : req.lockedOfferingIds().stream().filter(Objects::nonNull).distinct().toList();
+        if (lockedIds != null && lockedIds.isEmpty()) lockedIds = null;
+
+        return new GenerateScheduleRequest(
+                req.nextSemester(),
+                req.nextYearLevel(),
+                req.desiredCourseCount(),
+                req.desiredElectiveCount(),
+                req.difficultyTarget(),
+                mustTake,
+                sortedDistinct(req.preferredTags()),
+                req.pinMustTakesFirst(),
+                req.returnAlternatives(),
+                sortedDistinct(req.preferredDays()),
+                sortedDistinct(req.avoidDays()),
+                windows,
+                req.earliestStartTime(),
+                req.latestEndTime(),
+                blocks,
+                req.compactnessPreference(),
+                req.avoidLongGaps(),
+                Boolean.FALSE,
+                req.generationMode(),
+                req.topK(),
+                lockedIds,
+                req.alternativesPerCourse(),
+                null
+        );
+    }
+
+    private static <T extends Comparable<? super T>> List<T> sortedDistinct(List<T> list) {
+        if (list == null) return null;
+        List<T> out = list.stream().filter(Objects::nonNull).distinct().sorted().toList();
+        return out.isEmpty() ? null : out;
+    }
+
+    private static boolean validRange(LocalTime from, LocalTime to) {
+        return from != null && to != null && from.isBefore(to);
+    }
+
+    public record Key(String email, long recordVersion, Semester semester, long catalogVersion,
+                      GenerateScheduleRequest request) {
+    }
+
+    private record Entry(UserGeneratedScheduleResponse value, long expiresAtNanos) {
+    }
+
+    // In-flight generations are shared per cache key and deadline budget
+    private record Flight(Key key, long deadlineMs) {
+    }
+}
@@ -0,0 +1,61 @@
+package graduation.project.schedule.service;
+
+/**
+ * Latency budget of one generation (anytime mode), measured from the start of the request.
+ * The greedy phases always run to completion (their schedule is the fallback); the searches after them
+ * (beam, top-K, branch-and-bound) poll {@link #reached()} between steps and stop with their best state so far.
+ * Polled from the request thread only.
+ */
+final class SearchDeadline {
+
+    private final boolean bounded;
+    private final long budgetMs;
+    private final long atNanos;
+    private boolean truncated;
+
+    private SearchDeadline(boolean bounded, long budgetMs, long atNanos) {
+        this.bounded = bounded;
+        this.budgetMs = budgetMs;
+        this.atNanos = atNanos;
+    }
+
+    static SearchDeadline none() {
+        return new SearchDeadline(false, 0, 0);
+    }
+
+    static SearchDeadline afterMillis(long ms) {
+        return ms <= 0 ? none() : new SearchDeadline(true, ms, System.nanoTime() + ms * 1_000_000L);
+    }
+
+    /**
+     * The budget this deadline was started with (0 = none).
+     */
+    long budgetMs() {
+        return budgetMs;
+    }
+
+    /**
+     * Time left, Long.MAX_VALUE without a deadline; never negative. Does not mark the result truncated.
+     */
+    long remainingNanos() {
+        return bounded ? Math.max(0, atNanos - System.nanoTime()) : Long.MAX_VALUE;
+    }
+
+    /**
+     * True once the deadline has passed; the caller is expected to stop, so the result is marked truncated.
+     */
+    boolean reached() {
+        if (!bounded) return false;
+        if (truncated) return true;
+        if (System.nanoTime() - atNanos < 0) return false;
+        truncated = true;
+        return true;
+    }
+
+    /**
+     * A search phase stopped at the deadline (the schedule is the best one found in time).
+     */
+    boolean truncated() {
+        return truncated;
+    }
+}
@@ -1,6 +1,7 @@
 package graduation.project.schedule.service;
 
 import graduation.project.model.course.CourseEntity;
+import graduation.project.schedule.domain.events.OfferingCatalogChangedEvent;
 import graduation.project.schedule.dto.AdminTemplateUpsertRequest;
 import graduation.project.schedule.dto.TemplateCourseBrief;
 import graduation.project.schedule.dto.TemplateResponse;
@@ -9,11 +10,13 @@ import graduation.project.schedule.entity.PreferredTemplateItemEntity;
 import graduation.project.schedule.repo.CourseReadRepository;
 import graduation.project.schedule.repo.PreferredScheduleTemplateRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +24,7 @@ public class TemplateAdminService {
 
     private final PreferredScheduleTemplateRepository templateRepository;
     private final CourseReadRepository courseReadRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public TemplateResponse upsert(AdminTemplateUpsertRequest req) {
@@ -46,6 +50,7 @@ public class TemplateAdminService {
         template.replaceItems(items);
 
         PreferredScheduleTemplateEntity saved = templateRepository.save(template);
+        eventPublisher.publishEvent(new OfferingCatalogChangedEvent(Set.of(saved.getSemester())));
         return toResponse(saved);
     }
 
@@ -60,7 +65,10 @@ public class TemplateAdminService {
     @Transactional
     public void delete(graduation.project.schedule.domain.enums.Semester semester, Integer yearLevel) {
         templateRepository.findBySemesterAndYearLevel(semester, yearLevel)
-                .ifPresent(templateRepository::delete);
+                .ifPresent(t -> {
+                    templateRepository.delete(t);
+                    eventPublisher.publishEvent(new OfferingCatalogChangedEvent(Set.of(semester)));
+                });
     }
 
     private TemplateResponse toResponse(PreferredScheduleTemplateEntity t) {
@@ -0,0 +1,162 @@
+package graduation.project.schedule.util;
+
+import graduation.project.schedule.domain.enums.ScheduleDay;
+import graduation.project.schedule.entity.TermCourseOfferingEntity;
+
+import java.util.Arrays;
+
+/**
+ * Incremental view of a partial weekly schedule, used for "score if added" deltas.
+ * - Occupied days are a bitmask (compactness: how many new days would a section add)
+ * - Every day keeps its meetings sorted by start time (ties keep insertion order)
+ * - The long-gap excess (minutes beyond {@link #LONG_GAP_MIN} between consecutive meetings) is kept up to date
+ * Adding a section or asking for the gap penalty if it were added costs one binary search per meeting day.
+ */
+public final class PartialSchedule {
+
+    public static final int LONG_GAP_MIN = 90;
+
+    private static final int DAYS = ScheduleDay.values().length;
+
+    private int dayBits;
+    private final int[][] starts = new int[DAYS][];
+    private final int[][] ends = new int[DAYS][];
+    private final int[] sizes = new int[DAYS];
+    private long excessGapMinutes;
+
+    public PartialSchedule() {
+        for (int d = 0; d < DAYS; d++) {
+            starts[d] = new int[4];
+            ends[d] = new int[4];
+        }
+    }
+
+    private PartialSchedule(PartialSchedule from) {
+        this.dayBits = from.dayBits;
+        this.excessGapMinutes = from.excessGapMinutes;
+        for (int d = 0; d < DAYS; d++) {
+            starts[d] = from.starts[d].clone();
+            ends[d] = from.ends[d].clone();
+            sizes[d] = from.sizes[d];
+        }
+    }
+
+    /**
+     * Independent copy: adding to either schedule leaves the other unchanged.
+     */
+    public PartialSchedule copy() {
+        return new PartialSchedule(this);
+    }
+
+    public static PartialSchedule of(Iterable<TermCourseOfferingEntity> offerings) {
+        PartialSchedule ps = new PartialSchedule();
+        for (TermCourseOfferingEntity o : offerings) ps.add(o);
+        return ps;
+    }
+
+    public void add(TermCourseOfferingEntity o) {
+        int s = o.getStartTime().toSecondOfDay();
+        int e = o.getEndTime().toSecondOfDay();
+        for (ScheduleDay day : o.getPattern().days()) {
+            int d = day.ordinal();
+            int pos = insertionPoint(d, s);
+            excessGapMinutes += gapDelta(d, pos, s, e);
+
+            int n = sizes[d];
+            if (n == starts[d].length) {
+                starts[d] = Arrays.copyOf(starts[d], n * 2);
+                ends[d] = Arrays.copyOf(ends[d], n * 2);
+            }
+            System.arraycopy(starts[d], pos, starts[d], pos + 1, n - pos);
+            System.arraycopy(ends[d], pos, ends[d], pos + 1, n - pos);
+            starts[d][pos] = s;
+            ends[d][pos] = e;
+            sizes[d] = n + 1;
+            dayBits |= 1 << d;
+        }
+    }
+
+    /**
+     * Removes a section added earlier (same start/end on each of its days), so a leave-one-out pass can take one
+     * section out, score against the rest and add it back instead of rebuilding the schedule.
+     */
+    public void remove(TermCourseOfferingEntity o) {
+        int s = o.getStartTime().toSecondOfDay();
+        int e = o.getEndTime().toSecondOfDay();
+        for (ScheduleDay day : o.getPattern().days()) {
+            int d = day.ordinal();
+            int pos = insertionPoint(d, s) - 1;
+            while (pos >= 0 && starts[d][pos] == s && ends[d][pos] != e) pos--;
+            if (pos < 0 || starts[d][pos] != s) throw new IllegalArgumentException("Section is not in the schedule");
+
+            int n = sizes[d];
+            System.arraycopy(starts[d], pos + 1, starts[d], pos, n - pos - 1);
+            System.arraycopy(ends[d], pos + 1, ends[d], pos, n - pos - 1);
+            sizes[d] = n - 1;
+            excessGapMinutes -= gapDelta(d, pos, s, e);
+            if (sizes[d] == 0) dayBits &= ~(1 << d);
+        }
+    }
+
+    public int dayCount() {
+        return Integer.bitCount(dayBits);
+    }
+
+    /**
+     * Number of days the offering would add to the week (0 if it only meets on already occupied days).
+     */
+    public int newDaysIfAdded(TermCourseOfferingEntity o) {
+        int bits = 0;
+        for (ScheduleDay day : o.getPattern().days()) bits |= 1 << day.ordinal();
+        return Integer.bitCount(bits & ~dayBits);
+    }
+
+    /**
+     * Long-gap penalty of the current schedule: sum over consecutive meetings of (gap - 90) / 15.
+     */
+    public double gapPenalty() {
+        return excessGapMinutes / 15.0;
+    }
+
+    /**
+     * Long-gap penalty of the whole schedule if the offering were added (the schedule is not modified).
+     */
+    public double gapPenaltyIfAdded(TermCourseOfferingEntity o) {
+        int s = o.getStartTime().toSecondOfDay();
+        int e = o.getEndTime().toSecondOfDay();
+        long excess = excessGapMinutes;
+        for (ScheduleDay day : o.getPattern().days()) {
+            int d = day.ordinal();
+            excess += gapDelta(d, insertionPoint(d, s), s, e);
+        }
+        return excess / 15.0;
+    }
+
+    // Change of the day's excess if [s, e) is inserted at pos
+    private long gapDelta(int d, int pos, int s, int e) {
+        int n = sizes[d];
+        long delta = 0;
+        if (pos > 0) delta += excess(ends[d][pos - 1], s);
+        if (pos < n) delta += excess(e, starts[d][pos]);
+        if (pos > 0 && pos < n) delta -= excess(ends[d][pos - 1], starts[d][pos]);
+        return delta;
+    }
+
+    // First index whose start is after s (equal starts stay in insertion order)
+    private int insertionPoint(int d, int s) {
+        int lo = 0, hi = sizes[d];
+        int[] a = starts[d];
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] <= s) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // Whole minutes between the end of one meeting and the start of the next, beyond the long-gap threshold
+    private static long excess(int endSecond, int nextStartSecond) {
+        long gap = (nextStartSecond - endSecond) / 60;
+        return gap > LONG_GAP_MIN ? gap - LONG_GAP_MIN : 0;
+    }
+}
@@ -0,0 +1,121 @@
+package graduation.project.schedule.util;
+
+import graduation.project.schedule.domain.enums.ScheduleDay;
+import graduation.project.schedule.entity.TermCourseOfferingEntity;
+
+import java.time.LocalTime;
+import java.util.Collection;
+
+/**
+ * Weekly occupancy bitmask: one bit per {@link #SLOT_MINUTES}-minute slot of every {@link ScheduleDay}.
+ * - Ranges are rounded outwards to slot boundaries, so a zero AND always means "no overlap"
+ * - If every range in the mask is slot-aligned the mask is exact, and a non-zero AND means a real overlap
+ * - Otherwise the caller confirms the overlap with {@link TimeRanges#overlaps}
+ */
+public final class WeeklyMask {
+
+    public static final int SLOT_MINUTES = 5;
+
+    private static final int SLOT_SECONDS = SLOT_MINUTES * 60;
+    private static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    private static final int WORDS = (ScheduleDay.values().length * SLOTS_PER_DAY + 63) / 64;
+
+    public static final WeeklyMask EMPTY = new WeeklyMask(new long[WORDS], true);
+
+    private final long[] words;
+    private final boolean exact;
+
+    private WeeklyMask(long[] words, boolean exact) {
+        this.words = words;
+        this.exact = exact;
+    }
+
+    public static WeeklyMask of(TermCourseOfferingEntity o) {
+        return of(o.getPattern().days(), o.getStartTime(), o.getEndTime());
+    }
+
+    public static WeeklyMask of(Collection<ScheduleDay> days, LocalTime from, LocalTime to) {
+        long[] w = new long[WORDS];
+        int first = firstSlot(from);
+        int end = endSlot(to);
+        for (ScheduleDay d : days) {
+            int base = d.ordinal() * SLOTS_PER_DAY;
+            setRange(w, base + first, base + end);
+        }
+        return new WeeklyMask(w, aligned(from) && aligned(to));
+    }
+
+    /**
+     * Union of this mask and another (neither is modified).
+     */
+    public WeeklyMask or(WeeklyMask other) {
+        long[] w = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) w[i] = words[i] | other.words[i];
+        return new WeeklyMask(w, exact && other.exact);
+    }
+
+    /**
+     * True if the two masks share at least one slot (exact answer only when both masks are exact).
+     */
+    public boolean intersects(WeeklyMask other) {
+        for (int i = 0; i < WORDS; i++) {
+            if ((words[i] & other.words[i]) != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Same as intersects(of(List.of(day), from, to)) without allocating a mask.
+     */
+    public boolean intersects(ScheduleDay day, LocalTime from, LocalTime to) {
+        int base = day.ordinal() * SLOTS_PER_DAY;
+        int start = base + firstSlot(from);
+        int end = base + endSlot(to);
+        for (int bit = start; bit < end; ) {
+            int word = bit >>> 6;
+            int wordEnd = Math.min(end, (word + 1) << 6);
+            long bits = rangeBits(bit & 63, wordEnd - (word << 6));
+            if ((words[word] & bits) != 0) return true;
+            bit = wordEnd;
+        }
+        return false;
+    }
+
+    public boolean isExact() {
+        return exact;
+    }
+
+    public boolean isEmpty() {
+        for (long w : words) {
+            if (w != 0) return false;
+        }
+        return true;
+    }
+
+    public static boolean aligned(LocalTime t) {
+        return t.toSecondOfDay() % SLOT_SECONDS == 0;
+    }
+
+    private static int firstSlot(LocalTime t) {
+        return t.toSecondOfDay() / SLOT_SECONDS;
+    }
+
+    private static int endSlot(LocalTime t) {
+        return (t.toSecondOfDay() + SLOT_SECONDS - 1) / SLOT_SECONDS;
+    }
+
+    private static void setRange(long[] w, int start, int end) {
+        for (int bit = start; bit < end; ) {
+            int word = bit >>> 6;
+            int wordEnd = Math.min(end, (word + 1) << 6);
+            w[word] |= rangeBits(bit & 63, wordEnd - (word << 6));
+            bit = wordEnd;
+        }
+    }
+
+    // bits [from, to) of one word, 0 <= from < to <= 64
+    private static long rangeBits(int from, int to) {
+        long upper = (to == 64) ? -1L : ((1L << to) - 1);
+        return upper & (-1L << from);
+    }
+}
@@ -0,0 +1,56 @@
+package graduation.project.schedule.domain.catalog;
+
+import graduation.project.model.course.CourseEntity;
+import graduation.project.schedule.domain.enums.DifficultyBucket;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseFeaturesTest {
+
+    private static CourseEntity course(long id, String tags, String difficulty, String category) {
+        return CourseEntity.builder().id(id).tags(tags).difficulty(difficulty).category(category)
+                .creditHours(3).recommendedYear(2).recommendedSemester(1).build();
+    }
+
+    @Test
+    void tagsAreParsedOnceAndMatchedAsBitsets() {
+        CourseEntity ai = course(1, "\"AI\", 'Data' ,", "Hard", "Major Elective");
+        CourseEntity web = course(2, "web,data", "easy", "major compulsory");
+        CourseFeatures features = CourseFeatures.compile(List.of(ai, web));
+
+        CourseFeatures.Course f = features.of(ai);
+        assertTrue(f.hasAnyTag(features.tagIds(Set.of("ai"))));
+        assertFalse(f.hasAnyTag(features.tagIds(Set.of("web", "unknown"))));
+        assertEquals(2, f.tagHits(features.tagIds(Set.of("ai", "data", "web"))));
+        assertEquals(1, features.of(web).tagHits(features.tagIds(Set.of("data"))));
+
+        assertEquals(DifficultyBucket.HARD, f.difficulty());
+        assertTrue(f.elective());
+        assertEquals(DifficultyBucket.EASY, features.of(web).difficulty());
+        assertFalse(features.of(web).elective());
+        assertEquals(3, f.creditHours());
+        assertEquals(2, f.recommendedYear());
+        assertEquals(1, f.recommendedSemester());
+    }
+
+    @Test
+    void coursesOutsideTheSnapshotAreCompiledOnTheFly() {
+        CourseFeatures features = CourseFeatures.compile(List.of(course(1, "ai", null, null)));
+        CourseFeatures.Course foreign = features.of(course(99, "AI, security", "medium", "elective"));
+
+        assertTrue(foreign.hasAnyTag(features.tagIds(Set.of("ai"))));
+        assertEquals(DifficultyBucket.MEDIUM, foreign.difficulty());
+        assertTrue(foreign.elective());
+    }
+
+    @Test
+    void tagsAreNormalized() {
+        assertEquals(Set.of("ai", "data science"), CourseFeatures.parseTags(" \"AI\" ,, 'Data Science' "));
+        assertEquals(Set.of(), CourseFeatures.parseTags(null));
+        assertNull(CourseFeatures.normalizeTag(" '' "));
+    }
+}
@@ -0,0 +1,73 @@
+package graduation.project.schedule.domain.catalog;
+
+import graduation.project.model.course.CourseEntity;
+import graduation.project.schedule.domain.enums.MeetingPattern;
+import graduation.project.schedule.domain.enums.Semester;
+import graduation.project.schedule.entity.TermCourseOfferingEntity;
+import graduation.project.schedule.util.TimeRanges;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OfferingCatalogTest {
+
+    // Shared day and [start, end) overlap: the pairwise LocalTime check the matrix replaces
+    private static boolean oracle(TermCourseOfferingEntity a, TermCourseOfferingEntity b) {
+        boolean sharedDay = a.getPattern().days().stream().anyMatch(b.getPattern().days()::contains);
+        return sharedDay && TimeRanges.overlaps(a.getStartTime(), a.getEndTime(), b.getStartTime(), b.getEndTime());
+    }
+
+    @Test
+    void conflictMatrixMatchesTheLocalTimeCheck() {
+        Random rnd = new Random(3);
+        List<TermCourseOfferingEntity> offerings = new ArrayList<>();
+        for (long id = 1; id <= 160; id++) {
+            CourseEntity c = CourseEntity.builder().id(1 + id / 3).courseCode("C" + (1 + id / 3)).build();
+            // Mix of slot-aligned and off-grid times (minutes), including back-to-back sections
+            int start = 8 * 60 + (rnd.nextBoolean() ? 30 * rnd.nextInt(18) : rnd.nextInt(9 * 60));
+            int length = rnd.nextBoolean() ? 60 + 30 * rnd.nextInt(3) : 20 + rnd.nextInt(120);
+            offerings.add(TermCourseOfferingEntity.builder().id(id).semester(Semester.FALL).course(c)
+                    .sectionCode(String.valueOf(id % 3))
+                    .pattern(rnd.nextBoolean() ? MeetingPattern.SUN_TUE_THU : MeetingPattern.MON_WED)
+                    .startTime(LocalTime.of(start / 60, start % 60))
+                    .endTime(LocalTime.of((start + length) / 60, (start + length) % 60)).build());
+        }
+
+        OfferingCatalog catalog = OfferingCatalog.build(Semester.FALL, 1, offerings, List.of());
+        assertEquals(offerings.size(), catalog.offeringCount());
+
+        int clashes = 0;
+        for (int i = 0; i < catalog.offeringCount(); i++) {
+            for (int j = 0; j < catalog.offeringCount(); j++) {
+                boolean expected = oracle(catalog.offering(i), catalog.offering(j));
+                assertEquals(expected, catalog.conflicts(i, j), catalog.offering(i).getId() + " vs " + catalog.offering(j).getId());
+                if (expected && i != j) clashes++;
+            }
+        }
+        assertTrue(clashes > 0);
+    }
+
+    @Test
+    void backToBackSectionsDoNotConflict() {
+        CourseEntity c = CourseEntity.builder().id(1L).courseCode("C1").build();
+        TermCourseOfferingEntity first = TermCourseOfferingEntity.builder().id(1L).semester(Semester.FALL).course(c)
+                .sectionCode("1").pattern(MeetingPattern.MON_WED)
+                .startTime(LocalTime.of(8, 5)).endTime(LocalTime.of(9, 35)).build();
+        TermCourseOfferingEntity second = TermCourseOfferingEntity.builder().id(2L).semester(Semester.FALL).course(c)
+                .sectionCode("2").pattern(MeetingPattern.MON_WED)
+                .startTime(LocalTime.of(9, 35)).endTime(LocalTime.of(11, 5)).build();
+        TermCourseOfferingEntity third = TermCourseOfferingEntity.builder().id(3L).semester(Semester.FALL).course(c)
+                .sectionCode("3").pattern(MeetingPattern.MON_WED)
+                .startTime(LocalTime.of(9, 34)).endTime(LocalTime.of(10, 0)).build();
+
+        OfferingCatalog catalog = OfferingCatalog.build(Semester.FALL, 1, List.of(first, second, third), List.of());
+        assertFalse(catalog.conflicts(catalog.indexOfOfferingId(1L), catalog.indexOfOfferingId(2L)));
+        assertTrue(catalog.conflicts(catalog.indexOfOfferingId(1L), catalog.indexOfOfferingId(3L)));
+        assertTrue(catalog.conflicts(catalog.indexOfOfferingId(2L), catalog.indexOfOfferingId(3L)));
+    }
+}
@@ -0,0 +1,54 @@
+package graduation.project.schedule.domain.catalog;
+
+import graduation.project.model.Items.Prerequisites;
+import graduation.project.model.course.CourseEntity;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrerequisiteGraphTest {
+
+    private static CourseEntity course(long id, String code, String... prereqCodes) {
+        List<Prerequisites> prereqs = new ArrayList<>();
+        for (String p : prereqCodes) {
+            Prerequisites pr = new Prerequisites();
+            pr.setCode(p);
+            prereqs.add(pr);
+        }
+        return CourseEntity.builder().id(id).courseCode(code).prerequisites(prereqs).build();
+    }
+
+    @Test
+    void allOfIsASubsetTestOnNormalizedCodes() {
+        CourseEntity base = course(1, "CIS101");
+        CourseEntity mid = course(2, "CIS201", " cis 101 ", "MATH101");
+        PrerequisiteGraph graph = PrerequisiteGraph.compile(List.of(base, mid));
+
+        assertTrue(graph.completed(List.of()).satisfies(base));
+        assertFalse(graph.completed(List.of("CIS101")).satisfies(mid));
+        assertTrue(graph.completed(List.of("cis101", "Math 101")).satisfies(mid));
+    }
+
+    @Test
+    void alternativesFormAnOrGroup() {
+        CourseEntity c = course(3, "CIS301", "CIS201 / CIS202", "STAT101");
+        PrerequisiteGraph graph = PrerequisiteGraph.compile(List.of(c));
+
+        assertFalse(graph.completed(List.of("STAT101")).satisfies(c));
+        assertFalse(graph.completed(List.of("CIS202")).satisfies(c));
+        assertTrue(graph.completed(List.of("CIS202", "STAT101")).satisfies(c));
+        assertTrue(graph.completed(List.of("cis201", "stat101")).satisfies(c));
+    }
+
+    @Test
+    void coursesOutsideTheGraphUseTheSameRules() {
+        PrerequisiteGraph graph = PrerequisiteGraph.compile(List.of(course(1, "CIS101")));
+        CourseEntity foreign = course(99, "CIS999", "CIS101|CIS102", "X1");
+
+        assertFalse(graph.completed(List.of("CIS102")).satisfies(foreign));
+        assertTrue(graph.completed(List.of("CIS102", "x1")).satisfies(foreign));
+    }
+}
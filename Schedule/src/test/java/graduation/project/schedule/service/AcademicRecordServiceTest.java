@@ -0,0 +1,60 @@
+package graduation.project.schedule.service;
+
+import graduation.project.USER.events.AcademicRecordChangedEvent;
+import graduation.project.USER.events.CourseChangedEvent;
+import graduation.project.schedule.domain.student.AcademicRecord;
+import graduation.project.schedule.repo.UserProfileReadRepository;
+import graduation.project.schedule.repo.UserProfileReadRepository.AcademicRecordRow;
+import graduation.project.schedule.util.CurrentUserService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AcademicRecordServiceTest {
+
+    private final UserProfileReadRepository profiles = Mockito.mock(UserProfileReadRepository.class);
+    private final AcademicRecordService service =
+            new AcademicRecordService(Mockito.mock(CurrentUserService.class), profiles);
+
+    private void completed(String email, String category, int creditHours) {
+        AcademicRecordRow row = Mockito.mock(AcademicRecordRow.class);
+        Mockito.when(row.getUserId()).thenReturn(1L);
+        Mockito.when(row.getCompletedHours()).thenReturn(30);
+        Mockito.when(row.getCourseId()).thenReturn(7L);
+        Mockito.when(row.getCourseCode()).thenReturn("1904101");
+        Mockito.when(row.getCategory()).thenReturn(category);
+        Mockito.when(row.getCreditHours()).thenReturn(creditHours);
+        Mockito.when(profiles.findAcademicRecordRowsByEmail(email)).thenReturn(List.of(row));
+    }
+
+    @Test
+    void courseEditReloadsCompletedCourseData() {
+        completed("a@x", "Major Compulsory", 3);
+        AcademicRecord before = service.forEmail("a@x");
+        assertSame(before, service.forEmail("a@x"));
+        assertEquals(0, before.completedElectiveCount());
+
+        completed("a@x", "Major Elective", 2);
+        service.onCourseChanged(new CourseChangedEvent(7L));
+
+        AcademicRecord after = service.forEmail("a@x");
+        assertNotEquals(before.version(), after.version());
+        assertEquals(1, after.completedElectiveCount());
+        assertEquals(2, after.completedElectiveHours());
+    }
+
+    @Test
+    void recordChangeDropsOnlyThatUser() {
+        completed("a@x", "Major Elective", 3);
+        completed("b@x", "Major Elective", 3);
+        AcademicRecord a = service.forEmail("a@x");
+        AcademicRecord b = service.forEmail("b@x");
+
+        service.onAcademicRecordChanged(new AcademicRecordChangedEvent("a@x"));
+        assertNotSame(a, service.forEmail("a@x"));
+        assertSame(b, service.forEmail("b@x"));
+    }
+}
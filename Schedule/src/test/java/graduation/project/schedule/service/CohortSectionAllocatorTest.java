@@ -0,0 +1,104 @@
+package graduation.project.schedule.service;
+
+import graduation.project.model.course.CourseEntity;
+import graduation.project.schedule.domain.catalog.OfferingCatalog;
+import graduation.project.schedule.domain.enums.MeetingPattern;
+import graduation.project.schedule.domain.enums.Semester;
+import graduation.project.schedule.entity.TermCourseOfferingEntity;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CohortSectionAllocatorTest {
+
+    private static final CourseEntity A = CourseEntity.builder().id(1L).courseCode("A101").build();
+    private static final CourseEntity B = CourseEntity.builder().id(2L).courseCode("B101").build();
+
+    private static TermCourseOfferingEntity section(long id, CourseEntity course, String code, int hour, Integer capacity) {
+        return TermCourseOfferingEntity.builder().id(id).semester(Semester.FALL).course(course).sectionCode(code)
+                .pattern(MeetingPattern.MON_WED).startTime(LocalTime.of(hour, 0)).endTime(LocalTime.of(hour + 1, 0))
+                .capacity(capacity).build();
+    }
+
+    // A-1 08:00 (2 seats), A-2 10:00 (2 seats), B-1 10:00 (unlimited), B-2 12:00 (1 seat)
+    private static final OfferingCatalog CATALOG = OfferingCatalog.build(Semester.FALL, 1, List.of(
+            section(11, A, "1", 8, 2),
+            section(12, A, "2", 10, 2),
+            section(21, B, "1", 10, null),
+            section(22, B, "2", 12, 1)
+    ), List.of());
+
+    private static int idx(long offeringId) {
+        return CATALOG.indexOfOfferingId(offeringId);
+    }
+
+    private static CohortSectionAllocator.Student student(long[] primaries, long[]... alternatives) {
+        int[] p = new int[primaries.length];
+        int[][] alts = new int[primaries.length][];
+        for (int c = 0; c < p.length; c++) {
+            p[c] = idx(primaries[c]);
+            alts[c] = Arrays.stream(alternatives[c]).mapToInt(CohortSectionAllocatorTest::idx).toArray();
+        }
+        return new CohortSectionAllocator.Student(p, alts);
+    }
+
+    @Test
+    void inflexibleStudentsClaimFirstAndOthersMoveToClashFreeAlternatives() {
+        List<CohortSectionAllocator.Student> students = List.of(
+                student(new long[]{11}, new long[]{12}),                        // flexible, listed first
+                student(new long[]{11}, new long[]{12}),
+                student(new long[]{11}, new long[]{}),                          // only A-1
+                student(new long[]{11, 22}, new long[]{12}, new long[]{21})
+        );
+
+        CohortSectionAllocator.Result r = CohortSectionAllocator.allocate(CATALOG, students);
+
+        assertEquals(idx(11), r.assigned()[2][0], "the inflexible student keeps A-1");
+        assertEquals(idx(11), r.assigned()[0][0]);
+        assertEquals(idx(12), r.assigned()[1][0]);
+        // Student 3: A-1 full; takes A-2, then B-2 (its primary, 1 seat)
+        assertEquals(idx(12), r.assigned()[3][0]);
+        assertEquals(idx(22), r.assigned()[3][1]);
+
+        assertEquals(4, r.firstChoiceDemand()[idx(11)]);
+        assertEquals(2, r.assignedCount()[idx(11)]);
+        assertEquals(0, r.fillOrder()[idx(11)]);
+        assertEquals(1, r.fillOrder()[idx(12)]);
+        assertEquals(2, r.fillOrder()[idx(22)]);
+        assertEquals(-1, r.fillOrder()[idx(21)], "unlimited sections never fill");
+    }
+
+    @Test
+    void largeCohortFillsInListOrderAndNeverOversubscribes() {
+        OfferingCatalog catalog = OfferingCatalog.build(Semester.FALL, 1, List.of(
+                section(11, A, "1", 8, 3000),
+                section(12, A, "2", 10, 4000),
+                section(13, A, "3", 14, 2500)
+        ), List.of());
+        List<CohortSectionAllocator.Student> students = new ArrayList<>();
+        int[] alternatives = {catalog.indexOfOfferingId(12L), catalog.indexOfOfferingId(13L)};
+        for (int s = 0; s < 12_000; s++) {
+            students.add(new CohortSectionAllocator.Student(new int[]{catalog.indexOfOfferingId(11L)}, new int[][]{alternatives}));
+        }
+
+        CohortSectionAllocator.Result r = CohortSectionAllocator.allocate(catalog, students);
+
+        assertEquals(3000, r.assignedCount()[catalog.indexOfOfferingId(11L)]);
+        assertEquals(4000, r.assignedCount()[catalog.indexOfOfferingId(12L)]);
+        assertEquals(2500, r.assignedCount()[catalog.indexOfOfferingId(13L)]);
+        long unassigned = Arrays.stream(r.assigned()).filter(a -> a[0] < 0).count();
+        assertEquals(12_000 - 9500, unassigned);
+        assertEquals(0, r.fillOrder()[catalog.indexOfOfferingId(11L)]);
+
+        // Earlier students win: the first 3000 keep their primary, the last 2500 get nothing
+        assertEquals(catalog.indexOfOfferingId(11L), r.assigned()[2999][0]);
+        assertEquals(catalog.indexOfOfferingId(12L), r.assigned()[3000][0]);
+        assertEquals(-1, r.assigned()[9500][0]);
+        assertArrayEquals(r.assigned()[5000], CohortSectionAllocator.allocate(catalog, students).assigned()[5000]);
+    }
+}
@@ -0,0 +1,140 @@
+package graduation.project.schedule.service;
+
+import graduation.project.model.Items.Prerequisites;
+import graduation.project.model.course.CourseEntity;
+import graduation.project.schedule.domain.catalog.CompletedCourses;
+import graduation.project.schedule.domain.catalog.PrerequisiteGraph;
+import graduation.project.schedule.domain.enums.Semester;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraduationPlanSearchTest {
+
+    private static CourseEntity course(long id, String category, String... prereqCodes) {
+        List<Prerequisites> prereqs = new ArrayList<>();
+        for (String p : prereqCodes) {
+            Prerequisites pr = new Prerequisites();
+            pr.setCode(p);
+            prereqs.add(pr);
+        }
+        return CourseEntity.builder().id(id).courseCode("C" + id).category(category).creditHours(3)
+                .prerequisites(prereqs).build();
+    }
+
+    private static GraduationPlanSearch.Course plan(CourseEntity c, int trainingHours, Semester... offeredIn) {
+        return new GraduationPlanSearch.Course(c, c.getCategory().contains("elective"), trainingHours,
+                EnumSet.of(offeredIn[0], offeredIn));
+    }
+
+    private static List<GraduationPlanSearch.Term> terms(int count, int load) {
+        List<GraduationPlanSearch.Term> terms = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            terms.add(new GraduationPlanSearch.Term(i % 2 == 0 ? Semester.FALL : Semester.SPRING, 1 + i / 2, 1, load, Set.of()));
+        }
+        return terms;
+    }
+
+    private static GraduationPlanSearch.Result run(List<GraduationPlanSearch.Course> courses,
+                                                   List<GraduationPlanSearch.Term> terms,
+                                                   int completedHours, int electiveTarget) {
+        CompletedCourses completed = PrerequisiteGraph.compile(courses.stream().map(GraduationPlanSearch.Course::entity).toList())
+                .completed(List.of());
+        return new GraduationPlanSearch(courses, terms, completed, completedHours, electiveTarget, 9, 5_000, 1_000_000).run();
+    }
+
+    @Test
+    void longestPrerequisiteChainGoesFirstAndBoundsTheTermCount() {
+        // C1 -> C2 -> C3 chain plus three independent courses, two courses per term: 3 terms is minimal
+        List<GraduationPlanSearch.Course> courses = List.of(
+                plan(course(4, "core"), 0, Semester.FALL, Semester.SPRING),
+                plan(course(5, "core"), 0, Semester.FALL, Semester.SPRING),
+                plan(course(6, "core"), 0, Semester.FALL, Semester.SPRING),
+                plan(course(1, "core"), 0, Semester.FALL, Semester.SPRING),
+                plan(course(2, "core", "C1"), 0, Semester.FALL, Semester.SPRING),
+                plan(course(3, "core", "C2"), 0, Semester.FALL, Semester.SPRING)
+        );
+
+        GraduationPlanSearch.Result r = run(courses, terms(6, 2), 0, 0);
+
+        assertTrue(r.complete());
+        assertTrue(r.exhausted());
+        assertEquals(3, r.terms().size());
+        for (int t = 0; t < 3; t++) {
+            int chainCourse = 3 + t; // index of C1, C2, C3
+            assertTrue(contains(r.terms().get(t), chainCourse), "chain course in term " + t);
+        }
+    }
+
+    @Test
+    void trainingHoursOpenUpAndElectivesStopAtTheTarget() {
+        List<GraduationPlanSearch.Course> courses = List.of(
+                plan(course(1, "core"), 0, Semester.FALL, Semester.SPRING),
+                plan(course(2, "core"), 0, Semester.FALL, Semester.SPRING),
+                plan(course(30, "core"), 40, Semester.FALL, Semester.SPRING),
+                plan(course(7, "major elective"), 0, Semester.FALL, Semester.SPRING),
+                plan(course(8, "major elective"), 0, Semester.FALL, Semester.SPRING)
+        );
+
+        // 34 hours completed: the seminar (40) needs one planned term first; only one elective is wanted
+        GraduationPlanSearch.Result r = run(courses, terms(4, 3), 34, 1);
+
+        assertTrue(r.complete());
+        assertFalse(contains(r.terms().getFirst(), 2));
+        assertEquals(2, r.terms().size());
+        long electives = r.terms().stream().flatMapToInt(Arrays::stream).filter(i -> i >= 3).count();
+        assertEquals(1, electives);
+    }
+
+    @Test
+    void horizonTooShortKeepsTheBestPartialPlan() {
+        List<GraduationPlanSearch.Course> courses = List.of(
+                plan(course(1, "core"), 0, Semester.FALL),
+                plan(course(2, "core", "C1"), 0, Semester.FALL)
+        );
+
+        GraduationPlanSearch.Result r = run(courses, terms(2, 2), 0, 0);
+
+        // C2 is only offered in FALL: the second FALL is outside the 2-term horizon
+        assertFalse(r.complete());
+        assertEquals(1, r.terms().size());
+        assertArrayEquals(new int[]{0}, r.terms().getFirst());
+    }
+
+    @Test
+    void equallyShortPlanWithoutUnderloadedTermsWins() {
+        // P -> Q -> R forces 3 terms; A is FALL only. Greedy takes P, A, B first and leaves R alone in term 3
+        List<GraduationPlanSearch.Course> courses = List.of(
+                plan(course(1, "core"), 0, Semester.FALL),
+                plan(course(2, "core"), 0, Semester.FALL, Semester.SPRING),
+                plan(course(3, "core"), 0, Semester.FALL, Semester.SPRING),
+                plan(course(4, "core"), 0, Semester.FALL, Semester.SPRING),
+                plan(course(10, "core"), 0, Semester.FALL, Semester.SPRING),
+                plan(course(11, "core", "C10"), 0, Semester.FALL, Semester.SPRING),
+                plan(course(12, "core", "C11"), 0, Semester.FALL, Semester.SPRING)
+        );
+        List<GraduationPlanSearch.Term> terms = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            terms.add(new GraduationPlanSearch.Term(i % 2 == 0 ? Semester.FALL : Semester.SPRING, 1, 2, 3, Set.of()));
+        }
+
+        GraduationPlanSearch.Result r = run(courses, terms, 0, 0);
+
+        assertTrue(r.complete());
+        assertEquals(3, r.terms().size());
+        assertEquals(0, r.underloadedTerms());
+        for (int[] term : r.terms()) assertTrue(term.length >= 2);
+        assertTrue(contains(r.terms().get(2), 0), "A waits for the second FALL");
+    }
+
+    private static boolean contains(int[] term, int index) {
+        for (int i : term) if (i == index) return true;
+        return false;
+    }
+}
@@ -0,0 +1,59 @@
+package graduation.project.schedule.service;
+
+import graduation.project.schedule.domain.enums.ScheduleJobKind;
+import graduation.project.schedule.domain.jobs.ScheduleJob;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryScheduleJobStoreTest {
+
+    private static final Instant T0 = Instant.parse("2025-01-01T10:00:00Z");
+
+    @Test
+    void finishedJobsExpireAndTheOldestFinishedGoFirst() {
+        Instant[] now = {T0};
+        Clock clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now[0];
+            }
+        };
+        InMemoryScheduleJobStore store = new InMemoryScheduleJobStore(Duration.ofMinutes(1), 2, clock);
+
+        ScheduleJob a = ScheduleJob.queued("a", ScheduleJobKind.GENERATE, "u@x", T0);
+        ScheduleJob b = ScheduleJob.queued("b", ScheduleJobKind.GENERATE, "u@x", T0);
+        store.save(a);
+        store.save(b.running(T0).succeeded("ok", T0));
+
+        now[0] = T0.plusSeconds(59);
+        assertTrue(store.find("b").isPresent());
+        now[0] = T0.plusSeconds(60);
+        assertTrue(store.find("b").isEmpty());
+        assertTrue(store.find("a").isPresent(), "unfinished jobs never expire");
+
+        // Over capacity: finished jobs are dropped oldest first, queued/running ones stay
+        store.save(ScheduleJob.queued("c", ScheduleJobKind.PLAN, "u@x", now[0]).running(now[0]).succeeded("c", now[0]));
+        store.save(ScheduleJob.queued("d", ScheduleJobKind.PLAN, "u@x", now[0]));
+        assertTrue(store.find("a").isPresent());
+        assertTrue(store.find("c").isEmpty());
+        assertTrue(store.find("d").isPresent());
+        assertEquals(2, store.size());
+    }
+}
@@ -0,0 +1,62 @@
+package graduation.project.schedule.service;
+
+import graduation.project.model.course.CourseEntity;
+import graduation.project.schedule.domain.enums.MeetingPattern;
+import graduation.project.schedule.domain.enums.Semester;
+import graduation.project.schedule.domain.events.OfferingCatalogChangedEvent;
+import graduation.project.schedule.dto.AdminOfferingUpsertRequest;
+import graduation.project.schedule.dto.OfferingResponse;
+import graduation.project.schedule.entity.TermCourseOfferingEntity;
+import graduation.project.schedule.repo.CourseReadRepository;
+import graduation.project.schedule.repo.TermCourseOfferingRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalTime;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OfferingAdminServiceTest {
+
+    private static final CourseEntity COURSE = CourseEntity.builder().id(7L).courseCode("1904101").courseName("Intro").build();
+
+    private final TermCourseOfferingRepository offerings = Mockito.mock(TermCourseOfferingRepository.class);
+    private final CourseReadRepository courses = Mockito.mock(CourseReadRepository.class);
+    private final ApplicationEventPublisher events = Mockito.mock(ApplicationEventPublisher.class);
+    private final OfferingAdminService service = new OfferingAdminService(offerings, courses, events);
+
+    private static AdminOfferingUpsertRequest request(Semester semester) {
+        return new AdminOfferingUpsertRequest(semester, 7L, " 2 ", MeetingPattern.MON_WED,
+                LocalTime.of(10, 0), LocalTime.of(11, 30), 30);
+    }
+
+    private OfferingCatalogChangedEvent update(Semester from, Semester to) {
+        TermCourseOfferingEntity existing = TermCourseOfferingEntity.builder().id(1L).semester(from).course(COURSE)
+                .sectionCode("1").pattern(MeetingPattern.SUN_TUE_THU)
+                .startTime(LocalTime.of(8, 0)).endTime(LocalTime.of(9, 0)).build();
+        Mockito.when(offerings.findById(1L)).thenReturn(Optional.of(existing));
+        Mockito.when(courses.findById(7L)).thenReturn(Optional.of(COURSE));
+
+        OfferingResponse response = service.update(1L, request(to));
+        assertEquals("2", response.sectionCode());
+        assertEquals(30, response.capacity());
+
+        ArgumentCaptor<OfferingCatalogChangedEvent> event = ArgumentCaptor.forClass(OfferingCatalogChangedEvent.class);
+        Mockito.verify(events).publishEvent(event.capture());
+        return event.getValue();
+    }
+
+    @Test
+    void updateWithinTheSameSemester() {
+        assertEquals(Set.of(Semester.FALL), update(Semester.FALL, Semester.FALL).semesters());
+    }
+
+    @Test
+    void updateMovingToAnotherSemesterInvalidatesBoth() {
+        assertEquals(Set.of(Semester.FALL, Semester.SPRING), update(Semester.FALL, Semester.SPRING).semesters());
+    }
+}
@@ -0,0 +1,103 @@
+package graduation.project.schedule.service;
+
+import graduation.project.USER.events.CourseChangedEvent;
+import graduation.project.model.course.CourseEntity;
+import graduation.project.schedule.domain.catalog.CourseFeatures;
+import graduation.project.schedule.domain.catalog.OfferingCatalog;
+import graduation.project.schedule.domain.enums.DifficultyBucket;
+import graduation.project.schedule.domain.enums.MeetingPattern;
+import graduation.project.schedule.domain.enums.Semester;
+import graduation.project.schedule.domain.events.OfferingCatalogChangedEvent;
+import graduation.project.schedule.entity.TermCourseOfferingEntity;
+import graduation.project.schedule.repo.PreferredScheduleTemplateRepository;
+import graduation.project.schedule.repo.TermCourseOfferingRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OfferingCatalogServiceTest {
+
+    private final TermCourseOfferingRepository offerings = Mockito.mock(TermCourseOfferingRepository.class);
+    private final PreferredScheduleTemplateRepository templates = Mockito.mock(PreferredScheduleTemplateRepository.class);
+    private final OfferingCatalogService service =
+            new OfferingCatalogService(offerings, templates, Mockito.mock(PlatformTransactionManager.class));
+
+    private void serve(Semester semester, CourseEntity course) {
+        TermCourseOfferingEntity o = TermCourseOfferingEntity.builder().id(1L).semester(semester).course(course)
+                .sectionCode("1").pattern(MeetingPattern.MON_WED)
+                .startTime(LocalTime.of(10, 0)).endTime(LocalTime.of(11, 30)).build();
+        Mockito.when(offerings.findBySemesterWithCourse(semester)).thenReturn(List.of(o));
+        Mockito.when(templates.findBySemesterWithItems(semester)).thenReturn(List.of());
+    }
+
+    @Test
+    void snapshotIsSharedUntilSomethingChanges() {
+        serve(Semester.FALL, CourseEntity.builder().id(7L).courseCode("1904101").build());
+
+        OfferingCatalog first = service.snapshot(Semester.FALL);
+        assertSame(first, service.snapshot(Semester.FALL));
+        Mockito.verify(offerings, Mockito.times(1)).findBySemesterWithCourse(Semester.FALL);
+    }
+
+    @Test
+    void rebuildBlocksNoReader() throws Exception {
+        serve(Semester.FALL, CourseEntity.builder().id(7L).courseCode("1904101").build());
+        serve(Semester.SPRING, CourseEntity.builder().id(8L).courseCode("1904102").build());
+        OfferingCatalog before = service.snapshot(Semester.FALL);
+
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(templates.findBySemesterWithItems(Semester.FALL)).thenAnswer(inv -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        CompletableFuture<Void> rebuild = CompletableFuture.runAsync(
+                () -> service.onCatalogChanged(new OfferingCatalogChangedEvent(Set.of(Semester.FALL))));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // Mid-rebuild: the same semester still serves the old snapshot, another one loads
+        assertSame(before, service.snapshot(Semester.FALL));
+        assertEquals(Semester.SPRING, service.snapshot(Semester.SPRING).semester());
+
+        release.countDown();
+        rebuild.get(5, TimeUnit.SECONDS);
+        assertNotSame(before, service.snapshot(Semester.FALL));
+    }
+
+    @Test
+    void courseEditRebuildsLoadedSnapshotsAndTheirFeatures() {
+        serve(Semester.FALL, CourseEntity.builder().id(7L).courseCode("1904101").difficulty("Easy")
+                .category("Major Compulsory").creditHours(3).recommendedYear(1).tags("java").build());
+        OfferingCatalog before = service.snapshot(Semester.FALL);
+        CourseFeatures.Course old = before.features().of(before.course(7L));
+        assertEquals(DifficultyBucket.EASY, old.difficulty());
+        assertFalse(old.elective());
+
+        serve(Semester.FALL, CourseEntity.builder().id(7L).courseCode("1904101").difficulty("Hard")
+                .category("Major Elective").creditHours(2).recommendedYear(3).tags("ai, ml").build());
+        service.onCourseChanged(new CourseChangedEvent(7L));
+
+        OfferingCatalog after = service.snapshot(Semester.FALL);
+        assertNotEquals(before.version(), after.version());
+        CourseFeatures.Course edited = after.features().of(after.course(7L));
+        assertEquals(DifficultyBucket.HARD, edited.difficulty());
+        assertTrue(edited.elective());
+        assertEquals(2, edited.creditHours());
+        assertEquals(3, edited.recommendedYear());
+        assertTrue(edited.hasAnyTag(after.features().tagIds(Set.of("ml"))));
+        assertFalse(edited.hasAnyTag(after.features().tagIds(Set.of("java"))));
+
+        // Semesters never loaded stay unloaded
+        Mockito.verify(offerings, Mockito.never()).findBySemesterWithCourse(Semester.SPRING);
+    }
+}
@@ -0,0 +1,88 @@
+package graduation.project.schedule.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graduation.project.schedule.domain.enums.MeetingPattern;
+import graduation.project.schedule.domain.enums.Semester;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OfferingImportReaderTest {
+
+    private static OfferingImportReader reader(OfferingImportReader.Format format, String input) {
+        return new OfferingImportReader(new StringReader(input), format, new ObjectMapper(), Semester.FALL);
+    }
+
+    @Test
+    void csvColumnsComeFromTheHeaderAndBadLinesAreSkipped() throws IOException {
+        OfferingImportReader r = reader(OfferingImportReader.Format.CSV, """
+                section_code,course_code,pattern,start_time,end_time,capacity,semester
+                1,1904101,MON_WED,08:00,09:30,40,
+
+                "2,A",1904102,sun_tue_thu,10:00,11:00,,SPRING
+                3,1904103,FRIDAY,10:00,11:00,,
+                4,1904104,MON_WED,12:00,13:30,0,
+                """);
+
+        OfferingImportReader.Row first = r.next();
+        assertEquals(2, first.line());
+        assertEquals(Semester.FALL, first.semester(), "an empty semester falls back to the import's");
+        assertEquals("1904101", first.courseCode());
+        assertEquals(MeetingPattern.MON_WED, first.pattern());
+        assertEquals(LocalTime.of(9, 30), first.endTime());
+        assertEquals(40, first.capacity());
+
+        OfferingImportReader.Row second = r.next();
+        assertEquals(4, second.line(), "blank lines still count");
+        assertEquals("2,A", second.sectionCode());
+        assertEquals(Semester.SPRING, second.semester());
+        assertNull(second.capacity());
+
+        IllegalArgumentException bad = assertThrows(IllegalArgumentException.class, r::next);
+        assertTrue(bad.getMessage().contains("pattern"));
+        assertEquals(5, r.lineNumber());
+        assertThrows(IllegalArgumentException.class, r::next, "capacity must be >= 1");
+        assertNull(r.next());
+    }
+
+    @Test
+    void byteOrderMarkBeforeTheHeaderIsIgnored() throws IOException {
+        OfferingImportReader r = reader(OfferingImportReader.Format.CSV,
+                "\uFEFFcourseCode,sectionCode,pattern,startTime,endTime\n1904101,1,MON_WED,08:00,09:00\n");
+        assertEquals("1904101", r.next().courseCode());
+    }
+
+    @Test
+    void csvHeaderMissingAColumnFailsBeforeAnyRow() {
+        OfferingImportReader r = reader(OfferingImportReader.Format.CSV, "courseCode,sectionCode,pattern,startTime\n");
+        assertThrows(IllegalArgumentException.class, r::next);
+        assertFalse(r.started());
+    }
+
+    @Test
+    void ndjsonReadsOneObjectPerLine() throws IOException {
+        OfferingImportReader r = reader(OfferingImportReader.Format.NDJSON, """
+                {"courseCode":"1904101","sectionCode":"1","pattern":"MON_WED","startTime":"08:00","endTime":"09:00","capacity":25}
+                {"courseCode":"1904101",
+                {"courseCode":"1904102","sectionCode":"1","pattern":"MON_WED","startTime":"08:00"}
+                """);
+
+        OfferingImportReader.Row row = r.next();
+        assertEquals(25, row.capacity());
+        assertEquals(Semester.FALL, row.semester());
+        assertThrows(IllegalArgumentException.class, r::next);
+        IllegalArgumentException missing = assertThrows(IllegalArgumentException.class, r::next);
+        assertEquals("endTime is required", missing.getMessage());
+        assertNull(r.next());
+    }
+
+    @Test
+    void quotedCsvValues() {
+        assertEquals(List.of("a", "b,\"c\"", ""), OfferingImportReader.csvValues("a,\"b,\"\"c\"\"\","));
+    }
+}
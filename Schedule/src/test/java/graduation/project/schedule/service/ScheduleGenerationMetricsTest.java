@@ -0,0 +1,46 @@
+package graduation.project.schedule.service;
+
+import graduation.project.schedule.domain.enums.Semester;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleGenerationMetricsTest {
+
+    @Test
+    void recordsPhasesThatRanAndCountersTaggedBySemester() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ScheduleGenerationMetrics metrics = new ScheduleGenerationMetrics(registry);
+
+        GenerationStats stats = new GenerationStats();
+        stats.phase(GenerationStats.Phase.MUST_TAKE, stats.mark());
+        stats.phase(GenerationStats.Phase.POOL, stats.mark());
+        stats.phase(GenerationStats.Phase.POOL, stats.mark());
+        stats.phase(GenerationStats.Phase.BEAM, stats.mark());
+        stats.candidatesScored.add(40);
+        stats.conflictChecks.add(12);
+        stats.statesExpanded = 30;
+        stats.statesPruned = 7;
+        stats.searchRan = true;
+
+        metrics.record(Semester.SPRING, stats);
+        metrics.record(Semester.SPRING, new GenerationStats());
+
+        assertEquals(2, registry.get("schedule.generation").tag("semester", "SPRING").timer().count());
+        assertEquals(1, registry.get("schedule.generation.phase").tags("semester", "SPRING", "phase", "must_take").timer().count());
+        assertEquals(1, registry.get("schedule.generation.phase").tags("semester", "SPRING", "phase", "pool").timer().count());
+        assertEquals(1, registry.get("schedule.generation.phase").tags("semester", "SPRING", "phase", "beam").timer().count());
+        assertEquals(0, registry.get("schedule.generation.phase").tags("semester", "SPRING", "phase", "topk").timer().count());
+        assertEquals(0, registry.get("schedule.generation.phase").tags("semester", "SPRING", "phase", "optimal").timer().count());
+
+        assertEquals(40, registry.get("schedule.generation.candidates.scored").tag("semester", "SPRING").counter().count());
+        assertEquals(12, registry.get("schedule.generation.conflict.checks").tag("semester", "SPRING").counter().count());
+        assertEquals(30, registry.get("schedule.generation.search.states.expanded").tag("semester", "SPRING").counter().count());
+        assertEquals(7, registry.get("schedule.generation.search.states.pruned").tag("semester", "SPRING").counter().count());
+        assertEquals(1, registry.get("schedule.generation.search.runs").tag("semester", "SPRING").counter().count());
+        assertEquals(0, registry.get("schedule.generation.search.wins").tag("semester", "SPRING").counter().count());
+
+        assertEquals(0, registry.get("schedule.generation").tag("semester", "FALL").timer().count());
+    }
+}
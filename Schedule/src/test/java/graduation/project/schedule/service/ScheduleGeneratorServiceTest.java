@@ -0,0 +1,370 @@
+package graduation.project.schedule.service;
+
+import graduation.project.model.Items.Prerequisites;
+import graduation.project.model.course.CourseEntity;
+import graduation.project.schedule.config.ScheduleGenerationProperties;
+import graduation.project.schedule.domain.catalog.OfferingCatalog;
+import graduation.project.schedule.domain.enums.CompactnessPreference;
+import graduation.project.schedule.domain.enums.DifficultyTarget;
+import graduation.project.schedule.domain.enums.GenerationMode;
+import graduation.project.schedule.domain.enums.MeetingPattern;
+import graduation.project.schedule.domain.enums.ScheduleDay;
+import graduation.project.schedule.domain.enums.Semester;
+import graduation.project.schedule.domain.student.AcademicRecord;
+import graduation.project.schedule.dto.GenerateScheduleRequest;
+import graduation.project.schedule.dto.GeneratedScheduleResponse;
+import graduation.project.schedule.dto.MeetingSlotDto;
+import graduation.project.schedule.dto.ScheduleCourseSlotDto;
+import graduation.project.schedule.dto.ScheduleOptionDto;
+import graduation.project.schedule.dto.SelectedCourseOptionDto;
+import graduation.project.schedule.dto.TimeWindowDto;
+import graduation.project.schedule.dto.UnavailableBlockDto;
+import graduation.project.schedule.dto.UserGeneratedScheduleResponse;
+import graduation.project.schedule.entity.TermCourseOfferingEntity;
+import graduation.project.schedule.util.CurrentUserService;
+import graduation.project.schedule.util.TimeRanges;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Generator against an in-memory catalog: pinned outputs for fixed seeded profiles, plus the invariants the
+ * search optimizations must keep (parallel beam == sequential beam, distinct top-K, locks, alternatives, deadline).
+ * Searches are bounded by node counts, never by time, so every run produces the same bytes.
+ */
+class ScheduleGeneratorServiceTest {
+
+    private static final int COURSES = 70;
+    private static final OfferingCatalog CATALOG = catalog(1);
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterAll
+    static void shutdownPool() {
+        POOL.shutdown();
+    }
+
+    private static ScheduleGenerationProperties properties(boolean parallelBeam, long deadlineDefaultMs, long deadlineMaxMs) {
+        return new ScheduleGenerationProperties(
+                new ScheduleGenerationProperties.Beam(12, 2, parallelBeam, 4, 1),
+                new ScheduleGenerationProperties.Optimal(1500, 2_000_000),
+                new ScheduleGenerationProperties.TopK(5, 2, 8),
+                new ScheduleGenerationProperties.ResultCache(true, 5000, Duration.ofMinutes(10), true, Duration.ofSeconds(15)),
+                new ScheduleGenerationProperties.Batch(0, 200, 0),
+                new ScheduleGenerationProperties.Plan(12, 24, 1000, 200_000),
+                new ScheduleGenerationProperties.Deadline(deadlineDefaultMs, deadlineMaxMs),
+                new ScheduleGenerationProperties.Jobs(2, 32, Duration.ofMinutes(15), 10000, Duration.ofMinutes(2))
+        );
+    }
+
+    // No default deadline and an OPTIMAL time budget far above what the node budget allows: output never depends on timing
+    private static ScheduleGenerationProperties untimed(boolean parallelBeam) {
+        ScheduleGenerationProperties p = properties(parallelBeam, 0, 10000);
+        return new ScheduleGenerationProperties(p.beam(), new ScheduleGenerationProperties.Optimal(600_000, 100_000),
+                p.topK(), p.resultCache(), p.batch(), p.plan(), p.deadline(), p.jobs());
+    }
+
+    private static ScheduleGeneratorService generator(ScheduleGenerationProperties properties) {
+        return generator(properties, new ScheduleResultCache(properties), Mockito.mock(AcademicRecordService.class));
+    }
+
+    private static ScheduleGeneratorService generator(ScheduleGenerationProperties properties, ScheduleResultCache cache,
+                                                      AcademicRecordService records) {
+        OfferingCatalogService catalogs = Mockito.mock(OfferingCatalogService.class);
+        Mockito.when(catalogs.snapshot(Mockito.any())).thenReturn(CATALOG);
+        return new ScheduleGeneratorService(
+                records,
+                catalogs,
+                properties,
+                POOL,
+                Mockito.mock(CurrentUserService.class),
+                cache,
+                Mockito.mock(ScheduleGenerationMetrics.class)
+        );
+    }
+
+    /**
+     * Seeded synthetic semester: 1-4 sections per course on both meeting patterns, some off the 30-minute grid,
+     * a third of the courses electives, and single-course prerequisite chains above course 10.
+     */
+    private static OfferingCatalog catalog(long seed) {
+        Random rnd = new Random(seed);
+        String[] tagPool = {"ai", "web", "data", "security", "networks", "math"};
+        String[] difficulties = {"Easy", "Medium", "Hard"};
+        List<TermCourseOfferingEntity> offerings = new ArrayList<>();
+        long offeringId = 1;
+        for (int i = 1; i <= COURSES; i++) {
+            List<Prerequisites> prerequisites = new ArrayList<>();
+            if (i > 10 && rnd.nextInt(3) == 0) {
+                Prerequisites p = new Prerequisites();
+                p.setCode("C" + (1 + rnd.nextInt(i - 1)));
+                prerequisites.add(p);
+            }
+            boolean elective = rnd.nextInt(3) == 0;
+            CourseEntity c = CourseEntity.builder().id((long) i).courseCode("C" + i).courseName("Course " + i)
+                    .category(elective ? "Major Elective" : "Major Compulsory")
+                    .difficulty(difficulties[rnd.nextInt(3)])
+                    .tags(tagPool[rnd.nextInt(6)] + ", " + tagPool[rnd.nextInt(6)])
+                    .creditHours(3).recommendedYear(1 + rnd.nextInt(4)).recommendedSemester(1 + rnd.nextInt(2))
+                    .prerequisites(prerequisites).build();
+
+            int sections = 1 + rnd.nextInt(4);
+            for (int s = 0; s < sections; s++) {
+                MeetingPattern pattern = rnd.nextBoolean() ? MeetingPattern.SUN_TUE_THU : MeetingPattern.MON_WED;
+                int start = 8 * 60 + 30 * rnd.nextInt(16) + (rnd.nextInt(8) == 0 ? 5 : 0);
+                int length = pattern == MeetingPattern.MON_WED ? 90 : 60;
+                offerings.add(TermCourseOfferingEntity.builder().id(offeringId++).semester(Semester.FALL)
+                        .sectionCode("S" + s).course(c).pattern(pattern)
+                        .startTime(LocalTime.of(start / 60, start % 60))
+                        .endTime(LocalTime.of((start + length) / 60, (start + length) % 60)).build());
+            }
+        }
+        return OfferingCatalog.build(Semester.FALL, 1, offerings, List.of());
+    }
+
+    private static AcademicRecord record(Random rnd) {
+        Set<Long> completed = new HashSet<>();
+        List<String> codes = new ArrayList<>();
+        for (int k = 0; k < rnd.nextInt(25); k++) {
+            long id = 1 + rnd.nextInt(COURSES);
+            if (completed.add(id)) codes.add("C" + id);
+        }
+        return new AcademicRecord(7L, 1, rnd.nextInt(120), completed, codes, rnd.nextInt(3), rnd.nextInt(7));
+    }
+
+    private static GenerateScheduleRequest request(Random rnd, GenerationMode mode, int topK, int alternatives) {
+        List<UnavailableBlockDto> blocks = new ArrayList<>();
+        for (int i = 0; i < rnd.nextInt(14); i++) {
+            int start = 8 * 60 + 30 * rnd.nextInt(14);
+            blocks.add(new UnavailableBlockDto(ScheduleDay.values()[rnd.nextInt(5)], LocalTime.of(start / 60, start % 60),
+                    LocalTime.of((start + 120) / 60, (start + 120) % 60), null));
+        }
+        List<Long> mustTake = new ArrayList<>();
+        for (int i = 0; i < rnd.nextInt(3); i++) mustTake.add(1L + rnd.nextInt(COURSES));
+
+        return new GenerateScheduleRequest(Semester.FALL, 1 + rnd.nextInt(4), 2 + rnd.nextInt(5),
+                rnd.nextBoolean() ? null : rnd.nextInt(3), DifficultyTarget.values()[rnd.nextInt(3)], mustTake,
+                rnd.nextBoolean() ? List.of("ai", "web") : List.of(),
+                rnd.nextBoolean(), true,
+                rnd.nextBoolean() ? List.of(ScheduleDay.SUNDAY) : null,
+                rnd.nextBoolean() ? List.of(ScheduleDay.MONDAY) : null,
+                rnd.nextBoolean() ? List.of(new TimeWindowDto(LocalTime.of(9, 0), LocalTime.of(14, 0))) : null,
+                rnd.nextBoolean() ? LocalTime.of(9, 0) : null,
+                rnd.nextBoolean() ? LocalTime.of(15, 0) : null,
+                blocks, CompactnessPreference.values()[rnd.nextInt(3)], rnd.nextBoolean(), true,
+                mode, topK, null, alternatives, null);
+    }
+
+    private static GenerateScheduleRequest simple(GenerationMode mode, Integer topK, List<Long> locked, Integer deadlineMs) {
+        return new GenerateScheduleRequest(Semester.FALL, 2, 5, null, DifficultyTarget.BALANCED, null, null,
+                null, true, null, null, null, null, null, null, null, null, null, mode, topK, locked, 3, deadlineMs);
+    }
+
+    // Every fixed profile's full (explained) response, in order; run one after another so records line up with requests
+    private static List<String> run(ScheduleGeneratorService gen, AcademicRecordService records, long seed, int n,
+                                    GenerationMode mode, int topK, int alternatives) {
+        Random rnd = new Random(seed);
+        List<String> out = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Mockito.when(records.forEmail(Mockito.any())).thenReturn(record(rnd));
+            GeneratedScheduleResponse response = gen.generate("u@x", request(rnd, mode, topK, alternatives));
+            assertFalse(response.truncated());
+            out.add(String.valueOf(response));
+        }
+        return out;
+    }
+
+    private static String sha256(List<String> outputs) throws Exception {
+        MessageDigest md = MessageDigest.getInstance("SHA-256");
+        for (String s : outputs) md.update((s + '\n').getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(md.digest());
+    }
+
+    private static boolean clash(ScheduleCourseSlotDto a, ScheduleCourseSlotDto b) {
+        for (MeetingSlotDto x : a.meetings()) {
+            for (MeetingSlotDto y : b.meetings()) {
+                if (x.day() == y.day() && TimeRanges.overlaps(x.from(), x.to(), y.from(), y.to())) return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> sections(List<SelectedCourseOptionDto> selected) {
+        Set<String> out = new HashSet<>();
+        for (SelectedCourseOptionDto s : selected) out.add(s.primary().courseId() + "/" + s.primary().sectionCode());
+        return out;
+    }
+
+    private static void assertConflictFree(List<SelectedCourseOptionDto> selected) {
+        for (int i = 0; i < selected.size(); i++) {
+            for (int j = i + 1; j < selected.size(); j++) {
+                assertFalse(clash(selected.get(i).primary(), selected.get(j).primary()),
+                        selected.get(i).primary() + " vs " + selected.get(j).primary());
+            }
+        }
+    }
+
+    @Test
+    void pinnedOutputsForFixedProfiles() throws Exception {
+        AcademicRecordService records = Mockito.mock(AcademicRecordService.class);
+        ScheduleGenerationProperties p = untimed(false);
+        ScheduleGeneratorService gen = generator(p, new ScheduleResultCache(p), records);
+
+        assertEquals("827f772114e2cb2af3c6d67691488b68a56156a357a446bb7fa491499a674b79", sha256(run(gen, records, 99, 200, null, 1, 1)));
+        assertEquals("0c638f097ff1ab56fcae436968c200d318ed5fc28baeab84e2fda3159cc851b4", sha256(run(gen, records, 42, 40, GenerationMode.OPTIMAL, 4, 3)));
+    }
+
+    @Test
+    void pinnedScheduleForOneProfile() {
+        AcademicRecordService records = Mockito.mock(AcademicRecordService.class);
+        Mockito.when(records.forEmail(Mockito.any())).thenReturn(new AcademicRecord(7L, 1, 30, Set.of(1L, 2L, 3L),
+                List.of("C1", "C2", "C3"), 0, 0));
+        ScheduleGenerationProperties p = untimed(false);
+        ScheduleGeneratorService gen = generator(p, new ScheduleResultCache(p), records);
+
+        GeneratedScheduleResponse greedy = gen.generate("u@x", simple(null, null, null, null));
+        assertEquals(Set.of("5/S0", "7/S3", "12/S3", "18/S2", "62/S0"), sections(greedy.selected()));
+        GeneratedScheduleResponse optimal = gen.generate("u@x", simple(GenerationMode.OPTIMAL, null, null, null));
+        assertEquals(Set.of("8/S0", "9/S1", "41/S2", "47/S1", "70/S1"), sections(optimal.selected()));
+    }
+
+    @Test
+    void parallelBeamMatchesSequentialBeam() {
+        AcademicRecordService records = Mockito.mock(AcademicRecordService.class);
+        ScheduleGenerationProperties sequential = untimed(false);
+        ScheduleGenerationProperties parallel = untimed(true);
+
+        List<String> expected = run(generator(sequential, new ScheduleResultCache(sequential), records), records,
+                7, 40, GenerationMode.OPTIMAL, 4, 2);
+        List<String> actual = run(generator(parallel, new ScheduleResultCache(parallel), records), records,
+                7, 40, GenerationMode.OPTIMAL, 4, 2);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void topKSchedulesAreDistinctAndConflictFree() {
+        AcademicRecordService records = Mockito.mock(AcademicRecordService.class);
+        ScheduleGenerationProperties p = untimed(false);
+        ScheduleGeneratorService gen = generator(p, new ScheduleResultCache(p), records);
+        int minDifferent = p.topK().minDifferentSections();
+
+        Random rnd = new Random(11);
+        int multi = 0;
+        for (int n = 0; n < 40; n++) {
+            Mockito.when(records.forEmail(Mockito.any())).thenReturn(record(rnd));
+            GeneratedScheduleResponse response = gen.generate("u@x", request(rnd, GenerationMode.OPTIMAL, 4, 2));
+            List<ScheduleOptionDto> options = response.options();
+            assertNotNull(options);
+            assertTrue(options.size() <= 4);
+            assertEquals(response.selected(), options.getFirst().selected());
+            if (options.size() > 1) multi++;
+
+            for (int i = 0; i < options.size(); i++) {
+                assertEquals(i + 1, options.get(i).rank());
+                assertConflictFree(options.get(i).selected());
+                Set<String> a = sections(options.get(i).selected());
+                for (int j = i + 1; j < options.size(); j++) {
+                    Set<String> b = sections(options.get(j).selected());
+                    int onlyA = (int) a.stream().filter(s -> !b.contains(s)).count();
+                    int onlyB = (int) b.stream().filter(s -> !a.contains(s)).count();
+                    assertTrue(Math.max(onlyA, onlyB) >= minDifferent, a + " vs " + b);
+                }
+            }
+        }
+        assertTrue(multi > 0);
+    }
+
+    @Test
+    void lockedSectionsAndAlternatives() {
+        AcademicRecordService records = Mockito.mock(AcademicRecordService.class);
+        Mockito.when(records.forEmail(Mockito.any())).thenReturn(new AcademicRecord(7L, 1, 30, Set.of(1L),
+                List.of("C1"), 0, 0));
+        ScheduleGenerationProperties p = untimed(false);
+        ScheduleGeneratorService gen = generator(p, new ScheduleResultCache(p), records);
+
+        // Two sections of prerequisite-free courses that do not clash, plus one of a completed course
+        TermCourseOfferingEntity first = CATALOG.optionsFor(2L).getFirst();
+        TermCourseOfferingEntity second = CATALOG.optionsFor(3L).stream()
+                .filter(o -> !CATALOG.conflicts(CATALOG.indexOf(first), CATALOG.indexOf(o)))
+                .findFirst().orElseThrow();
+        TermCourseOfferingEntity completed = CATALOG.optionsFor(1L).getFirst();
+
+        for (GenerationMode mode : new GenerationMode[]{null, GenerationMode.OPTIMAL}) {
+            GeneratedScheduleResponse response = gen.generate("u@x",
+                    simple(mode, null, List.of(first.getId(), second.getId(), completed.getId()), null));
+
+            Set<String> chosen = sections(response.selected());
+            assertTrue(chosen.contains("2/" + first.getSectionCode()), chosen::toString);
+            assertTrue(chosen.contains("3/" + second.getSectionCode()), chosen::toString);
+            assertTrue(chosen.stream().noneMatch(s -> s.startsWith("1/")), chosen::toString);
+            assertTrue(response.warnings().stream().anyMatch(w -> w.startsWith("Locked section belongs to a completed course")));
+            assertConflictFree(response.selected());
+
+            // Alternatives: another section of the same course that fits around every other selected section
+            int withAlternatives = 0;
+            for (SelectedCourseOptionDto s : response.selected()) {
+                assertTrue(s.alternatives().size() <= 3);
+                if (!s.alternatives().isEmpty()) withAlternatives++;
+                for (ScheduleCourseSlotDto alt : s.alternatives()) {
+                    assertEquals(s.primary().courseId(), alt.courseId());
+                    assertNotEquals(s.primary().sectionCode(), alt.sectionCode());
+                    for (SelectedCourseOptionDto other : response.selected()) {
+                        if (other != s) assertFalse(clash(alt, other.primary()), alt + " vs " + other.primary());
+                    }
+                }
+            }
+            assertTrue(withAlternatives > 0);
+        }
+    }
+
+    @Test
+    void deadlineTruncatesTheSearchesButKeepsTheGreedySchedule() {
+        AcademicRecordService records = Mockito.mock(AcademicRecordService.class);
+        Mockito.when(records.forEmail(Mockito.any())).thenReturn(new AcademicRecord(7L, 1, 30, Set.of(1L),
+                List.of("C1"), 0, 0));
+        ScheduleGenerationProperties p = untimed(false);
+
+        // The request's deadline starts before the cache lookup; a slow lookup spends all of it
+        ScheduleResultCache slowCache = Mockito.mock(ScheduleResultCache.class);
+        Mockito.when(slowCache.getOrCompute(Mockito.any(), Mockito.any(), Mockito.any())).thenAnswer(inv -> {
+            Thread.sleep(20);
+            return inv.<Supplier<UserGeneratedScheduleResponse>>getArgument(2).get();
+        });
+
+        UserGeneratedScheduleResponse truncated = generator(p, slowCache, records)
+                .generateUser("u@x", simple(GenerationMode.OPTIMAL, 4, null, 1));
+        assertTrue(truncated.truncated());
+        assertFalse(truncated.selected().isEmpty());
+        assertConflictFree(truncated.selected());
+
+        UserGeneratedScheduleResponse complete = generator(p, new ScheduleResultCache(p), records)
+                .generateUser("u@x", simple(GenerationMode.OPTIMAL, 4, null, null));
+        assertFalse(complete.truncated());
+        assertTrue(complete.achievedCourses() >= truncated.achievedCourses());
+    }
+
+    @Test
+    void optimalWithoutADeadlineKeepsItsTimeBudget() {
+        ScheduleGeneratorService gen = generator(properties(false, 400, 10000));
+        assertEquals(400, gen.resolveDeadline(simple(null, null, null, null)).budgetMs());
+        assertEquals(400, gen.resolveDeadline(simple(GenerationMode.GREEDY, null, null, null)).budgetMs());
+        assertEquals(1500, gen.resolveDeadline(simple(GenerationMode.OPTIMAL, null, null, null)).budgetMs());
+
+        // An explicit deadline wins (clamped to the maximum), whatever the mode
+        assertEquals(250, gen.resolveDeadline(simple(GenerationMode.OPTIMAL, null, null, 250)).budgetMs());
+        assertEquals(10000, gen.resolveDeadline(simple(GenerationMode.OPTIMAL, null, null, 60000)).budgetMs());
+
+        // Capped by the maximum; a disabled default stays disabled
+        assertEquals(1000, generator(properties(false, 400, 1000)).resolveDeadline(simple(GenerationMode.OPTIMAL, null, null, null)).budgetMs());
+        assertEquals(0, generator(properties(false, 0, 10000)).resolveDeadline(simple(GenerationMode.OPTIMAL, null, null, null)).budgetMs());
+    }
+}
@@ -0,0 +1,105 @@
+package graduation.project.schedule.service;
+
+import graduation.project.schedule.config.ScheduleGenerationProperties;
+import graduation.project.schedule.domain.enums.ScheduleJobKind;
+import graduation.project.schedule.domain.enums.ScheduleJobStatus;
+import graduation.project.schedule.dto.ScheduleJobResponse;
+import graduation.project.schedule.util.CurrentUserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleJobServiceTest {
+
+    // One worker, one queued job at most
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), new ThreadPoolExecutor.AbortPolicy());
+    private final InMemoryScheduleJobStore store = new InMemoryScheduleJobStore(Duration.ofMinutes(15), 100);
+    private final CurrentUserService currentUser = Mockito.mock(CurrentUserService.class);
+
+    private final ScheduleJobService service = new ScheduleJobService(null, null, currentUser, store, executor,
+            Mockito.mock(ScheduleGenerationProperties.class));
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void fullQueueRejectsAndJobsFinishInTheBackground() throws Exception {
+        Mockito.when(currentUser.currentUserEmailOrThrow()).thenReturn("a@x");
+        CountDownLatch release = new CountDownLatch(1);
+
+        ScheduleJobResponse running = service.submit(ScheduleJobKind.GENERATE, "a@x", () -> {
+            await(release);
+            return "schedule";
+        });
+        ScheduleJobResponse queued = service.submit(ScheduleJobKind.PLAN, "a@x", () -> {
+            throw new IllegalArgumentException("bad plan");
+        });
+        assertEquals(ScheduleJobStatus.QUEUED, queued.status());
+
+        assertThrows(RejectedExecutionException.class,
+                () -> service.submit(ScheduleJobKind.GENERATE, "a@x", () -> "never"));
+        assertEquals(2, store.size());
+
+        release.countDown();
+        ScheduleJobResponse done = awaitFinished(running.jobId());
+        assertEquals(ScheduleJobStatus.SUCCEEDED, done.status());
+        assertEquals("schedule", done.result());
+        assertNotNull(done.startedAt());
+
+        ScheduleJobResponse failed = awaitFinished(queued.jobId());
+        assertEquals(ScheduleJobStatus.FAILED, failed.status());
+        assertEquals("bad plan", failed.error());
+        assertNull(failed.result());
+
+        // Jobs of other users are invisible
+        Mockito.when(currentUser.currentUserEmailOrThrow()).thenReturn("b@x");
+        assertThrows(NoSuchElementException.class, () -> service.get(running.jobId()));
+    }
+
+    @Test
+    void anErrorStillFinishesTheJob() throws Exception {
+        Mockito.when(currentUser.currentUserEmailOrThrow()).thenReturn("a@x");
+        ScheduleJobResponse job = service.submit(ScheduleJobKind.GENERATE, "a@x", () -> {
+            throw new StackOverflowError();
+        });
+
+        ScheduleJobResponse failed = awaitFinished(job.jobId());
+        assertEquals(ScheduleJobStatus.FAILED, failed.status());
+        assertEquals("Job aborted: StackOverflowError", failed.error());
+
+        // The pool replaced the dead worker
+        ScheduleJobResponse next = service.submit(ScheduleJobKind.GENERATE, "a@x", () -> "ok");
+        assertEquals(ScheduleJobStatus.SUCCEEDED, awaitFinished(next.jobId()).status());
+    }
+
+    private ScheduleJobResponse awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        ScheduleJobResponse job = service.get(jobId);
+        while (!job.status().finished() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            job = service.get(jobId);
+        }
+        return job;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package graduation.project.schedule.service;
+
+import graduation.project.USER.events.AcademicRecordChangedEvent;
+import graduation.project.USER.events.CourseChangedEvent;
+import graduation.project.schedule.config.ScheduleGenerationProperties;
+import graduation.project.schedule.domain.catalog.OfferingCatalog;
+import graduation.project.schedule.domain.enums.DifficultyTarget;
+import graduation.project.schedule.domain.enums.ScheduleDay;
+import graduation.project.schedule.domain.enums.Semester;
+import graduation.project.schedule.domain.events.OfferingCatalogChangedEvent;
+import graduation.project.schedule.domain.student.AcademicRecord;
+import graduation.project.schedule.dto.GenerateScheduleRequest;
+import graduation.project.schedule.dto.TimeWindowDto;
+import graduation.project.schedule.dto.UnavailableBlockDto;
+import graduation.project.schedule.dto.UserGeneratedScheduleResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleResultCacheTest {
+
+    private static final OfferingCatalog FALL = OfferingCatalog.build(Semester.FALL, 7, List.of(), List.of());
+    private static final AcademicRecord RECORD = new AcademicRecord(1L, 3, 0, Set.of(), List.of(), 0, 0);
+
+    private static ScheduleResultCache cache(int maxEntries) {
+        return cache(true, maxEntries, Duration.ofSeconds(15));
+    }
+
+    private static ScheduleResultCache cache(boolean enabled, int maxEntries, Duration coalesceWait) {
+        return new ScheduleResultCache(new ScheduleGenerationProperties(
+                new ScheduleGenerationProperties.Beam(12, 2, false, 0, 8),
+                new ScheduleGenerationProperties.Optimal(1500, 2_000_000),
+                new ScheduleGenerationProperties.TopK(5, 2, 8),
+                new ScheduleGenerationProperties.ResultCache(enabled, maxEntries, Duration.ofMinutes(10), true, coalesceWait),
+                new ScheduleGenerationProperties.Batch(0, 200, 0),
+                new ScheduleGenerationProperties.Plan(12, 24, 1000, 200_000),
+                new ScheduleGenerationProperties.Deadline(0, 10000),
+                new ScheduleGenerationProperties.Jobs(2, 32, Duration.ofMinutes(15), 10000, Duration.ofMinutes(2))
+        ));
+    }
+
+    private static GenerateScheduleRequest request(List<Long> mustTake, List<String> tags, List<ScheduleDay> avoid,
+                                                   List<UnavailableBlockDto> blocks, Boolean explain) {
+        return new GenerateScheduleRequest(Semester.FALL, 2, 5, null, DifficultyTarget.BALANCED, mustTake, tags,
+                null, null, null, avoid, null, null, null, blocks, null, null, explain, null, null, null, null, null);
+    }
+
+    private static UnavailableBlockDto block(ScheduleDay day, int fromHour, String note) {
+        return new UnavailableBlockDto(day, LocalTime.of(fromHour, 0), LocalTime.of(fromHour + 2, 0), note);
+    }
+
+    @Test
+    void equivalentRequestsShareAKey() {
+        GenerateScheduleRequest a = request(List.of(5L, 3L), List.of("web", "ai"),
+                List.of(ScheduleDay.MONDAY, ScheduleDay.SUNDAY),
+                List.of(block(ScheduleDay.TUESDAY, 10, "gym"), block(ScheduleDay.SUNDAY, 8, null)), null);
+        GenerateScheduleRequest b = request(List.of(5L, 3L, 5L), List.of("ai", "web", "ai"),
+                List.of(ScheduleDay.SUNDAY, ScheduleDay.MONDAY),
+                List.of(block(ScheduleDay.SUNDAY, 8, "work"), block(ScheduleDay.TUESDAY, 10, null)), true);
+
+        assertEquals(ScheduleResultCache.key("u@x", RECORD, FALL, a), ScheduleResultCache.key("u@x", RECORD, FALL, b));
+        assertEquals(ScheduleResultCache.key("u@x", RECORD, FALL, request(null, null, null, null, null)),
+                ScheduleResultCache.key("u@x", RECORD, FALL, request(List.of(), List.of(), List.of(), List.of(), false)));
+
+        // Must-take order decides which course gets a contested slot
+        assertNotEquals(ScheduleResultCache.key("u@x", RECORD, FALL, request(List.of(3L, 5L), null, null, null, null)),
+                ScheduleResultCache.key("u@x", RECORD, FALL, request(List.of(5L, 3L), null, null, null, null)));
+
+        // Only untruncated responses are stored, and those do not depend on the deadline
+        GenerateScheduleRequest withDeadline = new GenerateScheduleRequest(Semester.FALL, 2, 5, null, DifficultyTarget.BALANCED,
+                null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, 250);
+        assertEquals(ScheduleResultCache.key("u@x", RECORD, FALL, request(null, null, null, null, null)),
+                ScheduleResultCache.key("u@x", RECORD, FALL, withDeadline));
+
+        // A new record version never hits an old entry
+        AcademicRecord reloaded = new AcademicRecord(1L, 4, 0, Set.of(), List.of(), 0, 0);
+        assertNotEquals(ScheduleResultCache.key("u@x", RECORD, FALL, a), ScheduleResultCache.key("u@x", reloaded, FALL, a));
+    }
+
+    @Test
+    void invalidTimeRangesAreNotCached() {
+        GenerateScheduleRequest badWindow = new GenerateScheduleRequest(Semester.FALL, 2, 5, null, DifficultyTarget.BALANCED,
+                null, null, null, null, null, null,
+                List.of(new TimeWindowDto(LocalTime.of(14, 0), LocalTime.of(9, 0))),
+                null, null, null, null, null, null, null, null, null, null, null);
+        assertNull(ScheduleResultCache.key("u@x", RECORD, FALL, badWindow));
+    }
+
+    @Test
+    void lruEvictionAndPreciseInvalidation() {
+        ScheduleResultCache cache = cache(2);
+        AtomicInteger computed = new AtomicInteger();
+
+        ScheduleResultCache.Key k1 = ScheduleResultCache.key("a@x", RECORD, FALL, request(List.of(1L), null, null, null, null));
+        ScheduleResultCache.Key k2 = ScheduleResultCache.key("b@x", RECORD, FALL, request(List.of(2L), null, null, null, null));
+        ScheduleResultCache.Key k3 = ScheduleResultCache.key("a@x", RECORD, FALL, request(List.of(3L), null, null, null, null));
+
+        cache.getOrCompute(k1, SearchDeadline.none(), () -> response(computed));
+        cache.getOrCompute(k2, SearchDeadline.none(), () -> response(computed));
+        cache.getOrCompute(k1, SearchDeadline.none(), () -> response(computed));          // hit, k2 is now least recently used
+        cache.getOrCompute(k3, SearchDeadline.none(), () -> response(computed));          // evicts k2
+        cache.getOrCompute(k2, SearchDeadline.none(), () -> response(computed));          // miss again, evicts k1
+        assertEquals(4, computed.get());
+        assertEquals(1, cache.stats().hits());
+        assertEquals(2, cache.stats().evictions());
+
+        cache.onAcademicRecordChanged(new AcademicRecordChangedEvent("a@x"));
+        assertEquals(1, cache.stats().size());
+        cache.getOrCompute(k2, SearchDeadline.none(), () -> response(computed));
+        assertEquals(4, computed.get());
+
+        cache.onCatalogChanged(new OfferingCatalogChangedEvent(Set.of(Semester.SPRING)));
+        assertEquals(1, cache.stats().size());
+        cache.onCatalogChanged(new OfferingCatalogChangedEvent(Set.of(Semester.FALL)));
+        assertEquals(0, cache.stats().size());
+
+        // A course edit touches every user and semester
+        cache.getOrCompute(k1, SearchDeadline.none(), () -> response(computed));
+        cache.getOrCompute(k2, SearchDeadline.none(), () -> response(computed));
+        cache.onCourseChanged(new CourseChangedEvent(1L));
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void truncatedResponsesAreNotStored() {
+        ScheduleResultCache cache = cache(10);
+        AtomicInteger computed = new AtomicInteger();
+        ScheduleResultCache.Key key = ScheduleResultCache.key("a@x", RECORD, FALL, request(List.of(1L), null, null, null, null));
+
+        cache.getOrCompute(key, SearchDeadline.none(), () -> response(computed, true));
+        cache.getOrCompute(key, SearchDeadline.none(), () -> response(computed, true));
+        assertEquals(2, computed.get());
+        assertEquals(0, cache.stats().size());
+
+        cache.getOrCompute(key, SearchDeadline.none(), () -> response(computed));
+        cache.getOrCompute(key, SearchDeadline.none(), () -> response(computed));
+        assertEquals(3, computed.get());
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    void concurrentIdenticalMissesShareOneGeneration() throws Exception {
+        for (boolean enabled : new boolean[]{true, false}) {
+            ScheduleResultCache cache = cache(enabled, 10, Duration.ofSeconds(15));
+            AtomicInteger computed = new AtomicInteger();
+            ScheduleResultCache.Key key = ScheduleResultCache.key("a@x", RECORD, FALL, request(List.of(1L), null, null, null, null));
+
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<UserGeneratedScheduleResponse> first = CompletableFuture.supplyAsync(() ->
+                    cache.getOrCompute(key, SearchDeadline.none(), () -> {
+                        started.countDown();
+                        await(release);
+                        return response(computed);
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            CompletableFuture<UserGeneratedScheduleResponse> second = new CompletableFuture<>();
+            Thread duplicate = new Thread(() -> second.complete(cache.getOrCompute(key, SearchDeadline.none(), () -> response(computed))));
+            duplicate.start();
+            while (duplicate.getState() != Thread.State.TIMED_WAITING) Thread.sleep(1);   // parked on the leader's future
+            release.countDown();
+
+            assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, computed.get());
+            assertEquals(1, cache.stats().coalesced());
+        }
+    }
+
+    @Test
+    void duplicatesStopWaitingAfterTheBoundAndFailuresAreShared() throws Exception {
+        ScheduleResultCache cache = cache(true, 10, Duration.ofMillis(50));
+        AtomicInteger computed = new AtomicInteger();
+        ScheduleResultCache.Key key = ScheduleResultCache.key("a@x", RECORD, FALL, request(List.of(1L), null, null, null, null));
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<UserGeneratedScheduleResponse> slow = CompletableFuture.supplyAsync(() ->
+                cache.getOrCompute(key, SearchDeadline.none(), () -> {
+                    started.countDown();
+                    await(release);
+                    throw new IllegalArgumentException("bad request");
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        cache.getOrCompute(key, SearchDeadline.none(), () -> response(computed));     // gives up after 50 ms and generates itself
+        assertEquals(1, computed.get());
+        assertEquals(1, cache.stats().coalesceTimeouts());
+        assertEquals(0, cache.stats().coalesced());
+
+        release.countDown();
+        Exception ex = assertThrows(Exception.class, () -> slow.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, ex.getCause());
+    }
+
+    @Test
+    void onlyEqualDeadlineBudgetsShareAGeneration() throws Exception {
+        ScheduleResultCache cache = cache(false, 10, Duration.ofSeconds(15));
+        AtomicInteger computed = new AtomicInteger();
+        ScheduleResultCache.Key key = ScheduleResultCache.key("a@x", RECORD, FALL, request(List.of(1L), null, null, null, null));
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<UserGeneratedScheduleResponse> leader = CompletableFuture.supplyAsync(() ->
+                cache.getOrCompute(key, SearchDeadline.afterMillis(10_000), () -> {
+                    started.countDown();
+                    await(release);
+                    return response(computed);
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        try {
+            // Unbounded and differently bounded requests do not join the leader: no wait at all
+            assertFalse(cache.getOrCompute(key, SearchDeadline.none(), () -> response(computed)).truncated());
+            cache.getOrCompute(key, SearchDeadline.afterMillis(300), () -> response(computed, true));
+            assertEquals(2, computed.get(), "the leader is still blocked, both generated on their own");
+            assertEquals(0, cache.stats().coalesced());
+
+            // The same budget joins
+            CompletableFuture<UserGeneratedScheduleResponse> joined = new CompletableFuture<>();
+            Thread duplicate = new Thread(() -> joined.complete(
+                    cache.getOrCompute(key, SearchDeadline.afterMillis(10_000), () -> response(computed))));
+            duplicate.start();
+            while (duplicate.getState() != Thread.State.TIMED_WAITING) Thread.sleep(1);   // parked on the leader's future
+            release.countDown();
+            assertSame(leader.get(5, TimeUnit.SECONDS), joined.get(5, TimeUnit.SECONDS));
+            assertEquals(3, computed.get());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void aDuplicateWaitsNoLongerThanItsRemainingDeadline() throws Exception {
+        ScheduleResultCache cache = cache(false, 10, Duration.ofSeconds(15));
+        AtomicInteger computed = new AtomicInteger();
+        ScheduleResultCache.Key key = ScheduleResultCache.key("a@x", RECORD, FALL, request(List.of(1L), null, null, null, null));
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<UserGeneratedScheduleResponse> leader = CompletableFuture.supplyAsync(() ->
+                cache.getOrCompute(key, SearchDeadline.afterMillis(100), () -> {
+                    started.countDown();
+                    await(release);
+                    return response(computed);
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        cache.getOrCompute(key, SearchDeadline.afterMillis(100), () -> response(computed, true));
+        long waitedMs = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(waitedMs < 5_000, "waited " + waitedMs + " ms, coalesceWait is 15 s");
+        assertEquals(1, computed.get());
+        assertEquals(1, cache.stats().coalesceTimeouts());
+
+        release.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static UserGeneratedScheduleResponse response(AtomicInteger computed) {
+        return response(computed, false);
+    }
+
+    private static UserGeneratedScheduleResponse response(AtomicInteger computed, boolean truncated) {
+        computed.incrementAndGet();
+        return new UserGeneratedScheduleResponse(Semester.FALL, 2, false, List.of(), List.of(), List.of(),
+                5, 0, 2, false, null, 0, true, null, truncated);
+    }
+}
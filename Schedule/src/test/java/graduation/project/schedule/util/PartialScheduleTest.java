@@ -0,0 +1,141 @@
+package graduation.project.schedule.util;
+
+import graduation.project.schedule.domain.enums.MeetingPattern;
+import graduation.project.schedule.domain.enums.ScheduleDay;
+import graduation.project.schedule.entity.TermCourseOfferingEntity;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rebuilding the per-day timeline from scratch (sort + scan) is the oracle for the incremental deltas.
+ */
+class PartialScheduleTest {
+
+    private static double oracleGapPenalty(List<TermCourseOfferingEntity> offerings) {
+        Map<ScheduleDay, List<TermCourseOfferingEntity>> byDay = new EnumMap<>(ScheduleDay.class);
+        for (TermCourseOfferingEntity o : offerings) {
+            for (ScheduleDay d : o.getPattern().days()) byDay.computeIfAbsent(d, k -> new ArrayList<>()).add(o);
+        }
+
+        long excess = 0;
+        for (List<TermCourseOfferingEntity> day : byDay.values()) {
+            day.sort(Comparator.comparing(TermCourseOfferingEntity::getStartTime));
+            for (int i = 0; i + 1 < day.size(); i++) {
+                long gap = Duration.between(day.get(i).getEndTime(), day.get(i + 1).getStartTime()).toMinutes();
+                if (gap > PartialSchedule.LONG_GAP_MIN) excess += gap - PartialSchedule.LONG_GAP_MIN;
+            }
+        }
+        return excess / 15.0;
+    }
+
+    private static Set<ScheduleDay> days(List<TermCourseOfferingEntity> offerings) {
+        Set<ScheduleDay> days = EnumSet.noneOf(ScheduleDay.class);
+        for (TermCourseOfferingEntity o : offerings) days.addAll(o.getPattern().days());
+        return days;
+    }
+
+    private static TermCourseOfferingEntity randomOffering(Random rnd) {
+        MeetingPattern p = MeetingPattern.values()[rnd.nextInt(MeetingPattern.values().length)];
+        LocalTime from = LocalTime.of(8, 0).plusMinutes(rnd.nextInt(10 * 60));
+        return TermCourseOfferingEntity.builder()
+                .pattern(p)
+                .startTime(from)
+                .endTime(from.plusMinutes(50 + rnd.nextInt(100)))
+                .build();
+    }
+
+    @Test
+    void deltasMatchRecomputation() {
+        Random rnd = new Random(11);
+
+        for (int run = 0; run < 500; run++) {
+            PartialSchedule schedule = new PartialSchedule();
+            List<TermCourseOfferingEntity> added = new ArrayList<>();
+
+            for (int i = 0; i < 8; i++) {
+                TermCourseOfferingEntity candidate = randomOffering(rnd);
+                List<TermCourseOfferingEntity> after = new ArrayList<>(added);
+                after.add(candidate);
+
+                assertEquals(oracleGapPenalty(after), schedule.gapPenaltyIfAdded(candidate), 1e-9);
+                Set<ScheduleDay> newDays = days(after);
+                newDays.removeAll(days(added));
+                assertEquals(newDays.size(), schedule.newDaysIfAdded(candidate));
+
+                schedule.add(candidate);
+                added.add(candidate);
+
+                assertEquals(oracleGapPenalty(added), schedule.gapPenalty(), 1e-9);
+                assertEquals(days(added).size(), schedule.dayCount());
+            }
+        }
+    }
+
+    @Test
+    void removeUndoesAdd() {
+        Random rnd = new Random(7);
+
+        for (int run = 0; run < 200; run++) {
+            PartialSchedule schedule = new PartialSchedule();
+            List<TermCourseOfferingEntity> added = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                TermCourseOfferingEntity o = randomOffering(rnd);
+                schedule.add(o);
+                added.add(o);
+            }
+
+            while (!added.isEmpty()) {
+                schedule.remove(added.remove(rnd.nextInt(added.size())));
+                assertEquals(oracleGapPenalty(added), schedule.gapPenalty(), 1e-9);
+                assertEquals(days(added).size(), schedule.dayCount());
+            }
+        }
+    }
+
+    @Test
+    void copyIsIndependent() {
+        Random rnd = new Random(5);
+        PartialSchedule schedule = new PartialSchedule();
+        List<TermCourseOfferingEntity> added = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            TermCourseOfferingEntity o = randomOffering(rnd);
+            schedule.add(o);
+            added.add(o);
+        }
+
+        PartialSchedule copy = schedule.copy();
+        List<TermCourseOfferingEntity> copied = new ArrayList<>(added);
+        for (int i = 0; i < 6; i++) {
+            TermCourseOfferingEntity o = randomOffering(rnd);
+            copy.add(o);
+            copied.add(o);
+        }
+
+        assertEquals(oracleGapPenalty(added), schedule.gapPenalty(), 1e-9);
+        assertEquals(days(added).size(), schedule.dayCount());
+        assertEquals(oracleGapPenalty(copied), copy.gapPenalty(), 1e-9);
+        assertEquals(days(copied).size(), copy.dayCount());
+    }
+
+    @Test
+    void shortGapsAreFree() {
+        PartialSchedule schedule = new PartialSchedule();
+        schedule.add(TermCourseOfferingEntity.builder().pattern(MeetingPattern.MON_WED)
+                .startTime(LocalTime.of(8, 0)).endTime(LocalTime.of(9, 30)).build());
+        schedule.add(TermCourseOfferingEntity.builder().pattern(MeetingPattern.MON_WED)
+                .startTime(LocalTime.of(11, 0)).endTime(LocalTime.of(12, 30)).build());
+
+        assertEquals(0.0, schedule.gapPenalty());
+
+        // 12:30 -> 15:00 is 150 minutes, 60 beyond the threshold on each of the two days
+        TermCourseOfferingEntity late = TermCourseOfferingEntity.builder().pattern(MeetingPattern.MON_WED)
+                .startTime(LocalTime.of(15, 0)).endTime(LocalTime.of(16, 0)).build();
+        assertEquals(2 * 60 / 15.0, schedule.gapPenaltyIfAdded(late), 1e-9);
+        assertEquals(0, schedule.newDaysIfAdded(late));
+    }
+}
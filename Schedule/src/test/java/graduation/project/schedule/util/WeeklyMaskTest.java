@@ -0,0 +1,91 @@
+package graduation.project.schedule.util;
+
+import graduation.project.schedule.domain.enums.MeetingPattern;
+import graduation.project.schedule.domain.enums.ScheduleDay;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The LocalTime overlap check is the reference oracle: the mask path must agree with it
+ * (directly when both masks are exact, after the fallback check otherwise).
+ */
+class WeeklyMaskTest {
+
+    private static boolean oracle(MeetingPattern pa, LocalTime aFrom, LocalTime aTo,
+                                  MeetingPattern pb, LocalTime bFrom, LocalTime bTo) {
+        for (ScheduleDay d1 : pa.days()) {
+            for (ScheduleDay d2 : pb.days()) {
+                if (d1 == d2 && TimeRanges.overlaps(aFrom, aTo, bFrom, bTo)) return true;
+            }
+        }
+        return false;
+    }
+
+    private static LocalTime randomTime(Random rnd, boolean aligned) {
+        int minute = 8 * 60 + rnd.nextInt(10 * 60);
+        if (aligned) minute -= minute % WeeklyMask.SLOT_MINUTES;
+        return LocalTime.of(minute / 60, minute % 60);
+    }
+
+    @Test
+    void agreesWithLocalTimeOracle() {
+        Random rnd = new Random(42);
+        MeetingPattern[] patterns = MeetingPattern.values();
+
+        for (int i = 0; i < 20_000; i++) {
+            boolean aligned = rnd.nextInt(4) != 0;
+            MeetingPattern pa = patterns[rnd.nextInt(patterns.length)];
+            MeetingPattern pb = patterns[rnd.nextInt(patterns.length)];
+            LocalTime aFrom = randomTime(rnd, aligned);
+            LocalTime aTo = aFrom.plusMinutes(1 + rnd.nextInt(150));
+            LocalTime bFrom = randomTime(rnd, aligned);
+            LocalTime bTo = bFrom.plusMinutes(1 + rnd.nextInt(150));
+
+            WeeklyMask a = WeeklyMask.of(pa.days(), aFrom, aTo);
+            WeeklyMask b = WeeklyMask.of(pb.days(), bFrom, bTo);
+            boolean expected = oracle(pa, aFrom, aTo, pb, bFrom, bTo);
+
+            // A zero AND must always be trustworthy
+            if (expected) assertTrue(a.intersects(b), "missed overlap " + aFrom + "-" + aTo + " / " + bFrom + "-" + bTo);
+
+            // Exact masks must answer on their own
+            if (a.isExact() && b.isExact()) assertEquals(expected, a.intersects(b));
+        }
+    }
+
+    @Test
+    void dayRangeMatchesMaskIntersection() {
+        Random rnd = new Random(7);
+        for (int i = 0; i < 5_000; i++) {
+            MeetingPattern p = MeetingPattern.values()[rnd.nextInt(MeetingPattern.values().length)];
+            LocalTime from = randomTime(rnd, rnd.nextBoolean());
+            WeeklyMask m = WeeklyMask.of(p.days(), from, from.plusMinutes(1 + rnd.nextInt(150)));
+
+            ScheduleDay day = ScheduleDay.values()[rnd.nextInt(ScheduleDay.values().length)];
+            LocalTime bFrom = randomTime(rnd, rnd.nextBoolean());
+            LocalTime bTo = bFrom.plusMinutes(1 + rnd.nextInt(150));
+
+            assertEquals(m.intersects(WeeklyMask.of(List.of(day), bFrom, bTo)), m.intersects(day, bFrom, bTo));
+        }
+    }
+
+    @Test
+    void backToBackSectionsDoNotConflict() {
+        List<ScheduleDay> days = MeetingPattern.SUN_TUE_THU.days();
+        WeeklyMask first = WeeklyMask.of(days, LocalTime.of(8, 0), LocalTime.of(9, 0));
+        WeeklyMask second = WeeklyMask.of(days, LocalTime.of(9, 0), LocalTime.of(10, 0));
+        WeeklyMask overlapping = WeeklyMask.of(days, LocalTime.of(8, 55), LocalTime.of(9, 30));
+        WeeklyMask otherDays = WeeklyMask.of(MeetingPattern.MON_WED.days(), LocalTime.of(8, 0), LocalTime.of(9, 0));
+
+        assertFalse(first.intersects(second));
+        assertTrue(first.intersects(overlapping));
+        assertFalse(first.intersects(otherDays));
+        assertFalse(first.or(otherDays).isEmpty());
+        assertTrue(WeeklyMask.EMPTY.isEmpty());
+    }
+}
@@ -0,0 +1,35 @@
+package graduation.project.schedule.benchmark;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar: the regular JMH command line, with the gc profiler always on
+ * (gc.alloc.rate / gc.alloc.rate.norm next to ops/s).
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp() || cli.shouldList() || cli.shouldListWithParams() || cli.shouldListProfilers()
+                || cli.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+
+        boolean gcRequested = cli.getProfilers().stream().anyMatch(p -> p.getKlass().equals("gc"));
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(cli);
+        if (!gcRequested) builder.addProfiler(GCProfiler.class);
+
+        Options options = builder.build();
+        new Runner(options).run();
+    }
+}
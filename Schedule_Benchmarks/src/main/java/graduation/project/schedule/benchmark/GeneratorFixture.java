@@ -0,0 +1,91 @@
+package graduation.project.schedule.benchmark;
+
+import graduation.project.schedule.benchmark.StudentProfile.GenerationPath;
+import graduation.project.schedule.config.ScheduleGenerationProperties;
+import graduation.project.schedule.domain.enums.Semester;
+import graduation.project.schedule.dto.GeneratedScheduleResponse;
+import graduation.project.schedule.repo.UserProfileReadRepository;
+import graduation.project.schedule.service.AcademicRecordService;
+import graduation.project.schedule.service.OfferingCatalogService;
+import graduation.project.schedule.service.ScheduleGenerationMetrics;
+import graduation.project.schedule.service.ScheduleGeneratorService;
+import graduation.project.schedule.service.ScheduleResultCache;
+import graduation.project.schedule.util.CurrentUserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The real generator wired by hand (no Spring context, no database) over one synthetic semester.
+ * The catalog snapshot and every academic record are loaded up front, so a measured call is what a warm
+ * server does per request: resolve the (cached) record, generate.
+ */
+final class GeneratorFixture implements AutoCloseable {
+
+    private static final Semester SEMESTER = Semester.FALL;
+
+    private final List<StudentProfile> profiles;
+    private final ScheduleGeneratorService generator;
+    private final ForkJoinPool searchPool = new ForkJoinPool();
+
+    // The "authenticated" student of the current call (fixtures are per benchmark thread)
+    private String currentEmail;
+
+    GeneratorFixture(int offeringCount, int sectionsPerCourse, int profileCount, long seed) {
+        SyntheticCatalog catalog = SyntheticCatalog.generate(SEMESTER, offeringCount, sectionsPerCourse, seed);
+        this.profiles = StudentProfile.generate(catalog, profileCount, seed + 1);
+
+        ScheduleGenerationProperties properties = defaultProperties();
+        UserProfileReadRepository userProfiles = InMemoryRepositories.userProfiles(profiles);
+        CurrentUserService currentUser = new CurrentUserService(userProfiles) {
+            @Override
+            public String currentUserEmailOrThrow() {
+                return currentEmail;
+            }
+        };
+
+        AcademicRecordService records = new AcademicRecordService(currentUser, userProfiles);
+        OfferingCatalogService catalogs = new OfferingCatalogService(
+                InMemoryRepositories.offerings(catalog),
+                InMemoryRepositories.templates(catalog),
+                InMemoryRepositories.noTransactions()
+        );
+
+        this.generator = new ScheduleGeneratorService(records, catalogs, properties, searchPool, currentUser,
+                new ScheduleResultCache(properties), new ScheduleGenerationMetrics(new SimpleMeterRegistry()));
+
+        catalogs.snapshot(SEMESTER);
+        for (StudentProfile p : profiles) records.forEmail(p.email());
+    }
+
+    /**
+     * Generates the n-th profile's schedule (round robin over all profiles).
+     */
+    GeneratedScheduleResponse generate(GenerationPath path, int n) {
+        StudentProfile p = profiles.get(Math.floorMod(n, profiles.size()));
+        currentEmail = p.email();
+        return generator.generate(p.request(path));
+    }
+
+    @Override
+    public void close() {
+        searchPool.shutdown();
+    }
+
+    // Same values as the @DefaultValue annotations of ScheduleGenerationProperties, except the deadline: disabled on
+    // purpose (default 400 ms) so searches always run to completion and the numbers do not depend on timing
+    private static ScheduleGenerationProperties defaultProperties() {
+        return new ScheduleGenerationProperties(
+                new ScheduleGenerationProperties.Beam(12, 2, false, 0, 8),
+                new ScheduleGenerationProperties.Optimal(1500, 2_000_000),
+                new ScheduleGenerationProperties.TopK(5, 2, 8),
+                new ScheduleGenerationProperties.ResultCache(true, 5000, Duration.ofMinutes(10), true, Duration.ofSeconds(15)),
+                new ScheduleGenerationProperties.Batch(0, 200, 0),
+                new ScheduleGenerationProperties.Plan(12, 24, 1000, 200_000),
+                new ScheduleGenerationProperties.Deadline(0, 10000),
+                new ScheduleGenerationProperties.Jobs(2, 32, Duration.ofMinutes(15), 10000, Duration.ofMinutes(2))
+        );
+    }
+}
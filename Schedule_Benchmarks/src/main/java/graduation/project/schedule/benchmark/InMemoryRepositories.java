@@ -0,0 +1,127 @@
+package graduation.project.schedule.benchmark;
+
+import graduation.project.model.course.CourseEntity;
+import graduation.project.schedule.repo.PreferredScheduleTemplateRepository;
+import graduation.project.schedule.repo.TermCourseOfferingRepository;
+import graduation.project.schedule.repo.UserProfileReadRepository;
+import graduation.project.schedule.repo.UserProfileReadRepository.AcademicRecordRow;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Repository stubs backed by the synthetic catalog/profiles: only the finders the generator path calls are
+ * implemented, anything else fails loudly so a new query on that path is noticed.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static TermCourseOfferingRepository offerings(SyntheticCatalog catalog) {
+        return stub(TermCourseOfferingRepository.class, Map.of(
+                "findBySemesterWithCourse", args -> args[0] == catalog.semester() ? catalog.offerings() : List.of()
+        ));
+    }
+
+    static PreferredScheduleTemplateRepository templates(SyntheticCatalog catalog) {
+        return stub(PreferredScheduleTemplateRepository.class, Map.of(
+                "findBySemesterWithItems", args -> args[0] == catalog.semester() ? catalog.templates() : List.of()
+        ));
+    }
+
+    static UserProfileReadRepository userProfiles(List<StudentProfile> profiles) {
+        Map<String, List<AcademicRecordRow>> rowsByEmail = new HashMap<>();
+        for (StudentProfile p : profiles) rowsByEmail.put(p.email(), rows(p));
+
+        return stub(UserProfileReadRepository.class, Map.of(
+                "findAcademicRecordRowsByEmail", args -> rowsByEmail.getOrDefault((String) args[0], List.of())
+        ));
+    }
+
+    /**
+     * The catalog loader only needs a read-only transaction boundary; nothing is persisted.
+     */
+    static PlatformTransactionManager noTransactions() {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        };
+    }
+
+    // Same shape as the projection query: one row per completed course, a single empty row if there is none
+    private static List<AcademicRecordRow> rows(StudentProfile p) {
+        List<AcademicRecordRow> rows = new ArrayList<>();
+        for (CourseEntity c : p.completed()) {
+            rows.add(new Row(p.userId(), p.completedHours(), c.getId(), c.getCourseCode(), c.getCategory(), c.getCreditHours()));
+        }
+        if (rows.isEmpty()) rows.add(new Row(p.userId(), p.completedHours(), null, null, null, null));
+        return rows;
+    }
+
+    private static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            Function<Object[], Object> impl = methods.get(method.getName());
+            if (impl != null) return impl.apply(args);
+
+            return switch (method.getName()) {
+                case "toString" -> "InMemory" + type.getSimpleName();
+                case "hashCode" -> System.identityHashCode(self);
+                case "equals" -> self == args[0];
+                default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName() + " is not stubbed");
+            };
+        });
+        return type.cast(proxy);
+    }
+
+    private record Row(Long userId, Integer completedHours, Long courseId, String courseCode, String category,
+                       Integer creditHours) implements AcademicRecordRow {
+        @Override
+        public Long getUserId() {
+            return userId;
+        }
+
+        @Override
+        public Integer getCompletedHours() {
+            return completedHours;
+        }
+
+        @Override
+        public Long getCourseId() {
+            return courseId;
+        }
+
+        @Override
+        public String getCourseCode() {
+            return courseCode;
+        }
+
+        @Override
+        public String getCategory() {
+            return category;
+        }
+
+        @Override
+        public Integer getCreditHours() {
+            return creditHours;
+        }
+    }
+}
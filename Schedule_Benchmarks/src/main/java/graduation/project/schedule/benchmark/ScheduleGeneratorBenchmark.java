@@ -0,0 +1,75 @@
+package graduation.project.schedule.benchmark;
+
+import graduation.project.schedule.benchmark.StudentProfile.GenerationPath;
+import graduation.project.schedule.dto.GeneratedScheduleResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One generation per operation, cycling through the student profiles so no single transcript/request
+ * dominates. Catalog size and section density are parameters; results are ops/s (see {@link BenchmarkMain}
+ * for the allocation rate).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Thread)
+public class ScheduleGeneratorBenchmark {
+
+    @Param({"50", "500", "5000"})
+    int offerings;
+
+    @Param({"2", "5"})
+    int sectionsPerCourse;
+
+    @Param({"64"})
+    int profiles;
+
+    private GeneratorFixture fixture;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new GeneratorFixture(offerings, sectionsPerCourse, profiles, 42L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public GeneratedScheduleResponse greedy() {
+        return fixture.generate(GenerationPath.GREEDY, next++);
+    }
+
+    @Benchmark
+    public GeneratedScheduleResponse beam() {
+        return fixture.generate(GenerationPath.BEAM, next++);
+    }
+
+    @Benchmark
+    public GeneratedScheduleResponse explain() {
+        return fixture.generate(GenerationPath.EXPLAIN, next++);
+    }
+
+    @Benchmark
+    public GeneratedScheduleResponse alternatives() {
+        return fixture.generate(GenerationPath.ALTERNATIVES, next++);
+    }
+}
@@ -0,0 +1,141 @@
+package graduation.project.schedule.benchmark;
+
+import graduation.project.model.course.CourseEntity;
+import graduation.project.schedule.domain.enums.CompactnessPreference;
+import graduation.project.schedule.domain.enums.DifficultyTarget;
+import graduation.project.schedule.domain.enums.ScheduleDay;
+import graduation.project.schedule.dto.GenerateScheduleRequest;
+import graduation.project.schedule.dto.TimeWindowDto;
+import graduation.project.schedule.dto.UnavailableBlockDto;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * One synthetic student: transcript (completed courses + training hours) and their request, prepared once per
+ * benchmarked path so the measured loop does not allocate requests.
+ */
+record StudentProfile(
+        long userId,
+        String email,
+        int completedHours,
+        List<CourseEntity> completed,
+        Map<GenerationPath, GenerateScheduleRequest> requests
+) {
+
+    /**
+     * What a benchmark drives through the generator.
+     * - GREEDY: slim request, no alternatives, no explain
+     * - BEAM: topK=3, which always runs the beam search the fallback uses (the fallback itself only runs when greedy
+     *   misses the semester minimum, which depends on the profile)
+     * - EXPLAIN: explain payload (skip reasons, alternative reasons, score breakdown)
+     * - ALTERNATIVES: three ranked alternative sections per selected course
+     */
+    enum GenerationPath { GREEDY, BEAM, EXPLAIN, ALTERNATIVES }
+
+    GenerateScheduleRequest request(GenerationPath path) {
+        return requests.get(path);
+    }
+
+    static List<StudentProfile> generate(SyntheticCatalog catalog, int count, long seed) {
+        Random rnd = new Random(seed);
+        List<StudentProfile> profiles = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            int yearLevel = 1 + rnd.nextInt(4);
+
+            // Mostly the earlier years, a few courses of the current one
+            List<CourseEntity> completed = new ArrayList<>();
+            for (CourseEntity c : catalog.courses()) {
+                boolean earlier = c.getRecommendedYear() < yearLevel;
+                if ((earlier && rnd.nextInt(10) < 8) || (!earlier && c.getRecommendedYear() == yearLevel && rnd.nextInt(10) == 0)) {
+                    completed.add(c);
+                }
+            }
+
+            GenerateScheduleRequest base = request(rnd, catalog, yearLevel, completed);
+            Map<GenerationPath, GenerateScheduleRequest> requests = new EnumMap<>(GenerationPath.class);
+            for (GenerationPath path : GenerationPath.values()) requests.put(path, variant(base, path));
+
+            profiles.add(new StudentProfile(i + 1, "student" + (i + 1) + "@bench.local", rnd.nextInt(120), completed, requests));
+        }
+        return profiles;
+    }
+
+    private static GenerateScheduleRequest request(Random rnd, SyntheticCatalog catalog, int yearLevel, List<CourseEntity> completed) {
+        List<Long> mustTake = new ArrayList<>();
+        for (int k = rnd.nextInt(3); k > 0; k--) {
+            CourseEntity c = catalog.courses().get(rnd.nextInt(catalog.courses().size()));
+            if (!completed.contains(c)) mustTake.add(c.getId());
+        }
+
+        List<UnavailableBlockDto> blocks = new ArrayList<>();
+        for (int k = rnd.nextInt(4); k > 0; k--) {
+            LocalTime from = LocalTime.of(8, 0).plusMinutes(30L * rnd.nextInt(16));
+            blocks.add(new UnavailableBlockDto(ScheduleDay.values()[rnd.nextInt(5)], from, from.plusHours(2), null));
+        }
+
+        List<String> tags = rnd.nextBoolean()
+                ? List.of(SyntheticCatalog.TAGS[rnd.nextInt(SyntheticCatalog.TAGS.length)])
+                : List.of();
+
+        return new GenerateScheduleRequest(
+                catalog.semester(),
+                yearLevel,
+                4 + rnd.nextInt(3),
+                rnd.nextBoolean() ? null : rnd.nextInt(3),
+                DifficultyTarget.values()[rnd.nextInt(DifficultyTarget.values().length)],
+                mustTake,
+                tags,
+                null,
+                null,
+                rnd.nextBoolean() ? List.of(ScheduleDay.SUNDAY) : null,
+                rnd.nextBoolean() ? List.of(ScheduleDay.THURSDAY) : null,
+                rnd.nextBoolean() ? List.of(new TimeWindowDto(LocalTime.of(9, 0), LocalTime.of(14, 0))) : null,
+                rnd.nextBoolean() ? LocalTime.of(8, 30) : null,
+                rnd.nextBoolean() ? LocalTime.of(16, 0) : null,
+                blocks,
+                CompactnessPreference.values()[rnd.nextInt(CompactnessPreference.values().length)],
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null
+        );
+    }
+
+    private static GenerateScheduleRequest variant(GenerateScheduleRequest r, GenerationPath path) {
+        boolean alternatives = path == GenerationPath.EXPLAIN || path == GenerationPath.ALTERNATIVES;
+        return new GenerateScheduleRequest(
+                r.nextSemester(),
+                r.nextYearLevel(),
+                r.desiredCourseCount(),
+                r.desiredElectiveCount(),
+                r.difficultyTarget(),
+                r.mustTakeCourseIds(),
+                r.preferredTags(),
+                r.pinMustTakesFirst(),
+                alternatives,
+                r.preferredDays(),
+                r.avoidDays(),
+                r.preferredTimeWindows(),
+                r.earliestStartTime(),
+                r.latestEndTime(),
+                r.unavailableBlocks(),
+                r.compactnessPreference(),
+                r.avoidLongGaps(),
+                path == GenerationPath.EXPLAIN,
+                r.generationMode(),
+                path == GenerationPath.BEAM ? 3 : 1,
+                r.lockedOfferingIds(),
+                path == GenerationPath.ALTERNATIVES ? 3 : r.alternativesPerCourse(),
+                r.deadlineMs()
+        );
+    }
+}
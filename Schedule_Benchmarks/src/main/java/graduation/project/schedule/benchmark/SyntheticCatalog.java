@@ -0,0 +1,113 @@
+package graduation.project.schedule.benchmark;
+
+import graduation.project.model.Items.Prerequisites;
+import graduation.project.model.course.CourseEntity;
+import graduation.project.schedule.domain.enums.MeetingPattern;
+import graduation.project.schedule.domain.enums.Semester;
+import graduation.project.schedule.entity.PreferredScheduleTemplateEntity;
+import graduation.project.schedule.entity.PreferredTemplateItemEntity;
+import graduation.project.schedule.entity.TermCourseOfferingEntity;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic semester: courses, their sections and one template per year level.
+ * - offeringCount sections in total, sectionsPerCourse on average (1 .. 2 * sectionsPerCourse - 1 per course)
+ * - Sections are Sun/Tue/Thu (60 min) or Mon/Wed (90 min) on the half hour between 08:00 and 17:00
+ * - A third of the courses are electives, a third of the later courses have one earlier prerequisite
+ */
+record SyntheticCatalog(
+        Semester semester,
+        List<CourseEntity> courses,
+        List<TermCourseOfferingEntity> offerings,
+        List<PreferredScheduleTemplateEntity> templates
+) {
+
+    static final String[] TAGS = {"ai", "web", "data", "security", "networks", "math", "systems", "mobile"};
+    private static final String[] DIFFICULTIES = {"Easy", "Medium", "Hard"};
+
+    static SyntheticCatalog generate(Semester semester, int offeringCount, int sectionsPerCourse, long seed) {
+        Random rnd = new Random(seed);
+        List<CourseEntity> courses = new ArrayList<>();
+        List<TermCourseOfferingEntity> offerings = new ArrayList<>(offeringCount);
+
+        long offeringId = 1;
+        for (long courseId = 1; offerings.size() < offeringCount; courseId++) {
+            CourseEntity c = course(rnd, courseId, courses);
+            courses.add(c);
+
+            int sections = Math.min(1 + rnd.nextInt(2 * sectionsPerCourse - 1), offeringCount - offerings.size());
+            for (int s = 0; s < sections; s++) {
+                MeetingPattern pattern = rnd.nextBoolean() ? MeetingPattern.SUN_TUE_THU : MeetingPattern.MON_WED;
+                LocalTime start = LocalTime.of(8, 0).plusMinutes(30L * rnd.nextInt(19));
+                offerings.add(TermCourseOfferingEntity.builder()
+                        .id(offeringId++)
+                        .semester(semester)
+                        .sectionCode(String.valueOf(s + 1))
+                        .course(c)
+                        .pattern(pattern)
+                        .startTime(start)
+                        .endTime(start.plusMinutes(pattern == MeetingPattern.MON_WED ? 90 : 60))
+                        .build());
+            }
+        }
+
+        return new SyntheticCatalog(semester, courses, offerings, templates(rnd, semester, courses));
+    }
+
+    private static CourseEntity course(Random rnd, long id, List<CourseEntity> earlier) {
+        int year = 1 + rnd.nextInt(4);
+        boolean elective = rnd.nextInt(3) == 0;
+
+        List<Prerequisites> prerequisites = new ArrayList<>();
+        if (!earlier.isEmpty() && year > 1 && rnd.nextInt(3) == 0) {
+            CourseEntity pre = earlier.get(rnd.nextInt(earlier.size()));
+            if (pre.getRecommendedYear() < year) {
+                Prerequisites p = new Prerequisites();
+                p.setCode(pre.getCourseCode());
+                p.setName(pre.getCourseName());
+                prerequisites.add(p);
+            }
+        }
+
+        return CourseEntity.builder()
+                .id(id)
+                .courseCode(String.valueOf(1900000 + id))
+                .courseName("Course " + id)
+                .category(elective ? "Major Elective" : "Major Compulsory")
+                .difficulty(DIFFICULTIES[rnd.nextInt(DIFFICULTIES.length)])
+                .tags(TAGS[rnd.nextInt(TAGS.length)] + ", " + TAGS[rnd.nextInt(TAGS.length)])
+                .creditHours(3)
+                .recommendedYear(year)
+                .recommendedSemester(1 + rnd.nextInt(2))
+                .prerequisites(prerequisites)
+                .build();
+    }
+
+    private static List<PreferredScheduleTemplateEntity> templates(Random rnd, Semester semester, List<CourseEntity> courses) {
+        List<PreferredScheduleTemplateEntity> templates = new ArrayList<>();
+        for (int year = 1; year <= 4; year++) {
+            PreferredScheduleTemplateEntity t = PreferredScheduleTemplateEntity.builder()
+                    .id((long) year)
+                    .semester(semester)
+                    .yearLevel(year)
+                    .title("Year " + year)
+                    .build();
+
+            List<PreferredTemplateItemEntity> items = new ArrayList<>();
+            for (CourseEntity c : courses) {
+                if (c.getRecommendedYear() != year || c.getCategory().contains("Elective")) continue;
+                if (items.size() == 6) break;
+                if (rnd.nextBoolean()) {
+                    items.add(PreferredTemplateItemEntity.builder().course(c).position(items.size()).build());
+                }
+            }
+            t.replaceItems(items);
+            templates.add(t);
+        }
+        return templates;
+    }
+}